@@ -0,0 +1,338 @@
+package io.merklex.canton.dcn;
+
+import com.daml.ledger.rxjava.DamlLedgerClient;
+import io.grpc.netty.NettyChannelBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool of ledger connections, each with its own gRPC channel and so its own
+ * HTTP/2 connection
+ *
+ * Commands are spread over the connections round-robin or to the connection
+ * with the fewest commands in flight. A connection that failed with an
+ * unavailable error is marked broken and rebuilt by the next caller selecting
+ * it; callers racing on the same connection reconnect it once.
+ *
+ * Keepalive pings keep idle connections open through proxies and detect dead
+ * peers. The flow control window is sized so a maximum sized message fits in
+ * one window.
+ */
+public class ChannelPool implements AutoCloseable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ChannelPool.class);
+    
+    private static final Duration KEEP_ALIVE_TIME = Duration.ofSeconds(30);
+    private static final Duration KEEP_ALIVE_TIMEOUT = Duration.ofSeconds(10);
+    
+    /**
+     * How a connection is chosen for a command
+     */
+    public enum Selection {
+        ROUND_ROBIN,
+        LEAST_LOADED
+    }
+    
+    private final String host;
+    private final int port;
+    private final String ledgerId;
+    private final int maxInboundMessageSize;
+    private final Duration connectionTimeout;
+    private final Selection selection;
+    private final List<Connection> connections;
+    private final AtomicInteger next = new AtomicInteger();
+    private volatile boolean closed;
+    
+    /**
+     * @param host The Canton ledger API host
+     * @param port The Canton ledger API port
+     * @param ledgerId The expected ledger ID
+     * @param size Number of connections
+     * @param selection How a connection is chosen for a command
+     * @param maxInboundMessageSize Largest message accepted, also sizes the flow control window
+     * @param connectionTimeout Time a connection may take to answer the ledger ID request
+     */
+    ChannelPool(String host, int port, String ledgerId, int size, Selection selection,
+                int maxInboundMessageSize, Duration connectionTimeout) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Pool size must be positive: " + size);
+        }
+        
+        this.host = host;
+        this.port = port;
+        this.ledgerId = ledgerId;
+        this.selection = selection;
+        this.maxInboundMessageSize = maxInboundMessageSize;
+        this.connectionTimeout = connectionTimeout;
+        
+        List<Connection> connections = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            connections.add(new Connection(i));
+        }
+        this.connections = Collections.unmodifiableList(connections);
+    }
+    
+    /**
+     * Open every connection and check the ledger ID
+     * @throws DCNClient.DCNException if a connection fails, opened ones are closed
+     */
+    void connect() throws DCNClient.DCNException {
+        try {
+            for (Connection connection : connections) {
+                connection.open();
+            }
+        } catch (DCNClient.DCNException e) {
+            close();
+            throw e;
+        }
+        logger.info("Opened {} connections to {}:{} ({})", connections.size(), host, port, selection);
+    }
+    
+    private DamlLedgerClient openClient() throws DCNClient.DCNException {
+        NettyChannelBuilder channelBuilder = NettyChannelBuilder
+            .forAddress(host, port)
+            .maxInboundMessageSize(maxInboundMessageSize)
+            .flowControlWindow(maxInboundMessageSize)
+            .keepAliveTime(KEEP_ALIVE_TIME.toMillis(), TimeUnit.MILLISECONDS)
+            .keepAliveTimeout(KEEP_ALIVE_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)
+            .keepAliveWithoutCalls(true)
+            .usePlaintext(); // Use TLS in production
+        
+        DamlLedgerClient client = DamlLedgerClient.newBuilder(channelBuilder)
+            .withLedgerId(ledgerId)
+            .build();
+        
+        try {
+            client.connect();
+            
+            // Test connection by getting ledger ID
+            String actualLedgerId = client.getLedgerClient()
+                .getLedgerId()
+                .timeout(connectionTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .blockingGet();
+            
+            if (!ledgerId.equals(actualLedgerId)) {
+                throw new DCNClient.DCNException(
+                    String.format("Ledger ID mismatch: expected %s, got %s",
+                                  ledgerId, actualLedgerId));
+            }
+            return client;
+            
+        } catch (DCNClient.DCNException e) {
+            closeQuietly(client);
+            throw e;
+        } catch (Exception e) {
+            closeQuietly(client);
+            throw new DCNClient.DCNException("Connection failed: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Choose a connection for a command, reconnecting it if it is broken
+     * @throws DCNClient.DCNException if the pool is closed or no connection can be opened
+     */
+    Connection select() throws DCNClient.DCNException {
+        int size = connections.size();
+        int start = selection == Selection.ROUND_ROBIN
+            ? Math.floorMod(next.getAndIncrement(), size)
+            : leastLoaded();
+        
+        DCNClient.DCNException failure = null;
+        for (int i = 0; i < size; i++) {
+            Connection connection = connections.get((start + i) % size);
+            try {
+                connection.ensureOpen();
+                return connection;
+            } catch (DCNClient.DCNException e) {
+                failure = e;
+            }
+        }
+        throw failure;
+    }
+    
+    private int leastLoaded() {
+        int best = 0;
+        int bestLoad = Integer.MAX_VALUE;
+        for (Connection connection : connections) {
+            int load = connection.broken ? Integer.MAX_VALUE - 1 : connection.inFlight.get();
+            if (load < bestLoad) {
+                best = connection.index;
+                bestLoad = load;
+            }
+        }
+        return best;
+    }
+    
+    /**
+     * Connection long-lived streams are read from
+     */
+    Connection primary() throws DCNClient.DCNException {
+        Connection connection = connections.get(0);
+        connection.ensureOpen();
+        return connection;
+    }
+    
+    /**
+     * @return Every connection of the pool, for gauges
+     */
+    public List<Connection> getConnections() {
+        return connections;
+    }
+    
+    public Selection getSelection() {
+        return selection;
+    }
+    
+    /**
+     * @return true unless closed, broken connections are reopened on use
+     */
+    public boolean isOpen() {
+        return !closed;
+    }
+    
+    @Override
+    public void close() {
+        closed = true;
+        for (Connection connection : connections) {
+            connection.close();
+        }
+    }
+    
+    private static void closeQuietly(DamlLedgerClient client) {
+        try {
+            client.close();
+        } catch (Exception e) {
+            logger.error("Error closing ledger client", e);
+        }
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (Connection connection : connections) {
+            sb.append(connection).append('\n');
+        }
+        return sb.toString();
+    }
+    
+    /**
+     * One ledger connection with its gauges
+     */
+    public class Connection {
+        private final int index;
+        private volatile DamlLedgerClient client;
+        private volatile boolean broken;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final LongAdder completed = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder reconnects = new LongAdder();
+        private final LongAdder totalMicros = new LongAdder();
+        private final AtomicLong maxMicros = new AtomicLong();
+        
+        private Connection(int index) {
+            this.index = index;
+        }
+        
+        private synchronized void open() throws DCNClient.DCNException {
+            if (closed) {
+                throw new DCNClient.DCNException("Channel pool closed");
+            }
+            
+            DamlLedgerClient previous = client;
+            client = openClient();
+            broken = false;
+            if (previous != null) {
+                reconnects.increment();
+                closeQuietly(previous);
+                logger.info("Reconnected channel {} to {}:{}", index, host, port);
+            }
+        }
+        
+        private void ensureOpen() throws DCNClient.DCNException {
+            if (client == null || broken) {
+                synchronized (this) {
+                    // another caller may have reconnected while this one waited
+                    if (client == null || broken) {
+                        open();
+                    }
+                }
+            }
+        }
+        
+        private synchronized void close() {
+            if (client != null) {
+                closeQuietly(client);
+                client = null;
+            }
+        }
+        
+        /**
+         * @return Ledger client of this connection
+         */
+        public DamlLedgerClient client() {
+            return client;
+        }
+        
+        /**
+         * Record a command submitted on this connection
+         * @return Start time to pass to {@link #finished}
+         */
+        long started() {
+            inFlight.incrementAndGet();
+            return System.nanoTime();
+        }
+        
+        /**
+         * Record the outcome of a command
+         * @param startNanos Value returned by {@link #started}
+         * @param success Whether the command succeeded
+         */
+        void finished(long startNanos, boolean success) {
+            inFlight.decrementAndGet();
+            long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+            totalMicros.add(micros);
+            maxMicros.accumulateAndGet(micros, Math::max);
+            (success ? completed : failed).increment();
+        }
+        
+        /**
+         * Mark the connection for reconnection by the next caller selecting it
+         */
+        void markBroken() {
+            if (!broken) {
+                broken = true;
+                logger.warn("Channel {} to {}:{} marked broken", index, host, port);
+            }
+        }
+        
+        public int getIndex() { return index; }
+        public boolean isBroken() { return broken; }
+        public int getInFlight() { return inFlight.get(); }
+        public long getCompleted() { return completed.sum(); }
+        public long getFailed() { return failed.sum(); }
+        public long getReconnects() { return reconnects.sum(); }
+        public long getMaxMicros() { return maxMicros.get(); }
+        
+        public long getMeanMicros() {
+            long count = getCompleted() + getFailed();
+            return count == 0 ? 0 : totalMicros.sum() / count;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("channel %d: in flight=%d completed=%d failed=%d reconnects=%d " +
+                                 "mean=%dus max=%dus%s",
+                                 index, getInFlight(), getCompleted(), getFailed(), getReconnects(),
+                                 getMeanMicros(), getMaxMicros(), broken ? " (broken)" : "");
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package io.merklex.canton.dcn;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency and outcome counters for ledger commands, grouped by command kind
+ * (RegisterUser, CreateSettlement, ...).
+ *
+ * Latencies are recorded into power-of-two microsecond buckets so recording
+ * is lock free and percentiles can be read while commands are in flight.
+ */
+public class CommandMetrics {
+    
+    private static final int BUCKETS = 40;
+    
+    private final Map<String, Stats> byKind = new ConcurrentHashMap<>();
+    private final AtomicLong inFlight = new AtomicLong();
+    
+    /**
+     * Stats for one command kind
+     */
+    public static class Stats {
+        private final LongAdder submitted = new LongAdder();
+        private final LongAdder succeeded = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder totalMicros = new LongAdder();
+        private final AtomicLong maxMicros = new AtomicLong();
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        
+        void record(long micros) {
+            totalMicros.add(micros);
+            maxMicros.accumulateAndGet(micros, Math::max);
+            
+            int bucket = 64 - Long.numberOfLeadingZeros(Math.max(micros, 1));
+            buckets.incrementAndGet(Math.min(bucket, BUCKETS - 1));
+        }
+        
+        public long getSubmitted() { return submitted.sum(); }
+        public long getSucceeded() { return succeeded.sum(); }
+        public long getFailed() { return failed.sum(); }
+        public long getRetries() { return retries.sum(); }
+        public long getMaxMicros() { return maxMicros.get(); }
+        
+        public long getMeanMicros() {
+            long completed = getSucceeded() + getFailed();
+            return completed == 0 ? 0 : totalMicros.sum() / completed;
+        }
+        
+        /**
+         * Upper bound of the bucket holding the given percentile
+         * @param percentile Value between 0 and 100
+         * @return Latency in microseconds, 0 if nothing was recorded
+         */
+        public long percentileMicros(double percentile) {
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                total += buckets.get(i);
+            }
+            if (total == 0) {
+                return 0;
+            }
+            
+            long rank = (long) Math.ceil(total * percentile / 100.0);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += buckets.get(i);
+                if (seen >= Math.max(rank, 1)) {
+                    return 1L << i;
+                }
+            }
+            return getMaxMicros();
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("submitted=%d succeeded=%d failed=%d retries=%d " +
+                                 "mean=%dus p50<=%dus p99<=%dus max=%dus",
+                                 getSubmitted(), getSucceeded(), getFailed(), getRetries(),
+                                 getMeanMicros(), percentileMicros(50), percentileMicros(99),
+                                 getMaxMicros());
+        }
+    }
+    
+    Stats stats(String kind) {
+        return byKind.computeIfAbsent(kind, k -> new Stats());
+    }
+    
+    void submitted(String kind) {
+        stats(kind).submitted.increment();
+        inFlight.incrementAndGet();
+    }
+    
+    void retried(String kind) {
+        stats(kind).retries.increment();
+    }
+    
+    void completed(String kind, long startNanos, boolean success) {
+        Stats stats = stats(kind);
+        stats.record((System.nanoTime() - startNanos) / 1000);
+        if (success) {
+            stats.succeeded.increment();
+        } else {
+            stats.failed.increment();
+        }
+        inFlight.decrementAndGet();
+    }
+    
+    /**
+     * @return Number of commands submitted but not yet completed
+     */
+    public long getInFlight() {
+        return inFlight.get();
+    }
+    
+    /**
+     * @return Stats per command kind, sorted by kind
+     */
+    public Map<String, Stats> snapshot() {
+        return new TreeMap<>(byKind);
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<String, Stats> entry : snapshot().entrySet()) {
+            builder.append(entry.getKey()).append(": ").append(entry.getValue()).append('\n');
+        }
+        return builder.toString();
+    }
+}
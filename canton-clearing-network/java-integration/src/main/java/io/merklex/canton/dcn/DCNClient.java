@@ -1,9 +1,8 @@
 package io.merklex.canton.dcn;
 
 import com.daml.ledger.javaapi.data.*;
-import com.daml.ledger.rxjava.DamlLedgerClient;
-import io.grpc.ManagedChannel;
-import io.grpc.ManagedChannelBuilder;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -11,7 +10,14 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * DCN Client for interacting with Canton Network
@@ -19,6 +25,15 @@ import java.util.concurrent.TimeUnit;
  * 
  * Phase 3 Enhancement: Full implementation with connection management,
  * error handling, and retry logic.
+ * 
+ * Every registerX/createSettlement call has an Async variant returning a
+ * CompletableFuture. At most maxInFlight commands are outstanding at once,
+ * further submissions block until a slot frees up. Command IDs are derived
+ * from the entity ID only, so a retried command is deduplicated by the ledger
+ * instead of being applied twice.
+ *
+ * Commands are spread over a {@link ChannelPool} of ledger connections, one by
+ * default. Streams (projection, active contract reads) use the first connection.
  */
 public class DCNClient implements AutoCloseable {
     
@@ -28,14 +43,26 @@ public class DCNClient implements AutoCloseable {
     private final int ledgerPort;
     private final String ledgerId;
     private final Party operator;
-    private DamlLedgerClient ledgerClient;
-    private ManagedChannel channel;
-    private boolean connected = false;
+    private final int channelCount;
+    private final ChannelPool.Selection channelSelection;
+    private volatile ChannelPool pool;
+    private volatile boolean connected = false;
     
     // Connection configuration
     private final int maxInboundMessageSize = 10 * 1024 * 1024; // 10MB
     private final Duration connectionTimeout = Duration.ofSeconds(30);
     private final int maxRetries = 3;
+    private final Duration commandTimeout = Duration.ofSeconds(30);
+    private final Duration initialBackoff = Duration.ofMillis(200);
+    private final Duration maxBackoff = Duration.ofSeconds(10);
+    
+    // Async submission
+    public static final int DEFAULT_MAX_IN_FLIGHT = 64;
+    private final int maxInFlight;
+    private final Semaphore inFlightWindow;
+    private final ScheduledExecutorService retryScheduler;
+    private final CommandMetrics metrics = new CommandMetrics();
+    private final NonceAllocator nonces = new NonceAllocator();
     
     /**
      * Constructor for DCN Client
@@ -45,13 +72,58 @@ public class DCNClient implements AutoCloseable {
      * @param operatorParty The operator party identifier
      */
     public DCNClient(String ledgerHost, int ledgerPort, String ledgerId, String operatorParty) {
+        this(ledgerHost, ledgerPort, ledgerId, operatorParty, DEFAULT_MAX_IN_FLIGHT);
+    }
+    
+    /**
+     * Constructor for DCN Client
+     * @param ledgerHost The Canton ledger API host
+     * @param ledgerPort The Canton ledger API port
+     * @param ledgerId The ledger ID
+     * @param operatorParty The operator party identifier
+     * @param maxInFlight Maximum number of commands awaiting completion
+     */
+    public DCNClient(String ledgerHost, int ledgerPort, String ledgerId, String operatorParty,
+                     int maxInFlight) {
+        this(ledgerHost, ledgerPort, ledgerId, operatorParty, maxInFlight, 
+             1, ChannelPool.Selection.ROUND_ROBIN);
+    }
+    
+    /**
+     * Constructor for DCN Client
+     * @param ledgerHost The Canton ledger API host
+     * @param ledgerPort The Canton ledger API port
+     * @param ledgerId The ledger ID
+     * @param operatorParty The operator party identifier
+     * @param maxInFlight Maximum number of commands awaiting completion
+     * @param channelCount Number of pooled ledger connections
+     * @param channelSelection How a connection is chosen for a command
+     */
+    public DCNClient(String ledgerHost, int ledgerPort, String ledgerId, String operatorParty,
+                     int maxInFlight, int channelCount, ChannelPool.Selection channelSelection) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("maxInFlight must be positive: " + maxInFlight);
+        }
+        if (channelCount <= 0) {
+            throw new IllegalArgumentException("channelCount must be positive: " + channelCount);
+        }
+        
         this.ledgerHost = ledgerHost;
         this.ledgerPort = ledgerPort;
         this.ledgerId = ledgerId;
         this.operator = new Party(operatorParty);
+        this.maxInFlight = maxInFlight;
+        this.channelCount = channelCount;
+        this.channelSelection = channelSelection;
+        this.inFlightWindow = new Semaphore(maxInFlight);
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "dcn-command-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
         
-        logger.info("DCN Client initialized for {}:{} with operator {}", 
-                    ledgerHost, ledgerPort, operatorParty);
+        logger.info("DCN Client initialized for {}:{} with operator {} ({} commands in flight, {} channels)", 
+                    ledgerHost, ledgerPort, operatorParty, maxInFlight, channelCount);
     }
     
     /**
@@ -59,47 +131,28 @@ public class DCNClient implements AutoCloseable {
      * @return true if connection successful
      * @throws DCNException if connection fails
      */
-    public boolean connect() throws DCNException {
+    public synchronized boolean connect() throws DCNException {
         if (connected) {
             logger.warn("Already connected to Canton network");
             return true;
         }
         
+        logger.info("Connecting to Canton ledger at {}:{}", ledgerHost, ledgerPort);
+        
+        ChannelPool channels = new ChannelPool(
+            ledgerHost, ledgerPort, ledgerId, channelCount, channelSelection,
+            maxInboundMessageSize, connectionTimeout);
         try {
-            logger.info("Connecting to Canton ledger at {}:{}", ledgerHost, ledgerPort);
-            
-            // Create gRPC channel
-            channel = ManagedChannelBuilder
-                .forAddress(ledgerHost, ledgerPort)
-                .maxInboundMessageSize(maxInboundMessageSize)
-                .usePlaintext() // Use TLS in production
-                .build();
-            
-            // Create Daml ledger client
-            ledgerClient = DamlLedgerClient.newBuilder(ledgerHost, ledgerPort)
-                .withLedgerId(ledgerId)
-                .build();
-            
-            // Test connection by getting ledger ID
-            String actualLedgerId = ledgerClient.getLedgerClient()
-                .getLedgerId()
-                .timeout(connectionTimeout.toMillis(), TimeUnit.MILLISECONDS)
-                .blockingGet();
-            
-            if (!ledgerId.equals(actualLedgerId)) {
-                throw new DCNException(
-                    String.format("Ledger ID mismatch: expected %s, got %s", 
-                                  ledgerId, actualLedgerId));
-            }
-            
-            connected = true;
-            logger.info("Successfully connected to Canton ledger: {}", ledgerId);
-            return true;
-            
-        } catch (Exception e) {
+            channels.connect();
+        } catch (DCNException e) {
             logger.error("Failed to connect to Canton network", e);
-            throw new DCNException("Connection failed: " + e.getMessage(), e);
+            throw e;
         }
+        
+        pool = channels;
+        connected = true;
+        logger.info("Successfully connected to Canton ledger: {}", ledgerId);
+        return true;
     }
     
     /**
@@ -107,7 +160,8 @@ public class DCNClient implements AutoCloseable {
      * @return true if connected
      */
     public boolean isConnected() {
-        return connected && ledgerClient != null && !channel.isShutdown();
+        ChannelPool channels = pool;
+        return connected && channels != null && channels.isOpen();
     }
     
     /**
@@ -131,35 +185,8 @@ public class DCNClient implements AutoCloseable {
      */
     public String registerUser(long userId, String ownerParty, String metadata) 
             throws DCNException {
-        ensureConnected();
-        
         try {
-            logger.info("Registering user {} with owner {}", userId, ownerParty);
-            
-            // Build command to create UserAccount
-            Party owner = new Party(ownerParty);
-            
-            Map<String, Value> arguments = new HashMap<>();
-            arguments.put("operator", operator.asValue());
-            arguments.put("userId", new Int64(userId).asValue());
-            arguments.put("owner", owner.asValue());
-            arguments.put("isActive", Bool.of(true).asValue());
-            arguments.put("metadata", new Text(metadata).asValue());
-            
-            Record createArgs = new Record(arguments);
-            DamlRecord damlRecord = DamlRecord.of(createArgs);
-            
-            CreateCommand createCommand = new CreateCommand(
-                new Identifier("User", "UserAccount"),
-                damlRecord
-            );
-            
-            // Submit command with retry logic
-            String contractId = submitCommandWithRetry(
-                operator.getValue(),
-                Collections.singletonList(createCommand),
-                "RegisterUser-" + userId
-            );
+            String contractId = await(registerUserAsync(userId, ownerParty, metadata));
             
             logger.info("Successfully registered user {} with contract ID {}", 
                         userId, contractId);
@@ -171,6 +198,77 @@ public class DCNClient implements AutoCloseable {
         }
     }
     
+    /**
+     * Register a new user account without waiting for the ledger
+     * @param userId The unique user ID
+     * @param ownerParty The party owning the account
+     * @param metadata Additional metadata
+     * @return Future completed with the ContractId of the created UserAccount
+     * @throws DCNException if not connected or interrupted waiting for an in-flight slot
+     */
+    public CompletableFuture<String> registerUserAsync(long userId, String ownerParty, 
+                                                       String metadata) 
+            throws DCNException {
+        ensureConnected();
+        
+        logger.debug("Registering user {} with owner {}", userId, ownerParty);
+        
+        return submitAsync(
+            "RegisterUser",
+            "RegisterUser-" + userId,
+            operator.getValue(),
+            Collections.singletonList(userAccountCommand(userId, ownerParty, metadata))
+        );
+    }
+    
+    /**
+     * Build the command creating a UserAccount
+     */
+    public Command userAccountCommand(long userId, String ownerParty, String metadata) {
+        Party owner = new Party(ownerParty);
+        
+        Map<String, Value> arguments = new HashMap<>();
+        arguments.put("operator", operator.asValue());
+        arguments.put("userId", new Int64(userId).asValue());
+        arguments.put("owner", owner.asValue());
+        arguments.put("isActive", Bool.of(true).asValue());
+        arguments.put("metadata", new Text(metadata).asValue());
+        
+        Record createArgs = new Record(arguments);
+        DamlRecord damlRecord = DamlRecord.of(createArgs);
+        
+        return new CreateCommand(
+            new Identifier("User", "UserAccount"),
+            damlRecord
+        );
+    }
+    
+    /**
+     * Build the command creating a UserBalance
+     */
+    public Command userBalanceCommand(long userId, String ownerParty, int assetId,
+                                      java.math.BigDecimal balance, 
+                                      java.math.BigDecimal lockedBalance) {
+        Party owner = new Party(ownerParty);
+        
+        Map<String, Value> arguments = new HashMap<>();
+        arguments.put("operator", operator.asValue());
+        arguments.put("userId", new Int64(userId).asValue());
+        arguments.put("owner", owner.asValue());
+        arguments.put("assetId", new Int64(assetId).asValue());
+        arguments.put("balance", new Numeric(balance.toPlainString()).asValue());
+        arguments.put("lockedBalance", new Numeric(lockedBalance.toPlainString()).asValue());
+        arguments.put("minBalance", new Numeric("0.0").asValue());
+        
+        Record createArgs = new Record(arguments);
+        DamlRecord damlRecord = DamlRecord.of(createArgs);
+        
+        return new CreateCommand(
+            new Identifier("User", "UserBalance"),
+            damlRecord
+        );
+    }
+    
     /**
      * Register a new exchange
      * @param exchangeId The unique exchange ID
@@ -183,35 +281,9 @@ public class DCNClient implements AutoCloseable {
     public String registerExchange(int exchangeId, String exchangeParty, 
                                     String name, String metadata) 
             throws DCNException {
-        ensureConnected();
-        
         try {
-            logger.info("Registering exchange {} ({})", name, exchangeId);
-            
-            Party exchange = new Party(exchangeParty);
-            
-            Map<String, Value> arguments = new HashMap<>();
-            arguments.put("operator", operator.asValue());
-            arguments.put("exchangeId", new Int64(exchangeId).asValue());
-            arguments.put("exchangeParty", exchange.asValue());
-            arguments.put("name", new Text(name).asValue());
-            arguments.put("isActive", Bool.of(true).asValue());
-            arguments.put("settlementFee", new Numeric("0.001").asValue());
-            arguments.put("metadata", new Text(metadata).asValue());
-            
-            Record createArgs = new Record(arguments);
-            DamlRecord damlRecord = DamlRecord.of(createArgs);
-            
-            CreateCommand createCommand = new CreateCommand(
-                new Identifier("Exchange", "RegisteredExchange"),
-                damlRecord
-            );
-            
-            String contractId = submitCommandWithRetry(
-                operator.getValue(),
-                Collections.singletonList(createCommand),
-                "RegisterExchange-" + exchangeId
-            );
+            String contractId = await(
+                registerExchangeAsync(exchangeId, exchangeParty, name, metadata));
             
             logger.info("Successfully registered exchange {} with contract ID {}", 
                         name, contractId);
@@ -223,6 +295,56 @@ public class DCNClient implements AutoCloseable {
         }
     }
     
+    /**
+     * Register a new exchange without waiting for the ledger
+     * @param exchangeId The unique exchange ID
+     * @param exchangeParty The party representing the exchange
+     * @param name The exchange name
+     * @param metadata Additional metadata
+     * @return Future completed with the ContractId of the created RegisteredExchange
+     * @throws DCNException if not connected or interrupted waiting for an in-flight slot
+     */
+    public CompletableFuture<String> registerExchangeAsync(int exchangeId, String exchangeParty, 
+                                                           String name, String metadata) 
+            throws DCNException {
+        ensureConnected();
+        
+        logger.debug("Registering exchange {} ({})", name, exchangeId);
+        
+        return submitAsync(
+            "RegisterExchange",
+            "RegisterExchange-" + exchangeId,
+            operator.getValue(),
+            Collections.singletonList(
+                registeredExchangeCommand(exchangeId, exchangeParty, name, metadata))
+        );
+    }
+    
+    /**
+     * Build the command creating a RegisteredExchange
+     */
+    public Command registeredExchangeCommand(int exchangeId, String exchangeParty, 
+                                             String name, String metadata) {
+        Party exchange = new Party(exchangeParty);
+        
+        Map<String, Value> arguments = new HashMap<>();
+        arguments.put("operator", operator.asValue());
+        arguments.put("exchangeId", new Int64(exchangeId).asValue());
+        arguments.put("exchangeParty", exchange.asValue());
+        arguments.put("name", new Text(name).asValue());
+        arguments.put("isActive", Bool.of(true).asValue());
+        arguments.put("settlementFee", new Numeric("0.001").asValue());
+        arguments.put("metadata", new Text(metadata).asValue());
+        
+        Record createArgs = new Record(arguments);
+        DamlRecord damlRecord = DamlRecord.of(createArgs);
+        
+        return new CreateCommand(
+            new Identifier("Exchange", "RegisteredExchange"),
+            damlRecord
+        );
+    }
+    
     /**
      * Register a new asset
      * @param assetId The unique asset ID
@@ -236,37 +358,9 @@ public class DCNClient implements AutoCloseable {
     public String registerAsset(int assetId, String symbol, String name, 
                                 int decimals, String providerParty) 
             throws DCNException {
-        ensureConnected();
-        
         try {
-            logger.info("Registering asset {} ({}) with {} decimals", 
-                        name, symbol, decimals);
-            
-            Party provider = new Party(providerParty);
-            
-            Map<String, Value> arguments = new HashMap<>();
-            arguments.put("operator", operator.asValue());
-            arguments.put("assetId", new Int64(assetId).asValue());
-            arguments.put("symbol", new Text(symbol).asValue());
-            arguments.put("name", new Text(name).asValue());
-            arguments.put("decimals", new Int64(decimals).asValue());
-            arguments.put("isActive", Bool.of(true).asValue());
-            arguments.put("assetProvider", provider.asValue());
-            arguments.put("metadata", new Text("").asValue());
-            
-            Record createArgs = new Record(arguments);
-            DamlRecord damlRecord = DamlRecord.of(createArgs);
-            
-            CreateCommand createCommand = new CreateCommand(
-                new Identifier("Asset", "RegisteredAsset"),
-                damlRecord
-            );
-            
-            String contractId = submitCommandWithRetry(
-                operator.getValue(),
-                Collections.singletonList(createCommand),
-                "RegisterAsset-" + assetId
-            );
+            String contractId = await(
+                registerAssetAsync(assetId, symbol, name, decimals, providerParty));
             
             logger.info("Successfully registered asset {} with contract ID {}", 
                         symbol, contractId);
@@ -278,6 +372,68 @@ public class DCNClient implements AutoCloseable {
         }
     }
     
+    /**
+     * Register a new asset without waiting for the ledger
+     * @param assetId The unique asset ID
+     * @param symbol The asset symbol
+     * @param name The asset name
+     * @param decimals Number of decimal places
+     * @param providerParty The asset provider party
+     * @return Future completed with the ContractId of the created RegisteredAsset
+     * @throws DCNException if not connected or interrupted waiting for an in-flight slot
+     */
+    public CompletableFuture<String> registerAssetAsync(int assetId, String symbol, String name, 
+                                                        int decimals, String providerParty) 
+            throws DCNException {
+        ensureConnected();
+        
+        logger.debug("Registering asset {} ({}) with {} decimals", 
+                     name, symbol, decimals);
+        
+        return submitAsync(
+            "RegisterAsset",
+            "RegisterAsset-" + assetId,
+            operator.getValue(),
+            Collections.singletonList(
+                registeredAssetCommand(assetId, symbol, name, decimals, providerParty))
+        );
+    }
+    
+    /**
+     * Build the command creating a RegisteredAsset
+     */
+    public Command registeredAssetCommand(int assetId, String symbol, String name, 
+                                          int decimals, String providerParty) {
+        return registeredAssetCommand(assetId, symbol, name, decimals, providerParty, "");
+    }
+    
+    /**
+     * Build the command creating a RegisteredAsset
+     * @param metadata Free form asset metadata, stored as given
+     */
+    public Command registeredAssetCommand(int assetId, String symbol, String name, 
+                                          int decimals, String providerParty, String metadata) {
+        Party provider = new Party(providerParty);
+        
+        Map<String, Value> arguments = new HashMap<>();
+        arguments.put("operator", operator.asValue());
+        arguments.put("assetId", new Int64(assetId).asValue());
+        arguments.put("symbol", new Text(symbol).asValue());
+        arguments.put("name", new Text(name).asValue());
+        arguments.put("decimals", new Int64(decimals).asValue());
+        arguments.put("isActive", Bool.of(true).asValue());
+        arguments.put("assetProvider", provider.asValue());
+        arguments.put("metadata", new Text(metadata).asValue());
+        
+        Record createArgs = new Record(arguments);
+        DamlRecord damlRecord = DamlRecord.of(createArgs);
+        
+        return new CreateCommand(
+            new Identifier("Asset", "RegisteredAsset"),
+            damlRecord
+        );
+    }
+    
     /**
      * Create a settlement request
      * @param settlementId The unique settlement ID
@@ -291,47 +447,9 @@ public class DCNClient implements AutoCloseable {
     public String createSettlement(int settlementId, int exchangeId, int sessionId,
                                    List<String> participants, List<Transfer> transfers) 
             throws DCNException {
-        ensureConnected();
-        
         try {
-            logger.info("Creating settlement {} for exchange {} session {}", 
-                        settlementId, exchangeId, sessionId);
-            
-            // Convert participant strings to Party values
-            List<Value> participantValues = new ArrayList<>();
-            for (String p : participants) {
-                participantValues.add(new Party(p).asValue());
-            }
-            
-            // Convert transfers to Daml values
-            List<Value> transferValues = new ArrayList<>();
-            for (Transfer t : transfers) {
-                transferValues.add(transferToValue(t));
-            }
-            
-            Map<String, Value> arguments = new HashMap<>();
-            arguments.put("operator", operator.asValue());
-            arguments.put("settlementId", new Int64(settlementId).asValue());
-            arguments.put("exchangeId", new Int64(exchangeId).asValue());
-            arguments.put("sessionId", new Int64(sessionId).asValue());
-            arguments.put("participants", DamlList.of(participantValues).asValue());
-            arguments.put("transfers", DamlList.of(transferValues).asValue());
-            arguments.put("status", new Variant("Pending", Unit.getInstance()).asValue());
-            arguments.put("createdAt", new Timestamp(Instant.now()).asValue());
-            
-            Record createArgs = new Record(arguments);
-            DamlRecord damlRecord = DamlRecord.of(createArgs);
-            
-            CreateCommand createCommand = new CreateCommand(
-                new Identifier("Settlement", "SettlementRequest"),
-                damlRecord
-            );
-            
-            String contractId = submitCommandWithRetry(
-                operator.getValue(),
-                Collections.singletonList(createCommand),
-                "CreateSettlement-" + settlementId
-            );
+            String contractId = await(createSettlementAsync(
+                settlementId, exchangeId, sessionId, participants, transfers));
             
             logger.info("Successfully created settlement {} with contract ID {}", 
                         settlementId, contractId);
@@ -343,6 +461,112 @@ public class DCNClient implements AutoCloseable {
         }
     }
     
+    /**
+     * Create a settlement request without waiting for the ledger
+     * @param settlementId The unique settlement ID
+     * @param exchangeId The exchange ID
+     * @param sessionId The session ID
+     * @param participants List of participant party names
+     * @param transfers List of transfers
+     * @return Future completed with the ContractId of the created SettlementRequest
+     * @throws DCNException if not connected or interrupted waiting for an in-flight slot
+     */
+    public CompletableFuture<String> createSettlementAsync(int settlementId, int exchangeId, 
+                                                           int sessionId, List<String> participants, 
+                                                           List<Transfer> transfers) 
+            throws DCNException {
+        ensureConnected();
+        
+        logger.debug("Creating settlement {} for exchange {} session {}", 
+                     settlementId, exchangeId, sessionId);
+        
+        // Convert participant strings to Party values
+        List<Value> participantValues = new ArrayList<>();
+        for (String p : participants) {
+            participantValues.add(new Party(p).asValue());
+        }
+        
+        // Convert transfers to Daml values
+        List<Value> transferValues = new ArrayList<>();
+        for (Transfer t : transfers) {
+            transferValues.add(transferToValue(t));
+        }
+        
+        Map<String, Value> arguments = new HashMap<>();
+        arguments.put("operator", operator.asValue());
+        arguments.put("settlementId", new Int64(settlementId).asValue());
+        arguments.put("exchangeId", new Int64(exchangeId).asValue());
+        arguments.put("sessionId", new Int64(sessionId).asValue());
+        arguments.put("participants", DamlList.of(participantValues).asValue());
+        arguments.put("transfers", DamlList.of(transferValues).asValue());
+        arguments.put("status", new Variant("Pending", Unit.getInstance()).asValue());
+        arguments.put("createdAt", new Timestamp(Instant.now()).asValue());
+        
+        Record createArgs = new Record(arguments);
+        DamlRecord damlRecord = DamlRecord.of(createArgs);
+        
+        CreateCommand createCommand = new CreateCommand(
+            new Identifier("Settlement", "SettlementRequest"),
+            damlRecord
+        );
+        
+        return submitAsync(
+            "CreateSettlement",
+            "CreateSettlement-" + settlementId,
+            operator.getValue(),
+            Collections.singletonList(createCommand)
+        );
+    }
+    
+    /**
+     * Build the command creating a SettlementBatch and applying it in the same
+     * transaction, see {@link SettlementBatcher}
+     * @param batchId Unique batch ID, also used as the command ID
+     * @param exchangeId The exchange ID
+     * @param transferCount Number of transfers netted into the deltas
+     * @param deltas Net balance changes, each asset nets to zero
+     * @param nonceRanges Nonces of the netted transfers, claimed by the batch
+     */
+    public Command settlementBatchCommand(long batchId, int exchangeId, int transferCount,
+                                          List<SettlementBatcher.BalanceDelta> deltas,
+                                          List<NonceAllocator.Range> nonceRanges) {
+        List<Value> deltaValues = new ArrayList<>(deltas.size());
+        for (SettlementBatcher.BalanceDelta delta : deltas) {
+            Map<String, Value> fields = new HashMap<>();
+            fields.put("userId", new Int64(delta.userId).asValue());
+            fields.put("assetId", new Int64(delta.assetId).asValue());
+            fields.put("delta", new Numeric(delta.delta.toPlainString()).asValue());
+            deltaValues.add(new Record(fields));
+        }
+        
+        List<Value> rangeValues = new ArrayList<>(nonceRanges.size());
+        for (NonceAllocator.Range range : nonceRanges) {
+            Map<String, Value> fields = new HashMap<>();
+            fields.put("userId", new Int64(range.userId).asValue());
+            fields.put("firstNonce", new Int64(range.first).asValue());
+            fields.put("lastNonce", new Int64(range.last).asValue());
+            rangeValues.add(new Record(fields));
+        }
+        
+        Map<String, Value> arguments = new HashMap<>();
+        arguments.put("operator", operator.asValue());
+        arguments.put("batchId", new Int64(batchId).asValue());
+        arguments.put("exchangeId", new Int64(exchangeId).asValue());
+        arguments.put("transferCount", new Int64(transferCount).asValue());
+        arguments.put("deltas", DamlList.of(deltaValues).asValue());
+        arguments.put("nonceRanges", DamlList.of(rangeValues).asValue());
+        
+        Record createArgs = new Record(arguments);
+        DamlRecord damlRecord = DamlRecord.of(createArgs);
+        
+        return new CreateAndExerciseCommand(
+            new Identifier("Settlement", "SettlementBatch"),
+            damlRecord,
+            "ApplySettlementBatch",
+            DamlRecord.of(new Record(Collections.emptyMap()))
+        );
+    }
+    
     /**
      * Convert Transfer object to Daml Value
      */
@@ -366,53 +590,292 @@ public class DCNClient implements AutoCloseable {
     }
     
     /**
-     * Submit command with retry logic
+     * Submit several commands as one ledger transaction. Either all of them
+     * are applied or none.
+     * @param kind Command kind the latency is recorded under
+     * @param commandId Deterministic ID, resubmitting the same ID is deduplicated
+     * @param commands Commands submitted by the operator
+     * @return Future completed with the command ID
+     * @throws DCNException if not connected or interrupted waiting for an in-flight slot
+     */
+    public CompletableFuture<String> submitBatchAsync(String kind, String commandId, 
+                                                      List<Command> commands) 
+            throws DCNException {
+        ensureConnected();
+        return submitAsync(kind, commandId, operator.getValue(), commands);
+    }
+    
+    /**
+     * Start a local projection of the DCN contracts, see {@link LedgerProjection}
+     * @param checkpointFile File the projection is saved to and resumed from, null to disable
+     * @return Projection following the ledger, the caller closes it
+     * @throws DCNException if not connected or the initial load fails
+     */
+    public LedgerProjection openProjection(java.io.File checkpointFile) throws DCNException {
+        ensureConnected();
+        
+        LedgerProjection projection = new LedgerProjection(
+            pool.primary().client(), operator.getValue(), checkpointFile);
+        try {
+            projection.start();
+            return projection;
+        } catch (Exception e) {
+            projection.close();
+            logger.error("Failed to start ledger projection", e);
+            throw new DCNException("Projection start failed: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Stream the active contracts of a template visible to the operator
+     * @param moduleName Daml module of the template
+     * @param entityName Template name
+     * @param consumer Called with every active contract, on the calling thread
+     * @throws DCNException if not connected or the stream fails
      */
-    private String submitCommandWithRetry(String submitter, List<Command> commands, 
-                                          String commandId) 
+    public void forEachActiveContract(String moduleName, String entityName,
+                                      java.util.function.Consumer<CreatedEvent> consumer)
             throws DCNException {
-        int attempt = 0;
-        Exception lastException = null;
+        ensureConnected();
+        
+        TransactionFilter filter = new FiltersByParty(Collections.singletonMap(
+            operator.getValue(),
+            new InclusiveFilter(Collections.singleton(new Identifier(moduleName, entityName)))));
         
-        while (attempt < maxRetries) {
-            try {
-                attempt++;
-                logger.debug("Submitting command {} (attempt {})", commandId, attempt);
+        try {
+            // verbose so created arguments carry field labels
+            pool.primary().client().getActiveContractSetClient()
+                .getActiveContracts(filter, true)
+                .blockingForEach(response -> response.getCreatedEvents().forEach(consumer));
+        } catch (DCNException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            logger.error("Failed to read active {}:{} contracts", moduleName, entityName, e);
+            throw new DCNException("Active contract read failed: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * @return Allocator for transfer nonces, seed it with {@link #syncNonces()}
+     */
+    public NonceAllocator getNonceAllocator() {
+        return nonces;
+    }
+    
+    /**
+     * Advance the nonce allocator past the high-water mark of every NonceWindow
+     * on the ledger, so allocated nonces are not already used
+     * @throws DCNException if not connected or the active contracts cannot be read
+     */
+    public void syncNonces() throws DCNException {
+        long[] windows = {0};
+        forEachActiveContract("Nonce", "NonceWindow", event -> {
+            Map<String, Value> fields = event.getArguments().getFieldsMap();
+            nonces.advanceTo(fields.get("userId").asInt64().get().getValue(),
+                             fields.get("highWater").asInt64().get().getValue());
+            windows[0]++;
+        });
+        logger.info("Synchronized nonces of {} users", windows[0]);
+    }
+    
+    /**
+     * Submit command asynchronously with retry logic.
+     * 
+     * Blocks while maxInFlight commands are outstanding. Failed attempts are
+     * retried on the retry scheduler with jittered exponential backoff, always
+     * with the same command ID so the ledger deduplicates an attempt that was
+     * applied but whose response was lost.
+     */
+    private CompletableFuture<String> submitAsync(String kind, String commandId, 
+                                                  String submitter, List<Command> commands) 
+            throws DCNException {
+        try {
+            inFlightWindow.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DCNException("Interrupted waiting to submit " + commandId, e);
+        }
+        
+        metrics.submitted(kind);
+        long startNanos = System.nanoTime();
+        
+        CompletableFuture<String> result = new CompletableFuture<>();
+        result.whenComplete((contractId, error) -> {
+            inFlightWindow.release();
+            metrics.completed(kind, startNanos, error == null);
+        });
+        
+        submitAttempt(kind, commandId, submitter, commands, 1, result);
+        return result;
+    }
+    
+    private void submitAttempt(String kind, String commandId, String submitter, 
+                               List<Command> commands, int attempt, 
+                               CompletableFuture<String> result) {
+        logger.debug("Submitting command {} (attempt {})", commandId, attempt);
+        
+        ChannelPool.Connection connection;
+        try {
+            connection = pool.select();
+        } catch (DCNException e) {
+            result.completeExceptionally(e);
+            return;
+        }
+        
+        long channelStartNanos = connection.started();
+        CompletableFuture<String> submission;
+        try {
+            submission = connection.client().getCommandClient()
+                .submitAndWait(commandId, submitter, commands)
+                .thenApply(empty -> commandId)
+                .toCompletableFuture();
+        } catch (Exception e) {
+            submission = CompletableFuture.failedFuture(e);
+        }
+        
+        submission
+            .orTimeout(commandTimeout.toMillis(), TimeUnit.MILLISECONDS)
+            .whenComplete((ignored, error) -> {
+                Throwable cause = unwrap(error);
+                connection.finished(channelStartNanos, cause == null || isDuplicate(cause));
+                if (isUnavailable(cause)) {
+                    connection.markBroken();
+                }
                 
-                // Submit command and wait for result
-                CompletableFuture<String> future = ledgerClient.getCommandClient()
-                    .submitAndWait(
-                        commandId + "-" + System.currentTimeMillis(),
-                        submitter,
-                        commands
-                    )
-                    .thenApply(empty -> "success")
-                    .toCompletableFuture();
+                if (cause == null || isDuplicate(cause)) {
+                    logger.debug("Command {} submitted successfully", commandId);
+                    result.complete(commandId); // Return command ID as contract reference
+                    return;
+                }
                 
-                String result = future.get(30, TimeUnit.SECONDS);
-                logger.debug("Command {} submitted successfully", commandId);
-                return commandId; // Return command ID as contract reference
+                if (attempt >= maxRetries || !isRetryable(cause)) {
+                    result.completeExceptionally(new DCNException(
+                        String.format("Command %s failed after %d attempts", commandId, attempt),
+                        cause
+                    ));
+                    return;
+                }
                 
-            } catch (Exception e) {
-                lastException = e;
-                logger.warn("Command submission failed (attempt {}): {}", 
-                           attempt, e.getMessage());
+                long delay = backoffMillis(attempt);
+                logger.warn("Command {} failed (attempt {}), retrying in {}ms: {}", 
+                           commandId, attempt, delay, cause.getMessage());
+                metrics.retried(kind);
                 
-                if (attempt < maxRetries) {
-                    try {
-                        Thread.sleep(1000 * attempt); // Exponential backoff
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        break;
-                    }
+                try {
+                    retryScheduler.schedule(
+                        () -> submitAttempt(kind, commandId, submitter, commands, attempt + 1, result),
+                        delay, TimeUnit.MILLISECONDS
+                    );
+                } catch (Exception e) {
+                    result.completeExceptionally(new DCNException("Client closed", cause));
                 }
-            }
+            });
+    }
+    
+    /**
+     * Exponential backoff with equal jitter, so clients failing together
+     * do not retry together
+     */
+    private long backoffMillis(int attempt) {
+        long cap = Math.min(maxBackoff.toMillis(), 
+                            initialBackoff.toMillis() << Math.min(attempt - 1, 20));
+        return cap / 2 + ThreadLocalRandom.current().nextLong(cap / 2 + 1);
+    }
+    
+    /**
+     * An earlier attempt with the same command ID was already accepted. A contract
+     * key conflict is also ALREADY_EXISTS but committed nothing, it is a failure.
+     */
+    private static boolean isDuplicate(Throwable error) {
+        return LedgerErrors.isDeduplicated(error);
+    }
+    
+    /**
+     * The connection is down, the next command on it reconnects
+     */
+    private static boolean isUnavailable(Throwable error) {
+        return error instanceof StatusRuntimeException 
+            && ((StatusRuntimeException) error).getStatus().getCode() == Status.Code.UNAVAILABLE;
+    }
+    
+    /**
+     * Transient ledger or transport failures. Anything else, including exceptions
+     * thrown while building or serializing the commands, fails on the first attempt.
+     */
+    private static boolean isRetryable(Throwable error) {
+        if (error instanceof TimeoutException) {
+            return true;
+        }
+        if (!(error instanceof StatusRuntimeException)) {
+            return false;
         }
         
-        throw new DCNException(
-            String.format("Command submission failed after %d attempts", maxRetries),
-            lastException
-        );
+        switch (((StatusRuntimeException) error).getStatus().getCode()) {
+            case UNAVAILABLE:
+            case DEADLINE_EXCEEDED:
+            case RESOURCE_EXHAUSTED:
+            case ABORTED:
+                return true;
+            default:
+                return false;
+        }
+    }
+    
+    private static Throwable unwrap(Throwable error) {
+        while ((error instanceof CompletionException || error instanceof ExecutionException) 
+               && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+    
+    /**
+     * Wait for an async command, unwrapping the failure
+     */
+    private static String await(CompletableFuture<String> future) throws DCNException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DCNException("Interrupted waiting for command", e);
+        } catch (ExecutionException e) {
+            Throwable cause = unwrap(e);
+            if (cause instanceof DCNException) {
+                throw (DCNException) cause;
+            }
+            throw new DCNException(cause.getMessage(), cause);
+        }
+    }
+    
+    /**
+     * Block until every submitted command has completed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void awaitInFlight() throws InterruptedException {
+        inFlightWindow.acquire(maxInFlight);
+        inFlightWindow.release(maxInFlight);
+    }
+    
+    /**
+     * @return Maximum number of commands awaiting completion
+     */
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+    
+    /**
+     * @return Ledger connections with their in-flight and latency gauges,
+     *         null before the first connect
+     */
+    public ChannelPool getChannelPool() {
+        return pool;
+    }
+    
+    /**
+     * @return Latency and outcome counters per command kind
+     */
+    public CommandMetrics getMetrics() {
+        return metrics;
     }
     
     /**
@@ -420,28 +883,16 @@ public class DCNClient implements AutoCloseable {
      */
     @Override
     public void close() {
-        if (ledgerClient != null) {
-            try {
-                logger.info("Closing Canton ledger client");
-                ledgerClient.close();
-            } catch (Exception e) {
-                logger.error("Error closing ledger client", e);
-            }
-        }
+        retryScheduler.shutdown();
         
-        if (channel != null && !channel.isShutdown()) {
-            try {
-                logger.info("Shutting down gRPC channel");
-                channel.shutdown();
-                channel.awaitTermination(5, TimeUnit.SECONDS);
-            } catch (Exception e) {
-                logger.error("Error shutting down channel", e);
-                channel.shutdownNow();
-            }
+        ChannelPool channels = pool;
+        if (channels != null) {
+            logger.info("Closing Canton ledger connections:\n{}", channels);
+            channels.close();
         }
         
         connected = false;
-        logger.info("DCN Client closed");
+        logger.info("DCN Client closed. Command metrics:\n{}", metrics);
     }
     
     /**
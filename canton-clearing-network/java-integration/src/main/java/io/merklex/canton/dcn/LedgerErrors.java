@@ -0,0 +1,96 @@
+package io.merklex.canton.dcn;
+
+import com.google.protobuf.Any;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.rpc.ErrorInfo;
+import io.grpc.StatusRuntimeException;
+import io.grpc.protobuf.StatusProto;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Classifies ledger API errors by the error code id Canton attaches to them.
+ *
+ * The gRPC status code alone is ambiguous: ALREADY_EXISTS is returned both when
+ * a command ID was already accepted and when a create hits an existing contract
+ * key. Only the first means the earlier attempt committed. The id is read from
+ * the ErrorInfo reason in the status details, or from the "ID(category,cid): ..."
+ * prefix of the status description when the details are missing.
+ */
+public final class LedgerErrors {
+    
+    public static final String DUPLICATE_COMMAND = "DUPLICATE_COMMAND";
+    public static final String SUBMISSION_ALREADY_IN_FLIGHT = "SUBMISSION_ALREADY_IN_FLIGHT";
+    public static final String DUPLICATE_CONTRACT_KEY = "DUPLICATE_CONTRACT_KEY";
+    
+    private static final Set<String> DEDUPLICATED = new HashSet<>(
+        Arrays.asList(DUPLICATE_COMMAND, SUBMISSION_ALREADY_IN_FLIGHT));
+    
+    private LedgerErrors() {
+    }
+    
+    /**
+     * The ledger deduplicated the command, an earlier submission with the same
+     * command ID was accepted or is still being processed
+     */
+    public static boolean isDeduplicated(Throwable error) {
+        return DEDUPLICATED.contains(errorCodeId(error));
+    }
+    
+    /**
+     * A create in the command conflicts with an active contract key, nothing in
+     * the transaction was committed. Looks through wrapping exceptions.
+     */
+    public static boolean isKeyConflict(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (DUPLICATE_CONTRACT_KEY.equals(errorCodeId(cause))) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * @return The Canton error code id of a ledger API error, null if there is none
+     */
+    public static String errorCodeId(Throwable error) {
+        if (!(error instanceof StatusRuntimeException)) {
+            return null;
+        }
+        
+        com.google.rpc.Status status = StatusProto.fromThrowable(error);
+        if (status != null) {
+            for (Any detail : status.getDetailsList()) {
+                if (!detail.is(ErrorInfo.class)) {
+                    continue;
+                }
+                try {
+                    String reason = detail.unpack(ErrorInfo.class).getReason();
+                    if (!reason.isEmpty()) {
+                        return reason;
+                    }
+                } catch (InvalidProtocolBufferException ignored) {
+                }
+            }
+        }
+        
+        String description = ((StatusRuntimeException) error).getStatus().getDescription();
+        if (description == null) {
+            return null;
+        }
+        int end = description.indexOf('(');
+        if (end <= 0) {
+            return null;
+        }
+        String id = description.substring(0, end);
+        for (int i = 0; i < id.length(); i++) {
+            char c = id.charAt(i);
+            if (!(c >= 'A' && c <= 'Z') && !(c >= '0' && c <= '9') && c != '_') {
+                return null;
+            }
+        }
+        return id;
+    }
+}
@@ -0,0 +1,678 @@
+package io.merklex.canton.dcn;
+
+import com.daml.ledger.javaapi.data.*;
+import com.daml.ledger.rxjava.DamlLedgerClient;
+import io.reactivex.disposables.Disposable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local read side of the Canton DCN
+ *
+ * Subscribes to the ledger transaction stream of the operator party and keeps
+ * in-memory indexes of the active UserAccount, UserBalance, RegisteredExchange,
+ * RegisteredAsset and TradingSession contracts, keyed by their Daml keys. The
+ * operator part of every key is the client's operator, so indexes are keyed by
+ * the remaining parts, e.g. (userId, assetId) for UserBalance. Reads never
+ * touch the ledger.
+ *
+ * The first start loads the active contract set. The projection and the ledger
+ * offset it reflects are checkpointed to a file periodically and on close, a
+ * restart loads the file and only replays transactions after that offset.
+ *
+ * Updates are applied one transaction at a time on the stream thread. A reader
+ * may observe part of a transaction that is being applied.
+ */
+public class LedgerProjection implements AutoCloseable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LedgerProjection.class);
+    
+    private static final int CHECKPOINT_MAGIC = 0x44434E50;
+    private static final int CHECKPOINT_VERSION = 1;
+    private static final long CHECKPOINT_INTERVAL_SECONDS = 30;
+    
+    private static final Identifier USER_ACCOUNT = new Identifier("User", "UserAccount");
+    private static final Identifier USER_BALANCE = new Identifier("User", "UserBalance");
+    private static final Identifier EXCHANGE = new Identifier("Exchange", "RegisteredExchange");
+    private static final Identifier ASSET = new Identifier("Asset", "RegisteredAsset");
+    private static final Identifier SESSION = new Identifier("Session", "TradingSession");
+    
+    private final DamlLedgerClient ledgerClient;
+    private final String operator;
+    private final File checkpointFile;
+    
+    private final Index<Long, Account> accounts = new Index<>();
+    private final Index<BalanceKey, Balance> balances = new Index<>();
+    private final Map<Long, Map<Long, Balance>> balancesByUser = new ConcurrentHashMap<>();
+    private final Index<Long, Exchange> exchanges = new Index<>();
+    private final Index<Long, Asset> assets = new Index<>();
+    private final Index<Long, Session> sessions = new Index<>();
+    
+    private volatile String offset;
+    private volatile Throwable failure;
+    private volatile boolean dirty;
+    private final CountDownLatch live = new CountDownLatch(1);
+    private final ScheduledExecutorService checkpointScheduler;
+    private Disposable subscription;
+    
+    /**
+     * @param ledgerClient Connected ledger client
+     * @param operator Operator party, the stream is filtered on it
+     * @param checkpointFile File the projection is saved to and resumed from, null to disable
+     */
+    LedgerProjection(DamlLedgerClient ledgerClient, String operator, File checkpointFile) {
+        this.ledgerClient = ledgerClient;
+        this.operator = operator;
+        this.checkpointFile = checkpointFile;
+        this.checkpointScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "dcn-projection-checkpoint");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * Load the checkpoint or the active contract set, then follow the transaction stream
+     * @throws IOException if the checkpoint file cannot be read
+     */
+    void start() throws IOException {
+        TransactionFilter filter = new FiltersByParty(Collections.singletonMap(
+            operator,
+            new InclusiveFilter(new HashSet<>(Arrays.asList(
+                USER_ACCOUNT, USER_BALANCE, EXCHANGE, ASSET, SESSION)))));
+        
+        long start = System.nanoTime();
+        if (checkpointFile != null && checkpointFile.exists()) {
+            load(checkpointFile);
+            logger.info("Loaded projection at offset {} from {}", offset, checkpointFile);
+        } else {
+            ledgerClient.getActiveContractSetClient()
+                .getActiveContracts(filter, true)
+                .blockingForEach(response -> {
+                    for (CreatedEvent event : response.getCreatedEvents()) {
+                        created(event);
+                    }
+                    response.getOffset().ifPresent(at -> offset = at);
+                });
+            dirty = true;
+            logger.info("Loaded active contract set at offset {}", offset);
+        }
+        logger.info("Projection ready in {}ms: {}", (System.nanoTime() - start) / 1_000_000, this);
+        
+        LedgerOffset begin = offset != null
+            ? new LedgerOffset.Absolute(offset)
+            : LedgerOffset.LedgerBegin.getInstance();
+        subscription = ledgerClient.getTransactionsClient()
+            .getTransactions(begin, filter, true)
+            .subscribe(this::apply, error -> {
+                failure = error;
+                logger.error("Projection stream failed at offset {}", offset, error);
+            });
+        live.countDown();
+        
+        if (checkpointFile != null) {
+            checkpointScheduler.scheduleWithFixedDelay(this::checkpoint,
+                CHECKPOINT_INTERVAL_SECONDS, CHECKPOINT_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+    
+    private void apply(Transaction transaction) {
+        for (Event event : transaction.getEvents()) {
+            if (event instanceof CreatedEvent) {
+                created((CreatedEvent) event);
+            } else if (event instanceof ArchivedEvent) {
+                archived((ArchivedEvent) event);
+            }
+        }
+        offset = transaction.getOffset();
+        dirty = true;
+    }
+    
+    private void created(CreatedEvent event) {
+        Identifier template = event.getTemplateId();
+        Map<String, Value> fields = event.getArguments().getFieldsMap();
+        if (!operator.equals(party(fields, "operator"))) {
+            return;
+        }
+        
+        String contractId = event.getContractId();
+        if (sameTemplate(template, USER_ACCOUNT)) {
+            Account account = new Account(contractId, int64(fields, "userId"), party(fields, "owner"),
+                                          bool(fields, "isActive"), text(fields, "metadata"));
+            accounts.put(account.userId, account);
+        } else if (sameTemplate(template, USER_BALANCE)) {
+            putBalance(new Balance(contractId, int64(fields, "userId"), int64(fields, "assetId"),
+                                   party(fields, "owner"), numeric(fields, "balance"),
+                                   numeric(fields, "lockedBalance"), numeric(fields, "minBalance")));
+        } else if (sameTemplate(template, EXCHANGE)) {
+            Exchange exchange = new Exchange(contractId, int64(fields, "exchangeId"),
+                                             party(fields, "exchangeParty"), text(fields, "name"),
+                                             bool(fields, "isActive"), numeric(fields, "settlementFee"));
+            exchanges.put(exchange.exchangeId, exchange);
+        } else if (sameTemplate(template, ASSET)) {
+            Asset asset = new Asset(contractId, int64(fields, "assetId"), text(fields, "symbol"),
+                                    text(fields, "name"), int64(fields, "decimals"),
+                                    bool(fields, "isActive"), party(fields, "assetProvider"));
+            assets.put(asset.assetId, asset);
+        } else if (sameTemplate(template, SESSION)) {
+            Optional<Value> endTime = field(fields, "endTime").asOptional().get().getValue();
+            Session session = new Session(contractId, int64(fields, "sessionId"), int64(fields, "exchangeId"),
+                                          field(fields, "startTime").asTimestamp().get().getValue(),
+                                          endTime.map(time -> time.asTimestamp().get().getValue()).orElse(null),
+                                          field(fields, "status").asEnum().get().getConstructor(),
+                                          ids(fields, "participatingUsers"), ids(fields, "activeAssets"));
+            sessions.put(session.sessionId, session);
+        }
+    }
+    
+    private void archived(ArchivedEvent event) {
+        String contractId = event.getContractId();
+        Balance balance = balances.remove(contractId);
+        if (balance != null) {
+            Map<Long, Balance> byAsset = balancesByUser.get(balance.userId);
+            if (byAsset != null) {
+                byAsset.remove(balance.assetId, balance);
+            }
+            return;
+        }
+        
+        if (accounts.remove(contractId) == null && exchanges.remove(contractId) == null
+            && assets.remove(contractId) == null) {
+            sessions.remove(contractId);
+        }
+    }
+    
+    private void putBalance(Balance balance) {
+        balances.put(new BalanceKey(balance.userId, balance.assetId), balance);
+        balancesByUser.computeIfAbsent(balance.userId, userId -> new ConcurrentHashMap<>())
+            .put(balance.assetId, balance);
+    }
+    
+    private static boolean sameTemplate(Identifier a, Identifier b) {
+        return a.getModuleName().equals(b.getModuleName()) && a.getEntityName().equals(b.getEntityName());
+    }
+    
+    /**
+     * Block until the projection follows the transaction stream
+     * @return false if the timeout elapsed first
+     */
+    public boolean awaitLive(long timeout, TimeUnit unit) throws InterruptedException {
+        return live.await(timeout, unit);
+    }
+    
+    /**
+     * @return Ledger offset the projection reflects, null before the first load
+     */
+    public String getOffset() {
+        return offset;
+    }
+    
+    /**
+     * @return true while the transaction stream is running
+     */
+    public boolean isHealthy() {
+        return failure == null && subscription != null && !subscription.isDisposed();
+    }
+    
+    public Account getAccount(long userId) {
+        return accounts.get(userId);
+    }
+    
+    public Balance getBalance(long userId, long assetId) {
+        return balances.get(new BalanceKey(userId, assetId));
+    }
+    
+    /**
+     * @return Balances of a user by asset ID, empty if the user has none
+     */
+    public Map<Long, Balance> getBalances(long userId) {
+        Map<Long, Balance> byAsset = balancesByUser.get(userId);
+        return byAsset == null ? Collections.emptyMap() : Collections.unmodifiableMap(byAsset);
+    }
+    
+    public Exchange getExchange(long exchangeId) {
+        return exchanges.get(exchangeId);
+    }
+    
+    public Asset getAsset(long assetId) {
+        return assets.get(assetId);
+    }
+    
+    public Session getSession(long sessionId) {
+        return sessions.get(sessionId);
+    }
+    
+    public int accountCount() { return accounts.size(); }
+    public int balanceCount() { return balances.size(); }
+    public int exchangeCount() { return exchanges.size(); }
+    public int assetCount() { return assets.size(); }
+    public int sessionCount() { return sessions.size(); }
+    
+    /**
+     * Save the projection if it changed since the last checkpoint
+     */
+    public void checkpoint() {
+        if (checkpointFile == null || !dirty) {
+            return;
+        }
+        
+        try {
+            save(checkpointFile);
+        } catch (Exception e) {
+            dirty = true;
+            logger.warn("Failed to checkpoint projection to {}", checkpointFile, e);
+        }
+    }
+    
+    /**
+     * Stop following the stream and write a final checkpoint
+     */
+    @Override
+    public void close() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+        checkpointScheduler.shutdown();
+        try {
+            checkpointScheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        checkpoint();
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%d accounts, %d balances, %d exchanges, %d assets, %d sessions",
+                             accountCount(), balanceCount(), exchangeCount(), assetCount(), sessionCount());
+    }
+    
+    /**
+     * Write every index and the offset they reflect. Taken while the stream
+     * may be applying a transaction, so the offset is read first: replaying
+     * from it re-applies anything the indexes already contain, which is
+     * idempotent since a contract is created and archived only once.
+     */
+    private synchronized void save(File file) throws IOException {
+        String savedOffset = offset;
+        if (savedOffset == null) {
+            return;
+        }
+        dirty = false;
+        
+        File temp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeInt(CHECKPOINT_MAGIC);
+            out.writeInt(CHECKPOINT_VERSION);
+            out.writeUTF(operator);
+            out.writeUTF(savedOffset);
+            
+            List<Account> accountList = accounts.values();
+            out.writeInt(accountList.size());
+            for (Account account : accountList) {
+                out.writeUTF(account.contractId);
+                out.writeLong(account.userId);
+                out.writeUTF(account.owner);
+                out.writeBoolean(account.isActive);
+                out.writeUTF(account.metadata);
+            }
+            
+            List<Balance> balanceList = balances.values();
+            out.writeInt(balanceList.size());
+            for (Balance balance : balanceList) {
+                out.writeUTF(balance.contractId);
+                out.writeLong(balance.userId);
+                out.writeLong(balance.assetId);
+                out.writeUTF(balance.owner);
+                out.writeUTF(balance.balance.toPlainString());
+                out.writeUTF(balance.lockedBalance.toPlainString());
+                out.writeUTF(balance.minBalance.toPlainString());
+            }
+            
+            List<Exchange> exchangeList = exchanges.values();
+            out.writeInt(exchangeList.size());
+            for (Exchange exchange : exchangeList) {
+                out.writeUTF(exchange.contractId);
+                out.writeLong(exchange.exchangeId);
+                out.writeUTF(exchange.exchangeParty);
+                out.writeUTF(exchange.name);
+                out.writeBoolean(exchange.isActive);
+                out.writeUTF(exchange.settlementFee.toPlainString());
+            }
+            
+            List<Asset> assetList = assets.values();
+            out.writeInt(assetList.size());
+            for (Asset asset : assetList) {
+                out.writeUTF(asset.contractId);
+                out.writeLong(asset.assetId);
+                out.writeUTF(asset.symbol);
+                out.writeUTF(asset.name);
+                out.writeLong(asset.decimals);
+                out.writeBoolean(asset.isActive);
+                out.writeUTF(asset.assetProvider);
+            }
+            
+            List<Session> sessionList = sessions.values();
+            out.writeInt(sessionList.size());
+            for (Session session : sessionList) {
+                out.writeUTF(session.contractId);
+                out.writeLong(session.sessionId);
+                out.writeLong(session.exchangeId);
+                writeInstant(out, session.startTime);
+                out.writeBoolean(session.endTime != null);
+                if (session.endTime != null) {
+                    writeInstant(out, session.endTime);
+                }
+                out.writeUTF(session.status);
+                writeIds(out, session.participatingUsers);
+                writeIds(out, session.activeAssets);
+            }
+        }
+        
+        // Write then rename so a crash never leaves a half written checkpoint
+        Files.move(temp.toPath(), file.toPath(),
+                   StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        logger.debug("Checkpointed projection at offset {}", savedOffset);
+    }
+    
+    private void load(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != CHECKPOINT_MAGIC || in.readInt() != CHECKPOINT_VERSION) {
+                throw new IOException(file + " is not a version " + CHECKPOINT_VERSION + " projection checkpoint");
+            }
+            String savedOperator = in.readUTF();
+            if (!operator.equals(savedOperator)) {
+                throw new IOException(file + " was taken for operator " + savedOperator);
+            }
+            String savedOffset = in.readUTF();
+            
+            for (int i = in.readInt(); i > 0; i--) {
+                Account account = new Account(in.readUTF(), in.readLong(), in.readUTF(),
+                                              in.readBoolean(), in.readUTF());
+                accounts.put(account.userId, account);
+            }
+            for (int i = in.readInt(); i > 0; i--) {
+                putBalance(new Balance(in.readUTF(), in.readLong(), in.readLong(), in.readUTF(),
+                                       new BigDecimal(in.readUTF()), new BigDecimal(in.readUTF()),
+                                       new BigDecimal(in.readUTF())));
+            }
+            for (int i = in.readInt(); i > 0; i--) {
+                Exchange exchange = new Exchange(in.readUTF(), in.readLong(), in.readUTF(), in.readUTF(),
+                                                 in.readBoolean(), new BigDecimal(in.readUTF()));
+                exchanges.put(exchange.exchangeId, exchange);
+            }
+            for (int i = in.readInt(); i > 0; i--) {
+                Asset asset = new Asset(in.readUTF(), in.readLong(), in.readUTF(), in.readUTF(),
+                                        in.readLong(), in.readBoolean(), in.readUTF());
+                assets.put(asset.assetId, asset);
+            }
+            for (int i = in.readInt(); i > 0; i--) {
+                String contractId = in.readUTF();
+                long sessionId = in.readLong();
+                long exchangeId = in.readLong();
+                Instant startTime = readInstant(in);
+                Instant endTime = in.readBoolean() ? readInstant(in) : null;
+                Session session = new Session(contractId, sessionId, exchangeId, startTime, endTime,
+                                              in.readUTF(), readIds(in), readIds(in));
+                sessions.put(session.sessionId, session);
+            }
+            offset = savedOffset;
+        }
+    }
+    
+    private static void writeInstant(DataOutputStream out, Instant instant) throws IOException {
+        out.writeLong(instant.getEpochSecond());
+        out.writeInt(instant.getNano());
+    }
+    
+    private static Instant readInstant(DataInputStream in) throws IOException {
+        return Instant.ofEpochSecond(in.readLong(), in.readInt());
+    }
+    
+    private static void writeIds(DataOutputStream out, long[] ids) throws IOException {
+        out.writeInt(ids.length);
+        for (long id : ids) {
+            out.writeLong(id);
+        }
+    }
+    
+    private static long[] readIds(DataInputStream in) throws IOException {
+        long[] ids = new long[in.readInt()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = in.readLong();
+        }
+        return ids;
+    }
+    
+    private static Value field(Map<String, Value> fields, String name) {
+        Value value = fields.get(name);
+        if (value == null) {
+            throw new IllegalStateException("Contract has no field " + name);
+        }
+        return value;
+    }
+    
+    private static long int64(Map<String, Value> fields, String name) {
+        return field(fields, name).asInt64().get().getValue();
+    }
+    
+    private static String text(Map<String, Value> fields, String name) {
+        return field(fields, name).asText().get().getValue();
+    }
+    
+    private static String party(Map<String, Value> fields, String name) {
+        return field(fields, name).asParty().get().getValue();
+    }
+    
+    private static boolean bool(Map<String, Value> fields, String name) {
+        return field(fields, name).asBool().get().getValue();
+    }
+    
+    private static BigDecimal numeric(Map<String, Value> fields, String name) {
+        return field(fields, name).asNumeric().get().getValue();
+    }
+    
+    private static long[] ids(Map<String, Value> fields, String name) {
+        List<Value> values = field(fields, name).asList().get().getValues();
+        long[] ids = new long[values.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = values.get(i).asInt64().get().getValue();
+        }
+        return ids;
+    }
+    
+    /**
+     * Active contracts of one template by key, with the reverse mapping
+     * archived events are resolved through. Written by the stream thread only.
+     */
+    private static class Index<K, V extends Contract> {
+        private final Map<K, V> byKey = new ConcurrentHashMap<>();
+        private final Map<String, K> keyByContractId = new ConcurrentHashMap<>();
+        
+        void put(K key, V contract) {
+            V replaced = byKey.put(key, contract);
+            if (replaced != null) {
+                keyByContractId.remove(replaced.contractId);
+            }
+            keyByContractId.put(contract.contractId, key);
+        }
+        
+        V remove(String contractId) {
+            K key = keyByContractId.remove(contractId);
+            if (key == null) {
+                return null;
+            }
+            V contract = byKey.get(key);
+            if (contract != null && contract.contractId.equals(contractId)) {
+                byKey.remove(key, contract);
+                return contract;
+            }
+            return null;
+        }
+        
+        V get(K key) {
+            return byKey.get(key);
+        }
+        
+        int size() {
+            return byKey.size();
+        }
+        
+        List<V> values() {
+            return new ArrayList<>(byKey.values());
+        }
+    }
+    
+    private static final class BalanceKey {
+        final long userId;
+        final long assetId;
+        
+        BalanceKey(long userId, long assetId) {
+            this.userId = userId;
+            this.assetId = assetId;
+        }
+        
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof BalanceKey)) {
+                return false;
+            }
+            BalanceKey key = (BalanceKey) other;
+            return userId == key.userId && assetId == key.assetId;
+        }
+        
+        @Override
+        public int hashCode() {
+            return Long.hashCode(userId) * 31 + Long.hashCode(assetId);
+        }
+    }
+    
+    /**
+     * Contract data classes
+     */
+    public abstract static class Contract {
+        public final String contractId;
+        
+        Contract(String contractId) {
+            this.contractId = contractId;
+        }
+    }
+    
+    public static class Account extends Contract {
+        public final long userId;
+        public final String owner;
+        public final boolean isActive;
+        public final String metadata;
+        
+        Account(String contractId, long userId, String owner, boolean isActive, String metadata) {
+            super(contractId);
+            this.userId = userId;
+            this.owner = owner;
+            this.isActive = isActive;
+            this.metadata = metadata;
+        }
+    }
+    
+    public static class Balance extends Contract {
+        public final long userId;
+        public final long assetId;
+        public final String owner;
+        public final BigDecimal balance;
+        public final BigDecimal lockedBalance;
+        public final BigDecimal minBalance;
+        
+        Balance(String contractId, long userId, long assetId, String owner,
+                BigDecimal balance, BigDecimal lockedBalance, BigDecimal minBalance) {
+            super(contractId);
+            this.userId = userId;
+            this.assetId = assetId;
+            this.owner = owner;
+            this.balance = balance;
+            this.lockedBalance = lockedBalance;
+            this.minBalance = minBalance;
+        }
+        
+        public BigDecimal getAvailable() {
+            return balance.subtract(lockedBalance);
+        }
+    }
+    
+    public static class Exchange extends Contract {
+        public final long exchangeId;
+        public final String exchangeParty;
+        public final String name;
+        public final boolean isActive;
+        public final BigDecimal settlementFee;
+        
+        Exchange(String contractId, long exchangeId, String exchangeParty, String name,
+                 boolean isActive, BigDecimal settlementFee) {
+            super(contractId);
+            this.exchangeId = exchangeId;
+            this.exchangeParty = exchangeParty;
+            this.name = name;
+            this.isActive = isActive;
+            this.settlementFee = settlementFee;
+        }
+    }
+    
+    public static class Asset extends Contract {
+        public final long assetId;
+        public final String symbol;
+        public final String name;
+        public final long decimals;
+        public final boolean isActive;
+        public final String assetProvider;
+        
+        Asset(String contractId, long assetId, String symbol, String name, long decimals,
+              boolean isActive, String assetProvider) {
+            super(contractId);
+            this.assetId = assetId;
+            this.symbol = symbol;
+            this.name = name;
+            this.decimals = decimals;
+            this.isActive = isActive;
+            this.assetProvider = assetProvider;
+        }
+    }
+    
+    public static class Session extends Contract {
+        public final long sessionId;
+        public final long exchangeId;
+        public final Instant startTime;
+        public final Instant endTime;
+        public final String status;
+        private final long[] participatingUsers;
+        private final long[] activeAssets;
+        
+        Session(String contractId, long sessionId, long exchangeId, Instant startTime,
+                Instant endTime, String status, long[] participatingUsers, long[] activeAssets) {
+            super(contractId);
+            this.sessionId = sessionId;
+            this.exchangeId = exchangeId;
+            this.startTime = startTime;
+            this.endTime = endTime;
+            this.status = status;
+            this.participatingUsers = participatingUsers;
+            this.activeAssets = activeAssets;
+        }
+        
+        /** @return Copy of the participating user IDs */
+        public long[] getParticipatingUsers() { return participatingUsers.clone(); }
+        /** @return Copy of the active asset IDs */
+        public long[] getActiveAssets() { return activeAssets.clone(); }
+    }
+}
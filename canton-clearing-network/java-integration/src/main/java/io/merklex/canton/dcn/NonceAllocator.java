@@ -0,0 +1,100 @@
+package io.merklex.canton.dcn;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands out transfer nonces per user in contiguous ranges
+ *
+ * Mirrors the NonceWindow contracts of Nonce.daml: the ledger accepts a nonce
+ * once, either above the user's high-water mark or among the 62 nonces below it
+ * that are still unused. Allocating ranges in increasing order keeps settlements
+ * above the high-water mark; ranges handed to concurrent submitters may land
+ * out of order as long as they stay within that window.
+ *
+ * Seed the allocator from the ledger with {@link DCNClient#syncNonces()} before
+ * allocating, otherwise it starts at nonce 1 for every user.
+ */
+public class NonceAllocator {
+    
+    /**
+     * Nonces the ledger still accepts below the high-water mark
+     */
+    public static final int WINDOW_SIZE = 62;
+    
+    private final Map<Long, AtomicLong> highWater = new ConcurrentHashMap<>();
+    
+    /**
+     * Allocate count consecutive nonces
+     * @param userId The paying user
+     * @param count Number of nonces, positive
+     * @return The allocated range, never handed out again by this allocator
+     */
+    public Range allocate(long userId, int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("Nonce count must be positive: " + count);
+        }
+        
+        long last = counter(userId).addAndGet(count);
+        return new Range(userId, last - count + 1, last);
+    }
+    
+    /**
+     * Allocate a single nonce
+     * @param userId The paying user
+     */
+    public long next(long userId) {
+        return counter(userId).incrementAndGet();
+    }
+    
+    /**
+     * Record that nonces up to used are taken, e.g. from the ledger
+     * @param userId The paying user
+     * @param used Highest nonce known to be used
+     */
+    public void advanceTo(long userId, long used) {
+        counter(userId).accumulateAndGet(used, Math::max);
+    }
+    
+    /**
+     * @return Highest nonce allocated or known used for the user, 0 if none
+     */
+    public long getHighWater(long userId) {
+        AtomicLong counter = highWater.get(userId);
+        return counter == null ? 0 : counter.get();
+    }
+    
+    private AtomicLong counter(long userId) {
+        return highWater.computeIfAbsent(userId, id -> new AtomicLong());
+    }
+    
+    /**
+     * Nonces first..last of one user, claimed together by a SettlementBatch
+     */
+    public static class Range {
+        public final long userId;
+        public final long first;
+        public final long last;
+        
+        public Range(long userId, long first, long last) {
+            if (first <= 0 || first > last) {
+                throw new IllegalArgumentException(
+                    String.format("Invalid nonce range %d..%d", first, last));
+            }
+            
+            this.userId = userId;
+            this.first = first;
+            this.last = last;
+        }
+        
+        public long size() {
+            return last - first + 1;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("NonceRange(user=%d, %d..%d)", userId, first, last);
+        }
+    }
+}
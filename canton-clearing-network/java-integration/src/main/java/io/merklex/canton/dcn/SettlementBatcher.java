@@ -0,0 +1,289 @@
+package io.merklex.canton.dcn;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Nets settlement transfers before they reach the ledger
+ *
+ * Transfers are grouped by asset and summed per user, so a batch becomes one
+ * BalanceDelta per (userId, assetId) no matter how many transfers touched that
+ * balance. A batch is submitted as a single SettlementBatch create and
+ * ApplySettlementBatch exercise, one Daml transaction that exercises each
+ * UserBalance once. This is the Canton counterpart of
+ * exchange_apply_settlement_groups on Ethereum.
+ *
+ * The nonces of the netted transfers travel with the batch as runs of
+ * consecutive nonces per paying user, each run is claimed on the user's
+ * NonceWindow in constant time. Nonces from a {@link NonceAllocator} range
+ * collapse into a single run.
+ *
+ * A batch is submitted when it holds maxTransfers transfers, when the next
+ * transfer would need more than maxDeltas balances, or on {@link #flush()}.
+ * Thread safe; a submission blocks other callers while the client waits for an
+ * in-flight slot.
+ */
+public class SettlementBatcher {
+    
+    private static final Logger logger = LoggerFactory.getLogger(SettlementBatcher.class);
+    
+    public static final int DEFAULT_MAX_TRANSFERS = 10000;
+    public static final int DEFAULT_MAX_DELTAS = 1000;
+    
+    private final DCNClient client;
+    private final int exchangeId;
+    private final int maxTransfers;
+    private final int maxDeltas;
+    
+    // assetId -> userId -> net change
+    private final Map<Integer, Map<Long, BigDecimal>> pending = new TreeMap<>();
+    // fromUserId -> nonces
+    private final Map<Long, TreeSet<Long>> pendingNonces = new TreeMap<>();
+    private int pendingTransfers;
+    private int pendingDeltas;
+    private CompletableFuture<String> pendingResult = new CompletableFuture<>();
+    private long nextBatchId;
+    
+    private long transfersNetted;
+    private long deltasSubmitted;
+    private long batchesSubmitted;
+    
+    /**
+     * @param client Connected client the batches are submitted through
+     * @param exchangeId Exchange the transfers settle for
+     * @param firstBatchId ID of the first batch, following batches count up.
+     *                     Batch IDs must not be reused, they key the command ID.
+     */
+    public SettlementBatcher(DCNClient client, int exchangeId, long firstBatchId) {
+        this(client, exchangeId, firstBatchId, DEFAULT_MAX_TRANSFERS, DEFAULT_MAX_DELTAS);
+    }
+    
+    /**
+     * @param client Connected client the batches are submitted through
+     * @param exchangeId Exchange the transfers settle for
+     * @param firstBatchId ID of the first batch, following batches count up.
+     *                     Batch IDs must not be reused, they key the command ID.
+     * @param maxTransfers Transfers netted into one batch at most
+     * @param maxDeltas Balances one batch touches at most, bounds the transaction size
+     */
+    public SettlementBatcher(DCNClient client, int exchangeId, long firstBatchId,
+                             int maxTransfers, int maxDeltas) {
+        if (maxTransfers <= 0 || maxDeltas < 2) {
+            throw new IllegalArgumentException(
+                String.format("Invalid batch limits: %d transfers, %d deltas", maxTransfers, maxDeltas));
+        }
+        
+        this.client = client;
+        this.exchangeId = exchangeId;
+        this.nextBatchId = firstBatchId;
+        this.maxTransfers = maxTransfers;
+        this.maxDeltas = maxDeltas;
+    }
+    
+    /**
+     * Add a transfer to the current batch, submitting it if a limit is reached
+     * @param transfer Transfer to net
+     * @return Future completed with the command ID of the batch holding the transfer
+     * @throws IllegalArgumentException if the transfer is invalid or its nonce
+     *         is already in the current batch
+     * @throws DCNClient.DCNException if a batch submission fails to start
+     */
+    public synchronized CompletableFuture<String> add(DCNClient.Transfer transfer)
+            throws DCNClient.DCNException {
+        validate(transfer);
+        
+        Map<Long, BigDecimal> users = pending.get(transfer.assetId);
+        int newDeltas = (users == null || !users.containsKey(transfer.fromUserId) ? 1 : 0)
+                      + (users == null || !users.containsKey(transfer.toUserId) ? 1 : 0);
+        if (pendingDeltas + newDeltas > maxDeltas) {
+            flush();
+            newDeltas = 2;
+        }
+        
+        TreeSet<Long> nonces = pendingNonces.computeIfAbsent(transfer.fromUserId, userId -> new TreeSet<>());
+        if (!nonces.add(transfer.nonce)) {
+            throw new IllegalArgumentException(
+                String.format("Duplicate nonce %d for user %d", transfer.nonce, transfer.fromUserId));
+        }
+        
+        addLegs(pending, transfer);
+        pendingDeltas += newDeltas;
+        pendingTransfers++;
+        
+        CompletableFuture<String> result = pendingResult;
+        if (pendingTransfers >= maxTransfers) {
+            flush();
+        }
+        return result;
+    }
+    
+    /**
+     * Submit the current batch
+     * @return Future completed with the command ID of the batch, or with null
+     *         if there was nothing to submit. A batch netting to nothing is
+     *         still submitted so its nonces are claimed.
+     * @throws DCNClient.DCNException if the submission fails to start
+     */
+    public synchronized CompletableFuture<String> flush() throws DCNClient.DCNException {
+        CompletableFuture<String> result = pendingResult;
+        List<BalanceDelta> deltas = toDeltas(pending);
+        List<NonceAllocator.Range> nonceRanges = toRanges(pendingNonces);
+        pending.clear();
+        pendingNonces.clear();
+        int transferCount = pendingTransfers;
+        
+        pendingResult = new CompletableFuture<>();
+        pendingTransfers = 0;
+        pendingDeltas = 0;
+        
+        if (transferCount == 0) {
+            result.complete(null);
+            return result;
+        }
+        
+        long batchId = nextBatchId++;
+        transfersNetted += transferCount;
+        deltasSubmitted += deltas.size();
+        batchesSubmitted++;
+        
+        logger.debug("Submitting settlement batch {}: {} transfers netted to {} deltas",
+                     batchId, transferCount, deltas.size());
+        
+        try {
+            client.submitBatchAsync(
+                "SettlementBatch",
+                "SettlementBatch-" + batchId,
+                Collections.singletonList(
+                    client.settlementBatchCommand(
+                        batchId, exchangeId, transferCount, deltas, nonceRanges))
+            ).whenComplete((commandId, error) -> {
+                if (error != null) {
+                    logger.error("Settlement batch {} failed", batchId, error);
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(commandId);
+                }
+            });
+        } catch (DCNClient.DCNException e) {
+            result.completeExceptionally(e);
+            throw e;
+        }
+        return result;
+    }
+    
+    /**
+     * Net transfers without submitting them
+     * @param transfers Transfers to net
+     * @return One delta per (userId, assetId) with a non-zero net change,
+     *         ordered by asset then user
+     * @throws IllegalArgumentException if a transfer is invalid
+     */
+    public static List<BalanceDelta> net(Collection<DCNClient.Transfer> transfers) {
+        Map<Integer, Map<Long, BigDecimal>> byAsset = new TreeMap<>();
+        for (DCNClient.Transfer transfer : transfers) {
+            validate(transfer);
+            addLegs(byAsset, transfer);
+        }
+        return toDeltas(byAsset);
+    }
+    
+    private static void addLegs(Map<Integer, Map<Long, BigDecimal>> byAsset, DCNClient.Transfer transfer) {
+        Map<Long, BigDecimal> users = byAsset.computeIfAbsent(transfer.assetId, assetId -> new TreeMap<>());
+        users.merge(transfer.fromUserId, transfer.amount.negate(), BigDecimal::add);
+        users.merge(transfer.toUserId, transfer.amount, BigDecimal::add);
+    }
+    
+    private static List<BalanceDelta> toDeltas(Map<Integer, Map<Long, BigDecimal>> byAsset) {
+        List<BalanceDelta> deltas = new ArrayList<>();
+        for (Map.Entry<Integer, Map<Long, BigDecimal>> asset : byAsset.entrySet()) {
+            for (Map.Entry<Long, BigDecimal> user : asset.getValue().entrySet()) {
+                if (user.getValue().signum() != 0) {
+                    deltas.add(new BalanceDelta(user.getKey(), asset.getKey(), user.getValue()));
+                }
+            }
+        }
+        return deltas;
+    }
+    
+    /**
+     * Runs of consecutive nonces, ordered by user then nonce
+     */
+    private static List<NonceAllocator.Range> toRanges(Map<Long, TreeSet<Long>> nonces) {
+        List<NonceAllocator.Range> ranges = new ArrayList<>();
+        for (Map.Entry<Long, TreeSet<Long>> user : nonces.entrySet()) {
+            long first = 0;
+            long last = 0;
+            for (long nonce : user.getValue()) {
+                if (first != 0 && nonce == last + 1) {
+                    last = nonce;
+                    continue;
+                }
+                if (first != 0) {
+                    ranges.add(new NonceAllocator.Range(user.getKey(), first, last));
+                }
+                first = nonce;
+                last = nonce;
+            }
+            if (first != 0) {
+                ranges.add(new NonceAllocator.Range(user.getKey(), first, last));
+            }
+        }
+        return ranges;
+    }
+    
+    /**
+     * Same checks as validateTransfer in Settlement.daml, so a bad transfer
+     * fails here instead of failing the whole batch on the ledger
+     */
+    private static void validate(DCNClient.Transfer transfer) {
+        if (transfer.amount == null || transfer.amount.signum() <= 0) {
+            throw new IllegalArgumentException("Transfer amount must be positive: " + transfer.amount);
+        }
+        if (transfer.nonce <= 0) {
+            throw new IllegalArgumentException("Transfer nonce must be positive: " + transfer.nonce);
+        }
+        if (transfer.fromUserId == transfer.toUserId) {
+            throw new IllegalArgumentException("Cannot transfer to self: user " + transfer.fromUserId);
+        }
+        if (transfer.maxAmount != null && transfer.amount.compareTo(transfer.maxAmount) > 0) {
+            throw new IllegalArgumentException(
+                String.format("Transfer amount %s exceeds maximum %s", transfer.amount, transfer.maxAmount));
+        }
+    }
+    
+    public synchronized long getTransfersNetted() {
+        return transfersNetted;
+    }
+    
+    public synchronized long getDeltasSubmitted() {
+        return deltasSubmitted;
+    }
+    
+    public synchronized long getBatchesSubmitted() {
+        return batchesSubmitted;
+    }
+    
+    /**
+     * Net balance change of one user in one asset
+     */
+    public static class BalanceDelta {
+        public final long userId;
+        public final int assetId;
+        public final BigDecimal delta;
+        
+        public BalanceDelta(long userId, int assetId, BigDecimal delta) {
+            this.userId = userId;
+            this.assetId = assetId;
+            this.delta = delta;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("BalanceDelta(user=%d, asset=%d, delta=%s)", userId, assetId, delta.toPlainString());
+        }
+    }
+}
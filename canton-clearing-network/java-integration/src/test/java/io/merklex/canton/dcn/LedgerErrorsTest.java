@@ -0,0 +1,75 @@
+package io.merklex.canton.dcn;
+
+import com.google.protobuf.Any;
+import com.google.rpc.ErrorInfo;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.protobuf.StatusProto;
+import org.junit.Test;
+
+import java.util.concurrent.CompletionException;
+
+import static org.junit.Assert.*;
+
+public class LedgerErrorsTest {
+
+    /**
+     * Error as Canton returns it, the error code id in an ErrorInfo detail and
+     * at the start of the description
+     */
+    private static StatusRuntimeException cantonError(Status.Code code, String id) {
+        com.google.rpc.Status status = com.google.rpc.Status.newBuilder()
+            .setCode(code.value())
+            .setMessage(id + "(10,5e0b3f7a): rejected")
+            .addDetails(Any.pack(ErrorInfo.newBuilder().setReason(id).build()))
+            .build();
+        return StatusProto.toStatusRuntimeException(status);
+    }
+
+    @Test
+    public void duplicateCommandIsDeduplicated() {
+        StatusRuntimeException error = cantonError(Status.Code.ALREADY_EXISTS, LedgerErrors.DUPLICATE_COMMAND);
+
+        assertEquals(LedgerErrors.DUPLICATE_COMMAND, LedgerErrors.errorCodeId(error));
+        assertTrue(LedgerErrors.isDeduplicated(error));
+        assertFalse(LedgerErrors.isKeyConflict(error));
+    }
+
+    @Test
+    public void submissionInFlightIsDeduplicated() {
+        StatusRuntimeException error = cantonError(Status.Code.ABORTED, LedgerErrors.SUBMISSION_ALREADY_IN_FLIGHT);
+
+        assertTrue(LedgerErrors.isDeduplicated(error));
+        assertFalse(LedgerErrors.isKeyConflict(error));
+    }
+
+    @Test
+    public void duplicateContractKeyIsAConflictNotADuplicate() {
+        StatusRuntimeException error = cantonError(Status.Code.ALREADY_EXISTS, LedgerErrors.DUPLICATE_CONTRACT_KEY);
+
+        assertFalse(LedgerErrors.isDeduplicated(error));
+        assertTrue(LedgerErrors.isKeyConflict(error));
+        assertTrue(LedgerErrors.isKeyConflict(new CompletionException(
+            new DCNClient.DCNException("Command Users-1-100 failed after 1 attempts", error))));
+    }
+
+    @Test
+    public void errorCodeIdFallsBackToTheDescription() {
+        StatusRuntimeException error = Status.ALREADY_EXISTS
+            .withDescription("DUPLICATE_CONTRACT_KEY(10,5e0b3f7a): key exists")
+            .asRuntimeException();
+
+        assertEquals(LedgerErrors.DUPLICATE_CONTRACT_KEY, LedgerErrors.errorCodeId(error));
+        assertTrue(LedgerErrors.isKeyConflict(error));
+    }
+
+    @Test
+    public void alreadyExistsWithoutAnIdIsNotDeduplicated() {
+        StatusRuntimeException error = Status.ALREADY_EXISTS.withDescription("already exists").asRuntimeException();
+
+        assertNull(LedgerErrors.errorCodeId(error));
+        assertFalse(LedgerErrors.isDeduplicated(error));
+        assertFalse(LedgerErrors.isKeyConflict(error));
+        assertFalse(LedgerErrors.isDeduplicated(new IllegalStateException("not a ledger error")));
+    }
+}
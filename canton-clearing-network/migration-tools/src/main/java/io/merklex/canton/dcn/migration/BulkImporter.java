@@ -0,0 +1,380 @@
+package io.merklex.canton.dcn.migration;
+
+import com.daml.ledger.javaapi.data.Command;
+import io.merklex.canton.dcn.DCNClient;
+import io.merklex.canton.dcn.LedgerErrors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Bulk import pipeline for the migration
+ *
+ * The records of a phase are split into partitions of contiguous ranges. Every
+ * partition submits its records in batches of batchSize create commands per
+ * Canton transaction, one batch at a time, so at most one batch per partition
+ * is in flight. After each batch the partition cursor is recorded in
+ * MigrationState and checkpointed to disk, a restarted migration skips every
+ * batch below the cursor instead of starting over.
+ *
+ * Batch command IDs are derived from the keys of the first and last record, so
+ * a batch that was in flight when the process died is deduplicated by the
+ * ledger when it is submitted again. A rejected batch is retried one record at
+ * a time so a single bad record only fails itself. That includes a batch that
+ * hits an existing contract key, after a restart with a different batch layout
+ * or against a partially imported ledger: the ledger committed none of its
+ * creates, so every other record in it still has to be imported.
+ *
+ * The keys of failed records are checkpointed with the cursors. A restarted
+ * migration submits them again one by one instead of reporting them as
+ * imported with the rest of their batch.
+ */
+public class BulkImporter {
+    
+    private static final Logger logger = LoggerFactory.getLogger(BulkImporter.class);
+    
+    public static final int DEFAULT_BATCH_SIZE = 100;
+    public static final int DEFAULT_PARTITIONS = 16;
+    
+    private static final long CHECKPOINT_INTERVAL_MILLIS = 1000;
+    private static final int PROGRESS_INTERVAL = 10_000;
+    
+    private final DCNClient client;
+    private final EthereumToCantonMigration.MigrationState state;
+    private final File checkpointFile;
+    private final int batchSize;
+    private final int partitions;
+    private final AtomicLong lastCheckpoint = new AtomicLong();
+    
+    /**
+     * @param client Connected Canton client
+     * @param state Migration state holding the partition cursors
+     * @param checkpointFile File the state is saved to, null to disable checkpointing
+     * @param batchSize Create commands per Canton transaction
+     * @param partitions Batches in flight, capped at the client's in-flight window
+     */
+    public BulkImporter(DCNClient client, EthereumToCantonMigration.MigrationState state,
+                        File checkpointFile, int batchSize, int partitions) {
+        if (batchSize <= 0 || partitions <= 0) {
+            throw new IllegalArgumentException(
+                String.format("Invalid batchSize %d or partitions %d", batchSize, partitions));
+        }
+        
+        this.client = client;
+        this.state = state;
+        this.checkpointFile = checkpointFile;
+        this.batchSize = batchSize;
+        this.partitions = Math.min(partitions, client.getMaxInFlight());
+    }
+    
+    /**
+     * Import one phase
+     * @param phase Phase name, also the prefix of command IDs and checkpoint entries
+     * @param records Records to import, must be in the same order on every run
+     * @param key Unique key of a record
+     * @param command Create command of a record
+     * @param onImported Called with each imported record and the ID of its command
+     * @return Throughput report of the phase
+     */
+    public <T> PhaseReport run(String phase, List<T> records, Function<T, String> key,
+                               Function<T, Command> command, BiConsumer<T, String> onImported)
+            throws Exception {
+        Phase<T> run = new Phase<>(phase, records, key, command, onImported);
+        logger.info("{}: {} records in {} partitions of batches of {}",
+                    phase, records.size(), run.partitionCount, batchSize);
+        
+        ExecutorService executor = Executors.newFixedThreadPool(run.partitionCount, runnable -> {
+            Thread thread = new Thread(runnable, "dcn-import-" + phase);
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        try {
+            List<CompletableFuture<Void>> partitionsDone = new ArrayList<>();
+            for (int partition = 0; partition < run.partitionCount; partition++) {
+                int resumeAt = run.cursors.get(partition);
+                List<T> failedBefore = run.skipBatches(partition, resumeAt);
+                partitionsDone.add(run.retryFrom(partition, resumeAt, failedBefore, executor));
+            }
+            
+            CompletableFuture.allOf(partitionsDone.toArray(new CompletableFuture<?>[0])).join();
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+            run.report.elapsedNanos = System.nanoTime() - run.startNanos;
+            checkpoint(true);
+        }
+        
+        logger.info("{}", run.report);
+        return run.report;
+    }
+    
+    private void checkpoint(boolean force) {
+        if (checkpointFile == null) {
+            return;
+        }
+        
+        long now = System.currentTimeMillis();
+        long last = lastCheckpoint.get();
+        if (!force && (now - last < CHECKPOINT_INTERVAL_MILLIS || !lastCheckpoint.compareAndSet(last, now))) {
+            return;
+        }
+        
+        try {
+            state.save(checkpointFile);
+        } catch (Exception e) {
+            logger.warn("Failed to checkpoint migration state to {}", checkpointFile, e);
+        }
+    }
+    
+    /**
+     * One phase in progress
+     */
+    private class Phase<T> {
+        final String name;
+        final List<T> records;
+        final Function<T, String> key;
+        final Function<T, Command> command;
+        final BiConsumer<T, String> onImported;
+        final int partitionCount;
+        final AtomicIntegerArray cursors;
+        final Set<String> failedKeys;
+        final PhaseReport report;
+        final long startNanos = System.nanoTime();
+        
+        Phase(String name, List<T> records, Function<T, String> key,
+              Function<T, Command> command, BiConsumer<T, String> onImported) {
+            this.name = name;
+            this.records = records;
+            this.key = key;
+            this.command = command;
+            this.onImported = onImported;
+            this.partitionCount = Math.max(1, Math.min(partitions,
+                (records.size() + batchSize - 1) / batchSize));
+            this.cursors = state.cursors(name,
+                records.size() + "/" + partitionCount + "/" + batchSize, partitionCount);
+            this.failedKeys = state.failedKeys(name);
+            this.report = new PhaseReport(name, records.size());
+        }
+        
+        int partitionStart(int partition) {
+            return (int) ((long) records.size() * partition / partitionCount);
+        }
+        
+        int batchStart(int partition, int batch) {
+            return Math.min(partitionStart(partition) + batch * batchSize, partitionStart(partition + 1));
+        }
+        
+        String commandId(List<T> batch) {
+            return name + "-" + key.apply(batch.get(0)) + "-" + key.apply(batch.get(batch.size() - 1));
+        }
+        
+        /**
+         * Report the records of the batches a previous run completed as imported
+         * @return Records of those batches that failed, to be submitted again
+         */
+        List<T> skipBatches(int partition, int count) {
+            List<T> failedBefore = new ArrayList<>();
+            for (int batch = 0; batch < count; batch++) {
+                List<T> slice = records.subList(batchStart(partition, batch), batchStart(partition, batch + 1));
+                if (slice.isEmpty()) {
+                    break;
+                }
+                
+                String commandId = commandId(slice);
+                for (T record : slice) {
+                    if (!failedKeys.isEmpty() && failedKeys.contains(key.apply(record))) {
+                        failedBefore.add(record);
+                    } else {
+                        onImported.accept(record, commandId);
+                        report.skipped.incrementAndGet();
+                    }
+                }
+            }
+            return failedBefore;
+        }
+        
+        /**
+         * Submit the records that failed in a previous run, then continue at batch
+         */
+        CompletableFuture<Void> retryFrom(int partition, int batch, List<T> failedBefore,
+                                          ExecutorService executor) {
+            if (failedBefore.isEmpty()) {
+                return submitFrom(partition, batch, executor);
+            }
+            
+            logger.info("{}: retrying {} records that failed before the restart", name, failedBefore.size());
+            report.retried.addAndGet(failedBefore.size());
+            return CompletableFuture.supplyAsync(() -> submitEach(failedBefore, 0), executor)
+                .thenCompose(retried -> retried)
+                .thenCompose(ignored -> submitFrom(partition, batch, executor));
+        }
+        
+        CompletableFuture<Void> submitFrom(int partition, int batch, ExecutorService executor) {
+            List<T> slice = records.subList(batchStart(partition, batch), batchStart(partition, batch + 1));
+            if (slice.isEmpty()) {
+                return CompletableFuture.completedFuture(null);
+            }
+            
+            return CompletableFuture.supplyAsync(() -> submitBatch(slice), executor)
+                .thenCompose(submitted -> submitted)
+                .thenCompose(ignored -> {
+                    cursors.set(partition, batch + 1);
+                    checkpoint(false);
+                    return submitFrom(partition, batch + 1, executor);
+                });
+        }
+        
+        CompletableFuture<Void> submitBatch(List<T> slice) {
+            String commandId = commandId(slice);
+            List<Command> commands = new ArrayList<>(slice.size());
+            for (T record : slice) {
+                commands.add(command.apply(record));
+            }
+            
+            return submit(commandId, commands).handle((id, error) -> {
+                report.batches.incrementAndGet();
+                if (error == null) {
+                    for (T record : slice) {
+                        succeeded(record);
+                        onImported.accept(record, id);
+                    }
+                    imported(slice.size());
+                    return CompletableFuture.<Void>completedFuture(null);
+                }
+                
+                if (slice.size() == 1) {
+                    failed(slice.get(0), error);
+                    return CompletableFuture.<Void>completedFuture(null);
+                }
+                
+                if (LedgerErrors.isKeyConflict(error)) {
+                    logger.warn("{}: batch {} hit an existing contract key, importing its {} records one by one",
+                                name, commandId, slice.size());
+                } else {
+                    logger.warn("{}: batch {} rejected, importing its {} records one by one: {}",
+                                name, commandId, slice.size(), error.getMessage());
+                }
+                report.splitBatches.incrementAndGet();
+                return submitEach(slice, 0);
+            }).thenCompose(next -> next);
+        }
+        
+        CompletableFuture<Void> submitEach(List<T> slice, int index) {
+            if (index == slice.size()) {
+                return CompletableFuture.completedFuture(null);
+            }
+            
+            T record = slice.get(index);
+            String commandId = name + "-" + key.apply(record);
+            return submit(commandId, Collections.singletonList(command.apply(record)))
+                .handle((id, error) -> {
+                    if (error == null) {
+                        succeeded(record);
+                        onImported.accept(record, id);
+                        imported(1);
+                    } else {
+                        failed(record, error);
+                    }
+                    return null;
+                })
+                .thenCompose(ignored -> submitEach(slice, index + 1));
+        }
+        
+        CompletableFuture<String> submit(String commandId, List<Command> commands) {
+            try {
+                return client.submitBatchAsync(name, commandId, commands);
+            } catch (Exception e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        
+        void imported(int count) {
+            int before = report.imported.getAndAdd(count);
+            if ((before + count) / PROGRESS_INTERVAL != before / PROGRESS_INTERVAL) {
+                logger.info("{}: imported {} / {}", name, before + count + report.skipped.get(), records.size());
+            }
+        }
+        
+        /**
+         * Recorded before the cursor moves past the record's batch, so a checkpoint
+         * holding the cursor always holds the failure
+         */
+        void failed(T record, Throwable error) {
+            String recordKey = key.apply(record);
+            logger.error("{}: failed to import {}", name, recordKey, error);
+            failedKeys.add(recordKey);
+            report.failed.incrementAndGet();
+            report.failedKeys.add(recordKey);
+        }
+        
+        void succeeded(T record) {
+            if (!failedKeys.isEmpty()) {
+                failedKeys.remove(key.apply(record));
+            }
+        }
+    }
+    
+    /**
+     * Outcome and throughput of one import phase
+     */
+    public static class PhaseReport {
+        private final String phase;
+        private final int records;
+        private final AtomicInteger imported = new AtomicInteger();
+        private final AtomicInteger skipped = new AtomicInteger();
+        private final AtomicInteger retried = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final AtomicInteger batches = new AtomicInteger();
+        private final AtomicInteger splitBatches = new AtomicInteger();
+        private final List<String> failedKeys = Collections.synchronizedList(new ArrayList<>());
+        private long elapsedNanos;
+        
+        PhaseReport(String phase, int records) {
+            this.phase = phase;
+            this.records = records;
+        }
+        
+        public String getPhase() { return phase; }
+        public int getRecords() { return records; }
+        public int getImported() { return imported.get(); }
+        public int getSkipped() { return skipped.get(); }
+        /** Records that failed before a restart and were submitted again */
+        public int getRetried() { return retried.get(); }
+        public int getFailed() { return failed.get(); }
+        public int getBatches() { return batches.get(); }
+        public int getSplitBatches() { return splitBatches.get(); }
+        public List<String> getFailedKeys() { return failedKeys; }
+        public long getElapsedMillis() { return elapsedNanos / 1_000_000; }
+        
+        /**
+         * @return Records imported by this run per second, resumed records excluded
+         */
+        public double getRecordsPerSecond() {
+            return elapsedNanos == 0 ? 0 : getImported() * 1e9 / elapsedNanos;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("%s: %d records, %d imported, %d resumed, %d retried, %d failed, " +
+                                 "%d batches (%d split) in %.1fs, %.0f records/s",
+                                 phase, records, getImported(), getSkipped(), getRetried(), getFailed(),
+                                 getBatches(), getSplitBatches(), getElapsedMillis() / 1000.0,
+                                 getRecordsPerSecond());
+        }
+    }
+}
@@ -1,19 +1,47 @@
 package io.merklex.canton.dcn.migration;
 
 import io.merklex.canton.dcn.DCNClient;
+import io.merklex.dcn.export.DCNExporter;
+import io.merklex.dcn.export.ExportSpool;
+import io.merklex.dcn.export.SpoolValidator;
+import io.merklex.dcn.models.MigrationExport.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.http.HttpService;
+import org.web3j.utils.Numeric;
 
 import java.io.*;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
 
 /**
  * Ethereum to Canton Migration Tool
  * 
  * Exports data from Ethereum-based DCN and imports into Canton DCN.
  * Phase 3 implementation for migrating existing DCN deployments.
+ * 
+ * Imports go through {@link BulkImporter}. When a checkpoint file is given the
+ * progress of every phase is saved to it, and a migration restarted with the
+ * same file and the same exported data resumes where the previous run stopped.
+ * 
+ * The Ethereum state is streamed by {@link DCNExporter} into a fixed-width spool
+ * file instead of being held in memory. The spool is kept next to the checkpoint
+ * file, so a resumed migration imports exactly the snapshot it started with.
+ * 
+ * In {@link VerificationMode#MERKLE} mode (the default) the result is verified
+ * by comparing Keccak Merkle trees of the export and of the Canton active
+ * contract set, see {@link MigrationCommitment}. Only differing subtrees are
+ * inspected, so every missing, unexpected or altered record is found without
+ * per-record ledger queries.
  */
 public class EthereumToCantonMigration {
     
@@ -28,16 +56,91 @@ public class EthereumToCantonMigration {
     
     // Migration state
     private MigrationState state;
+    private final File checkpointFile;
+    private final File spoolFile;
+    private ExportSpool.Reader spool;
+    private final List<BulkImporter.PhaseReport> phaseReports = new ArrayList<>();
+    
+    // Bulk import configuration
+    private final int batchSize;
+    private final int partitions;
+    
+    // Verification configuration
+    private VerificationMode verificationMode = VerificationMode.MERKLE;
+    private int merkleDepth = MerkleTree.DEFAULT_DEPTH;
+    
+    /**
+     * How the imported state is verified
+     */
+    public enum VerificationMode {
+        /** Compare record counts only */
+        COUNTS,
+        /** Compare counts and Merkle commitments of every record */
+        MERKLE
+    }
     
     public EthereumToCantonMigration(String ethereumRpcUrl, 
                                      String dcnContractAddress,
                                      DCNClient cantonClient) {
+        this(ethereumRpcUrl, dcnContractAddress, cantonClient, null,
+             BulkImporter.DEFAULT_BATCH_SIZE, BulkImporter.DEFAULT_PARTITIONS);
+    }
+    
+    /**
+     * @param checkpointFile File progress is saved to and resumed from, null to disable
+     * @param batchSize Create commands per Canton transaction
+     * @param partitions Batches submitted concurrently
+     */
+    public EthereumToCantonMigration(String ethereumRpcUrl, 
+                                     String dcnContractAddress,
+                                     DCNClient cantonClient,
+                                     File checkpointFile,
+                                     int batchSize,
+                                     int partitions) {
+        this(ethereumRpcUrl, dcnContractAddress, cantonClient, checkpointFile,
+             checkpointFile != null ? new File(checkpointFile.getPath() + ".spool") : null,
+             batchSize, partitions);
+    }
+    
+    /**
+     * @param checkpointFile File progress is saved to and resumed from, null to disable
+     * @param spoolFile Export spool, reused when it exists. Null to export into a
+     *                  temporary file that is deleted when the migration ends
+     * @param batchSize Create commands per Canton transaction
+     * @param partitions Batches submitted concurrently
+     */
+    public EthereumToCantonMigration(String ethereumRpcUrl, 
+                                     String dcnContractAddress,
+                                     DCNClient cantonClient,
+                                     File checkpointFile,
+                                     File spoolFile,
+                                     int batchSize,
+                                     int partitions) {
         this.ethereumRpcUrl = ethereumRpcUrl;
         this.dcnContractAddress = dcnContractAddress;
         this.cantonClient = cantonClient;
+        this.checkpointFile = checkpointFile;
+        this.spoolFile = spoolFile;
+        this.batchSize = batchSize;
+        this.partitions = partitions;
         this.state = new MigrationState();
     }
     
+    /**
+     * @param mode How the imported state is verified
+     */
+    public void setVerificationMode(VerificationMode mode) {
+        this.verificationMode = mode;
+    }
+    
+    /**
+     * @param depth Depth of the Merkle trees, 2^depth buckets. Deeper trees
+     *              narrow a difference down to fewer records per bucket
+     */
+    public void setMerkleDepth(int depth) {
+        this.merkleDepth = depth;
+    }
+    
     /**
      * Execute full migration process
      */
@@ -53,10 +156,11 @@ public class EthereumToCantonMigration {
             logger.info("\n--- Step 1: Exporting data from Ethereum ---");
             EthereumData ethereumData = exportFromEthereum();
             result.setEthereumData(ethereumData);
-            logger.info("Exported {} users, {} exchanges, {} assets", 
+            logger.info("Exported {} users, {} exchanges, {} assets, {} balances", 
                        ethereumData.users.size(),
                        ethereumData.exchanges.size(), 
-                       ethereumData.assets.size());
+                       ethereumData.assets.size(),
+                       ethereumData.balances.size());
             
             // Step 2: Validate exported data
             logger.info("\n--- Step 2: Validating exported data ---");
@@ -68,34 +172,47 @@ public class EthereumToCantonMigration {
             cantonClient.connect();
             logger.info("Connected to Canton");
             
+            if (checkpointFile != null && checkpointFile.exists()) {
+                state = MigrationState.load(checkpointFile);
+                logger.info("Resuming from checkpoint {}", checkpointFile);
+            }
+            BulkImporter importer = new BulkImporter(
+                cantonClient, state, checkpointFile, batchSize, partitions);
+            
             // Step 4: Import users
             logger.info("\n--- Step 4: Importing users to Canton ---");
-            Map<Long, String> userContractIds = importUsers(ethereumData.users);
+            Map<Long, String> userContractIds = importUsers(importer, ethereumData.users);
             result.setUserContractIds(userContractIds);
             logger.info("Imported {} users", userContractIds.size());
             
             // Step 5: Import exchanges
             logger.info("\n--- Step 5: Importing exchanges to Canton ---");
-            Map<Integer, String> exchangeContractIds = importExchanges(ethereumData.exchanges);
+            Map<Integer, String> exchangeContractIds = importExchanges(importer, ethereumData.exchanges);
             result.setExchangeContractIds(exchangeContractIds);
             logger.info("Imported {} exchanges", exchangeContractIds.size());
             
             // Step 6: Import assets
             logger.info("\n--- Step 6: Importing assets to Canton ---");
-            Map<Integer, String> assetContractIds = importAssets(ethereumData.assets);
+            Map<Integer, String> assetContractIds = importAssets(importer, ethereumData.assets);
             result.setAssetContractIds(assetContractIds);
             logger.info("Imported {} assets", assetContractIds.size());
             
             // Step 7: Migrate balances
             logger.info("\n--- Step 7: Migrating balances ---");
-            int balancesMigrated = migrateBalances(ethereumData.balances);
+            int balancesMigrated = migrateBalances(importer, ethereumData.balances);
             result.setBalancesMigrated(balancesMigrated);
             logger.info("Migrated {} balances", balancesMigrated);
             
+            logger.info("\n--- Import throughput ---");
+            for (BulkImporter.PhaseReport report : phaseReports) {
+                logger.info("{}", report);
+            }
+            
             // Step 8: Verify migration
             logger.info("\n--- Step 8: Verifying migration ---");
             boolean verified = verifyMigration(ethereumData, result);
             result.setVerified(verified);
+            result.setPhaseReports(new ArrayList<>(phaseReports));
             
             if (verified) {
                 logger.info("\n=== Migration completed successfully ===");
@@ -109,6 +226,8 @@ public class EthereumToCantonMigration {
             logger.error("Migration failed", e);
             result.setSuccess(false);
             result.setError(e.getMessage());
+        } finally {
+            closeSpool();
         }
         
         return result;
@@ -116,33 +235,49 @@ public class EthereumToCantonMigration {
     
     /**
      * Export data from Ethereum DCN contract
+     * 
+     * The export is written to a ".partial" file and renamed when complete, so an
+     * existing spool is always a full snapshot and is reused as is.
      */
     private EthereumData exportFromEthereum() throws Exception {
-        logger.info("Connecting to Ethereum at {}", ethereumRpcUrl);
-        
-        EthereumData data = new EthereumData();
-        
-        // TODO: Implement actual Ethereum data extraction using web3j
-        // This would query the Ethereum DCN contract for:
-        // - All registered users
-        // - All registered exchanges
-        // - All registered assets
-        // - All user balances
+        File target = spoolFile != null ? spoolFile : File.createTempFile("dcn-export", ".spool");
         
-        // For now, this is a placeholder implementation showing the structure
-        logger.info("Exporting users...");
-        data.users = new ArrayList<>();
-        
-        logger.info("Exporting exchanges...");
-        data.exchanges = new ArrayList<>();
-        
-        logger.info("Exporting assets...");
-        data.assets = new ArrayList<>();
+        if (spoolFile == null || !spoolFile.exists()) {
+            logger.info("Connecting to Ethereum at {}", ethereumRpcUrl);
+            Web3j web3j = Web3j.build(new HttpService(ethereumRpcUrl));
+            try {
+                File partial = new File(target.getPath() + ".partial");
+                long start = System.nanoTime();
+                new DCNExporter(web3j, dcnContractAddress).export(partial);
+                Files.move(partial.toPath(), target.toPath(),
+                           StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                logger.info("Exported to {} in {}ms", target, (System.nanoTime() - start) / 1_000_000);
+            } finally {
+                web3j.shutdown();
+            }
+        } else {
+            logger.info("Reusing export {}", spoolFile);
+        }
         
-        logger.info("Exporting balances...");
-        data.balances = new ArrayList<>();
+        spool = new ExportSpool.Reader(target);
+        if (spoolFile == null) {
+            target.deleteOnExit();
+        }
+        logger.info("Export taken at block {}", spool.blockNumber());
+        return new EthereumData(spool);
+    }
+    
+    private void closeSpool() {
+        if (spool == null) {
+            return;
+        }
         
-        return data;
+        try {
+            spool.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close export spool", e);
+        }
+        spool = null;
     }
     
     /**
@@ -151,37 +286,20 @@ public class EthereumToCantonMigration {
     private void validateData(EthereumData data) throws ValidationException {
         logger.info("Validating data integrity...");
         
-        // Check for duplicate user IDs
-        Set<Long> userIds = new HashSet<>();
-        for (UserData user : data.users) {
-            if (!userIds.add(user.userId)) {
-                throw new ValidationException("Duplicate user ID: " + user.userId);
-            }
-        }
-        
-        // Check for duplicate exchange IDs
-        Set<Integer> exchangeIds = new HashSet<>();
-        for (ExchangeData exchange : data.exchanges) {
-            if (!exchangeIds.add(exchange.exchangeId)) {
-                throw new ValidationException("Duplicate exchange ID: " + exchange.exchangeId);
+        // Ids sorted and unique per section, balances reference exported users and assets
+        List<String> errors = SpoolValidator.Validate(data.spool);
+        if (!errors.isEmpty()) {
+            for (String error : errors) {
+                logger.error("Invalid export: {}", error);
             }
+            throw new ValidationException(errors.size() + " problems in export, first: " + errors.get(0));
         }
         
-        // Check for duplicate asset IDs
-        Set<Integer> assetIds = new HashSet<>();
+        // decimals() is optional in ERC20, it cannot be guessed from the unit scale
         for (AssetData asset : data.assets) {
-            if (!assetIds.add(asset.assetId)) {
-                throw new ValidationException("Duplicate asset ID: " + asset.assetId);
-            }
-        }
-        
-        // Validate balance references
-        for (BalanceData balance : data.balances) {
-            if (!userIds.contains(balance.userId)) {
-                throw new ValidationException("Balance references unknown user: " + balance.userId);
-            }
-            if (!assetIds.contains(balance.assetId)) {
-                throw new ValidationException("Balance references unknown asset: " + balance.assetId);
+            if (!asset.decimalsKnown) {
+                throw new ValidationException("Asset " + asset.assetId + " (" + asset.symbol
+                        + ") token " + asset.address + " did not report its decimals");
             }
         }
         
@@ -191,117 +309,125 @@ public class EthereumToCantonMigration {
     /**
      * Import users to Canton
      */
-    private Map<Long, String> importUsers(List<UserData> users) throws Exception {
-        Map<Long, String> contractIds = new HashMap<>();
-        
-        for (UserData user : users) {
-            try {
-                String contractId = cantonClient.registerUser(
-                    user.userId,
-                    "User" + user.userId,  // Party name
-                    user.metadata
-                );
-                contractIds.put(user.userId, contractId);
-                state.usersImported++;
-                
-                if (state.usersImported % 100 == 0) {
-                    logger.info("Imported {} / {} users", state.usersImported, users.size());
-                }
-                
-            } catch (Exception e) {
-                logger.error("Failed to import user {}", user.userId, e);
-                state.usersFailed++;
-            }
-        }
-        
-        return contractIds;
+    private Map<Long, String> importUsers(BulkImporter importer, List<UserData> users) 
+            throws Exception {
+        Map<Long, String> contractIds = new ConcurrentHashMap<>();
+        BulkImporter.PhaseReport report = importer.run(
+            "ImportUsers",
+            users,
+            user -> String.valueOf(user.userId),
+            user -> cantonClient.userAccountCommand(
+                user.userId,
+                userParty(user.userId),
+                user.metadata
+            ),
+            (user, contractId) -> contractIds.put(user.userId, contractId)
+        );
+        
+        state.usersImported = report.getImported() + report.getSkipped();
+        state.usersFailed = report.getFailed();
+        phaseReports.add(report);
+        return new HashMap<>(contractIds);
     }
     
     /**
      * Import exchanges to Canton
      */
-    private Map<Integer, String> importExchanges(List<ExchangeData> exchanges) throws Exception {
-        Map<Integer, String> contractIds = new HashMap<>();
-        
-        for (ExchangeData exchange : exchanges) {
-            try {
-                String contractId = cantonClient.registerExchange(
-                    exchange.exchangeId,
-                    "Exchange" + exchange.exchangeId,
-                    exchange.name,
-                    exchange.metadata
-                );
-                contractIds.put(exchange.exchangeId, contractId);
-                state.exchangesImported++;
-                
-            } catch (Exception e) {
-                logger.error("Failed to import exchange {}", exchange.exchangeId, e);
-                state.exchangesFailed++;
-            }
-        }
-        
-        return contractIds;
+    private Map<Integer, String> importExchanges(BulkImporter importer, 
+                                                 List<ExchangeData> exchanges) 
+            throws Exception {
+        Map<Integer, String> contractIds = new ConcurrentHashMap<>();
+        BulkImporter.PhaseReport report = importer.run(
+            "ImportExchanges",
+            exchanges,
+            exchange -> String.valueOf(exchange.exchangeId),
+            exchange -> cantonClient.registeredExchangeCommand(
+                exchange.exchangeId,
+                exchangeParty(exchange.exchangeId),
+                exchange.name,
+                exchange.metadata
+            ),
+            (exchange, contractId) -> contractIds.put(exchange.exchangeId, contractId)
+        );
+        
+        state.exchangesImported = report.getImported() + report.getSkipped();
+        state.exchangesFailed = report.getFailed();
+        phaseReports.add(report);
+        return new HashMap<>(contractIds);
     }
     
     /**
      * Import assets to Canton
      */
-    private Map<Integer, String> importAssets(List<AssetData> assets) throws Exception {
-        Map<Integer, String> contractIds = new HashMap<>();
-        
-        for (AssetData asset : assets) {
-            try {
-                String contractId = cantonClient.registerAsset(
-                    asset.assetId,
-                    asset.symbol,
-                    asset.name,
-                    asset.decimals,
-                    "AssetProvider" + asset.assetId
-                );
-                contractIds.put(asset.assetId, contractId);
-                state.assetsImported++;
-                
-            } catch (Exception e) {
-                logger.error("Failed to import asset {}", asset.assetId, e);
-                state.assetsFailed++;
-            }
-        }
-        
-        return contractIds;
+    private Map<Integer, String> importAssets(BulkImporter importer, List<AssetData> assets) 
+            throws Exception {
+        Map<Integer, String> contractIds = new ConcurrentHashMap<>();
+        BulkImporter.PhaseReport report = importer.run(
+            "ImportAssets",
+            assets,
+            asset -> String.valueOf(asset.assetId),
+            asset -> cantonClient.registeredAssetCommand(
+                asset.assetId,
+                asset.symbol,
+                asset.name,
+                asset.decimals,
+                assetProviderParty(asset.assetId),
+                asset.metadata
+            ),
+            (asset, contractId) -> contractIds.put(asset.assetId, contractId)
+        );
+        
+        state.assetsImported = report.getImported() + report.getSkipped();
+        state.assetsFailed = report.getFailed();
+        phaseReports.add(report);
+        return new HashMap<>(contractIds);
     }
     
     /**
-     * Migrate balances to Canton
+     * Migrate balances to Canton as UserBalance contracts
      */
-    private int migrateBalances(List<BalanceData> balances) throws Exception {
-        int migrated = 0;
-        
-        for (BalanceData balance : balances) {
-            try {
-                // TODO: Implement balance migration
-                // This would involve creating UserBalance contracts
-                // using Canton's command submission API
-                migrated++;
-                state.balancesMigrated++;
-                
-                if (state.balancesMigrated % 1000 == 0) {
-                    logger.info("Migrated {} / {} balances", state.balancesMigrated, balances.size());
-                }
-                
-            } catch (Exception e) {
-                logger.error("Failed to migrate balance for user {} asset {}", 
-                           balance.userId, balance.assetId, e);
-                state.balancesFailed++;
-            }
-        }
-        
-        return migrated;
+    private int migrateBalances(BulkImporter importer, List<BalanceData> balances) 
+            throws Exception {
+        BulkImporter.PhaseReport report = importer.run(
+            "MigrateBalances",
+            balances,
+            balance -> balance.userId + ":" + balance.assetId,
+            balance -> cantonClient.userBalanceCommand(
+                balance.userId,
+                userParty(balance.userId),
+                balance.assetId,
+                balance.balance,
+                balance.lockedBalance != null ? balance.lockedBalance : BigDecimal.ZERO
+            ),
+            (balance, contractId) -> { }
+        );
+        
+        state.balancesMigrated = report.getImported() + report.getSkipped();
+        state.balancesFailed = report.getFailed();
+        phaseReports.add(report);
+        return state.balancesMigrated;
+    }
+    
+    /**
+     * Party names the import assigns, also used to build the expected commitment
+     */
+    static String userParty(long userId) {
+        return "User" + userId;
+    }
+    
+    static String exchangeParty(int exchangeId) {
+        return "Exchange" + exchangeId;
+    }
+    
+    static String assetProviderParty(int assetId) {
+        return "AssetProvider" + assetId;
     }
     
     /**
      * Verify migration correctness
      */
-    private boolean verifyMigration(EthereumData ethereumData, MigrationResult result) {
+    private boolean verifyMigration(EthereumData ethereumData, MigrationResult result) 
+            throws Exception {
         logger.info("Verifying migration results...");
         
         boolean allGood = true;
@@ -334,8 +460,13 @@ public class EthereumToCantonMigration {
             allGood = false;
         }
         
+        if (verificationMode == VerificationMode.MERKLE && !verifyCommitments(ethereumData, result)) {
+            allGood = false;
+        }
+        
         if (allGood) {
-            logger.info("Verification passed - all counts match");
+            logger.info("Verification passed - all {} match", 
+                        verificationMode == VerificationMode.MERKLE ? "records" : "counts");
         } else {
             logger.warn("Verification found mismatches");
         }
@@ -343,14 +474,155 @@ public class EthereumToCantonMigration {
         return allGood;
     }
     
+    /**
+     * Compare Merkle commitments of the export and of the Canton active contracts
+     */
+    private boolean verifyCommitments(EthereumData ethereumData, MigrationResult result) 
+            throws Exception {
+        long start = System.nanoTime();
+        MerkleTree expected = MigrationCommitment.expected(ethereumData, merkleDepth);
+        MerkleTree actual = MigrationCommitment.actual(cantonClient, merkleDepth);
+        
+        MerkleTree.Diff diff = MerkleTree.compare(expected, actual);
+        result.setVerificationDiff(diff);
+        logger.info("Merkle roots: expected {} ({} records), actual {} ({} records)",
+                    Numeric.toHexString(expected.root()), expected.size(),
+                    Numeric.toHexString(actual.root()), actual.size());
+        logger.info("Merkle comparison: {} in {}ms", diff, (System.nanoTime() - start) / 1_000_000);
+        
+        if (diff.isEmpty()) {
+            return true;
+        }
+        
+        logDifferences("Missing on Canton", diff.getMissing());
+        logDifferences("Unexpected on Canton", diff.getUnexpected());
+        logDifferences("Different on Canton", diff.getMismatched());
+        return false;
+    }
+    
+    private static void logDifferences(String label, List<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        int shown = Math.min(keys.size(), 20);
+        logger.warn("{}: {} records {}{}", label, keys.size(), keys.subList(0, shown),
+                    shown < keys.size() ? " ..." : "");
+    }
+    
     /**
      * Data classes
+     * 
+     * The lists of EthereumData are read-only views of the export spool, sorted by
+     * id. Records are decoded on every get so the lists hold no per-record memory
+     * and can be read from any thread. They are valid until the migration returns.
      */
     public static class EthereumData {
-        List<UserData> users;
-        List<ExchangeData> exchanges;
-        List<AssetData> assets;
-        List<BalanceData> balances;
+        final ExportSpool.Reader spool;
+        final List<UserData> users;
+        final List<ExchangeData> exchanges;
+        final List<AssetData> assets;
+        final List<BalanceData> balances;
+        
+        EthereumData(ExportSpool.Reader spool) {
+            this.spool = spool;
+            
+            this.users = new SpoolList<>(spool.userCount(), index -> {
+                ExportUser record = spool.user(index, new ExportUser());
+                UserData user = new UserData();
+                user.userId = record.userId();
+                user.address = address(record::getTradeAddress);
+                user.isActive = true;
+                user.metadata = String.format(
+                    "{\"tradeAddress\":\"%s\",\"withdrawAddress\":\"%s\",\"recoveryAddress\":\"%s\"}",
+                    user.address, address(record::getWithdrawAddress), address(record::getRecoveryAddress));
+                return user;
+            });
+            
+            this.exchanges = new SpoolList<>(spool.exchangeCount(), index -> {
+                ExportExchange record = spool.exchange(index, new ExportExchange());
+                ExchangeData exchange = new ExchangeData();
+                exchange.exchangeId = record.exchangeId();
+                exchange.name = text(record::getName, ExportExchange.NAME_LENGTH);
+                exchange.address = address(record::getOwner);
+                exchange.isActive = !record.isLocked();
+                exchange.metadata = String.format(
+                    "{\"owner\":\"%s\",\"withdrawAddress\":\"%s\",\"locked\":%b}",
+                    exchange.address, address(record::getWithdrawAddress), record.isLocked());
+                return exchange;
+            });
+            
+            this.assets = new SpoolList<>(spool.assetCount(), index -> {
+                ExportAsset record = spool.asset(index, new ExportAsset());
+                AssetData asset = new AssetData();
+                asset.assetId = record.assetId();
+                asset.symbol = text(record::getSymbol, ExportAsset.SYMBOL_LENGTH);
+                asset.name = asset.symbol;
+                asset.decimals = Byte.toUnsignedInt(record.tokenDecimals());
+                asset.decimalsKnown = record.hasTokenDecimals() != 0;
+                byte[] unitScale = new byte[ExportAsset.UNIT_SCALE_LENGTH];
+                record.getUnitScale(unitScale);
+                asset.unitScale = new BigInteger(1, unitScale);
+                asset.address = address(record::getContractAddress);
+                asset.metadata = String.format("{\"contract\":\"%s\",\"unitScale\":%s}",
+                                               asset.address, asset.unitScale);
+                return asset;
+            });
+            
+            this.balances = new SpoolList<>(spool.balanceCount(), index -> {
+                ExportBalance record = spool.balance(index, new ExportBalance());
+                byte[] amount = new byte[ExportBalance.BALANCE_LENGTH];
+                record.getBalance(amount);
+                
+                BalanceData balance = new BalanceData();
+                balance.userId = record.userId();
+                balance.assetId = record.assetId();
+                balance.balance = new BigDecimal(new BigInteger(1, amount));
+                balance.lockedBalance = BigDecimal.ZERO;
+                return balance;
+            });
+        }
+        
+        private static String address(Consumer<byte[]> field) {
+            byte[] bytes = new byte[20];
+            field.accept(bytes);
+            return Numeric.toHexString(bytes);
+        }
+        
+        private static String text(Consumer<byte[]> field, int length) {
+            byte[] bytes = new byte[length];
+            field.accept(bytes);
+            int end = 0;
+            while (end < length && bytes[end] != 0) {
+                end++;
+            }
+            return new String(bytes, 0, end, StandardCharsets.US_ASCII).trim();
+        }
+    }
+    
+    /**
+     * Fixed size list decoding its elements on demand
+     */
+    private static class SpoolList<T> extends AbstractList<T> implements RandomAccess {
+        private final int size;
+        private final IntFunction<T> decode;
+        
+        SpoolList(int size, IntFunction<T> decode) {
+            this.size = size;
+            this.decode = decode;
+        }
+        
+        @Override
+        public T get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index " + index + ", size " + size);
+            }
+            return decode.apply(index);
+        }
+        
+        @Override
+        public int size() {
+            return size;
+        }
     }
     
     public static class UserData {
@@ -368,15 +640,25 @@ public class EthereumToCantonMigration {
         String metadata;
     }
     
+    /**
+     * decimals are the ERC20 token's own. unitScale converts DCN session quantities
+     * to token units: token amount = session quantity * unitScale
+     */
     public static class AssetData {
         int assetId;
         String symbol;
         String name;
         int decimals;
+        boolean decimalsKnown;
+        BigInteger unitScale;
         String address;
         String metadata;
     }
     
+    /**
+     * Amounts are in token base units, as user_deposit credits them, and are not
+     * scaled by unitScale. Session and exchange balances are not migrated.
+     */
     public static class BalanceData {
         long userId;
         int assetId;
@@ -393,6 +675,113 @@ public class EthereumToCantonMigration {
         int assetsFailed = 0;
         int balancesMigrated = 0;
         int balancesFailed = 0;
+        
+        // Bulk import checkpoint: batch layout, partition cursors and failed keys per phase
+        private final Map<String, String> layouts = new ConcurrentHashMap<>();
+        private final Map<String, AtomicIntegerArray> cursors = new ConcurrentHashMap<>();
+        private final Map<String, Set<String>> failedKeys = new ConcurrentHashMap<>();
+        
+        /**
+         * Partition cursors of a phase. Cursors saved for a different layout are
+         * discarded, the batches would not line up.
+         */
+        AtomicIntegerArray cursors(String phase, String layout, int partitions) {
+            String saved = layouts.put(phase, layout);
+            AtomicIntegerArray existing = cursors.get(phase);
+            if (layout.equals(saved) && existing != null && existing.length() == partitions) {
+                return existing;
+            }
+            
+            if (saved != null) {
+                logger.warn("Checkpoint of {} was taken with layout {}, now {}. Restarting phase",
+                            phase, saved, layout);
+            }
+            AtomicIntegerArray fresh = new AtomicIntegerArray(partitions);
+            cursors.put(phase, fresh);
+            failedKeys.remove(phase);
+            return fresh;
+        }
+        
+        /**
+         * Keys of the records of a phase that failed to import and were not
+         * imported since. A restarted phase submits them again.
+         */
+        Set<String> failedKeys(String phase) {
+            return failedKeys.computeIfAbsent(phase, ignored -> ConcurrentHashMap.newKeySet());
+        }
+        
+        synchronized void save(File file) throws IOException {
+            Properties properties = new Properties();
+            properties.setProperty("usersImported", String.valueOf(usersImported));
+            properties.setProperty("usersFailed", String.valueOf(usersFailed));
+            properties.setProperty("exchangesImported", String.valueOf(exchangesImported));
+            properties.setProperty("exchangesFailed", String.valueOf(exchangesFailed));
+            properties.setProperty("assetsImported", String.valueOf(assetsImported));
+            properties.setProperty("assetsFailed", String.valueOf(assetsFailed));
+            properties.setProperty("balancesMigrated", String.valueOf(balancesMigrated));
+            properties.setProperty("balancesFailed", String.valueOf(balancesFailed));
+            
+            for (Map.Entry<String, AtomicIntegerArray> entry : cursors.entrySet()) {
+                AtomicIntegerArray phaseCursors = entry.getValue();
+                StringBuilder value = new StringBuilder();
+                for (int i = 0; i < phaseCursors.length(); i++) {
+                    value.append(i == 0 ? "" : ",").append(phaseCursors.get(i));
+                }
+                properties.setProperty(entry.getKey() + ".layout", layouts.get(entry.getKey()));
+                properties.setProperty(entry.getKey() + ".cursors", value.toString());
+                
+                // Read after the cursors, a failure is recorded before its batch's cursor moves
+                properties.setProperty(entry.getKey() + ".failed",
+                                       String.join(",", failedKeys(entry.getKey())));
+            }
+            
+            // Write then rename so a crash never leaves a half written checkpoint
+            File temp = new File(file.getPath() + ".tmp");
+            try (OutputStream out = new FileOutputStream(temp)) {
+                properties.store(out, "DCN migration checkpoint");
+            }
+            Files.move(temp.toPath(), file.toPath(),
+                       StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        
+        static MigrationState load(File file) throws IOException {
+            Properties properties = new Properties();
+            try (InputStream in = new FileInputStream(file)) {
+                properties.load(in);
+            }
+            
+            MigrationState state = new MigrationState();
+            state.usersImported = Integer.parseInt(properties.getProperty("usersImported", "0"));
+            state.usersFailed = Integer.parseInt(properties.getProperty("usersFailed", "0"));
+            state.exchangesImported = Integer.parseInt(properties.getProperty("exchangesImported", "0"));
+            state.exchangesFailed = Integer.parseInt(properties.getProperty("exchangesFailed", "0"));
+            state.assetsImported = Integer.parseInt(properties.getProperty("assetsImported", "0"));
+            state.assetsFailed = Integer.parseInt(properties.getProperty("assetsFailed", "0"));
+            state.balancesMigrated = Integer.parseInt(properties.getProperty("balancesMigrated", "0"));
+            state.balancesFailed = Integer.parseInt(properties.getProperty("balancesFailed", "0"));
+            
+            for (String name : properties.stringPropertyNames()) {
+                if (!name.endsWith(".layout")) {
+                    continue;
+                }
+                String phase = name.substring(0, name.length() - ".layout".length());
+                String[] values = properties.getProperty(phase + ".cursors", "").split(",");
+                
+                AtomicIntegerArray phaseCursors = new AtomicIntegerArray(values.length);
+                for (int i = 0; i < values.length; i++) {
+                    phaseCursors.set(i, values[i].isEmpty() ? 0 : Integer.parseInt(values[i]));
+                }
+                state.layouts.put(phase, properties.getProperty(name));
+                state.cursors.put(phase, phaseCursors);
+                
+                for (String key : properties.getProperty(phase + ".failed", "").split(",")) {
+                    if (!key.isEmpty()) {
+                        state.failedKeys(phase).add(key);
+                    }
+                }
+            }
+            return state;
+        }
     }
     
     public static class MigrationResult {
@@ -404,6 +793,8 @@ public class EthereumToCantonMigration {
         private Map<Integer, String> assetContractIds;
         private int balancesMigrated;
         private boolean verified;
+        private List<BulkImporter.PhaseReport> phaseReports = new ArrayList<>();
+        private MerkleTree.Diff verificationDiff;
         
         // Getters and setters
         public boolean isSuccess() { return success; }
@@ -429,6 +820,13 @@ public class EthereumToCantonMigration {
         
         public boolean isVerified() { return verified; }
         public void setVerified(boolean verified) { this.verified = verified; }
+        
+        public List<BulkImporter.PhaseReport> getPhaseReports() { return phaseReports; }
+        public void setPhaseReports(List<BulkImporter.PhaseReport> reports) { this.phaseReports = reports; }
+        
+        /** Merkle comparison result, null unless verified in MERKLE mode */
+        public MerkleTree.Diff getVerificationDiff() { return verificationDiff; }
+        public void setVerificationDiff(MerkleTree.Diff diff) { this.verificationDiff = diff; }
     }
     
     public static class ValidationException extends Exception {
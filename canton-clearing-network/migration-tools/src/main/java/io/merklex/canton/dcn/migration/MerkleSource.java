@@ -0,0 +1,27 @@
+package io.merklex.canton.dcn.migration;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One side of a Merkle comparison. Requests are made one tree level at a time,
+ * so a comparison makes at most depth + 2 requests to each side however many
+ * subtrees differ.
+ */
+public interface MerkleSource {
+    
+    int depth();
+    
+    /**
+     * @param level Tree level, the root is level 0
+     * @param indexes Node indexes within the level
+     * @return Hashes of the given nodes, in the order of indexes
+     */
+    List<byte[]> nodes(int level, int[] indexes) throws Exception;
+    
+    /**
+     * @param buckets Bucket indexes, the nodes of the deepest level
+     * @return Leaf hash by key of every record in the given buckets
+     */
+    Map<String, byte[]> leaves(int[] buckets) throws Exception;
+}
@@ -0,0 +1,247 @@
+package io.merklex.canton.dcn.migration;
+
+import io.merklex.dcn.KeccakHash;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keccak Merkle tree over keyed records
+ *
+ * Records are placed in 2^depth buckets by the hash of their key, so both sides
+ * of a comparison put a record in the same bucket no matter how many other
+ * records they hold. A bucket hashes its leaves sorted by key, inner nodes hash
+ * their two children. Equal roots mean equal record sets; when roots differ
+ * {@link #compare} only descends into differing subtrees.
+ */
+public class MerkleTree implements MerkleSource {
+    
+    public static final int DEFAULT_DEPTH = 12;
+    public static final int MAX_DEPTH = 24;
+    
+    private final int depth;
+    private final byte[][][] levels;
+    private final List<Map<String, byte[]>> buckets;
+    private final long size;
+    
+    private MerkleTree(int depth, List<Map<String, byte[]>> buckets, long size) {
+        this.depth = depth;
+        this.buckets = buckets;
+        this.size = size;
+        this.levels = new byte[depth + 1][][];
+        
+        byte[][] bottom = new byte[buckets.size()][];
+        for (int i = 0; i < bottom.length; i++) {
+            bottom[i] = bucketHash(buckets.get(i));
+        }
+        levels[depth] = bottom;
+        
+        for (int level = depth - 1; level >= 0; level--) {
+            byte[][] children = levels[level + 1];
+            byte[][] nodes = new byte[children.length / 2][];
+            for (int i = 0; i < nodes.length; i++) {
+                nodes[i] = KeccakHash.Hash(children[2 * i], children[2 * i + 1]);
+            }
+            levels[level] = nodes;
+        }
+    }
+    
+    private static byte[] bucketHash(Map<String, byte[]> leaves) {
+        byte[][] parts = new byte[leaves.size() * 2][];
+        int i = 0;
+        for (Map.Entry<String, byte[]> leaf : leaves.entrySet()) {
+            parts[i++] = KeccakHash.Hash(leaf.getKey().getBytes(StandardCharsets.UTF_8));
+            parts[i++] = leaf.getValue();
+        }
+        return KeccakHash.Hash(parts);
+    }
+    
+    static int bucketOf(String key, int depth) {
+        if (depth == 0) {
+            return 0;
+        }
+        byte[] hash = KeccakHash.Hash(key.getBytes(StandardCharsets.UTF_8));
+        int prefix = ((hash[0] & 0xFF) << 16) | ((hash[1] & 0xFF) << 8) | (hash[2] & 0xFF);
+        return prefix >>> (MAX_DEPTH - depth);
+    }
+    
+    public byte[] root() {
+        return levels[0][0];
+    }
+    
+    public long size() {
+        return size;
+    }
+    
+    @Override
+    public int depth() {
+        return depth;
+    }
+    
+    @Override
+    public List<byte[]> nodes(int level, int[] indexes) {
+        List<byte[]> nodes = new ArrayList<>(indexes.length);
+        for (int index : indexes) {
+            nodes.add(levels[level][index]);
+        }
+        return nodes;
+    }
+    
+    @Override
+    public Map<String, byte[]> leaves(int[] buckets) {
+        Map<String, byte[]> leaves = new TreeMap<>();
+        for (int bucket : buckets) {
+            leaves.putAll(this.buckets.get(bucket));
+        }
+        return leaves;
+    }
+    
+    /**
+     * Collects records, not thread safe
+     */
+    public static class Builder {
+        private final int depth;
+        private final List<Map<String, byte[]>> buckets;
+        private long size;
+        
+        public Builder() {
+            this(DEFAULT_DEPTH);
+        }
+        
+        /**
+         * @param depth Tree depth, the tree has 2^depth buckets
+         */
+        public Builder(int depth) {
+            if (depth < 0 || depth > MAX_DEPTH) {
+                throw new IllegalArgumentException("Invalid depth " + depth);
+            }
+            
+            this.depth = depth;
+            this.buckets = new ArrayList<>(1 << depth);
+            for (int i = 0; i < 1 << depth; i++) {
+                buckets.add(new TreeMap<>());
+            }
+        }
+        
+        /**
+         * @param key Unique key of the record
+         * @param encoding Canonical encoding of the record
+         * @throws IllegalArgumentException if the key was added before
+         */
+        public Builder add(String key, byte[] encoding) {
+            if (buckets.get(bucketOf(key, depth)).put(key, KeccakHash.Hash(encoding)) != null) {
+                throw new IllegalArgumentException("Duplicate key " + key);
+            }
+            size++;
+            return this;
+        }
+        
+        public MerkleTree build() {
+            return new MerkleTree(depth, buckets, size);
+        }
+    }
+    
+    /**
+     * Compare two trees, descending only into differing subtrees
+     * @param expected Tree of the source of truth
+     * @param actual Tree to verify, typically the remote side
+     * @return Keys that differ and the work it took to find them
+     */
+    public static Diff compare(MerkleSource expected, MerkleSource actual) throws Exception {
+        if (expected.depth() != actual.depth()) {
+            throw new IllegalArgumentException(
+                String.format("Depth mismatch: %d and %d", expected.depth(), actual.depth()));
+        }
+        
+        Diff diff = new Diff();
+        int[] differing = {0};
+        for (int level = 0; level <= expected.depth() && differing.length > 0; level++) {
+            List<byte[]> mine = expected.nodes(level, differing);
+            List<byte[]> theirs = actual.nodes(level, differing);
+            diff.requests++;
+            diff.nodesCompared += differing.length;
+            
+            int count = 0;
+            int[] next = new int[differing.length * 2];
+            for (int i = 0; i < differing.length; i++) {
+                if (Arrays.equals(mine.get(i), theirs.get(i))) {
+                    continue;
+                }
+                if (level == expected.depth()) {
+                    next[count++] = differing[i];
+                } else {
+                    next[count++] = differing[i] * 2;
+                    next[count++] = differing[i] * 2 + 1;
+                }
+            }
+            
+            if (level == expected.depth()) {
+                diff.bucketsCompared = count;
+                compareLeaves(expected.leaves(Arrays.copyOf(next, count)),
+                              actual.leaves(Arrays.copyOf(next, count)), diff);
+                diff.requests++;
+            }
+            differing = Arrays.copyOf(next, count);
+        }
+        return diff;
+    }
+    
+    private static void compareLeaves(Map<String, byte[]> expected, Map<String, byte[]> actual, Diff diff) {
+        for (Map.Entry<String, byte[]> leaf : expected.entrySet()) {
+            byte[] other = actual.get(leaf.getKey());
+            if (other == null) {
+                diff.missing.add(leaf.getKey());
+            } else if (!Arrays.equals(leaf.getValue(), other)) {
+                diff.mismatched.add(leaf.getKey());
+            }
+        }
+        for (String key : actual.keySet()) {
+            if (!expected.containsKey(key)) {
+                diff.unexpected.add(key);
+            }
+        }
+        Collections.sort(diff.missing);
+        Collections.sort(diff.mismatched);
+        Collections.sort(diff.unexpected);
+    }
+    
+    /**
+     * Outcome of a comparison
+     */
+    public static class Diff {
+        private final List<String> missing = new ArrayList<>();
+        private final List<String> unexpected = new ArrayList<>();
+        private final List<String> mismatched = new ArrayList<>();
+        private int requests;
+        private int nodesCompared;
+        private int bucketsCompared;
+        
+        /** Keys only in the expected tree */
+        public List<String> getMissing() { return missing; }
+        /** Keys only in the actual tree */
+        public List<String> getUnexpected() { return unexpected; }
+        /** Keys in both trees with different records */
+        public List<String> getMismatched() { return mismatched; }
+        /** Requests made to each side, one per tree level and one for the leaves */
+        public int getRequests() { return requests; }
+        public int getNodesCompared() { return nodesCompared; }
+        public int getBucketsCompared() { return bucketsCompared; }
+        
+        public boolean isEmpty() {
+            return missing.isEmpty() && unexpected.isEmpty() && mismatched.isEmpty();
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("%d missing, %d unexpected, %d mismatched " +
+                                 "(%d nodes, %d buckets, %d requests)",
+                                 missing.size(), unexpected.size(), mismatched.size(),
+                                 nodesCompared, bucketsCompared, requests);
+        }
+    }
+}
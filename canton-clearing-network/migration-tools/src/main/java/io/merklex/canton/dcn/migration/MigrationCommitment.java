@@ -0,0 +1,196 @@
+package io.merklex.canton.dcn.migration;
+
+import com.daml.ledger.javaapi.data.Value;
+import io.merklex.canton.dcn.DCNClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Merkle commitments over the migrated state
+ *
+ * Every migrated record is encoded the same way from both sides: on the
+ * Ethereum side from the export, using the values the import put into the
+ * create command, on the Canton side from the arguments of the active
+ * contract. Two trees built with the same depth have equal roots exactly when
+ * Canton holds every exported record and nothing else.
+ *
+ * Keys are prefixed by record kind (user:, exchange:, asset:, balance:) so all
+ * four templates share one tree.
+ */
+public class MigrationCommitment {
+    
+    private static final Logger logger = LoggerFactory.getLogger(MigrationCommitment.class);
+    
+    /**
+     * Build the tree of the records the migration is expected to create
+     * @param data Exported Ethereum data
+     * @param depth Tree depth, both trees of a comparison must use the same
+     */
+    public static MerkleTree expected(EthereumToCantonMigration.EthereumData data, int depth) {
+        MerkleTree.Builder builder = new MerkleTree.Builder(depth);
+        
+        for (EthereumToCantonMigration.UserData user : data.users) {
+            builder.add(userKey(user.userId), userLeaf(
+                user.userId, EthereumToCantonMigration.userParty(user.userId), user.metadata));
+        }
+        for (EthereumToCantonMigration.ExchangeData exchange : data.exchanges) {
+            builder.add(exchangeKey(exchange.exchangeId), exchangeLeaf(
+                exchange.exchangeId, EthereumToCantonMigration.exchangeParty(exchange.exchangeId),
+                exchange.name, exchange.metadata));
+        }
+        for (EthereumToCantonMigration.AssetData asset : data.assets) {
+            builder.add(assetKey(asset.assetId), assetLeaf(
+                asset.assetId, asset.symbol, asset.name, asset.decimals,
+                EthereumToCantonMigration.assetProviderParty(asset.assetId), asset.metadata));
+        }
+        for (EthereumToCantonMigration.BalanceData balance : data.balances) {
+            builder.add(balanceKey(balance.userId, balance.assetId), balanceLeaf(
+                balance.userId, EthereumToCantonMigration.userParty(balance.userId),
+                balance.assetId, balance.balance,
+                balance.lockedBalance != null ? balance.lockedBalance : BigDecimal.ZERO));
+        }
+        
+        return builder.build();
+    }
+    
+    /**
+     * Build the tree of the DCN contracts active on Canton. The active contract
+     * set is streamed in full once per template and the tree is built locally.
+     * @param client Connected Canton client
+     * @param depth Tree depth, both trees of a comparison must use the same
+     * @throws DCNClient.DCNException if the active contract set cannot be read
+     */
+    public static MerkleTree actual(DCNClient client, int depth) throws DCNClient.DCNException {
+        MerkleTree.Builder builder = new MerkleTree.Builder(depth);
+        
+        client.forEachActiveContract("User", "UserAccount", event -> {
+            Map<String, Value> fields = event.getArguments().getFieldsMap();
+            long userId = int64(fields, "userId");
+            add(builder, userKey(userId), userLeaf(
+                userId, party(fields, "owner"), text(fields, "metadata")));
+        });
+        
+        client.forEachActiveContract("Exchange", "RegisteredExchange", event -> {
+            Map<String, Value> fields = event.getArguments().getFieldsMap();
+            int exchangeId = (int) int64(fields, "exchangeId");
+            add(builder, exchangeKey(exchangeId), exchangeLeaf(
+                exchangeId, party(fields, "exchangeParty"),
+                text(fields, "name"), text(fields, "metadata")));
+        });
+        
+        client.forEachActiveContract("Asset", "RegisteredAsset", event -> {
+            Map<String, Value> fields = event.getArguments().getFieldsMap();
+            int assetId = (int) int64(fields, "assetId");
+            add(builder, assetKey(assetId), assetLeaf(
+                assetId, text(fields, "symbol"), text(fields, "name"),
+                (int) int64(fields, "decimals"), party(fields, "assetProvider"),
+                text(fields, "metadata")));
+        });
+        
+        client.forEachActiveContract("User", "UserBalance", event -> {
+            Map<String, Value> fields = event.getArguments().getFieldsMap();
+            long userId = int64(fields, "userId");
+            int assetId = (int) int64(fields, "assetId");
+            add(builder, balanceKey(userId, assetId), balanceLeaf(
+                userId, party(fields, "owner"), assetId,
+                numeric(fields, "balance"), numeric(fields, "lockedBalance")));
+        });
+        
+        return builder.build();
+    }
+    
+    /**
+     * Two active contracts for one key are reported, the first one is kept
+     */
+    private static void add(MerkleTree.Builder builder, String key, byte[] leaf) {
+        try {
+            builder.add(key, leaf);
+        } catch (IllegalArgumentException e) {
+            logger.warn("More than one active contract for {}", key);
+        }
+    }
+    
+    static String userKey(long userId) {
+        return "user:" + userId;
+    }
+    
+    static String exchangeKey(int exchangeId) {
+        return "exchange:" + exchangeId;
+    }
+    
+    static String assetKey(int assetId) {
+        return "asset:" + assetId;
+    }
+    
+    static String balanceKey(long userId, int assetId) {
+        return "balance:" + userId + ":" + assetId;
+    }
+    
+    static byte[] userLeaf(long userId, String owner, String metadata) {
+        return encode(userId, owner, metadata);
+    }
+    
+    static byte[] exchangeLeaf(int exchangeId, String exchangeParty, String name, String metadata) {
+        return encode(exchangeId, exchangeParty, name, metadata);
+    }
+    
+    static byte[] assetLeaf(int assetId, String symbol, String name, int decimals,
+                            String provider, String metadata) {
+        return encode(assetId, symbol, name, decimals, provider, metadata);
+    }
+    
+    static byte[] balanceLeaf(long userId, String owner, int assetId,
+                              BigDecimal balance, BigDecimal lockedBalance) {
+        return encode(userId, owner, assetId, amount(balance), amount(lockedBalance));
+    }
+    
+    /**
+     * Daml Numeric keeps a fixed scale, so amounts are compared without trailing zeros
+     */
+    private static String amount(BigDecimal value) {
+        return value.signum() == 0 ? "0" : value.stripTrailingZeros().toPlainString();
+    }
+    
+    /**
+     * Length prefixed UTF-8 of every field, so field boundaries are unambiguous
+     */
+    private static byte[] encode(Object... fields) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (Object field : fields) {
+            byte[] bytes = String.valueOf(field).getBytes(StandardCharsets.UTF_8);
+            out.write(ByteBuffer.allocate(4).putInt(bytes.length).array(), 0, 4);
+            out.write(bytes, 0, bytes.length);
+        }
+        return out.toByteArray();
+    }
+    
+    private static Value field(Map<String, Value> fields, String name) {
+        Value value = fields.get(name);
+        if (value == null) {
+            throw new IllegalStateException("Contract has no field " + name);
+        }
+        return value;
+    }
+    
+    private static long int64(Map<String, Value> fields, String name) {
+        return field(fields, name).asInt64().get().getValue();
+    }
+    
+    private static String text(Map<String, Value> fields, String name) {
+        return field(fields, name).asText().get().getValue();
+    }
+    
+    private static String party(Map<String, Value> fields, String name) {
+        return field(fields, name).asParty().get().getValue();
+    }
+    
+    private static BigDecimal numeric(Map<String, Value> fields, String name) {
+        return field(fields, name).asNumeric().get().getValue();
+    }
+}
@@ -0,0 +1,174 @@
+package io.merklex.canton.dcn.migration;
+
+import com.daml.ledger.javaapi.data.Command;
+import io.grpc.Status;
+import io.merklex.canton.dcn.DCNClient;
+import io.merklex.canton.dcn.LedgerErrors;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class BulkImporterTest {
+
+    private static final String PHASE = "ImportUsers";
+    private static final int RECORDS = 1000;
+    private static final String BAD_KEY = "17";
+
+    /**
+     * Stands in for the process dying, escapes the importer's exception handling
+     */
+    private static class Killed extends Error {
+    }
+
+    /**
+     * Ledger that rejects every command holding a bad key or an existing contract
+     * key and dies when a batch starting at killAt is submitted
+     */
+    private static class FakeLedger extends DCNClient {
+        final Set<Long> badKeys = ConcurrentHashMap.newKeySet();
+        final Set<Long> existingKeys = ConcurrentHashMap.newKeySet();
+        final Map<String, AtomicInteger> accepted = new ConcurrentHashMap<>();
+        volatile long killAt = -1;
+        volatile boolean killed;
+
+        FakeLedger() {
+            super("localhost", 6865, "test", "Operator");
+        }
+
+        @Override
+        public CompletableFuture<String> submitBatchAsync(String kind, String commandId, List<Command> commands) {
+            String[] parts = commandId.substring(kind.length() + 1).split("-");
+            long first = Long.parseLong(parts[0]);
+            long last = Long.parseLong(parts[parts.length - 1]);
+
+            if (killed || first == killAt) {
+                killed = true;
+                throw new Killed();
+            }
+            for (long bad : badKeys) {
+                if (bad >= first && bad <= last) {
+                    CompletableFuture<String> rejected = new CompletableFuture<>();
+                    rejected.completeExceptionally(new IllegalStateException("bad record " + bad));
+                    return rejected;
+                }
+            }
+            for (long existing : existingKeys) {
+                if (existing >= first && existing <= last) {
+                    CompletableFuture<String> rejected = new CompletableFuture<>();
+                    rejected.completeExceptionally(new DCNException("Command " + commandId + " failed after 1 attempts",
+                        Status.ALREADY_EXISTS.withDescription(LedgerErrors.DUPLICATE_CONTRACT_KEY
+                            + "(10,5e0b3f7a): contract key of " + existing + " is already active").asRuntimeException()));
+                    return rejected;
+                }
+            }
+
+            accepted.computeIfAbsent(commandId, ignored -> new AtomicInteger()).incrementAndGet();
+            return CompletableFuture.completedFuture(commandId);
+        }
+    }
+
+    private static List<Long> keys() {
+        List<Long> keys = new ArrayList<>();
+        for (long i = 0; i < RECORDS; i++) {
+            keys.add(i);
+        }
+        return keys;
+    }
+
+    private static BulkImporter.PhaseReport run(FakeLedger ledger, EthereumToCantonMigration.MigrationState state,
+                                                File checkpoint, Map<Long, Integer> imported) throws Exception {
+        BulkImporter importer = new BulkImporter(ledger, state, checkpoint, 10, 4);
+        return importer.run(PHASE, keys(), String::valueOf, key -> null,
+                            (key, commandId) -> imported.merge(key, 1, Integer::sum));
+    }
+
+    @Test
+    public void resumedRunRetriesRecordsThatFailedBeforeTheKill() throws Exception {
+        File checkpoint = File.createTempFile("bulk-import", ".checkpoint");
+        try {
+            FakeLedger ledger = new FakeLedger();
+            ledger.badKeys.add(Long.parseLong(BAD_KEY));
+            ledger.killAt = 50;
+
+            EthereumToCantonMigration.MigrationState state = new EthereumToCantonMigration.MigrationState();
+            try {
+                run(ledger, state, checkpoint, new ConcurrentHashMap<>());
+                fail("Import should have been killed");
+            } catch (Exception | Killed expected) {
+                // the batch holding the bad key completed, its cursor moved past it
+            }
+
+            state = EthereumToCantonMigration.MigrationState.load(checkpoint);
+            assertTrue(state.cursors(PHASE, RECORDS + "/4/10", 4).get(0) >= 2);
+            assertEquals(Collections.singleton(BAD_KEY), state.failedKeys(PHASE));
+
+            // Restart with the record still bad: it is submitted again, not taken as imported
+            ledger.killAt = -1;
+            ledger.killed = false;
+            Map<Long, Integer> imported = new ConcurrentHashMap<>();
+            BulkImporter.PhaseReport report = run(ledger, state, checkpoint, imported);
+
+            assertEquals(1, report.getRetried());
+            assertEquals(1, report.getFailed());
+            assertEquals(Collections.singletonList(BAD_KEY), report.getFailedKeys());
+            assertEquals(RECORDS - 1, report.getImported() + report.getSkipped());
+            assertFalse(imported.containsKey(Long.parseLong(BAD_KEY)));
+            assertEquals(RECORDS - 1, imported.size());
+            for (int count : imported.values()) {
+                assertEquals(1, count);
+            }
+            assertEquals(Collections.singleton(BAD_KEY),
+                         EthereumToCantonMigration.MigrationState.load(checkpoint).failedKeys(PHASE));
+
+            // Restart once the record is fixed: it is imported and leaves the checkpoint
+            ledger.badKeys.clear();
+            state = EthereumToCantonMigration.MigrationState.load(checkpoint);
+            imported = new ConcurrentHashMap<>();
+            report = run(ledger, state, checkpoint, imported);
+
+            assertEquals(1, report.getRetried());
+            assertEquals(0, report.getFailed());
+            assertEquals(1, report.getImported());
+            assertEquals(RECORDS, imported.size());
+            assertEquals(1, ledger.accepted.get(PHASE + "-" + BAD_KEY).get());
+            assertTrue(EthereumToCantonMigration.MigrationState.load(checkpoint).failedKeys(PHASE).isEmpty());
+        } finally {
+            checkpoint.delete();
+        }
+    }
+
+    @Test
+    public void batchHittingAnExistingKeyImportsTheRestOneByOne() throws Exception {
+        FakeLedger ledger = new FakeLedger();
+        ledger.existingKeys.add(25L);
+
+        Map<Long, Integer> imported = new ConcurrentHashMap<>();
+        BulkImporter.PhaseReport report = run(ledger, new EthereumToCantonMigration.MigrationState(), null, imported);
+
+        // Nothing of the rejected batch was committed, its other records go in one by one
+        assertNull(ledger.accepted.get(PHASE + "-20-29"));
+        for (long key = 20; key < 30; key++) {
+            if (key != 25) {
+                assertEquals(1, ledger.accepted.get(PHASE + "-" + key).get());
+                assertEquals(Integer.valueOf(1), imported.get(key));
+            }
+        }
+
+        assertEquals(1, report.getSplitBatches());
+        assertEquals(1, report.getFailed());
+        assertEquals(Collections.singletonList("25"), report.getFailedKeys());
+        assertEquals(RECORDS - 1, report.getImported());
+        assertEquals(RECORDS - 1, imported.size());
+        assertFalse(imported.containsKey(25L));
+    }
+}
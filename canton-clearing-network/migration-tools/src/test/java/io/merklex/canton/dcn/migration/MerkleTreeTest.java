@@ -0,0 +1,92 @@
+package io.merklex.canton.dcn.migration;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class MerkleTreeTest {
+
+    private static final int DEPTH = 6;
+    private static final int RECORDS = 500;
+
+    private static byte[] record(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static MerkleTree.Builder records(int count) {
+        MerkleTree.Builder builder = new MerkleTree.Builder(DEPTH);
+        for (int i = 0; i < count; i++) {
+            builder.add("User/" + i, record("balance " + i));
+        }
+        return builder;
+    }
+
+    @Test
+    public void sameRecordsInAnyOrderGiveTheSameRoot() {
+        MerkleTree forward = records(RECORDS).build();
+
+        MerkleTree.Builder backward = new MerkleTree.Builder(DEPTH);
+        for (int i = RECORDS - 1; i >= 0; i--) {
+            backward.add("User/" + i, record("balance " + i));
+        }
+
+        assertArrayEquals(forward.root(), backward.build().root());
+        assertEquals(RECORDS, forward.size());
+    }
+
+    @Test
+    public void equalTreesOnlyCompareTheRoot() throws Exception {
+        MerkleTree.Diff diff = MerkleTree.compare(records(RECORDS).build(), records(RECORDS).build());
+
+        assertTrue(diff.isEmpty());
+        assertEquals(1, diff.getNodesCompared());
+        assertEquals(0, diff.getBucketsCompared());
+    }
+
+    @Test
+    public void compareFindsMissingUnexpectedAndMismatchedKeys() throws Exception {
+        MerkleTree expected = records(RECORDS).build();
+
+        MerkleTree.Builder builder = new MerkleTree.Builder(DEPTH);
+        for (int i = 0; i < RECORDS; i++) {
+            if (i == 42) {
+                continue;
+            }
+            builder.add("User/" + i, record(i == 7 ? "balance 8" : "balance " + i));
+        }
+        builder.add("User/" + RECORDS, record("balance " + RECORDS));
+        MerkleTree.Diff diff = MerkleTree.compare(expected, builder.build());
+
+        assertFalse(diff.isEmpty());
+        assertEquals(Collections.singletonList("User/42"), diff.getMissing());
+        assertEquals(Collections.singletonList("User/" + RECORDS), diff.getUnexpected());
+        assertEquals(Collections.singletonList("User/7"), diff.getMismatched());
+        assertTrue(diff.getBucketsCompared() <= 3);
+        assertEquals(DEPTH + 2, diff.getRequests());
+        assertTrue(diff.getNodesCompared() < 1 << DEPTH);
+    }
+
+    @Test
+    public void leavesOfABucketAreTheRecordsHashedIntoIt() {
+        MerkleTree tree = records(RECORDS).build();
+        int bucket = MerkleTree.bucketOf("User/3", DEPTH);
+
+        assertTrue(tree.leaves(new int[]{bucket}).containsKey("User/3"));
+        assertEquals(1, tree.nodes(0, new int[]{0}).size());
+        assertTrue(Arrays.equals(tree.root(), tree.nodes(0, new int[]{0}).get(0)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void duplicateKeysAreRejected() {
+        new MerkleTree.Builder(DEPTH).add("User/1", record("a")).add("User/1", record("b"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void treesOfDifferentDepthCannotBeCompared() throws Exception {
+        MerkleTree.compare(new MerkleTree.Builder(DEPTH).build(), new MerkleTree.Builder(DEPTH + 1).build());
+    }
+}
@@ -16,6 +16,8 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import org.web3j.utils.Numeric;
+import org.agrona.MutableDirectBuffer;
+import io.merklex.web3.StaticAbi;
 
 @javax.annotation.Generated(value="merklex-code-gen")
 public class DCN {
@@ -32,6 +34,20 @@ public class DCN {
             Collections.emptyList()
         );
     }
+    public static final int user_deposit_to_session_SELECTOR = 0x054060bb;
+    public static final int user_deposit_to_session_BYTES = 132;
+    public static int encode_user_deposit_to_session(MutableDirectBuffer buffer, int offset, long user_id, int exchange_id, int asset_id, long quantity) {
+        StaticAbi.PutSelector(buffer, offset, user_deposit_to_session_SELECTOR);
+        StaticAbi.PutUint(buffer, offset + 4, 64, user_id);
+        StaticAbi.PutUint(buffer, offset + 36, 32, exchange_id);
+        StaticAbi.PutUint(buffer, offset + 68, 32, asset_id);
+        StaticAbi.PutUint(buffer, offset + 100, 64, quantity);
+        return user_deposit_to_session_BYTES;
+    }
+    public static String encode_user_deposit_to_session(long user_id, int exchange_id, int asset_id, long quantity) {
+        MutableDirectBuffer buffer = StaticAbi.Scratch(user_deposit_to_session_BYTES);
+        return StaticAbi.Hex(buffer, 0, encode_user_deposit_to_session(buffer, 0, user_id, exchange_id, asset_id, quantity));
+    }
     public static Function user_set_trade_address(long user_id, String trade_address) {
         return new Function(
             "user_set_trade_address",
@@ -42,6 +58,18 @@ public class DCN {
             Collections.emptyList()
         );
     }
+    public static final int user_set_trade_address_SELECTOR = 0x07028b09;
+    public static final int user_set_trade_address_BYTES = 68;
+    public static int encode_user_set_trade_address(MutableDirectBuffer buffer, int offset, long user_id, String trade_address) {
+        StaticAbi.PutSelector(buffer, offset, user_set_trade_address_SELECTOR);
+        StaticAbi.PutUint(buffer, offset + 4, 64, user_id);
+        StaticAbi.PutAddress(buffer, offset + 36, trade_address);
+        return user_set_trade_address_BYTES;
+    }
+    public static String encode_user_set_trade_address(long user_id, String trade_address) {
+        MutableDirectBuffer buffer = StaticAbi.Scratch(user_set_trade_address_BYTES);
+        return StaticAbi.Hex(buffer, 0, encode_user_set_trade_address(buffer, 0, user_id, trade_address));
+    }
     public static Function security_propose(BigInteger proposed_locked_features) {
         return new Function(
             "security_propose",
@@ -56,6 +84,17 @@ public class DCN {
             new BigInteger(Long.toUnsignedString(proposed_locked_features))
         );
     }
+    public static final int security_propose_SELECTOR = 0x0ee9117f;
+    public static final int security_propose_BYTES = 36;
+    public static int encode_security_propose(MutableDirectBuffer buffer, int offset, BigInteger proposed_locked_features) {
+        StaticAbi.PutSelector(buffer, offset, security_propose_SELECTOR);
+        StaticAbi.PutUint(buffer, offset + 4, 256, proposed_locked_features);
+        return security_propose_BYTES;
+    }
+    public static String encode_security_propose(BigInteger proposed_locked_features) {
+        MutableDirectBuffer buffer = StaticAbi.Scratch(security_propose_BYTES);
+        return StaticAbi.Hex(buffer, 0, encode_security_propose(buffer, 0, proposed_locked_features));
+    }
     public static Function exchange_apply_settlement_groups(String data) {
         return new Function(
             "exchange_apply_settlement_groups",
@@ -65,6 +104,7 @@ public class DCN {
             Collections.emptyList()
         );
     }
+    public static final int exchange_apply_settlement_groups_SELECTOR = 0x10271c29;
     public static Function add_exchange(String name, String addr) {
         return new Function(
             "add_exchange",
@@ -77,6 +117,7 @@ public class DCN {
             )
         );
     }
+    public static final int add_exchange_SELECTOR = 0x136a9bf7;
     public static Function user_market_reset(long user_id, int exchange_id, int quote_asset_id, int base_asset_id) {
         return new Function(
             "user_market_reset",
@@ -89,6 +130,20 @@ public class DCN {
             Collections.emptyList()
         );
     }
+    public static final int user_market_reset_SELECTOR = 0x204bc60c;
+    public static final int user_market_reset_BYTES = 132;
+    public static int encode_user_market_reset(MutableDirectBuffer buffer, int offset, long user_id, int exchange_id, int quote_asset_id, int base_asset_id) {
+        StaticAbi.PutSelector(buffer, offset, user_market_reset_SELECTOR);
+        StaticAbi.PutUint(buffer, offset + 4, 64, user_id);
+        StaticAbi.PutUint(buffer, offset + 36, 32, exchange_id);
+        StaticAbi.PutUint(buffer, offset + 68, 32, quote_asset_id);
+        StaticAbi.PutUint(buffer, offset + 100, 32, base_asset_id);
+        return user_market_reset_BYTES;
+    }
+    public static String encode_user_market_reset(long user_id, int exchange_id, int quote_asset_id, int base_asset_id) {
+        MutableDirectBuffer buffer = StaticAbi.Scratch(user_market_reset_BYTES);
+        return StaticAbi.Hex(buffer, 0, encode_user_market_reset(buffer, 0, user_id, exchange_id, quote_asset_id, base_asset_id));
+    }
     public static Function security_lock(BigInteger lock_features) {
         return new Function(
             "security_lock",
@@ -103,6 +158,17 @@ public class DCN {
             new BigInteger(Long.toUnsignedString(lock_features))
         );
     }
+    public static final int security_lock_SELECTOR = 0x2083eda0;
+    public static final int security_lock_BYTES = 36;
+    public static int encode_security_lock(MutableDirectBuffer buffer, int offset, BigInteger lock_features) {
+        StaticAbi.PutSelector(buffer, offset, security_lock_SELECTOR);
+        StaticAbi.PutUint(buffer, offset + 4, 256, lock_features);
+        return security_lock_BYTES;
+    }
+    public static String encode_security_lock(BigInteger lock_features) {
+        MutableDirectBuffer buffer = StaticAbi.Scratch(security_lock_BYTES);
+        return StaticAbi.Hex(buffer, 0, encode_security_lock(buffer, 0, lock_features));
+    }
     public static Function user_create() {
         return new Function(
             "user_create",
@@ -112,6 +178,16 @@ public class DCN {
             )
         );
     }
+    public static final int user_create_SELECTOR = 0x23125445;
+    public static final int user_create_BYTES = 4;
+    public static int encode_user_create(MutableDirectBuffer buffer, int offset) {
+        StaticAbi.PutSelector(buffer, offset, user_create_SELECTOR);
+        return user_create_BYTES;
+    }
+    public static String encode_user_create() {
+        MutableDirectBuffer buffer = StaticAbi.Scratch(user_create_BYTES);
+        return StaticAbi.Hex(buffer, 0, encode_user_create(buffer, 0));
+    }
     public static Function user_set_recovery_address(long user_id) {
         return new Function(
             "user_set_recovery_address",
@@ -121,6 +197,17 @@ public class DCN {
             Collections.emptyList()
         );
     }
+    public static final int user_set_recovery_address_SELECTOR = 0x25fee926;
+    public static final int user_set_recovery_address_BYTES = 36;
+    public static int encode_user_set_recovery_address(MutableDirectBuffer buffer, int offset, long user_id) {
+        StaticAbi.PutSelector(buffer, offset, user_set_recovery_address_SELECTOR);
+        StaticAbi.PutUint(buffer, offset + 4, 64, user_id);
+        return user_set_recovery_address_BYTES;
+    }
+    public static String encode_user_set_recovery_address(long user_id) {
+        MutableDirectBuffer buffer = StaticAbi.Scratch(user_set_recovery_address_BYTES);
+        return StaticAbi.Hex(buffer, 0, encode_user_set_recovery_address(buffer, 0, user_id));
+    }
     public static Function creator_propose_recovery(String recovery) {
         return new Function(
             "creator_propose_recovery",
@@ -130,6 +217,17 @@ public class DCN {
             Collections.emptyList()
         );
     }
+    public static final int creator_propose_recovery_SELECTOR = 0x26db9152;
+    public static final int creator_propose_recovery_BYTES = 36;
+    public static int encode_creator_propose_recovery(MutableDirectBuffer buffer, int offset, String recovery) {
+        StaticAbi.PutSelector(buffer, offset, creator_propose_recovery_SELECTOR);
+        StaticAbi.PutAddress(buffer, offset + 4, recovery);
+        return creator_propose_recovery_BYTES;
+    }
+    public static String encode_creator_propose_recovery(String recovery) {
+        MutableDirectBuffer buffer = StaticAbi.Scratch(creator_propose_recovery_BYTES);
+        return StaticAbi.Hex(buffer, 0, encode_creator_propose_recovery(buffer, 0, recovery));
+    }
     public static Function get_session_balance(long user_id, int exchange_id, int asset_id) {
         return new Function(
             "get_session_balance",
@@ -145,6 +243,19 @@ public class DCN {
             )
         );
     }
+    public static final int get_session_balance_SELECTOR = 0x32d184b7;
+    public static final int get_session_balance_BYTES = 100;
+    public static int encode_get_session_balance(MutableDirectBuffer buffer, int offset, long user_id, int exchange_id, int asset_id) {
+        StaticAbi.PutSelector(buffer, offset, get_session_balance_SELECTOR);
+        StaticAbi.PutUint(buffer, offset + 4, 64, user_id);
+        StaticAbi.PutUint(buffer, offset + 36, 32, exchange_id);
+        StaticAbi.PutUint(buffer, offset + 68, 32, asset_id);
+        return get_session_balance_BYTES;
+    }
+    public static String encode_get_session_balance(long user_id, int exchange_id, int asset_id) {
+        MutableDirectBuffer buffer = StaticAbi.Scratch(get_session_balance_BYTES);
+        return StaticAbi.Hex(buffer, 0, encode_get_session_balance(buffer, 0, user_id, exchange_id, asset_id));
+    }
     public static GetSessionBalanceReturnValue query_get_session_balance(String contractAddress, Web3j web3j, Function function, DefaultBlockParameter block) throws IOException {
         String encodedFunction = FunctionEncoder.encode(function);
         org.web3j.protocol.core.methods.response.EthCall ethCall = web3j.ethCall(
@@ -152,16 +263,39 @@ public class DCN {
             block
         ).send();
         String value = ethCall.getValue();
-        List<Type> values = FunctionReturnDecoder.decode(value, function.getOutputParameters());
+        List<?> values = FunctionReturnDecoder.decode(value, function.getOutputParameters());
         GetSessionBalanceReturnValue returnValue = new GetSessionBalanceReturnValue();
-        returnValue.total_deposit = (BigInteger) values.get(0).getValue();
-        returnValue.unsettled_withdraw_total = ((BigInteger) values.get(1).getValue()).longValue();
-        returnValue.asset_balance = ((BigInteger) values.get(2).getValue()).longValue();
+        returnValue.total_deposit = (BigInteger) ((Type<?>) values.get(0)).getValue();
+        returnValue.unsettled_withdraw_total = ((BigInteger) ((Type<?>) values.get(1)).getValue()).longValue();
+        returnValue.asset_balance = ((BigInteger) ((Type<?>) values.get(2)).getValue()).longValue();
         return returnValue;
     }
     public static GetSessionBalanceReturnValue query_get_session_balance(String contractAddress, Web3j web3j, Function function) throws IOException {
         return query_get_session_balance(contractAddress, web3j, function, DefaultBlockParameterName.LATEST);
     }
+    public static final List<TypeReference<?>> get_session_balance_OUTPUTS = Collections.unmodifiableList(
+        Arrays.<TypeReference<?>>asList(
+            new TypeReference<org.web3j.abi.datatypes.generated.Uint128>() {}
+            , new TypeReference<org.web3j.abi.datatypes.generated.Uint64>() {}
+            , new TypeReference<org.web3j.abi.datatypes.generated.Uint64>() {}
+        )
+    );
+    public static GetSessionBalanceReturnValue query_get_session_balance(String contractAddress, Web3j web3j, String encodedFunction, DefaultBlockParameter block) throws IOException {
+        org.web3j.protocol.core.methods.response.EthCall ethCall = web3j.ethCall(
+            Transaction.createEthCallTransaction("0x0000000000000000000000000000000000000000", contractAddress, encodedFunction),
+            block
+        ).send();
+        String value = ethCall.getValue();
+        List<?> values = FunctionReturnDecoder.decode(value, org.web3j.abi.Utils.convert(get_session_balance_OUTPUTS));
+        GetSessionBalanceReturnValue returnValue = new GetSessionBalanceReturnValue();
+        returnValue.total_deposit = (BigInteger) ((Type<?>) values.get(0)).getValue();
+        returnValue.unsettled_withdraw_total = ((BigInteger) ((Type<?>) values.get(1)).getValue()).longValue();
+        returnValue.asset_balance = ((BigInteger) ((Type<?>) values.get(2)).getValue()).longValue();
+        return returnValue;
+    }
+    public static GetSessionBalanceReturnValue query_get_session_balance(String contractAddress, Web3j web3j, String encodedFunction) throws IOException {
+        return query_get_session_balance(contractAddress, web3j, encodedFunction, DefaultBlockParameterName.LATEST);
+    }
     public static Function exchange_transfer_from(String data) {
         return new Function(
             "exchange_transfer_from",
@@ -171,6 +305,7 @@ public class DCN {
             Collections.emptyList()
         );
     }
+    public static final int exchange_transfer_from_SELECTOR = 0x3b9a59e8;
     public static Function get_exchange_count() {
         return new Function(
             "get_exchange_count",
@@ -180,6 +315,16 @@ public class DCN {
             )
         );
     }
+    public static final int get_exchange_count_SELECTOR = 0x431ec601;
+    public static final int get_exchange_count_BYTES = 4;
+    public static int encode_get_exchange_count(MutableDirectBuffer buffer, int offset) {
+        StaticAbi.PutSelector(buffer, offset, get_exchange_count_SELECTOR);
+        return get_exchange_count_BYTES;
+    }
+    public static String encode_get_exchange_count() {
+        MutableDirectBuffer buffer = StaticAbi.Scratch(get_exchange_count_BYTES);
+        return StaticAbi.Hex(buffer, 0, encode_get_exchange_count(buffer, 0));
+    }
     public static GetExchangeCountReturnValue query_get_exchange_count(String contractAddress, Web3j web3j, Function function, DefaultBlockParameter block) throws IOException {
         String encodedFunction = FunctionEncoder.encode(function);
         org.web3j.protocol.core.methods.response.EthCall ethCall = web3j.ethCall(
@@ -187,14 +332,33 @@ public class DCN {
             block
         ).send();
         String value = ethCall.getValue();
-        List<Type> values = FunctionReturnDecoder.decode(value, function.getOutputParameters());
+        List<?> values = FunctionReturnDecoder.decode(value, function.getOutputParameters());
         GetExchangeCountReturnValue returnValue = new GetExchangeCountReturnValue();
-        returnValue.count = ((BigInteger) values.get(0).getValue()).intValue();
+        returnValue.count = ((BigInteger) ((Type<?>) values.get(0)).getValue()).intValue();
         return returnValue;
     }
     public static GetExchangeCountReturnValue query_get_exchange_count(String contractAddress, Web3j web3j, Function function) throws IOException {
         return query_get_exchange_count(contractAddress, web3j, function, DefaultBlockParameterName.LATEST);
     }
+    public static final List<TypeReference<?>> get_exchange_count_OUTPUTS = Collections.unmodifiableList(
+        Collections.<TypeReference<?>>singletonList(
+            new TypeReference<org.web3j.abi.datatypes.generated.Uint32>() {}
+        )
+    );
+    public static GetExchangeCountReturnValue query_get_exchange_count(String contractAddress, Web3j web3j, String encodedFunction, DefaultBlockParameter block) throws IOException {
+        org.web3j.protocol.core.methods.response.EthCall ethCall = web3j.ethCall(
+            Transaction.createEthCallTransaction("0x0000000000000000000000000000000000000000", contractAddress, encodedFunction),
+            block
+        ).send();
+        String value = ethCall.getValue();
+        List<?> values = FunctionReturnDecoder.decode(value, org.web3j.abi.Utils.convert(get_exchange_count_OUTPUTS));
+        GetExchangeCountReturnValue returnValue = new GetExchangeCountReturnValue();
+        returnValue.count = ((BigInteger) ((Type<?>) values.get(0)).getValue()).intValue();
+        return returnValue;
+    }
+    public static GetExchangeCountReturnValue query_get_exchange_count(String contractAddress, Web3j web3j, String encodedFunction) throws IOException {
+        return query_get_exchange_count(contractAddress, web3j, encodedFunction, DefaultBlockParameterName.LATEST);
+    }
     public static Function get_exchange(int exchange_id) {
         return new Function(
             "get_exchange",
@@ -211,6 +375,17 @@ public class DCN {
             )
         );
     }
+    public static final int get_exchange_SELECTOR = 0x541694cf;
+    public static final int get_exchange_BYTES = 36;
+    public static int encode_get_exchange(MutableDirectBuffer buffer, int offset, int exchange_id) {
+        StaticAbi.PutSelector(buffer, offset, get_exchange_SELECTOR);
+        StaticAbi.PutUint(buffer, offset + 4, 32, exchange_id);
+        return get_exchange_BYTES;
+    }
+    public static String encode_get_exchange(int exchange_id) {
+        MutableDirectBuffer buffer = StaticAbi.Scratch(get_exchange_BYTES);
+        return StaticAbi.Hex(buffer, 0, encode_get_exchange(buffer, 0, exchange_id));
+    }
     public static GetExchangeReturnValue query_get_exchange(String contractAddress, Web3j web3j, Function function, DefaultBlockParameter block) throws IOException {
         String encodedFunction = FunctionEncoder.encode(function);
         org.web3j.protocol.core.methods.response.EthCall ethCall = web3j.ethCall(
@@ -218,19 +393,48 @@ public class DCN {
             block
         ).send();
         String value = ethCall.getValue();
-        List<Type> values = FunctionReturnDecoder.decode(value, function.getOutputParameters());
+        List<?> values = FunctionReturnDecoder.decode(value, function.getOutputParameters());
         GetExchangeReturnValue returnValue = new GetExchangeReturnValue();
-        returnValue.name = (String) values.get(0).getValue();
-        returnValue.locked = (Boolean) values.get(1).getValue();
-        returnValue.owner = (String) values.get(2).getValue();
-        returnValue.withdraw_address = (String) values.get(3).getValue();
-        returnValue.recovery_address = (String) values.get(4).getValue();
-        returnValue.recovery_address_proposed = (String) values.get(5).getValue();
+        returnValue.name = (String) ((Type<?>) values.get(0)).getValue();
+        returnValue.locked = (Boolean) ((Type<?>) values.get(1)).getValue();
+        returnValue.owner = (String) ((Type<?>) values.get(2)).getValue();
+        returnValue.withdraw_address = (String) ((Type<?>) values.get(3)).getValue();
+        returnValue.recovery_address = (String) ((Type<?>) values.get(4)).getValue();
+        returnValue.recovery_address_proposed = (String) ((Type<?>) values.get(5)).getValue();
         return returnValue;
     }
     public static GetExchangeReturnValue query_get_exchange(String contractAddress, Web3j web3j, Function function) throws IOException {
         return query_get_exchange(contractAddress, web3j, function, DefaultBlockParameterName.LATEST);
     }
+    public static final List<TypeReference<?>> get_exchange_OUTPUTS = Collections.unmodifiableList(
+        Arrays.<TypeReference<?>>asList(
+            new TypeReference<org.web3j.abi.datatypes.Utf8String>() {}
+            , new TypeReference<org.web3j.abi.datatypes.Bool>() {}
+            , new TypeReference<org.web3j.abi.datatypes.Address>() {}
+            , new TypeReference<org.web3j.abi.datatypes.Address>() {}
+            , new TypeReference<org.web3j.abi.datatypes.Address>() {}
+            , new TypeReference<org.web3j.abi.datatypes.Address>() {}
+        )
+    );
+    public static GetExchangeReturnValue query_get_exchange(String contractAddress, Web3j web3j, String encodedFunction, DefaultBlockParameter block) throws IOException {
+        org.web3j.protocol.core.methods.response.EthCall ethCall = web3j.ethCall(
+            Transaction.createEthCallTransaction("0x0000000000000000000000000000000000000000", contractAddress, encodedFunction),
+            block
+        ).send();
+        String value = ethCall.getValue();
+        List<?> values = FunctionReturnDecoder.decode(value, org.web3j.abi.Utils.convert(get_exchange_OUTPUTS));
+        GetExchangeReturnValue returnValue = new GetExchangeReturnValue();
+        returnValue.name = (String) ((Type<?>) values.get(0)).getValue();
+        returnValue.locked = (Boolean) ((Type<?>) values.get(1)).getValue();
+        returnValue.owner = (String) ((Type<?>) values.get(2)).getValue();
+        returnValue.withdraw_address = (String) ((Type<?>) values.get(3)).getValue();
+        returnValue.recovery_address = (String) ((Type<?>) values.get(4)).getValue();
+        returnValue.recovery_address_proposed = (String) ((Type<?>) values.get(5)).getValue();
+        return returnValue;
+    }
+    public static GetExchangeReturnValue query_get_exchange(String contractAddress, Web3j web3j, String encodedFunction) throws IOException {
+        return query_get_exchange(contractAddress, web3j, encodedFunction, DefaultBlockParameterName.LATEST);
+    }
     public static Function security_set_proposed() {
         return new Function(
             "security_set_proposed",
@@ -238,6 +442,16 @@ public class DCN {
             Collections.emptyList()
         );
     }
+    public static final int security_set_proposed_SELECTOR = 0x59adf41f;
+    public static final int security_set_proposed_BYTES = 4;
+    public static int encode_security_set_proposed(MutableDirectBuffer buffer, int offset) {
+        StaticAbi.PutSelector(buffer, offset, security_set_proposed_SELECTOR);
+        return security_set_proposed_BYTES;
+    }
+    public static String encode_security_set_proposed() {
+        MutableDirectBuffer buffer = StaticAbi.Scratch(security_set_proposed_BYTES);
+        return StaticAbi.Hex(buffer, 0, encode_security_set_proposed(buffer, 0));
+    }
     public static Function transfer_to_session(long user_id, int exchange_id, int asset_id, long quantity) {
         return new Function(
             "transfer_to_session",
@@ -250,6 +464,20 @@ public class DCN {
             Collections.emptyList()
         );
     }
+    public static final int transfer_to_session_SELECTOR = 0x6822e38b;
+    public static final int transfer_to_session_BYTES = 132;
+    public static int encode_transfer_to_session(MutableDirectBuffer buffer, int offset, long user_id, int exchange_id, int asset_id, long quantity) {
+        StaticAbi.PutSelector(buffer, offset, transfer_to_session_SELECTOR);
+        StaticAbi.PutUint(buffer, offset + 4, 64, user_id);
+        StaticAbi.PutUint(buffer, offset + 36, 32, exchange_id);
+        StaticAbi.PutUint(buffer, offset + 68, 32, asset_id);
+        StaticAbi.PutUint(buffer, offset + 100, 64, quantity);
+        return transfer_to_session_BYTES;
+    }
+    public static String encode_transfer_to_session(long user_id, int exchange_id, int asset_id, long quantity) {
+        MutableDirectBuffer buffer = StaticAbi.Scratch(transfer_to_session_BYTES);
+        return StaticAbi.Hex(buffer, 0, encode_transfer_to_session(buffer, 0, user_id, exchange_id, asset_id, quantity));
+    }
     public static Function get_session(long user_id, int exchange_id) {
         return new Function(
             "get_session",
@@ -263,6 +491,18 @@ public class DCN {
             )
         );
     }
+    public static final int get_session_SELECTOR = 0x77547cb8;
+    public static final int get_session_BYTES = 68;
+    public static int encode_get_session(MutableDirectBuffer buffer, int offset, long user_id, int exchange_id) {
+        StaticAbi.PutSelector(buffer, offset, get_session_SELECTOR);
+        StaticAbi.PutUint(buffer, offset + 4, 64, user_id);
+        StaticAbi.PutUint(buffer, offset + 36, 32, exchange_id);
+        return get_session_BYTES;
+    }
+    public static String encode_get_session(long user_id, int exchange_id) {
+        MutableDirectBuffer buffer = StaticAbi.Scratch(get_session_BYTES);
+        return StaticAbi.Hex(buffer, 0, encode_get_session(buffer, 0, user_id, exchange_id));
+    }
     public static GetSessionReturnValue query_get_session(String contractAddress, Web3j web3j, Function function, DefaultBlockParameter block) throws IOException {
         String encodedFunction = FunctionEncoder.encode(function);
         org.web3j.protocol.core.methods.response.EthCall ethCall = web3j.ethCall(
@@ -270,15 +510,36 @@ public class DCN {
             block
         ).send();
         String value = ethCall.getValue();
-        List<Type> values = FunctionReturnDecoder.decode(value, function.getOutputParameters());
+        List<?> values = FunctionReturnDecoder.decode(value, function.getOutputParameters());
         GetSessionReturnValue returnValue = new GetSessionReturnValue();
-        returnValue.unlock_at = (BigInteger) values.get(0).getValue();
-        returnValue.trade_address = (String) values.get(1).getValue();
+        returnValue.unlock_at = (BigInteger) ((Type<?>) values.get(0)).getValue();
+        returnValue.trade_address = (String) ((Type<?>) values.get(1)).getValue();
         return returnValue;
     }
     public static GetSessionReturnValue query_get_session(String contractAddress, Web3j web3j, Function function) throws IOException {
         return query_get_session(contractAddress, web3j, function, DefaultBlockParameterName.LATEST);
     }
+    public static final List<TypeReference<?>> get_session_OUTPUTS = Collections.unmodifiableList(
+        Arrays.<TypeReference<?>>asList(
+            new TypeReference<org.web3j.abi.datatypes.generated.Uint256>() {}
+            , new TypeReference<org.web3j.abi.datatypes.Address>() {}
+        )
+    );
+    public static GetSessionReturnValue query_get_session(String contractAddress, Web3j web3j, String encodedFunction, DefaultBlockParameter block) throws IOException {
+        org.web3j.protocol.core.methods.response.EthCall ethCall = web3j.ethCall(
+            Transaction.createEthCallTransaction("0x0000000000000000000000000000000000000000", contractAddress, encodedFunction),
+            block
+        ).send();
+        String value = ethCall.getValue();
+        List<?> values = FunctionReturnDecoder.decode(value, org.web3j.abi.Utils.convert(get_session_OUTPUTS));
+        GetSessionReturnValue returnValue = new GetSessionReturnValue();
+        returnValue.unlock_at = (BigInteger) ((Type<?>) values.get(0)).getValue();
+        returnValue.trade_address = (String) ((Type<?>) values.get(1)).getValue();
+        return returnValue;
+    }
+    public static GetSessionReturnValue query_get_session(String contractAddress, Web3j web3j, String encodedFunction) throws IOException {
+        return query_get_session(contractAddress, web3j, encodedFunction, DefaultBlockParameterName.LATEST);
+    }
     public static Function add_asset(String symbol, BigInteger unit_scale, String contract_address) {
         return new Function(
             "add_asset",
@@ -299,6 +560,7 @@ public class DCN {
             , contract_address
         );
     }
+    public static final int add_asset_SELECTOR = 0x9413d112;
     public static Function get_user(long user_id) {
         return new Function(
             "get_user",
@@ -313,6 +575,17 @@ public class DCN {
             )
         );
     }
+    public static final int get_user_SELECTOR = 0x972bbb95;
+    public static final int get_user_BYTES = 36;
+    public static int encode_get_user(MutableDirectBuffer buffer, int offset, long user_id) {
+        StaticAbi.PutSelector(buffer, offset, get_user_SELECTOR);
+        StaticAbi.PutUint(buffer, offset + 4, 64, user_id);
+        return get_user_BYTES;
+    }
+    public static String encode_get_user(long user_id) {
+        MutableDirectBuffer buffer = StaticAbi.Scratch(get_user_BYTES);
+        return StaticAbi.Hex(buffer, 0, encode_get_user(buffer, 0, user_id));
+    }
     public static GetUserReturnValue query_get_user(String contractAddress, Web3j web3j, Function function, DefaultBlockParameter block) throws IOException {
         String encodedFunction = FunctionEncoder.encode(function);
         org.web3j.protocol.core.methods.response.EthCall ethCall = web3j.ethCall(
@@ -320,17 +593,42 @@ public class DCN {
             block
         ).send();
         String value = ethCall.getValue();
-        List<Type> values = FunctionReturnDecoder.decode(value, function.getOutputParameters());
+        List<?> values = FunctionReturnDecoder.decode(value, function.getOutputParameters());
         GetUserReturnValue returnValue = new GetUserReturnValue();
-        returnValue.trade_address = (String) values.get(0).getValue();
-        returnValue.withdraw_address = (String) values.get(1).getValue();
-        returnValue.recovery_address = (String) values.get(2).getValue();
-        returnValue.recovery_address_proposed = (String) values.get(3).getValue();
+        returnValue.trade_address = (String) ((Type<?>) values.get(0)).getValue();
+        returnValue.withdraw_address = (String) ((Type<?>) values.get(1)).getValue();
+        returnValue.recovery_address = (String) ((Type<?>) values.get(2)).getValue();
+        returnValue.recovery_address_proposed = (String) ((Type<?>) values.get(3)).getValue();
         return returnValue;
     }
     public static GetUserReturnValue query_get_user(String contractAddress, Web3j web3j, Function function) throws IOException {
         return query_get_user(contractAddress, web3j, function, DefaultBlockParameterName.LATEST);
     }
+    public static final List<TypeReference<?>> get_user_OUTPUTS = Collections.unmodifiableList(
+        Arrays.<TypeReference<?>>asList(
+            new TypeReference<org.web3j.abi.datatypes.Address>() {}
+            , new TypeReference<org.web3j.abi.datatypes.Address>() {}
+            , new TypeReference<org.web3j.abi.datatypes.Address>() {}
+            , new TypeReference<org.web3j.abi.datatypes.Address>() {}
+        )
+    );
+    public static GetUserReturnValue query_get_user(String contractAddress, Web3j web3j, String encodedFunction, DefaultBlockParameter block) throws IOException {
+        org.web3j.protocol.core.methods.response.EthCall ethCall = web3j.ethCall(
+            Transaction.createEthCallTransaction("0x0000000000000000000000000000000000000000", contractAddress, encodedFunction),
+            block
+        ).send();
+        String value = ethCall.getValue();
+        List<?> values = FunctionReturnDecoder.decode(value, org.web3j.abi.Utils.convert(get_user_OUTPUTS));
+        GetUserReturnValue returnValue = new GetUserReturnValue();
+        returnValue.trade_address = (String) ((Type<?>) values.get(0)).getValue();
+        returnValue.withdraw_address = (String) ((Type<?>) values.get(1)).getValue();
+        returnValue.recovery_address = (String) ((Type<?>) values.get(2)).getValue();
+        returnValue.recovery_address_proposed = (String) ((Type<?>) values.get(3)).getValue();
+        return returnValue;
+    }
+    public static GetUserReturnValue query_get_user(String contractAddress, Web3j web3j, String encodedFunction) throws IOException {
+        return query_get_user(contractAddress, web3j, encodedFunction, DefaultBlockParameterName.LATEST);
+    }
     public static Function creator_set_recovery() {
         return new Function(
             "creator_set_recovery",
@@ -338,6 +636,16 @@ public class DCN {
             Collections.emptyList()
         );
     }
+    public static final int creator_set_recovery_SELECTOR = 0x9f02c5c0;
+    public static final int creator_set_recovery_BYTES = 4;
+    public static int encode_creator_set_recovery(MutableDirectBuffer buffer, int offset) {
+        StaticAbi.PutSelector(buffer, offset, creator_set_recovery_SELECTOR);
+        return creator_set_recovery_BYTES;
+    }
+    public static String encode_creator_set_recovery() {
+        MutableDirectBuffer buffer = StaticAbi.Scratch(creator_set_recovery_BYTES);
+        return StaticAbi.Hex(buffer, 0, encode_creator_set_recovery(buffer, 0));
+    }
     public static Function transfer_from_session(long user_id, int exchange_id, int asset_id, long quantity) {
         return new Function(
             "transfer_from_session",
@@ -350,6 +658,20 @@ public class DCN {
             Collections.emptyList()
         );
     }
+    public static final int transfer_from_session_SELECTOR = 0xa0b4244b;
+    public static final int transfer_from_session_BYTES = 132;
+    public static int encode_transfer_from_session(MutableDirectBuffer buffer, int offset, long user_id, int exchange_id, int asset_id, long quantity) {
+        StaticAbi.PutSelector(buffer, offset, transfer_from_session_SELECTOR);
+        StaticAbi.PutUint(buffer, offset + 4, 64, user_id);
+        StaticAbi.PutUint(buffer, offset + 36, 32, exchange_id);
+        StaticAbi.PutUint(buffer, offset + 68, 32, asset_id);
+        StaticAbi.PutUint(buffer, offset + 100, 64, quantity);
+        return transfer_from_session_BYTES;
+    }
+    public static String encode_transfer_from_session(long user_id, int exchange_id, int asset_id, long quantity) {
+        MutableDirectBuffer buffer = StaticAbi.Scratch(transfer_from_session_BYTES);
+        return StaticAbi.Hex(buffer, 0, encode_transfer_from_session(buffer, 0, user_id, exchange_id, asset_id, quantity));
+    }
     public static Function creator_update(String new_creator) {
         return new Function(
             "creator_update",
@@ -359,6 +681,17 @@ public class DCN {
             Collections.emptyList()
         );
     }
+    public static final int creator_update_SELECTOR = 0xa1c4d569;
+    public static final int creator_update_BYTES = 36;
+    public static int encode_creator_update(MutableDirectBuffer buffer, int offset, String new_creator) {
+        StaticAbi.PutSelector(buffer, offset, creator_update_SELECTOR);
+        StaticAbi.PutAddress(buffer, offset + 4, new_creator);
+        return creator_update_BYTES;
+    }
+    public static String encode_creator_update(String new_creator) {
+        MutableDirectBuffer buffer = StaticAbi.Scratch(creator_update_BYTES);
+        return StaticAbi.Hex(buffer, 0, encode_creator_update(buffer, 0, new_creator));
+    }
     public static Function user_propose_recovery_address(long user_id, String proposed) {
         return new Function(
             "user_propose_recovery_address",
@@ -369,6 +702,18 @@ public class DCN {
             Collections.emptyList()
         );
     }
+    public static final int user_propose_recovery_address_SELECTOR = 0xa5b06d26;
+    public static final int user_propose_recovery_address_BYTES = 68;
+    public static int encode_user_propose_recovery_address(MutableDirectBuffer buffer, int offset, long user_id, String proposed) {
+        StaticAbi.PutSelector(buffer, offset, user_propose_recovery_address_SELECTOR);
+        StaticAbi.PutUint(buffer, offset + 4, 64, user_id);
+        StaticAbi.PutAddress(buffer, offset + 36, proposed);
+        return user_propose_recovery_address_BYTES;
+    }
+    public static String encode_user_propose_recovery_address(long user_id, String proposed) {
+        MutableDirectBuffer buffer = StaticAbi.Scratch(user_propose_recovery_address_BYTES);
+        return StaticAbi.Hex(buffer, 0, encode_user_propose_recovery_address(buffer, 0, user_id, proposed));
+    }
     public static Function get_asset(int asset_id) {
         return new Function(
             "get_asset",
@@ -382,6 +727,17 @@ public class DCN {
             )
         );
     }
+    public static final int get_asset_SELECTOR = 0xa68c68b4;
+    public static final int get_asset_BYTES = 36;
+    public static int encode_get_asset(MutableDirectBuffer buffer, int offset, int asset_id) {
+        StaticAbi.PutSelector(buffer, offset, get_asset_SELECTOR);
+        StaticAbi.PutUint(buffer, offset + 4, 32, asset_id);
+        return get_asset_BYTES;
+    }
+    public static String encode_get_asset(int asset_id) {
+        MutableDirectBuffer buffer = StaticAbi.Scratch(get_asset_BYTES);
+        return StaticAbi.Hex(buffer, 0, encode_get_asset(buffer, 0, asset_id));
+    }
     public static GetAssetReturnValue query_get_asset(String contractAddress, Web3j web3j, Function function, DefaultBlockParameter block) throws IOException {
         String encodedFunction = FunctionEncoder.encode(function);
         org.web3j.protocol.core.methods.response.EthCall ethCall = web3j.ethCall(
@@ -389,16 +745,39 @@ public class DCN {
             block
         ).send();
         String value = ethCall.getValue();
-        List<Type> values = FunctionReturnDecoder.decode(value, function.getOutputParameters());
+        List<?> values = FunctionReturnDecoder.decode(value, function.getOutputParameters());
         GetAssetReturnValue returnValue = new GetAssetReturnValue();
-        returnValue.symbol = (String) values.get(0).getValue();
-        returnValue.unit_scale = (BigInteger) values.get(1).getValue();
-        returnValue.contract_address = (String) values.get(2).getValue();
+        returnValue.symbol = (String) ((Type<?>) values.get(0)).getValue();
+        returnValue.unit_scale = (BigInteger) ((Type<?>) values.get(1)).getValue();
+        returnValue.contract_address = (String) ((Type<?>) values.get(2)).getValue();
         return returnValue;
     }
     public static GetAssetReturnValue query_get_asset(String contractAddress, Web3j web3j, Function function) throws IOException {
         return query_get_asset(contractAddress, web3j, function, DefaultBlockParameterName.LATEST);
     }
+    public static final List<TypeReference<?>> get_asset_OUTPUTS = Collections.unmodifiableList(
+        Arrays.<TypeReference<?>>asList(
+            new TypeReference<org.web3j.abi.datatypes.Utf8String>() {}
+            , new TypeReference<org.web3j.abi.datatypes.generated.Uint192>() {}
+            , new TypeReference<org.web3j.abi.datatypes.Address>() {}
+        )
+    );
+    public static GetAssetReturnValue query_get_asset(String contractAddress, Web3j web3j, String encodedFunction, DefaultBlockParameter block) throws IOException {
+        org.web3j.protocol.core.methods.response.EthCall ethCall = web3j.ethCall(
+            Transaction.createEthCallTransaction("0x0000000000000000000000000000000000000000", contractAddress, encodedFunction),
+            block
+        ).send();
+        String value = ethCall.getValue();
+        List<?> values = FunctionReturnDecoder.decode(value, org.web3j.abi.Utils.convert(get_asset_OUTPUTS));
+        GetAssetReturnValue returnValue = new GetAssetReturnValue();
+        returnValue.symbol = (String) ((Type<?>) values.get(0)).getValue();
+        returnValue.unit_scale = (BigInteger) ((Type<?>) values.get(1)).getValue();
+        returnValue.contract_address = (String) ((Type<?>) values.get(2)).getValue();
+        return returnValue;
+    }
+    public static GetAssetReturnValue query_get_asset(String contractAddress, Web3j web3j, String encodedFunction) throws IOException {
+        return query_get_asset(contractAddress, web3j, encodedFunction, DefaultBlockParameterName.LATEST);
+    }
     public static Function recover_unsettled_withdraws(String data) {
         return new Function(
             "recover_unsettled_withdraws",
@@ -408,6 +787,7 @@ public class DCN {
             Collections.emptyList()
         );
     }
+    public static final int recover_unsettled_withdraws_SELECTOR = 0xa7e51442;
     public static Function get_asset_count() {
         return new Function(
             "get_asset_count",
@@ -417,6 +797,16 @@ public class DCN {
             )
         );
     }
+    public static final int get_asset_count_SELECTOR = 0xa88d1902;
+    public static final int get_asset_count_BYTES = 4;
+    public static int encode_get_asset_count(MutableDirectBuffer buffer, int offset) {
+        StaticAbi.PutSelector(buffer, offset, get_asset_count_SELECTOR);
+        return get_asset_count_BYTES;
+    }
+    public static String encode_get_asset_count() {
+        MutableDirectBuffer buffer = StaticAbi.Scratch(get_asset_count_BYTES);
+        return StaticAbi.Hex(buffer, 0, encode_get_asset_count(buffer, 0));
+    }
     public static GetAssetCountReturnValue query_get_asset_count(String contractAddress, Web3j web3j, Function function, DefaultBlockParameter block) throws IOException {
         String encodedFunction = FunctionEncoder.encode(function);
         org.web3j.protocol.core.methods.response.EthCall ethCall = web3j.ethCall(
@@ -424,14 +814,33 @@ public class DCN {
             block
         ).send();
         String value = ethCall.getValue();
-        List<Type> values = FunctionReturnDecoder.decode(value, function.getOutputParameters());
+        List<?> values = FunctionReturnDecoder.decode(value, function.getOutputParameters());
         GetAssetCountReturnValue returnValue = new GetAssetCountReturnValue();
-        returnValue.count = ((BigInteger) values.get(0).getValue()).intValue();
+        returnValue.count = ((BigInteger) ((Type<?>) values.get(0)).getValue()).intValue();
         return returnValue;
     }
     public static GetAssetCountReturnValue query_get_asset_count(String contractAddress, Web3j web3j, Function function) throws IOException {
         return query_get_asset_count(contractAddress, web3j, function, DefaultBlockParameterName.LATEST);
     }
+    public static final List<TypeReference<?>> get_asset_count_OUTPUTS = Collections.unmodifiableList(
+        Collections.<TypeReference<?>>singletonList(
+            new TypeReference<org.web3j.abi.datatypes.generated.Uint32>() {}
+        )
+    );
+    public static GetAssetCountReturnValue query_get_asset_count(String contractAddress, Web3j web3j, String encodedFunction, DefaultBlockParameter block) throws IOException {
+        org.web3j.protocol.core.methods.response.EthCall ethCall = web3j.ethCall(
+            Transaction.createEthCallTransaction("0x0000000000000000000000000000000000000000", contractAddress, encodedFunction),
+            block
+        ).send();
+        String value = ethCall.getValue();
+        List<?> values = FunctionReturnDecoder.decode(value, org.web3j.abi.Utils.convert(get_asset_count_OUTPUTS));
+        GetAssetCountReturnValue returnValue = new GetAssetCountReturnValue();
+        returnValue.count = ((BigInteger) ((Type<?>) values.get(0)).getValue()).intValue();
+        return returnValue;
+    }
+    public static GetAssetCountReturnValue query_get_asset_count(String contractAddress, Web3j web3j, String encodedFunction) throws IOException {
+        return query_get_asset_count(contractAddress, web3j, encodedFunction, DefaultBlockParameterName.LATEST);
+    }
     public static Function get_creator() {
         return new Function(
             "get_creator",
@@ -443,6 +852,16 @@ public class DCN {
             )
         );
     }
+    public static final int get_creator_SELECTOR = 0xace1ed07;
+    public static final int get_creator_BYTES = 4;
+    public static int encode_get_creator(MutableDirectBuffer buffer, int offset) {
+        StaticAbi.PutSelector(buffer, offset, get_creator_SELECTOR);
+        return get_creator_BYTES;
+    }
+    public static String encode_get_creator() {
+        MutableDirectBuffer buffer = StaticAbi.Scratch(get_creator_BYTES);
+        return StaticAbi.Hex(buffer, 0, encode_get_creator(buffer, 0));
+    }
     public static GetCreatorReturnValue query_get_creator(String contractAddress, Web3j web3j, Function function, DefaultBlockParameter block) throws IOException {
         String encodedFunction = FunctionEncoder.encode(function);
         org.web3j.protocol.core.methods.response.EthCall ethCall = web3j.ethCall(
@@ -450,16 +869,39 @@ public class DCN {
             block
         ).send();
         String value = ethCall.getValue();
-        List<Type> values = FunctionReturnDecoder.decode(value, function.getOutputParameters());
+        List<?> values = FunctionReturnDecoder.decode(value, function.getOutputParameters());
         GetCreatorReturnValue returnValue = new GetCreatorReturnValue();
-        returnValue.dcn_creator = (String) values.get(0).getValue();
-        returnValue.dcn_creator_recovery = (String) values.get(1).getValue();
-        returnValue.dcn_creator_recovery_proposed = (String) values.get(2).getValue();
+        returnValue.dcn_creator = (String) ((Type<?>) values.get(0)).getValue();
+        returnValue.dcn_creator_recovery = (String) ((Type<?>) values.get(1)).getValue();
+        returnValue.dcn_creator_recovery_proposed = (String) ((Type<?>) values.get(2)).getValue();
         return returnValue;
     }
     public static GetCreatorReturnValue query_get_creator(String contractAddress, Web3j web3j, Function function) throws IOException {
         return query_get_creator(contractAddress, web3j, function, DefaultBlockParameterName.LATEST);
     }
+    public static final List<TypeReference<?>> get_creator_OUTPUTS = Collections.unmodifiableList(
+        Arrays.<TypeReference<?>>asList(
+            new TypeReference<org.web3j.abi.datatypes.Address>() {}
+            , new TypeReference<org.web3j.abi.datatypes.Address>() {}
+            , new TypeReference<org.web3j.abi.datatypes.Address>() {}
+        )
+    );
+    public static GetCreatorReturnValue query_get_creator(String contractAddress, Web3j web3j, String encodedFunction, DefaultBlockParameter block) throws IOException {
+        org.web3j.protocol.core.methods.response.EthCall ethCall = web3j.ethCall(
+            Transaction.createEthCallTransaction("0x0000000000000000000000000000000000000000", contractAddress, encodedFunction),
+            block
+        ).send();
+        String value = ethCall.getValue();
+        List<?> values = FunctionReturnDecoder.decode(value, org.web3j.abi.Utils.convert(get_creator_OUTPUTS));
+        GetCreatorReturnValue returnValue = new GetCreatorReturnValue();
+        returnValue.dcn_creator = (String) ((Type<?>) values.get(0)).getValue();
+        returnValue.dcn_creator_recovery = (String) ((Type<?>) values.get(1)).getValue();
+        returnValue.dcn_creator_recovery_proposed = (String) ((Type<?>) values.get(2)).getValue();
+        return returnValue;
+    }
+    public static GetCreatorReturnValue query_get_creator(String contractAddress, Web3j web3j, String encodedFunction) throws IOException {
+        return query_get_creator(contractAddress, web3j, encodedFunction, DefaultBlockParameterName.LATEST);
+    }
     public static Function get_market_state(long user_id, int exchange_id, int quote_asset_id, int base_asset_id) {
         return new Function(
             "get_market_state",
@@ -484,6 +926,20 @@ public class DCN {
             )
         );
     }
+    public static final int get_market_state_SELECTOR = 0xb1827b50;
+    public static final int get_market_state_BYTES = 132;
+    public static int encode_get_market_state(MutableDirectBuffer buffer, int offset, long user_id, int exchange_id, int quote_asset_id, int base_asset_id) {
+        StaticAbi.PutSelector(buffer, offset, get_market_state_SELECTOR);
+        StaticAbi.PutUint(buffer, offset + 4, 64, user_id);
+        StaticAbi.PutUint(buffer, offset + 36, 32, exchange_id);
+        StaticAbi.PutUint(buffer, offset + 68, 32, quote_asset_id);
+        StaticAbi.PutUint(buffer, offset + 100, 32, base_asset_id);
+        return get_market_state_BYTES;
+    }
+    public static String encode_get_market_state(long user_id, int exchange_id, int quote_asset_id, int base_asset_id) {
+        MutableDirectBuffer buffer = StaticAbi.Scratch(get_market_state_BYTES);
+        return StaticAbi.Hex(buffer, 0, encode_get_market_state(buffer, 0, user_id, exchange_id, quote_asset_id, base_asset_id));
+    }
     public static GetMarketStateReturnValue query_get_market_state(String contractAddress, Web3j web3j, Function function, DefaultBlockParameter block) throws IOException {
         String encodedFunction = FunctionEncoder.encode(function);
         org.web3j.protocol.core.methods.response.EthCall ethCall = web3j.ethCall(
@@ -491,24 +947,63 @@ public class DCN {
             block
         ).send();
         String value = ethCall.getValue();
-        List<Type> values = FunctionReturnDecoder.decode(value, function.getOutputParameters());
+        List<?> values = FunctionReturnDecoder.decode(value, function.getOutputParameters());
         GetMarketStateReturnValue returnValue = new GetMarketStateReturnValue();
-        returnValue.quote_qty = ((BigInteger) values.get(0).getValue()).longValue();
-        returnValue.base_qty = ((BigInteger) values.get(1).getValue()).longValue();
-        returnValue.fee_used = ((BigInteger) values.get(2).getValue()).longValue();
-        returnValue.fee_limit = ((BigInteger) values.get(3).getValue()).longValue();
-        returnValue.min_quote_qty = ((BigInteger) values.get(4).getValue()).longValue();
-        returnValue.min_base_qty = ((BigInteger) values.get(5).getValue()).longValue();
-        returnValue.long_max_price = ((BigInteger) values.get(6).getValue()).longValue();
-        returnValue.short_min_price = ((BigInteger) values.get(7).getValue()).longValue();
-        returnValue.limit_version = ((BigInteger) values.get(8).getValue()).longValue();
-        returnValue.quote_shift = (BigInteger) values.get(9).getValue();
-        returnValue.base_shift = (BigInteger) values.get(10).getValue();
+        returnValue.quote_qty = ((BigInteger) ((Type<?>) values.get(0)).getValue()).longValue();
+        returnValue.base_qty = ((BigInteger) ((Type<?>) values.get(1)).getValue()).longValue();
+        returnValue.fee_used = ((BigInteger) ((Type<?>) values.get(2)).getValue()).longValue();
+        returnValue.fee_limit = ((BigInteger) ((Type<?>) values.get(3)).getValue()).longValue();
+        returnValue.min_quote_qty = ((BigInteger) ((Type<?>) values.get(4)).getValue()).longValue();
+        returnValue.min_base_qty = ((BigInteger) ((Type<?>) values.get(5)).getValue()).longValue();
+        returnValue.long_max_price = ((BigInteger) ((Type<?>) values.get(6)).getValue()).longValue();
+        returnValue.short_min_price = ((BigInteger) ((Type<?>) values.get(7)).getValue()).longValue();
+        returnValue.limit_version = ((BigInteger) ((Type<?>) values.get(8)).getValue()).longValue();
+        returnValue.quote_shift = (BigInteger) ((Type<?>) values.get(9)).getValue();
+        returnValue.base_shift = (BigInteger) ((Type<?>) values.get(10)).getValue();
         return returnValue;
     }
     public static GetMarketStateReturnValue query_get_market_state(String contractAddress, Web3j web3j, Function function) throws IOException {
         return query_get_market_state(contractAddress, web3j, function, DefaultBlockParameterName.LATEST);
     }
+    public static final List<TypeReference<?>> get_market_state_OUTPUTS = Collections.unmodifiableList(
+        Arrays.<TypeReference<?>>asList(
+            new TypeReference<org.web3j.abi.datatypes.generated.Int64>() {}
+            , new TypeReference<org.web3j.abi.datatypes.generated.Int64>() {}
+            , new TypeReference<org.web3j.abi.datatypes.generated.Uint64>() {}
+            , new TypeReference<org.web3j.abi.datatypes.generated.Uint64>() {}
+            , new TypeReference<org.web3j.abi.datatypes.generated.Int64>() {}
+            , new TypeReference<org.web3j.abi.datatypes.generated.Int64>() {}
+            , new TypeReference<org.web3j.abi.datatypes.generated.Uint64>() {}
+            , new TypeReference<org.web3j.abi.datatypes.generated.Uint64>() {}
+            , new TypeReference<org.web3j.abi.datatypes.generated.Uint64>() {}
+            , new TypeReference<org.web3j.abi.datatypes.generated.Int96>() {}
+            , new TypeReference<org.web3j.abi.datatypes.generated.Int96>() {}
+        )
+    );
+    public static GetMarketStateReturnValue query_get_market_state(String contractAddress, Web3j web3j, String encodedFunction, DefaultBlockParameter block) throws IOException {
+        org.web3j.protocol.core.methods.response.EthCall ethCall = web3j.ethCall(
+            Transaction.createEthCallTransaction("0x0000000000000000000000000000000000000000", contractAddress, encodedFunction),
+            block
+        ).send();
+        String value = ethCall.getValue();
+        List<?> values = FunctionReturnDecoder.decode(value, org.web3j.abi.Utils.convert(get_market_state_OUTPUTS));
+        GetMarketStateReturnValue returnValue = new GetMarketStateReturnValue();
+        returnValue.quote_qty = ((BigInteger) ((Type<?>) values.get(0)).getValue()).longValue();
+        returnValue.base_qty = ((BigInteger) ((Type<?>) values.get(1)).getValue()).longValue();
+        returnValue.fee_used = ((BigInteger) ((Type<?>) values.get(2)).getValue()).longValue();
+        returnValue.fee_limit = ((BigInteger) ((Type<?>) values.get(3)).getValue()).longValue();
+        returnValue.min_quote_qty = ((BigInteger) ((Type<?>) values.get(4)).getValue()).longValue();
+        returnValue.min_base_qty = ((BigInteger) ((Type<?>) values.get(5)).getValue()).longValue();
+        returnValue.long_max_price = ((BigInteger) ((Type<?>) values.get(6)).getValue()).longValue();
+        returnValue.short_min_price = ((BigInteger) ((Type<?>) values.get(7)).getValue()).longValue();
+        returnValue.limit_version = ((BigInteger) ((Type<?>) values.get(8)).getValue()).longValue();
+        returnValue.quote_shift = (BigInteger) ((Type<?>) values.get(9)).getValue();
+        returnValue.base_shift = (BigInteger) ((Type<?>) values.get(10)).getValue();
+        return returnValue;
+    }
+    public static GetMarketStateReturnValue query_get_market_state(String contractAddress, Web3j web3j, String encodedFunction) throws IOException {
+        return query_get_market_state(contractAddress, web3j, encodedFunction, DefaultBlockParameterName.LATEST);
+    }
     public static Function set_exchange_locked(int exchange_id, boolean locked) {
         return new Function(
             "set_exchange_locked",
@@ -519,6 +1014,18 @@ public class DCN {
             Collections.emptyList()
         );
     }
+    public static final int set_exchange_locked_SELECTOR = 0xb6fc6860;
+    public static final int set_exchange_locked_BYTES = 68;
+    public static int encode_set_exchange_locked(MutableDirectBuffer buffer, int offset, int exchange_id, boolean locked) {
+        StaticAbi.PutSelector(buffer, offset, set_exchange_locked_SELECTOR);
+        StaticAbi.PutUint(buffer, offset + 4, 32, exchange_id);
+        StaticAbi.PutBool(buffer, offset + 36, locked);
+        return set_exchange_locked_BYTES;
+    }
+    public static String encode_set_exchange_locked(int exchange_id, boolean locked) {
+        MutableDirectBuffer buffer = StaticAbi.Scratch(set_exchange_locked_BYTES);
+        return StaticAbi.Hex(buffer, 0, encode_set_exchange_locked(buffer, 0, exchange_id, locked));
+    }
     public static Function get_balance(long user_id, int asset_id) {
         return new Function(
             "get_balance",
@@ -531,6 +1038,18 @@ public class DCN {
             )
         );
     }
+    public static final int get_balance_SELECTOR = 0xcb8dbe6a;
+    public static final int get_balance_BYTES = 68;
+    public static int encode_get_balance(MutableDirectBuffer buffer, int offset, long user_id, int asset_id) {
+        StaticAbi.PutSelector(buffer, offset, get_balance_SELECTOR);
+        StaticAbi.PutUint(buffer, offset + 4, 64, user_id);
+        StaticAbi.PutUint(buffer, offset + 36, 32, asset_id);
+        return get_balance_BYTES;
+    }
+    public static String encode_get_balance(long user_id, int asset_id) {
+        MutableDirectBuffer buffer = StaticAbi.Scratch(get_balance_BYTES);
+        return StaticAbi.Hex(buffer, 0, encode_get_balance(buffer, 0, user_id, asset_id));
+    }
     public static GetBalanceReturnValue query_get_balance(String contractAddress, Web3j web3j, Function function, DefaultBlockParameter block) throws IOException {
         String encodedFunction = FunctionEncoder.encode(function);
         org.web3j.protocol.core.methods.response.EthCall ethCall = web3j.ethCall(
@@ -538,14 +1057,33 @@ public class DCN {
             block
         ).send();
         String value = ethCall.getValue();
-        List<Type> values = FunctionReturnDecoder.decode(value, function.getOutputParameters());
+        List<?> values = FunctionReturnDecoder.decode(value, function.getOutputParameters());
         GetBalanceReturnValue returnValue = new GetBalanceReturnValue();
-        returnValue.return_balance = (BigInteger) values.get(0).getValue();
+        returnValue.return_balance = (BigInteger) ((Type<?>) values.get(0)).getValue();
         return returnValue;
     }
     public static GetBalanceReturnValue query_get_balance(String contractAddress, Web3j web3j, Function function) throws IOException {
         return query_get_balance(contractAddress, web3j, function, DefaultBlockParameterName.LATEST);
     }
+    public static final List<TypeReference<?>> get_balance_OUTPUTS = Collections.unmodifiableList(
+        Collections.<TypeReference<?>>singletonList(
+            new TypeReference<org.web3j.abi.datatypes.generated.Uint256>() {}
+        )
+    );
+    public static GetBalanceReturnValue query_get_balance(String contractAddress, Web3j web3j, String encodedFunction, DefaultBlockParameter block) throws IOException {
+        org.web3j.protocol.core.methods.response.EthCall ethCall = web3j.ethCall(
+            Transaction.createEthCallTransaction("0x0000000000000000000000000000000000000000", contractAddress, encodedFunction),
+            block
+        ).send();
+        String value = ethCall.getValue();
+        List<?> values = FunctionReturnDecoder.decode(value, org.web3j.abi.Utils.convert(get_balance_OUTPUTS));
+        GetBalanceReturnValue returnValue = new GetBalanceReturnValue();
+        returnValue.return_balance = (BigInteger) ((Type<?>) values.get(0)).getValue();
+        return returnValue;
+    }
+    public static GetBalanceReturnValue query_get_balance(String contractAddress, Web3j web3j, String encodedFunction) throws IOException {
+        return query_get_balance(contractAddress, web3j, encodedFunction, DefaultBlockParameterName.LATEST);
+    }
     public static Function exchange_set_recovery(int exchange_id) {
         return new Function(
             "exchange_set_recovery",
@@ -555,6 +1093,17 @@ public class DCN {
             Collections.emptyList()
         );
     }
+    public static final int exchange_set_recovery_SELECTOR = 0xcd061ea4;
+    public static final int exchange_set_recovery_BYTES = 36;
+    public static int encode_exchange_set_recovery(MutableDirectBuffer buffer, int offset, int exchange_id) {
+        StaticAbi.PutSelector(buffer, offset, exchange_set_recovery_SELECTOR);
+        StaticAbi.PutUint(buffer, offset + 4, 32, exchange_id);
+        return exchange_set_recovery_BYTES;
+    }
+    public static String encode_exchange_set_recovery(int exchange_id) {
+        MutableDirectBuffer buffer = StaticAbi.Scratch(exchange_set_recovery_BYTES);
+        return StaticAbi.Hex(buffer, 0, encode_exchange_set_recovery(buffer, 0, exchange_id));
+    }
     public static Function get_security_state() {
         return new Function(
             "get_security_state",
@@ -566,6 +1115,16 @@ public class DCN {
             )
         );
     }
+    public static final int get_security_state_SELECTOR = 0xcd347329;
+    public static final int get_security_state_BYTES = 4;
+    public static int encode_get_security_state(MutableDirectBuffer buffer, int offset) {
+        StaticAbi.PutSelector(buffer, offset, get_security_state_SELECTOR);
+        return get_security_state_BYTES;
+    }
+    public static String encode_get_security_state() {
+        MutableDirectBuffer buffer = StaticAbi.Scratch(get_security_state_BYTES);
+        return StaticAbi.Hex(buffer, 0, encode_get_security_state(buffer, 0));
+    }
     public static GetSecurityStateReturnValue query_get_security_state(String contractAddress, Web3j web3j, Function function, DefaultBlockParameter block) throws IOException {
         String encodedFunction = FunctionEncoder.encode(function);
         org.web3j.protocol.core.methods.response.EthCall ethCall = web3j.ethCall(
@@ -573,16 +1132,39 @@ public class DCN {
             block
         ).send();
         String value = ethCall.getValue();
-        List<Type> values = FunctionReturnDecoder.decode(value, function.getOutputParameters());
+        List<?> values = FunctionReturnDecoder.decode(value, function.getOutputParameters());
         GetSecurityStateReturnValue returnValue = new GetSecurityStateReturnValue();
-        returnValue.locked_features = (BigInteger) values.get(0).getValue();
-        returnValue.locked_features_proposed = (BigInteger) values.get(1).getValue();
-        returnValue.proposed_unlock_timestamp = (BigInteger) values.get(2).getValue();
+        returnValue.locked_features = (BigInteger) ((Type<?>) values.get(0)).getValue();
+        returnValue.locked_features_proposed = (BigInteger) ((Type<?>) values.get(1)).getValue();
+        returnValue.proposed_unlock_timestamp = (BigInteger) ((Type<?>) values.get(2)).getValue();
         return returnValue;
     }
     public static GetSecurityStateReturnValue query_get_security_state(String contractAddress, Web3j web3j, Function function) throws IOException {
         return query_get_security_state(contractAddress, web3j, function, DefaultBlockParameterName.LATEST);
     }
+    public static final List<TypeReference<?>> get_security_state_OUTPUTS = Collections.unmodifiableList(
+        Arrays.<TypeReference<?>>asList(
+            new TypeReference<org.web3j.abi.datatypes.generated.Uint256>() {}
+            , new TypeReference<org.web3j.abi.datatypes.generated.Uint256>() {}
+            , new TypeReference<org.web3j.abi.datatypes.generated.Uint256>() {}
+        )
+    );
+    public static GetSecurityStateReturnValue query_get_security_state(String contractAddress, Web3j web3j, String encodedFunction, DefaultBlockParameter block) throws IOException {
+        org.web3j.protocol.core.methods.response.EthCall ethCall = web3j.ethCall(
+            Transaction.createEthCallTransaction("0x0000000000000000000000000000000000000000", contractAddress, encodedFunction),
+            block
+        ).send();
+        String value = ethCall.getValue();
+        List<?> values = FunctionReturnDecoder.decode(value, org.web3j.abi.Utils.convert(get_security_state_OUTPUTS));
+        GetSecurityStateReturnValue returnValue = new GetSecurityStateReturnValue();
+        returnValue.locked_features = (BigInteger) ((Type<?>) values.get(0)).getValue();
+        returnValue.locked_features_proposed = (BigInteger) ((Type<?>) values.get(1)).getValue();
+        returnValue.proposed_unlock_timestamp = (BigInteger) ((Type<?>) values.get(2)).getValue();
+        return returnValue;
+    }
+    public static GetSecurityStateReturnValue query_get_security_state(String contractAddress, Web3j web3j, String encodedFunction) throws IOException {
+        return query_get_security_state(contractAddress, web3j, encodedFunction, DefaultBlockParameterName.LATEST);
+    }
     public static Function user_deposit(long user_id, int asset_id, BigInteger amount) {
         return new Function(
             "user_deposit",
@@ -601,6 +1183,19 @@ public class DCN {
             , new BigInteger(Long.toUnsignedString(amount))
         );
     }
+    public static final int user_deposit_SELECTOR = 0xd265ef48;
+    public static final int user_deposit_BYTES = 100;
+    public static int encode_user_deposit(MutableDirectBuffer buffer, int offset, long user_id, int asset_id, BigInteger amount) {
+        StaticAbi.PutSelector(buffer, offset, user_deposit_SELECTOR);
+        StaticAbi.PutUint(buffer, offset + 4, 64, user_id);
+        StaticAbi.PutUint(buffer, offset + 36, 32, asset_id);
+        StaticAbi.PutUint(buffer, offset + 68, 256, amount);
+        return user_deposit_BYTES;
+    }
+    public static String encode_user_deposit(long user_id, int asset_id, BigInteger amount) {
+        MutableDirectBuffer buffer = StaticAbi.Scratch(user_deposit_BYTES);
+        return StaticAbi.Hex(buffer, 0, encode_user_deposit(buffer, 0, user_id, asset_id, amount));
+    }
     public static Function exchange_deposit(int exchange_id, int asset_id, long quantity) {
         return new Function(
             "exchange_deposit",
@@ -612,6 +1207,19 @@ public class DCN {
             Collections.emptyList()
         );
     }
+    public static final int exchange_deposit_SELECTOR = 0xd87b6659;
+    public static final int exchange_deposit_BYTES = 100;
+    public static int encode_exchange_deposit(MutableDirectBuffer buffer, int offset, int exchange_id, int asset_id, long quantity) {
+        StaticAbi.PutSelector(buffer, offset, exchange_deposit_SELECTOR);
+        StaticAbi.PutUint(buffer, offset + 4, 32, exchange_id);
+        StaticAbi.PutUint(buffer, offset + 36, 32, asset_id);
+        StaticAbi.PutUint(buffer, offset + 68, 64, quantity);
+        return exchange_deposit_BYTES;
+    }
+    public static String encode_exchange_deposit(int exchange_id, int asset_id, long quantity) {
+        MutableDirectBuffer buffer = StaticAbi.Scratch(exchange_deposit_BYTES);
+        return StaticAbi.Hex(buffer, 0, encode_exchange_deposit(buffer, 0, exchange_id, asset_id, quantity));
+    }
     public static Function exchange_set_owner(int exchange_id, String new_owner) {
         return new Function(
             "exchange_set_owner",
@@ -622,6 +1230,18 @@ public class DCN {
             Collections.emptyList()
         );
     }
+    public static final int exchange_set_owner_SELECTOR = 0xe10d2dda;
+    public static final int exchange_set_owner_BYTES = 68;
+    public static int encode_exchange_set_owner(MutableDirectBuffer buffer, int offset, int exchange_id, String new_owner) {
+        StaticAbi.PutSelector(buffer, offset, exchange_set_owner_SELECTOR);
+        StaticAbi.PutUint(buffer, offset + 4, 32, exchange_id);
+        StaticAbi.PutAddress(buffer, offset + 36, new_owner);
+        return exchange_set_owner_BYTES;
+    }
+    public static String encode_exchange_set_owner(int exchange_id, String new_owner) {
+        MutableDirectBuffer buffer = StaticAbi.Scratch(exchange_set_owner_BYTES);
+        return StaticAbi.Hex(buffer, 0, encode_exchange_set_owner(buffer, 0, exchange_id, new_owner));
+    }
     public static Function exchange_set_withdraw(int exchange_id, String new_withdraw) {
         return new Function(
             "exchange_set_withdraw",
@@ -632,6 +1252,18 @@ public class DCN {
             Collections.emptyList()
         );
     }
+    public static final int exchange_set_withdraw_SELECTOR = 0xeb76a46e;
+    public static final int exchange_set_withdraw_BYTES = 68;
+    public static int encode_exchange_set_withdraw(MutableDirectBuffer buffer, int offset, int exchange_id, String new_withdraw) {
+        StaticAbi.PutSelector(buffer, offset, exchange_set_withdraw_SELECTOR);
+        StaticAbi.PutUint(buffer, offset + 4, 32, exchange_id);
+        StaticAbi.PutAddress(buffer, offset + 36, new_withdraw);
+        return exchange_set_withdraw_BYTES;
+    }
+    public static String encode_exchange_set_withdraw(int exchange_id, String new_withdraw) {
+        MutableDirectBuffer buffer = StaticAbi.Scratch(exchange_set_withdraw_BYTES);
+        return StaticAbi.Hex(buffer, 0, encode_exchange_set_withdraw(buffer, 0, exchange_id, new_withdraw));
+    }
     public static Function exchange_set_limits(String data) {
         return new Function(
             "exchange_set_limits",
@@ -641,6 +1273,7 @@ public class DCN {
             Collections.emptyList()
         );
     }
+    public static final int exchange_set_limits_SELECTOR = 0xec3b84f0;
     public static Function user_set_withdraw_address(long user_id, String withdraw_address) {
         return new Function(
             "user_set_withdraw_address",
@@ -651,6 +1284,18 @@ public class DCN {
             Collections.emptyList()
         );
     }
+    public static final int user_set_withdraw_address_SELECTOR = 0xed2c44c7;
+    public static final int user_set_withdraw_address_BYTES = 68;
+    public static int encode_user_set_withdraw_address(MutableDirectBuffer buffer, int offset, long user_id, String withdraw_address) {
+        StaticAbi.PutSelector(buffer, offset, user_set_withdraw_address_SELECTOR);
+        StaticAbi.PutUint(buffer, offset + 4, 64, user_id);
+        StaticAbi.PutAddress(buffer, offset + 36, withdraw_address);
+        return user_set_withdraw_address_BYTES;
+    }
+    public static String encode_user_set_withdraw_address(long user_id, String withdraw_address) {
+        MutableDirectBuffer buffer = StaticAbi.Scratch(user_set_withdraw_address_BYTES);
+        return StaticAbi.Hex(buffer, 0, encode_user_set_withdraw_address(buffer, 0, user_id, withdraw_address));
+    }
     public static Function exchange_withdraw(int exchange_id, int asset_id, String destination, long quantity) {
         return new Function(
             "exchange_withdraw",
@@ -663,6 +1308,20 @@ public class DCN {
             Collections.emptyList()
         );
     }
+    public static final int exchange_withdraw_SELECTOR = 0xf03f1e00;
+    public static final int exchange_withdraw_BYTES = 132;
+    public static int encode_exchange_withdraw(MutableDirectBuffer buffer, int offset, int exchange_id, int asset_id, String destination, long quantity) {
+        StaticAbi.PutSelector(buffer, offset, exchange_withdraw_SELECTOR);
+        StaticAbi.PutUint(buffer, offset + 4, 32, exchange_id);
+        StaticAbi.PutUint(buffer, offset + 36, 32, asset_id);
+        StaticAbi.PutAddress(buffer, offset + 68, destination);
+        StaticAbi.PutUint(buffer, offset + 100, 64, quantity);
+        return exchange_withdraw_BYTES;
+    }
+    public static String encode_exchange_withdraw(int exchange_id, int asset_id, String destination, long quantity) {
+        MutableDirectBuffer buffer = StaticAbi.Scratch(exchange_withdraw_BYTES);
+        return StaticAbi.Hex(buffer, 0, encode_exchange_withdraw(buffer, 0, exchange_id, asset_id, destination, quantity));
+    }
     public static Function user_withdraw(long user_id, int asset_id, String destination, BigInteger amount) {
         return new Function(
             "user_withdraw",
@@ -683,6 +1342,20 @@ public class DCN {
             , new BigInteger(Long.toUnsignedString(amount))
         );
     }
+    public static final int user_withdraw_SELECTOR = 0xf0b97ebe;
+    public static final int user_withdraw_BYTES = 132;
+    public static int encode_user_withdraw(MutableDirectBuffer buffer, int offset, long user_id, int asset_id, String destination, BigInteger amount) {
+        StaticAbi.PutSelector(buffer, offset, user_withdraw_SELECTOR);
+        StaticAbi.PutUint(buffer, offset + 4, 64, user_id);
+        StaticAbi.PutUint(buffer, offset + 36, 32, asset_id);
+        StaticAbi.PutAddress(buffer, offset + 68, destination);
+        StaticAbi.PutUint(buffer, offset + 100, 256, amount);
+        return user_withdraw_BYTES;
+    }
+    public static String encode_user_withdraw(long user_id, int asset_id, String destination, BigInteger amount) {
+        MutableDirectBuffer buffer = StaticAbi.Scratch(user_withdraw_BYTES);
+        return StaticAbi.Hex(buffer, 0, encode_user_withdraw(buffer, 0, user_id, asset_id, destination, amount));
+    }
     public static Function user_session_set_unlock_at(long user_id, int exchange_id, BigInteger unlock_at) {
         return new Function(
             "user_session_set_unlock_at",
@@ -701,6 +1374,19 @@ public class DCN {
             , new BigInteger(Long.toUnsignedString(unlock_at))
         );
     }
+    public static final int user_session_set_unlock_at_SELECTOR = 0xf20d1398;
+    public static final int user_session_set_unlock_at_BYTES = 100;
+    public static int encode_user_session_set_unlock_at(MutableDirectBuffer buffer, int offset, long user_id, int exchange_id, BigInteger unlock_at) {
+        StaticAbi.PutSelector(buffer, offset, user_session_set_unlock_at_SELECTOR);
+        StaticAbi.PutUint(buffer, offset + 4, 64, user_id);
+        StaticAbi.PutUint(buffer, offset + 36, 32, exchange_id);
+        StaticAbi.PutUint(buffer, offset + 68, 256, unlock_at);
+        return user_session_set_unlock_at_BYTES;
+    }
+    public static String encode_user_session_set_unlock_at(long user_id, int exchange_id, BigInteger unlock_at) {
+        MutableDirectBuffer buffer = StaticAbi.Scratch(user_session_set_unlock_at_BYTES);
+        return StaticAbi.Hex(buffer, 0, encode_user_session_set_unlock_at(buffer, 0, user_id, exchange_id, unlock_at));
+    }
     public static Function get_exchange_balance(int exchange_id, int asset_id) {
         return new Function(
             "get_exchange_balance",
@@ -713,6 +1399,18 @@ public class DCN {
             )
         );
     }
+    public static final int get_exchange_balance_SELECTOR = 0xf54f3fcf;
+    public static final int get_exchange_balance_BYTES = 68;
+    public static int encode_get_exchange_balance(MutableDirectBuffer buffer, int offset, int exchange_id, int asset_id) {
+        StaticAbi.PutSelector(buffer, offset, get_exchange_balance_SELECTOR);
+        StaticAbi.PutUint(buffer, offset + 4, 32, exchange_id);
+        StaticAbi.PutUint(buffer, offset + 36, 32, asset_id);
+        return get_exchange_balance_BYTES;
+    }
+    public static String encode_get_exchange_balance(int exchange_id, int asset_id) {
+        MutableDirectBuffer buffer = StaticAbi.Scratch(get_exchange_balance_BYTES);
+        return StaticAbi.Hex(buffer, 0, encode_get_exchange_balance(buffer, 0, exchange_id, asset_id));
+    }
     public static GetExchangeBalanceReturnValue query_get_exchange_balance(String contractAddress, Web3j web3j, Function function, DefaultBlockParameter block) throws IOException {
         String encodedFunction = FunctionEncoder.encode(function);
         org.web3j.protocol.core.methods.response.EthCall ethCall = web3j.ethCall(
@@ -720,14 +1418,33 @@ public class DCN {
             block
         ).send();
         String value = ethCall.getValue();
-        List<Type> values = FunctionReturnDecoder.decode(value, function.getOutputParameters());
+        List<?> values = FunctionReturnDecoder.decode(value, function.getOutputParameters());
         GetExchangeBalanceReturnValue returnValue = new GetExchangeBalanceReturnValue();
-        returnValue.exchange_balance = (BigInteger) values.get(0).getValue();
+        returnValue.exchange_balance = (BigInteger) ((Type<?>) values.get(0)).getValue();
         return returnValue;
     }
     public static GetExchangeBalanceReturnValue query_get_exchange_balance(String contractAddress, Web3j web3j, Function function) throws IOException {
         return query_get_exchange_balance(contractAddress, web3j, function, DefaultBlockParameterName.LATEST);
     }
+    public static final List<TypeReference<?>> get_exchange_balance_OUTPUTS = Collections.unmodifiableList(
+        Collections.<TypeReference<?>>singletonList(
+            new TypeReference<org.web3j.abi.datatypes.generated.Uint256>() {}
+        )
+    );
+    public static GetExchangeBalanceReturnValue query_get_exchange_balance(String contractAddress, Web3j web3j, String encodedFunction, DefaultBlockParameter block) throws IOException {
+        org.web3j.protocol.core.methods.response.EthCall ethCall = web3j.ethCall(
+            Transaction.createEthCallTransaction("0x0000000000000000000000000000000000000000", contractAddress, encodedFunction),
+            block
+        ).send();
+        String value = ethCall.getValue();
+        List<?> values = FunctionReturnDecoder.decode(value, org.web3j.abi.Utils.convert(get_exchange_balance_OUTPUTS));
+        GetExchangeBalanceReturnValue returnValue = new GetExchangeBalanceReturnValue();
+        returnValue.exchange_balance = (BigInteger) ((Type<?>) values.get(0)).getValue();
+        return returnValue;
+    }
+    public static GetExchangeBalanceReturnValue query_get_exchange_balance(String contractAddress, Web3j web3j, String encodedFunction) throws IOException {
+        return query_get_exchange_balance(contractAddress, web3j, encodedFunction, DefaultBlockParameterName.LATEST);
+    }
     public static Function get_user_count() {
         return new Function(
             "get_user_count",
@@ -737,6 +1454,16 @@ public class DCN {
             )
         );
     }
+    public static final int get_user_count_SELECTOR = 0xfd33482d;
+    public static final int get_user_count_BYTES = 4;
+    public static int encode_get_user_count(MutableDirectBuffer buffer, int offset) {
+        StaticAbi.PutSelector(buffer, offset, get_user_count_SELECTOR);
+        return get_user_count_BYTES;
+    }
+    public static String encode_get_user_count() {
+        MutableDirectBuffer buffer = StaticAbi.Scratch(get_user_count_BYTES);
+        return StaticAbi.Hex(buffer, 0, encode_get_user_count(buffer, 0));
+    }
     public static GetUserCountReturnValue query_get_user_count(String contractAddress, Web3j web3j, Function function, DefaultBlockParameter block) throws IOException {
         String encodedFunction = FunctionEncoder.encode(function);
         org.web3j.protocol.core.methods.response.EthCall ethCall = web3j.ethCall(
@@ -744,14 +1471,33 @@ public class DCN {
             block
         ).send();
         String value = ethCall.getValue();
-        List<Type> values = FunctionReturnDecoder.decode(value, function.getOutputParameters());
+        List<?> values = FunctionReturnDecoder.decode(value, function.getOutputParameters());
         GetUserCountReturnValue returnValue = new GetUserCountReturnValue();
-        returnValue.count = ((BigInteger) values.get(0).getValue()).intValue();
+        returnValue.count = ((BigInteger) ((Type<?>) values.get(0)).getValue()).intValue();
         return returnValue;
     }
     public static GetUserCountReturnValue query_get_user_count(String contractAddress, Web3j web3j, Function function) throws IOException {
         return query_get_user_count(contractAddress, web3j, function, DefaultBlockParameterName.LATEST);
     }
+    public static final List<TypeReference<?>> get_user_count_OUTPUTS = Collections.unmodifiableList(
+        Collections.<TypeReference<?>>singletonList(
+            new TypeReference<org.web3j.abi.datatypes.generated.Uint32>() {}
+        )
+    );
+    public static GetUserCountReturnValue query_get_user_count(String contractAddress, Web3j web3j, String encodedFunction, DefaultBlockParameter block) throws IOException {
+        org.web3j.protocol.core.methods.response.EthCall ethCall = web3j.ethCall(
+            Transaction.createEthCallTransaction("0x0000000000000000000000000000000000000000", contractAddress, encodedFunction),
+            block
+        ).send();
+        String value = ethCall.getValue();
+        List<?> values = FunctionReturnDecoder.decode(value, org.web3j.abi.Utils.convert(get_user_count_OUTPUTS));
+        GetUserCountReturnValue returnValue = new GetUserCountReturnValue();
+        returnValue.count = ((BigInteger) ((Type<?>) values.get(0)).getValue()).intValue();
+        return returnValue;
+    }
+    public static GetUserCountReturnValue query_get_user_count(String contractAddress, Web3j web3j, String encodedFunction) throws IOException {
+        return query_get_user_count(contractAddress, web3j, encodedFunction, DefaultBlockParameterName.LATEST);
+    }
     public static Function exchange_propose_recovery(int exchange_id, String proposed) {
         return new Function(
             "exchange_propose_recovery",
@@ -762,6 +1508,18 @@ public class DCN {
             Collections.emptyList()
         );
     }
+    public static final int exchange_propose_recovery_SELECTOR = 0xff410a3b;
+    public static final int exchange_propose_recovery_BYTES = 68;
+    public static int encode_exchange_propose_recovery(MutableDirectBuffer buffer, int offset, int exchange_id, String proposed) {
+        StaticAbi.PutSelector(buffer, offset, exchange_propose_recovery_SELECTOR);
+        StaticAbi.PutUint(buffer, offset + 4, 32, exchange_id);
+        StaticAbi.PutAddress(buffer, offset + 36, proposed);
+        return exchange_propose_recovery_BYTES;
+    }
+    public static String encode_exchange_propose_recovery(int exchange_id, String proposed) {
+        MutableDirectBuffer buffer = StaticAbi.Scratch(exchange_propose_recovery_BYTES);
+        return StaticAbi.Hex(buffer, 0, encode_exchange_propose_recovery(buffer, 0, exchange_id, proposed));
+    }
     public static String DeployData() {
         String encodedConstructor = FunctionEncoder.encodeConstructor(
             Collections.emptyList()
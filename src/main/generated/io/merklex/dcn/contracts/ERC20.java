@@ -16,6 +16,8 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import org.web3j.utils.Numeric;
+import org.agrona.MutableDirectBuffer;
+import io.merklex.web3.StaticAbi;
 
 @javax.annotation.Generated(value="merklex-code-gen")
 public class ERC20 {
@@ -29,6 +31,16 @@ public class ERC20 {
             )
         );
     }
+    public static final int name_SELECTOR = 0x06fdde03;
+    public static final int name_BYTES = 4;
+    public static int encode_name(MutableDirectBuffer buffer, int offset) {
+        StaticAbi.PutSelector(buffer, offset, name_SELECTOR);
+        return name_BYTES;
+    }
+    public static String encode_name() {
+        MutableDirectBuffer buffer = StaticAbi.Scratch(name_BYTES);
+        return StaticAbi.Hex(buffer, 0, encode_name(buffer, 0));
+    }
     public static NameReturnValue query_name(String contractAddress, Web3j web3j, Function function, DefaultBlockParameter block) throws IOException {
         String encodedFunction = FunctionEncoder.encode(function);
         org.web3j.protocol.core.methods.response.EthCall ethCall = web3j.ethCall(
@@ -36,14 +48,33 @@ public class ERC20 {
             block
         ).send();
         String value = ethCall.getValue();
-        List<Type> values = FunctionReturnDecoder.decode(value, function.getOutputParameters());
+        List<?> values = FunctionReturnDecoder.decode(value, function.getOutputParameters());
         NameReturnValue returnValue = new NameReturnValue();
-        returnValue.value = (String) values.get(0).getValue();
+        returnValue.value = (String) ((Type<?>) values.get(0)).getValue();
         return returnValue;
     }
     public static NameReturnValue query_name(String contractAddress, Web3j web3j, Function function) throws IOException {
         return query_name(contractAddress, web3j, function, DefaultBlockParameterName.LATEST);
     }
+    public static final List<TypeReference<?>> name_OUTPUTS = Collections.unmodifiableList(
+        Collections.<TypeReference<?>>singletonList(
+            new TypeReference<org.web3j.abi.datatypes.Utf8String>() {}
+        )
+    );
+    public static NameReturnValue query_name(String contractAddress, Web3j web3j, String encodedFunction, DefaultBlockParameter block) throws IOException {
+        org.web3j.protocol.core.methods.response.EthCall ethCall = web3j.ethCall(
+            Transaction.createEthCallTransaction("0x0000000000000000000000000000000000000000", contractAddress, encodedFunction),
+            block
+        ).send();
+        String value = ethCall.getValue();
+        List<?> values = FunctionReturnDecoder.decode(value, org.web3j.abi.Utils.convert(name_OUTPUTS));
+        NameReturnValue returnValue = new NameReturnValue();
+        returnValue.value = (String) ((Type<?>) values.get(0)).getValue();
+        return returnValue;
+    }
+    public static NameReturnValue query_name(String contractAddress, Web3j web3j, String encodedFunction) throws IOException {
+        return query_name(contractAddress, web3j, encodedFunction, DefaultBlockParameterName.LATEST);
+    }
     public static Function approve(String _spender, BigInteger _value) {
         return new Function(
             "approve",
@@ -62,6 +93,18 @@ public class ERC20 {
             , new BigInteger(Long.toUnsignedString(_value))
         );
     }
+    public static final int approve_SELECTOR = 0x095ea7b3;
+    public static final int approve_BYTES = 68;
+    public static int encode_approve(MutableDirectBuffer buffer, int offset, String _spender, BigInteger _value) {
+        StaticAbi.PutSelector(buffer, offset, approve_SELECTOR);
+        StaticAbi.PutAddress(buffer, offset + 4, _spender);
+        StaticAbi.PutUint(buffer, offset + 36, 256, _value);
+        return approve_BYTES;
+    }
+    public static String encode_approve(String _spender, BigInteger _value) {
+        MutableDirectBuffer buffer = StaticAbi.Scratch(approve_BYTES);
+        return StaticAbi.Hex(buffer, 0, encode_approve(buffer, 0, _spender, _value));
+    }
     public static Function totalSupply() {
         return new Function(
             "totalSupply",
@@ -71,6 +114,16 @@ public class ERC20 {
             )
         );
     }
+    public static final int totalSupply_SELECTOR = 0x18160ddd;
+    public static final int totalSupply_BYTES = 4;
+    public static int encode_totalSupply(MutableDirectBuffer buffer, int offset) {
+        StaticAbi.PutSelector(buffer, offset, totalSupply_SELECTOR);
+        return totalSupply_BYTES;
+    }
+    public static String encode_totalSupply() {
+        MutableDirectBuffer buffer = StaticAbi.Scratch(totalSupply_BYTES);
+        return StaticAbi.Hex(buffer, 0, encode_totalSupply(buffer, 0));
+    }
     public static TotalsupplyReturnValue query_totalSupply(String contractAddress, Web3j web3j, Function function, DefaultBlockParameter block) throws IOException {
         String encodedFunction = FunctionEncoder.encode(function);
         org.web3j.protocol.core.methods.response.EthCall ethCall = web3j.ethCall(
@@ -78,14 +131,33 @@ public class ERC20 {
             block
         ).send();
         String value = ethCall.getValue();
-        List<Type> values = FunctionReturnDecoder.decode(value, function.getOutputParameters());
+        List<?> values = FunctionReturnDecoder.decode(value, function.getOutputParameters());
         TotalsupplyReturnValue returnValue = new TotalsupplyReturnValue();
-        returnValue.value = (BigInteger) values.get(0).getValue();
+        returnValue.value = (BigInteger) ((Type<?>) values.get(0)).getValue();
         return returnValue;
     }
     public static TotalsupplyReturnValue query_totalSupply(String contractAddress, Web3j web3j, Function function) throws IOException {
         return query_totalSupply(contractAddress, web3j, function, DefaultBlockParameterName.LATEST);
     }
+    public static final List<TypeReference<?>> totalSupply_OUTPUTS = Collections.unmodifiableList(
+        Collections.<TypeReference<?>>singletonList(
+            new TypeReference<org.web3j.abi.datatypes.generated.Uint256>() {}
+        )
+    );
+    public static TotalsupplyReturnValue query_totalSupply(String contractAddress, Web3j web3j, String encodedFunction, DefaultBlockParameter block) throws IOException {
+        org.web3j.protocol.core.methods.response.EthCall ethCall = web3j.ethCall(
+            Transaction.createEthCallTransaction("0x0000000000000000000000000000000000000000", contractAddress, encodedFunction),
+            block
+        ).send();
+        String value = ethCall.getValue();
+        List<?> values = FunctionReturnDecoder.decode(value, org.web3j.abi.Utils.convert(totalSupply_OUTPUTS));
+        TotalsupplyReturnValue returnValue = new TotalsupplyReturnValue();
+        returnValue.value = (BigInteger) ((Type<?>) values.get(0)).getValue();
+        return returnValue;
+    }
+    public static TotalsupplyReturnValue query_totalSupply(String contractAddress, Web3j web3j, String encodedFunction) throws IOException {
+        return query_totalSupply(contractAddress, web3j, encodedFunction, DefaultBlockParameterName.LATEST);
+    }
     public static Function transferFrom(String _from, String _to, BigInteger _value) {
         return new Function(
             "transferFrom",
@@ -106,6 +178,19 @@ public class ERC20 {
             , new BigInteger(Long.toUnsignedString(_value))
         );
     }
+    public static final int transferFrom_SELECTOR = 0x23b872dd;
+    public static final int transferFrom_BYTES = 100;
+    public static int encode_transferFrom(MutableDirectBuffer buffer, int offset, String _from, String _to, BigInteger _value) {
+        StaticAbi.PutSelector(buffer, offset, transferFrom_SELECTOR);
+        StaticAbi.PutAddress(buffer, offset + 4, _from);
+        StaticAbi.PutAddress(buffer, offset + 36, _to);
+        StaticAbi.PutUint(buffer, offset + 68, 256, _value);
+        return transferFrom_BYTES;
+    }
+    public static String encode_transferFrom(String _from, String _to, BigInteger _value) {
+        MutableDirectBuffer buffer = StaticAbi.Scratch(transferFrom_BYTES);
+        return StaticAbi.Hex(buffer, 0, encode_transferFrom(buffer, 0, _from, _to, _value));
+    }
     public static Function balances(String arg0) {
         return new Function(
             "balances",
@@ -117,6 +202,17 @@ public class ERC20 {
             )
         );
     }
+    public static final int balances_SELECTOR = 0x27e235e3;
+    public static final int balances_BYTES = 36;
+    public static int encode_balances(MutableDirectBuffer buffer, int offset, String arg0) {
+        StaticAbi.PutSelector(buffer, offset, balances_SELECTOR);
+        StaticAbi.PutAddress(buffer, offset + 4, arg0);
+        return balances_BYTES;
+    }
+    public static String encode_balances(String arg0) {
+        MutableDirectBuffer buffer = StaticAbi.Scratch(balances_BYTES);
+        return StaticAbi.Hex(buffer, 0, encode_balances(buffer, 0, arg0));
+    }
     public static BalancesReturnValue query_balances(String contractAddress, Web3j web3j, Function function, DefaultBlockParameter block) throws IOException {
         String encodedFunction = FunctionEncoder.encode(function);
         org.web3j.protocol.core.methods.response.EthCall ethCall = web3j.ethCall(
@@ -124,14 +220,33 @@ public class ERC20 {
             block
         ).send();
         String value = ethCall.getValue();
-        List<Type> values = FunctionReturnDecoder.decode(value, function.getOutputParameters());
+        List<?> values = FunctionReturnDecoder.decode(value, function.getOutputParameters());
         BalancesReturnValue returnValue = new BalancesReturnValue();
-        returnValue.value = (BigInteger) values.get(0).getValue();
+        returnValue.value = (BigInteger) ((Type<?>) values.get(0)).getValue();
         return returnValue;
     }
     public static BalancesReturnValue query_balances(String contractAddress, Web3j web3j, Function function) throws IOException {
         return query_balances(contractAddress, web3j, function, DefaultBlockParameterName.LATEST);
     }
+    public static final List<TypeReference<?>> balances_OUTPUTS = Collections.unmodifiableList(
+        Collections.<TypeReference<?>>singletonList(
+            new TypeReference<org.web3j.abi.datatypes.generated.Uint256>() {}
+        )
+    );
+    public static BalancesReturnValue query_balances(String contractAddress, Web3j web3j, String encodedFunction, DefaultBlockParameter block) throws IOException {
+        org.web3j.protocol.core.methods.response.EthCall ethCall = web3j.ethCall(
+            Transaction.createEthCallTransaction("0x0000000000000000000000000000000000000000", contractAddress, encodedFunction),
+            block
+        ).send();
+        String value = ethCall.getValue();
+        List<?> values = FunctionReturnDecoder.decode(value, org.web3j.abi.Utils.convert(balances_OUTPUTS));
+        BalancesReturnValue returnValue = new BalancesReturnValue();
+        returnValue.value = (BigInteger) ((Type<?>) values.get(0)).getValue();
+        return returnValue;
+    }
+    public static BalancesReturnValue query_balances(String contractAddress, Web3j web3j, String encodedFunction) throws IOException {
+        return query_balances(contractAddress, web3j, encodedFunction, DefaultBlockParameterName.LATEST);
+    }
     public static Function decimals() {
         return new Function(
             "decimals",
@@ -141,6 +256,16 @@ public class ERC20 {
             )
         );
     }
+    public static final int decimals_SELECTOR = 0x313ce567;
+    public static final int decimals_BYTES = 4;
+    public static int encode_decimals(MutableDirectBuffer buffer, int offset) {
+        StaticAbi.PutSelector(buffer, offset, decimals_SELECTOR);
+        return decimals_BYTES;
+    }
+    public static String encode_decimals() {
+        MutableDirectBuffer buffer = StaticAbi.Scratch(decimals_BYTES);
+        return StaticAbi.Hex(buffer, 0, encode_decimals(buffer, 0));
+    }
     public static DecimalsReturnValue query_decimals(String contractAddress, Web3j web3j, Function function, DefaultBlockParameter block) throws IOException {
         String encodedFunction = FunctionEncoder.encode(function);
         org.web3j.protocol.core.methods.response.EthCall ethCall = web3j.ethCall(
@@ -148,14 +273,33 @@ public class ERC20 {
             block
         ).send();
         String value = ethCall.getValue();
-        List<Type> values = FunctionReturnDecoder.decode(value, function.getOutputParameters());
+        List<?> values = FunctionReturnDecoder.decode(value, function.getOutputParameters());
         DecimalsReturnValue returnValue = new DecimalsReturnValue();
-        returnValue.value = ((BigInteger) values.get(0).getValue()).intValue();
+        returnValue.value = ((BigInteger) ((Type<?>) values.get(0)).getValue()).intValue();
         return returnValue;
     }
     public static DecimalsReturnValue query_decimals(String contractAddress, Web3j web3j, Function function) throws IOException {
         return query_decimals(contractAddress, web3j, function, DefaultBlockParameterName.LATEST);
     }
+    public static final List<TypeReference<?>> decimals_OUTPUTS = Collections.unmodifiableList(
+        Collections.<TypeReference<?>>singletonList(
+            new TypeReference<org.web3j.abi.datatypes.generated.Uint8>() {}
+        )
+    );
+    public static DecimalsReturnValue query_decimals(String contractAddress, Web3j web3j, String encodedFunction, DefaultBlockParameter block) throws IOException {
+        org.web3j.protocol.core.methods.response.EthCall ethCall = web3j.ethCall(
+            Transaction.createEthCallTransaction("0x0000000000000000000000000000000000000000", contractAddress, encodedFunction),
+            block
+        ).send();
+        String value = ethCall.getValue();
+        List<?> values = FunctionReturnDecoder.decode(value, org.web3j.abi.Utils.convert(decimals_OUTPUTS));
+        DecimalsReturnValue returnValue = new DecimalsReturnValue();
+        returnValue.value = ((BigInteger) ((Type<?>) values.get(0)).getValue()).intValue();
+        return returnValue;
+    }
+    public static DecimalsReturnValue query_decimals(String contractAddress, Web3j web3j, String encodedFunction) throws IOException {
+        return query_decimals(contractAddress, web3j, encodedFunction, DefaultBlockParameterName.LATEST);
+    }
     public static Function allowed(String arg0, String arg1) {
         return new Function(
             "allowed",
@@ -168,6 +312,18 @@ public class ERC20 {
             )
         );
     }
+    public static final int allowed_SELECTOR = 0x5c658165;
+    public static final int allowed_BYTES = 68;
+    public static int encode_allowed(MutableDirectBuffer buffer, int offset, String arg0, String arg1) {
+        StaticAbi.PutSelector(buffer, offset, allowed_SELECTOR);
+        StaticAbi.PutAddress(buffer, offset + 4, arg0);
+        StaticAbi.PutAddress(buffer, offset + 36, arg1);
+        return allowed_BYTES;
+    }
+    public static String encode_allowed(String arg0, String arg1) {
+        MutableDirectBuffer buffer = StaticAbi.Scratch(allowed_BYTES);
+        return StaticAbi.Hex(buffer, 0, encode_allowed(buffer, 0, arg0, arg1));
+    }
     public static AllowedReturnValue query_allowed(String contractAddress, Web3j web3j, Function function, DefaultBlockParameter block) throws IOException {
         String encodedFunction = FunctionEncoder.encode(function);
         org.web3j.protocol.core.methods.response.EthCall ethCall = web3j.ethCall(
@@ -175,14 +331,33 @@ public class ERC20 {
             block
         ).send();
         String value = ethCall.getValue();
-        List<Type> values = FunctionReturnDecoder.decode(value, function.getOutputParameters());
+        List<?> values = FunctionReturnDecoder.decode(value, function.getOutputParameters());
         AllowedReturnValue returnValue = new AllowedReturnValue();
-        returnValue.value = (BigInteger) values.get(0).getValue();
+        returnValue.value = (BigInteger) ((Type<?>) values.get(0)).getValue();
         return returnValue;
     }
     public static AllowedReturnValue query_allowed(String contractAddress, Web3j web3j, Function function) throws IOException {
         return query_allowed(contractAddress, web3j, function, DefaultBlockParameterName.LATEST);
     }
+    public static final List<TypeReference<?>> allowed_OUTPUTS = Collections.unmodifiableList(
+        Collections.<TypeReference<?>>singletonList(
+            new TypeReference<org.web3j.abi.datatypes.generated.Uint256>() {}
+        )
+    );
+    public static AllowedReturnValue query_allowed(String contractAddress, Web3j web3j, String encodedFunction, DefaultBlockParameter block) throws IOException {
+        org.web3j.protocol.core.methods.response.EthCall ethCall = web3j.ethCall(
+            Transaction.createEthCallTransaction("0x0000000000000000000000000000000000000000", contractAddress, encodedFunction),
+            block
+        ).send();
+        String value = ethCall.getValue();
+        List<?> values = FunctionReturnDecoder.decode(value, org.web3j.abi.Utils.convert(allowed_OUTPUTS));
+        AllowedReturnValue returnValue = new AllowedReturnValue();
+        returnValue.value = (BigInteger) ((Type<?>) values.get(0)).getValue();
+        return returnValue;
+    }
+    public static AllowedReturnValue query_allowed(String contractAddress, Web3j web3j, String encodedFunction) throws IOException {
+        return query_allowed(contractAddress, web3j, encodedFunction, DefaultBlockParameterName.LATEST);
+    }
     public static Function balanceOf(String _owner) {
         return new Function(
             "balanceOf",
@@ -194,6 +369,17 @@ public class ERC20 {
             )
         );
     }
+    public static final int balanceOf_SELECTOR = 0x70a08231;
+    public static final int balanceOf_BYTES = 36;
+    public static int encode_balanceOf(MutableDirectBuffer buffer, int offset, String _owner) {
+        StaticAbi.PutSelector(buffer, offset, balanceOf_SELECTOR);
+        StaticAbi.PutAddress(buffer, offset + 4, _owner);
+        return balanceOf_BYTES;
+    }
+    public static String encode_balanceOf(String _owner) {
+        MutableDirectBuffer buffer = StaticAbi.Scratch(balanceOf_BYTES);
+        return StaticAbi.Hex(buffer, 0, encode_balanceOf(buffer, 0, _owner));
+    }
     public static BalanceofReturnValue query_balanceOf(String contractAddress, Web3j web3j, Function function, DefaultBlockParameter block) throws IOException {
         String encodedFunction = FunctionEncoder.encode(function);
         org.web3j.protocol.core.methods.response.EthCall ethCall = web3j.ethCall(
@@ -201,14 +387,33 @@ public class ERC20 {
             block
         ).send();
         String value = ethCall.getValue();
-        List<Type> values = FunctionReturnDecoder.decode(value, function.getOutputParameters());
+        List<?> values = FunctionReturnDecoder.decode(value, function.getOutputParameters());
         BalanceofReturnValue returnValue = new BalanceofReturnValue();
-        returnValue.balance = (BigInteger) values.get(0).getValue();
+        returnValue.balance = (BigInteger) ((Type<?>) values.get(0)).getValue();
         return returnValue;
     }
     public static BalanceofReturnValue query_balanceOf(String contractAddress, Web3j web3j, Function function) throws IOException {
         return query_balanceOf(contractAddress, web3j, function, DefaultBlockParameterName.LATEST);
     }
+    public static final List<TypeReference<?>> balanceOf_OUTPUTS = Collections.unmodifiableList(
+        Collections.<TypeReference<?>>singletonList(
+            new TypeReference<org.web3j.abi.datatypes.generated.Uint256>() {}
+        )
+    );
+    public static BalanceofReturnValue query_balanceOf(String contractAddress, Web3j web3j, String encodedFunction, DefaultBlockParameter block) throws IOException {
+        org.web3j.protocol.core.methods.response.EthCall ethCall = web3j.ethCall(
+            Transaction.createEthCallTransaction("0x0000000000000000000000000000000000000000", contractAddress, encodedFunction),
+            block
+        ).send();
+        String value = ethCall.getValue();
+        List<?> values = FunctionReturnDecoder.decode(value, org.web3j.abi.Utils.convert(balanceOf_OUTPUTS));
+        BalanceofReturnValue returnValue = new BalanceofReturnValue();
+        returnValue.balance = (BigInteger) ((Type<?>) values.get(0)).getValue();
+        return returnValue;
+    }
+    public static BalanceofReturnValue query_balanceOf(String contractAddress, Web3j web3j, String encodedFunction) throws IOException {
+        return query_balanceOf(contractAddress, web3j, encodedFunction, DefaultBlockParameterName.LATEST);
+    }
     public static Function symbol() {
         return new Function(
             "symbol",
@@ -218,6 +423,16 @@ public class ERC20 {
             )
         );
     }
+    public static final int symbol_SELECTOR = 0x95d89b41;
+    public static final int symbol_BYTES = 4;
+    public static int encode_symbol(MutableDirectBuffer buffer, int offset) {
+        StaticAbi.PutSelector(buffer, offset, symbol_SELECTOR);
+        return symbol_BYTES;
+    }
+    public static String encode_symbol() {
+        MutableDirectBuffer buffer = StaticAbi.Scratch(symbol_BYTES);
+        return StaticAbi.Hex(buffer, 0, encode_symbol(buffer, 0));
+    }
     public static SymbolReturnValue query_symbol(String contractAddress, Web3j web3j, Function function, DefaultBlockParameter block) throws IOException {
         String encodedFunction = FunctionEncoder.encode(function);
         org.web3j.protocol.core.methods.response.EthCall ethCall = web3j.ethCall(
@@ -225,14 +440,33 @@ public class ERC20 {
             block
         ).send();
         String value = ethCall.getValue();
-        List<Type> values = FunctionReturnDecoder.decode(value, function.getOutputParameters());
+        List<?> values = FunctionReturnDecoder.decode(value, function.getOutputParameters());
         SymbolReturnValue returnValue = new SymbolReturnValue();
-        returnValue.value = (String) values.get(0).getValue();
+        returnValue.value = (String) ((Type<?>) values.get(0)).getValue();
         return returnValue;
     }
     public static SymbolReturnValue query_symbol(String contractAddress, Web3j web3j, Function function) throws IOException {
         return query_symbol(contractAddress, web3j, function, DefaultBlockParameterName.LATEST);
     }
+    public static final List<TypeReference<?>> symbol_OUTPUTS = Collections.unmodifiableList(
+        Collections.<TypeReference<?>>singletonList(
+            new TypeReference<org.web3j.abi.datatypes.Utf8String>() {}
+        )
+    );
+    public static SymbolReturnValue query_symbol(String contractAddress, Web3j web3j, String encodedFunction, DefaultBlockParameter block) throws IOException {
+        org.web3j.protocol.core.methods.response.EthCall ethCall = web3j.ethCall(
+            Transaction.createEthCallTransaction("0x0000000000000000000000000000000000000000", contractAddress, encodedFunction),
+            block
+        ).send();
+        String value = ethCall.getValue();
+        List<?> values = FunctionReturnDecoder.decode(value, org.web3j.abi.Utils.convert(symbol_OUTPUTS));
+        SymbolReturnValue returnValue = new SymbolReturnValue();
+        returnValue.value = (String) ((Type<?>) values.get(0)).getValue();
+        return returnValue;
+    }
+    public static SymbolReturnValue query_symbol(String contractAddress, Web3j web3j, String encodedFunction) throws IOException {
+        return query_symbol(contractAddress, web3j, encodedFunction, DefaultBlockParameterName.LATEST);
+    }
     public static Function transfer(String _to, BigInteger _value) {
         return new Function(
             "transfer",
@@ -251,6 +485,18 @@ public class ERC20 {
             , new BigInteger(Long.toUnsignedString(_value))
         );
     }
+    public static final int transfer_SELECTOR = 0xa9059cbb;
+    public static final int transfer_BYTES = 68;
+    public static int encode_transfer(MutableDirectBuffer buffer, int offset, String _to, BigInteger _value) {
+        StaticAbi.PutSelector(buffer, offset, transfer_SELECTOR);
+        StaticAbi.PutAddress(buffer, offset + 4, _to);
+        StaticAbi.PutUint(buffer, offset + 36, 256, _value);
+        return transfer_BYTES;
+    }
+    public static String encode_transfer(String _to, BigInteger _value) {
+        MutableDirectBuffer buffer = StaticAbi.Scratch(transfer_BYTES);
+        return StaticAbi.Hex(buffer, 0, encode_transfer(buffer, 0, _to, _value));
+    }
     public static Function allowance(String _owner, String _spender) {
         return new Function(
             "allowance",
@@ -263,6 +509,18 @@ public class ERC20 {
             )
         );
     }
+    public static final int allowance_SELECTOR = 0xdd62ed3e;
+    public static final int allowance_BYTES = 68;
+    public static int encode_allowance(MutableDirectBuffer buffer, int offset, String _owner, String _spender) {
+        StaticAbi.PutSelector(buffer, offset, allowance_SELECTOR);
+        StaticAbi.PutAddress(buffer, offset + 4, _owner);
+        StaticAbi.PutAddress(buffer, offset + 36, _spender);
+        return allowance_BYTES;
+    }
+    public static String encode_allowance(String _owner, String _spender) {
+        MutableDirectBuffer buffer = StaticAbi.Scratch(allowance_BYTES);
+        return StaticAbi.Hex(buffer, 0, encode_allowance(buffer, 0, _owner, _spender));
+    }
     public static AllowanceReturnValue query_allowance(String contractAddress, Web3j web3j, Function function, DefaultBlockParameter block) throws IOException {
         String encodedFunction = FunctionEncoder.encode(function);
         org.web3j.protocol.core.methods.response.EthCall ethCall = web3j.ethCall(
@@ -270,14 +528,33 @@ public class ERC20 {
             block
         ).send();
         String value = ethCall.getValue();
-        List<Type> values = FunctionReturnDecoder.decode(value, function.getOutputParameters());
+        List<?> values = FunctionReturnDecoder.decode(value, function.getOutputParameters());
         AllowanceReturnValue returnValue = new AllowanceReturnValue();
-        returnValue.remaining = (BigInteger) values.get(0).getValue();
+        returnValue.remaining = (BigInteger) ((Type<?>) values.get(0)).getValue();
         return returnValue;
     }
     public static AllowanceReturnValue query_allowance(String contractAddress, Web3j web3j, Function function) throws IOException {
         return query_allowance(contractAddress, web3j, function, DefaultBlockParameterName.LATEST);
     }
+    public static final List<TypeReference<?>> allowance_OUTPUTS = Collections.unmodifiableList(
+        Collections.<TypeReference<?>>singletonList(
+            new TypeReference<org.web3j.abi.datatypes.generated.Uint256>() {}
+        )
+    );
+    public static AllowanceReturnValue query_allowance(String contractAddress, Web3j web3j, String encodedFunction, DefaultBlockParameter block) throws IOException {
+        org.web3j.protocol.core.methods.response.EthCall ethCall = web3j.ethCall(
+            Transaction.createEthCallTransaction("0x0000000000000000000000000000000000000000", contractAddress, encodedFunction),
+            block
+        ).send();
+        String value = ethCall.getValue();
+        List<?> values = FunctionReturnDecoder.decode(value, org.web3j.abi.Utils.convert(allowance_OUTPUTS));
+        AllowanceReturnValue returnValue = new AllowanceReturnValue();
+        returnValue.remaining = (BigInteger) ((Type<?>) values.get(0)).getValue();
+        return returnValue;
+    }
+    public static AllowanceReturnValue query_allowance(String contractAddress, Web3j web3j, String encodedFunction) throws IOException {
+        return query_allowance(contractAddress, web3j, encodedFunction, DefaultBlockParameterName.LATEST);
+    }
     public static String DeployData(BigInteger _initialAmount, String _tokenName, int _decimalUnits, String _tokenSymbol) {
         String encodedConstructor = FunctionEncoder.encodeConstructor(
             Arrays.asList(
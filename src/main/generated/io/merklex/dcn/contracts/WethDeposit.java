@@ -16,6 +16,8 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import org.web3j.utils.Numeric;
+import org.agrona.MutableDirectBuffer;
+import io.merklex.web3.StaticAbi;
 
 @javax.annotation.Generated(value="merklex-code-gen")
 public class WethDeposit {
@@ -30,6 +32,18 @@ public class WethDeposit {
             Collections.emptyList()
         );
     }
+    public static final int deposit_SELECTOR = 0x54cd4009;
+    public static final int deposit_BYTES = 68;
+    public static int encode_deposit(MutableDirectBuffer buffer, int offset, long user_id, int exchange_id) {
+        StaticAbi.PutSelector(buffer, offset, deposit_SELECTOR);
+        StaticAbi.PutUint(buffer, offset + 4, 64, user_id);
+        StaticAbi.PutUint(buffer, offset + 36, 32, exchange_id);
+        return deposit_BYTES;
+    }
+    public static String encode_deposit(long user_id, int exchange_id) {
+        MutableDirectBuffer buffer = StaticAbi.Scratch(deposit_BYTES);
+        return StaticAbi.Hex(buffer, 0, encode_deposit(buffer, 0, user_id, exchange_id));
+    }
     public static String DeployData() {
         String encodedConstructor = FunctionEncoder.encodeConstructor(
             Collections.emptyList()
@@ -0,0 +1,884 @@
+package io.merklex.dcn.models;
+import org.agrona.MutableDirectBuffer;
+import java.util.HashMap;
+import java.nio.ByteOrder;
+
+@javax.annotation.Generated(value="merklex-code-gen")
+public class MigrationExport {
+    public static class Type {
+        private Type() {}
+    }
+    public static class ExportHeader {
+        public ExportHeader clearToZeros() {
+            this.buffer.setMemory(offset, BYTES, (byte) 0);
+            return this;
+        }
+        private MutableDirectBuffer buffer;
+        private int offset;
+        public MutableDirectBuffer messageMemoryBuffer() {
+            return buffer;
+        }
+        public int messageMemoryOffset() {
+            return offset;
+        }
+        public static final int MAGIC_OFFSET = 0;
+        public static final int MAGIC_LENGTH = 4;
+        public static final int VERSION_OFFSET = 4;
+        public static final int VERSION_LENGTH = 4;
+        public static final int BLOCK_NUMBER_OFFSET = 8;
+        public static final int BLOCK_NUMBER_LENGTH = 8;
+        public static final int BLOCK_HASH_OFFSET = 16;
+        public static final int BLOCK_HASH_COUNT = 32;
+        public static final int BLOCK_HASH_LENGTH = 32;
+        public static final int BLOCK_HASH_ITEM_LENGTH = 1;
+        public static final int ASSET_COUNT_OFFSET = 48;
+        public static final int ASSET_COUNT_LENGTH = 4;
+        public static final int EXCHANGE_COUNT_OFFSET = 52;
+        public static final int EXCHANGE_COUNT_LENGTH = 4;
+        public static final int USER_COUNT_OFFSET = 56;
+        public static final int USER_COUNT_LENGTH = 8;
+        public static final int BALANCE_COUNT_OFFSET = 64;
+        public static final int BALANCE_COUNT_LENGTH = 8;
+        public static final int BYTES = 72;
+        public ExportHeader wrap(MutableDirectBuffer buffer, int offset) {
+            this.buffer = buffer;
+            this.offset = offset;
+            return this;
+        }
+        public void copyFrom(ExportHeader other) {
+            buffer.putBytes(offset, other.buffer, other.offset, BYTES);
+        }
+        public void writeTo(MutableDirectBuffer buffer, int offset) {
+            buffer.putBytes(offset, this.buffer, this.offset, BYTES);
+        }
+        public int magic() {
+            return this.buffer.getInt(this.offset + MAGIC_OFFSET, ByteOrder.BIG_ENDIAN);
+        }
+        public ExportHeader magic(int value) {
+            this.buffer.putInt(this.offset + MAGIC_OFFSET, value, ByteOrder.BIG_ENDIAN);
+            return this;
+        }
+        public int version() {
+            return this.buffer.getInt(this.offset + VERSION_OFFSET, ByteOrder.BIG_ENDIAN);
+        }
+        public ExportHeader version(int value) {
+            this.buffer.putInt(this.offset + VERSION_OFFSET, value, ByteOrder.BIG_ENDIAN);
+            return this;
+        }
+        public long blockNumber() {
+            return this.buffer.getLong(this.offset + BLOCK_NUMBER_OFFSET, ByteOrder.BIG_ENDIAN);
+        }
+        public ExportHeader blockNumber(long value) {
+            this.buffer.putLong(this.offset + BLOCK_NUMBER_OFFSET, value, ByteOrder.BIG_ENDIAN);
+            return this;
+        }
+        public ExportHeader blockHash(int pos, byte value) {
+            assert(pos >= 0 && pos < BLOCK_HASH_COUNT);
+            buffer.putByte(this.offset + BLOCK_HASH_OFFSET + BLOCK_HASH_ITEM_LENGTH * pos, value);
+            return this;
+        }
+        public byte blockHash(int pos) {
+            assert(pos >= 0 && pos < BLOCK_HASH_COUNT);
+            return buffer.getByte(this.offset + BLOCK_HASH_OFFSET + BLOCK_HASH_ITEM_LENGTH * pos);
+        }
+        public ExportHeader getBlockHash(byte[] value, int pos) {
+            buffer.getBytes(this.offset + BLOCK_HASH_OFFSET, value, pos, 32);
+            return this;
+        }
+        public ExportHeader getBlockHash(byte[] value) {
+            buffer.getBytes(this.offset + BLOCK_HASH_OFFSET, value, 0, 32);
+            return this;
+        }
+        public ExportHeader setBlockHash(byte[] value, int pos) {
+            buffer.putBytes(this.offset + BLOCK_HASH_OFFSET, value, pos, 32);
+            return this;
+        }
+        public ExportHeader setBlockHash(byte[] value) {
+            buffer.putBytes(this.offset + BLOCK_HASH_OFFSET, value, 0, 32);
+            return this;
+        }
+        public int assetCount() {
+            return this.buffer.getInt(this.offset + ASSET_COUNT_OFFSET, ByteOrder.BIG_ENDIAN);
+        }
+        public ExportHeader assetCount(int value) {
+            this.buffer.putInt(this.offset + ASSET_COUNT_OFFSET, value, ByteOrder.BIG_ENDIAN);
+            return this;
+        }
+        public int exchangeCount() {
+            return this.buffer.getInt(this.offset + EXCHANGE_COUNT_OFFSET, ByteOrder.BIG_ENDIAN);
+        }
+        public ExportHeader exchangeCount(int value) {
+            this.buffer.putInt(this.offset + EXCHANGE_COUNT_OFFSET, value, ByteOrder.BIG_ENDIAN);
+            return this;
+        }
+        public long userCount() {
+            return this.buffer.getLong(this.offset + USER_COUNT_OFFSET, ByteOrder.BIG_ENDIAN);
+        }
+        public ExportHeader userCount(long value) {
+            this.buffer.putLong(this.offset + USER_COUNT_OFFSET, value, ByteOrder.BIG_ENDIAN);
+            return this;
+        }
+        public long balanceCount() {
+            return this.buffer.getLong(this.offset + BALANCE_COUNT_OFFSET, ByteOrder.BIG_ENDIAN);
+        }
+        public ExportHeader balanceCount(long value) {
+            this.buffer.putLong(this.offset + BALANCE_COUNT_OFFSET, value, ByteOrder.BIG_ENDIAN);
+            return this;
+        }
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("ExportHeader { ");
+            sb.append("magic: ");
+            sb.append(Integer.toUnsignedString(magic()));
+            sb.append(", version: ");
+            sb.append(Integer.toUnsignedString(version()));
+            sb.append(", block_number: ");
+            sb.append(Long.toUnsignedString(blockNumber()));
+            sb.append(", block_hash: ");
+            sb.append("[").append(blockHash(0)).append(", ").append(blockHash(1)).append(", ").append(blockHash(2)).append(", ")
+                    .append(blockHash(3)).append(", ").append(blockHash(4)).append(", ").append(blockHash(5)).append(", ")
+                    .append(blockHash(6)).append(", ").append(blockHash(7)).append(", ").append(blockHash(8)).append(", ")
+                    .append(blockHash(9)).append(", ").append(blockHash(10)).append(", ").append(blockHash(11)).append(", ")
+                    .append(blockHash(12)).append(", ").append(blockHash(13)).append(", ").append(blockHash(14)).append(", ")
+                    .append(blockHash(15)).append(", ").append(blockHash(16)).append(", ").append(blockHash(17)).append(", ")
+                    .append(blockHash(18)).append(", ").append(blockHash(19)).append(", ").append(blockHash(20)).append(", ")
+                    .append(blockHash(21)).append(", ").append(blockHash(22)).append(", ").append(blockHash(23)).append(", ")
+                    .append(blockHash(24)).append(", ").append(blockHash(25)).append(", ").append(blockHash(26)).append(", ")
+                    .append(blockHash(27)).append(", ").append(blockHash(28)).append(", ").append(blockHash(29)).append(", ")
+                    .append(blockHash(30)).append(", ").append(blockHash(31))
+                    .append("]");
+            sb.append(", asset_count: ");
+            sb.append(Integer.toUnsignedString(assetCount()));
+            sb.append(", exchange_count: ");
+            sb.append(Integer.toUnsignedString(exchangeCount()));
+            sb.append(", user_count: ");
+            sb.append(Long.toUnsignedString(userCount()));
+            sb.append(", balance_count: ");
+            sb.append(Long.toUnsignedString(balanceCount()));
+            sb.append(" }");
+            return sb.toString();
+        }
+    }
+    public static class ExportAsset {
+        public ExportAsset clearToZeros() {
+            this.buffer.setMemory(offset, BYTES, (byte) 0);
+            return this;
+        }
+        private MutableDirectBuffer buffer;
+        private int offset;
+        public MutableDirectBuffer messageMemoryBuffer() {
+            return buffer;
+        }
+        public int messageMemoryOffset() {
+            return offset;
+        }
+        public static final int ASSET_ID_OFFSET = 0;
+        public static final int ASSET_ID_LENGTH = 4;
+        public static final int SYMBOL_OFFSET = 4;
+        public static final int SYMBOL_COUNT = 8;
+        public static final int SYMBOL_LENGTH = 8;
+        public static final int SYMBOL_ITEM_LENGTH = 1;
+        public static final int UNIT_SCALE_OFFSET = 12;
+        public static final int UNIT_SCALE_COUNT = 24;
+        public static final int UNIT_SCALE_LENGTH = 24;
+        public static final int UNIT_SCALE_ITEM_LENGTH = 1;
+        public static final int TOKEN_DECIMALS_OFFSET = 36;
+        public static final int TOKEN_DECIMALS_LENGTH = 1;
+        public static final int HAS_TOKEN_DECIMALS_OFFSET = 37;
+        public static final int HAS_TOKEN_DECIMALS_LENGTH = 1;
+        public static final int CONTRACT_ADDRESS_OFFSET = 38;
+        public static final int CONTRACT_ADDRESS_COUNT = 20;
+        public static final int CONTRACT_ADDRESS_LENGTH = 20;
+        public static final int CONTRACT_ADDRESS_ITEM_LENGTH = 1;
+        public static final int BYTES = 58;
+        public ExportAsset wrap(MutableDirectBuffer buffer, int offset) {
+            this.buffer = buffer;
+            this.offset = offset;
+            return this;
+        }
+        public void copyFrom(ExportAsset other) {
+            buffer.putBytes(offset, other.buffer, other.offset, BYTES);
+        }
+        public void writeTo(MutableDirectBuffer buffer, int offset) {
+            buffer.putBytes(offset, this.buffer, this.offset, BYTES);
+        }
+        public int assetId() {
+            return this.buffer.getInt(this.offset + ASSET_ID_OFFSET, ByteOrder.BIG_ENDIAN);
+        }
+        public ExportAsset assetId(int value) {
+            this.buffer.putInt(this.offset + ASSET_ID_OFFSET, value, ByteOrder.BIG_ENDIAN);
+            return this;
+        }
+        public ExportAsset symbol(int pos, byte value) {
+            assert(pos >= 0 && pos < SYMBOL_COUNT);
+            buffer.putByte(this.offset + SYMBOL_OFFSET + SYMBOL_ITEM_LENGTH * pos, value);
+            return this;
+        }
+        public byte symbol(int pos) {
+            assert(pos >= 0 && pos < SYMBOL_COUNT);
+            return buffer.getByte(this.offset + SYMBOL_OFFSET + SYMBOL_ITEM_LENGTH * pos);
+        }
+        public ExportAsset getSymbol(byte[] value, int pos) {
+            buffer.getBytes(this.offset + SYMBOL_OFFSET, value, pos, 8);
+            return this;
+        }
+        public ExportAsset getSymbol(byte[] value) {
+            buffer.getBytes(this.offset + SYMBOL_OFFSET, value, 0, 8);
+            return this;
+        }
+        public ExportAsset setSymbol(byte[] value, int pos) {
+            buffer.putBytes(this.offset + SYMBOL_OFFSET, value, pos, 8);
+            return this;
+        }
+        public ExportAsset setSymbol(byte[] value) {
+            buffer.putBytes(this.offset + SYMBOL_OFFSET, value, 0, 8);
+            return this;
+        }
+        public ExportAsset unitScale(int pos, byte value) {
+            assert(pos >= 0 && pos < UNIT_SCALE_COUNT);
+            buffer.putByte(this.offset + UNIT_SCALE_OFFSET + UNIT_SCALE_ITEM_LENGTH * pos, value);
+            return this;
+        }
+        public byte unitScale(int pos) {
+            assert(pos >= 0 && pos < UNIT_SCALE_COUNT);
+            return buffer.getByte(this.offset + UNIT_SCALE_OFFSET + UNIT_SCALE_ITEM_LENGTH * pos);
+        }
+        public ExportAsset getUnitScale(byte[] value, int pos) {
+            buffer.getBytes(this.offset + UNIT_SCALE_OFFSET, value, pos, 24);
+            return this;
+        }
+        public ExportAsset getUnitScale(byte[] value) {
+            buffer.getBytes(this.offset + UNIT_SCALE_OFFSET, value, 0, 24);
+            return this;
+        }
+        public ExportAsset setUnitScale(byte[] value, int pos) {
+            buffer.putBytes(this.offset + UNIT_SCALE_OFFSET, value, pos, 24);
+            return this;
+        }
+        public ExportAsset setUnitScale(byte[] value) {
+            buffer.putBytes(this.offset + UNIT_SCALE_OFFSET, value, 0, 24);
+            return this;
+        }
+        public byte tokenDecimals() {
+            return this.buffer.getByte(this.offset + TOKEN_DECIMALS_OFFSET);
+        }
+        public ExportAsset tokenDecimals(byte value) {
+            this.buffer.putByte(this.offset + TOKEN_DECIMALS_OFFSET, value);
+            return this;
+        }
+        public byte hasTokenDecimals() {
+            return this.buffer.getByte(this.offset + HAS_TOKEN_DECIMALS_OFFSET);
+        }
+        public ExportAsset hasTokenDecimals(byte value) {
+            this.buffer.putByte(this.offset + HAS_TOKEN_DECIMALS_OFFSET, value);
+            return this;
+        }
+        public boolean isHasTokenDecimals() {
+            return this.buffer.getByte(this.offset + HAS_TOKEN_DECIMALS_OFFSET) == (byte) 1;
+        }
+        public ExportAsset hasTokenDecimals(boolean value) {
+            this.buffer.putByte(this.offset + HAS_TOKEN_DECIMALS_OFFSET, value ? (byte) 1 : (byte) 0);
+            return this;
+        }
+        public ExportAsset contractAddress(int pos, byte value) {
+            assert(pos >= 0 && pos < CONTRACT_ADDRESS_COUNT);
+            buffer.putByte(this.offset + CONTRACT_ADDRESS_OFFSET + CONTRACT_ADDRESS_ITEM_LENGTH * pos, value);
+            return this;
+        }
+        public byte contractAddress(int pos) {
+            assert(pos >= 0 && pos < CONTRACT_ADDRESS_COUNT);
+            return buffer.getByte(this.offset + CONTRACT_ADDRESS_OFFSET + CONTRACT_ADDRESS_ITEM_LENGTH * pos);
+        }
+        public ExportAsset getContractAddress(byte[] value, int pos) {
+            buffer.getBytes(this.offset + CONTRACT_ADDRESS_OFFSET, value, pos, 20);
+            return this;
+        }
+        public ExportAsset getContractAddress(byte[] value) {
+            buffer.getBytes(this.offset + CONTRACT_ADDRESS_OFFSET, value, 0, 20);
+            return this;
+        }
+        public ExportAsset setContractAddress(byte[] value, int pos) {
+            buffer.putBytes(this.offset + CONTRACT_ADDRESS_OFFSET, value, pos, 20);
+            return this;
+        }
+        public ExportAsset setContractAddress(byte[] value) {
+            buffer.putBytes(this.offset + CONTRACT_ADDRESS_OFFSET, value, 0, 20);
+            return this;
+        }
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("ExportAsset { ");
+            sb.append("asset_id: ");
+            sb.append(Integer.toUnsignedString(assetId()));
+            sb.append(", symbol: ");
+            sb.append("[").append(symbol(0)).append(", ").append(symbol(1)).append(", ").append(symbol(2)).append(", ")
+                    .append(symbol(3)).append(", ").append(symbol(4)).append(", ").append(symbol(5)).append(", ")
+                    .append(symbol(6)).append(", ").append(symbol(7))
+                    .append("]");
+            sb.append(", unit_scale: ");
+            sb.append("[").append(unitScale(0)).append(", ").append(unitScale(1)).append(", ").append(unitScale(2)).append(", ")
+                    .append(unitScale(3)).append(", ").append(unitScale(4)).append(", ").append(unitScale(5)).append(", ")
+                    .append(unitScale(6)).append(", ").append(unitScale(7)).append(", ").append(unitScale(8)).append(", ")
+                    .append(unitScale(9)).append(", ").append(unitScale(10)).append(", ").append(unitScale(11)).append(", ")
+                    .append(unitScale(12)).append(", ").append(unitScale(13)).append(", ").append(unitScale(14)).append(", ")
+                    .append(unitScale(15)).append(", ").append(unitScale(16)).append(", ").append(unitScale(17)).append(", ")
+                    .append(unitScale(18)).append(", ").append(unitScale(19)).append(", ").append(unitScale(20)).append(", ")
+                    .append(unitScale(21)).append(", ").append(unitScale(22)).append(", ").append(unitScale(23))
+                    .append("]");
+            sb.append(", token_decimals: ");
+            sb.append(Byte.toUnsignedInt(tokenDecimals()));
+            sb.append(", has_token_decimals: ");
+            sb.append(hasTokenDecimals());
+            sb.append(", contract_address: ");
+            sb.append("[").append(contractAddress(0)).append(", ").append(contractAddress(1)).append(", ").append(contractAddress(2)).append(", ")
+                    .append(contractAddress(3)).append(", ").append(contractAddress(4)).append(", ").append(contractAddress(5)).append(", ")
+                    .append(contractAddress(6)).append(", ").append(contractAddress(7)).append(", ").append(contractAddress(8)).append(", ")
+                    .append(contractAddress(9)).append(", ").append(contractAddress(10)).append(", ").append(contractAddress(11)).append(", ")
+                    .append(contractAddress(12)).append(", ").append(contractAddress(13)).append(", ").append(contractAddress(14)).append(", ")
+                    .append(contractAddress(15)).append(", ").append(contractAddress(16)).append(", ").append(contractAddress(17)).append(", ")
+                    .append(contractAddress(18)).append(", ").append(contractAddress(19))
+                    .append("]");
+            sb.append(" }");
+            return sb.toString();
+        }
+    }
+    public static class ExportExchange {
+        public ExportExchange clearToZeros() {
+            this.buffer.setMemory(offset, BYTES, (byte) 0);
+            return this;
+        }
+        private MutableDirectBuffer buffer;
+        private int offset;
+        public MutableDirectBuffer messageMemoryBuffer() {
+            return buffer;
+        }
+        public int messageMemoryOffset() {
+            return offset;
+        }
+        public static final int EXCHANGE_ID_OFFSET = 0;
+        public static final int EXCHANGE_ID_LENGTH = 4;
+        public static final int NAME_OFFSET = 4;
+        public static final int NAME_COUNT = 11;
+        public static final int NAME_LENGTH = 11;
+        public static final int NAME_ITEM_LENGTH = 1;
+        public static final int LOCKED_OFFSET = 15;
+        public static final int LOCKED_LENGTH = 1;
+        public static final int OWNER_OFFSET = 16;
+        public static final int OWNER_COUNT = 20;
+        public static final int OWNER_LENGTH = 20;
+        public static final int OWNER_ITEM_LENGTH = 1;
+        public static final int WITHDRAW_ADDRESS_OFFSET = 36;
+        public static final int WITHDRAW_ADDRESS_COUNT = 20;
+        public static final int WITHDRAW_ADDRESS_LENGTH = 20;
+        public static final int WITHDRAW_ADDRESS_ITEM_LENGTH = 1;
+        public static final int RECOVERY_ADDRESS_OFFSET = 56;
+        public static final int RECOVERY_ADDRESS_COUNT = 20;
+        public static final int RECOVERY_ADDRESS_LENGTH = 20;
+        public static final int RECOVERY_ADDRESS_ITEM_LENGTH = 1;
+        public static final int RECOVERY_ADDRESS_PROPOSED_OFFSET = 76;
+        public static final int RECOVERY_ADDRESS_PROPOSED_COUNT = 20;
+        public static final int RECOVERY_ADDRESS_PROPOSED_LENGTH = 20;
+        public static final int RECOVERY_ADDRESS_PROPOSED_ITEM_LENGTH = 1;
+        public static final int BYTES = 96;
+        public ExportExchange wrap(MutableDirectBuffer buffer, int offset) {
+            this.buffer = buffer;
+            this.offset = offset;
+            return this;
+        }
+        public void copyFrom(ExportExchange other) {
+            buffer.putBytes(offset, other.buffer, other.offset, BYTES);
+        }
+        public void writeTo(MutableDirectBuffer buffer, int offset) {
+            buffer.putBytes(offset, this.buffer, this.offset, BYTES);
+        }
+        public int exchangeId() {
+            return this.buffer.getInt(this.offset + EXCHANGE_ID_OFFSET, ByteOrder.BIG_ENDIAN);
+        }
+        public ExportExchange exchangeId(int value) {
+            this.buffer.putInt(this.offset + EXCHANGE_ID_OFFSET, value, ByteOrder.BIG_ENDIAN);
+            return this;
+        }
+        public ExportExchange name(int pos, byte value) {
+            assert(pos >= 0 && pos < NAME_COUNT);
+            buffer.putByte(this.offset + NAME_OFFSET + NAME_ITEM_LENGTH * pos, value);
+            return this;
+        }
+        public byte name(int pos) {
+            assert(pos >= 0 && pos < NAME_COUNT);
+            return buffer.getByte(this.offset + NAME_OFFSET + NAME_ITEM_LENGTH * pos);
+        }
+        public ExportExchange getName(byte[] value, int pos) {
+            buffer.getBytes(this.offset + NAME_OFFSET, value, pos, 11);
+            return this;
+        }
+        public ExportExchange getName(byte[] value) {
+            buffer.getBytes(this.offset + NAME_OFFSET, value, 0, 11);
+            return this;
+        }
+        public ExportExchange setName(byte[] value, int pos) {
+            buffer.putBytes(this.offset + NAME_OFFSET, value, pos, 11);
+            return this;
+        }
+        public ExportExchange setName(byte[] value) {
+            buffer.putBytes(this.offset + NAME_OFFSET, value, 0, 11);
+            return this;
+        }
+        public byte locked() {
+            return this.buffer.getByte(this.offset + LOCKED_OFFSET);
+        }
+        public ExportExchange locked(byte value) {
+            this.buffer.putByte(this.offset + LOCKED_OFFSET, value);
+            return this;
+        }
+        public boolean isLocked() {
+            return this.buffer.getByte(this.offset + LOCKED_OFFSET) == (byte) 1;
+        }
+        public ExportExchange locked(boolean value) {
+            this.buffer.putByte(this.offset + LOCKED_OFFSET, value ? (byte) 1 : (byte) 0);
+            return this;
+        }
+        public ExportExchange owner(int pos, byte value) {
+            assert(pos >= 0 && pos < OWNER_COUNT);
+            buffer.putByte(this.offset + OWNER_OFFSET + OWNER_ITEM_LENGTH * pos, value);
+            return this;
+        }
+        public byte owner(int pos) {
+            assert(pos >= 0 && pos < OWNER_COUNT);
+            return buffer.getByte(this.offset + OWNER_OFFSET + OWNER_ITEM_LENGTH * pos);
+        }
+        public ExportExchange getOwner(byte[] value, int pos) {
+            buffer.getBytes(this.offset + OWNER_OFFSET, value, pos, 20);
+            return this;
+        }
+        public ExportExchange getOwner(byte[] value) {
+            buffer.getBytes(this.offset + OWNER_OFFSET, value, 0, 20);
+            return this;
+        }
+        public ExportExchange setOwner(byte[] value, int pos) {
+            buffer.putBytes(this.offset + OWNER_OFFSET, value, pos, 20);
+            return this;
+        }
+        public ExportExchange setOwner(byte[] value) {
+            buffer.putBytes(this.offset + OWNER_OFFSET, value, 0, 20);
+            return this;
+        }
+        public ExportExchange withdrawAddress(int pos, byte value) {
+            assert(pos >= 0 && pos < WITHDRAW_ADDRESS_COUNT);
+            buffer.putByte(this.offset + WITHDRAW_ADDRESS_OFFSET + WITHDRAW_ADDRESS_ITEM_LENGTH * pos, value);
+            return this;
+        }
+        public byte withdrawAddress(int pos) {
+            assert(pos >= 0 && pos < WITHDRAW_ADDRESS_COUNT);
+            return buffer.getByte(this.offset + WITHDRAW_ADDRESS_OFFSET + WITHDRAW_ADDRESS_ITEM_LENGTH * pos);
+        }
+        public ExportExchange getWithdrawAddress(byte[] value, int pos) {
+            buffer.getBytes(this.offset + WITHDRAW_ADDRESS_OFFSET, value, pos, 20);
+            return this;
+        }
+        public ExportExchange getWithdrawAddress(byte[] value) {
+            buffer.getBytes(this.offset + WITHDRAW_ADDRESS_OFFSET, value, 0, 20);
+            return this;
+        }
+        public ExportExchange setWithdrawAddress(byte[] value, int pos) {
+            buffer.putBytes(this.offset + WITHDRAW_ADDRESS_OFFSET, value, pos, 20);
+            return this;
+        }
+        public ExportExchange setWithdrawAddress(byte[] value) {
+            buffer.putBytes(this.offset + WITHDRAW_ADDRESS_OFFSET, value, 0, 20);
+            return this;
+        }
+        public ExportExchange recoveryAddress(int pos, byte value) {
+            assert(pos >= 0 && pos < RECOVERY_ADDRESS_COUNT);
+            buffer.putByte(this.offset + RECOVERY_ADDRESS_OFFSET + RECOVERY_ADDRESS_ITEM_LENGTH * pos, value);
+            return this;
+        }
+        public byte recoveryAddress(int pos) {
+            assert(pos >= 0 && pos < RECOVERY_ADDRESS_COUNT);
+            return buffer.getByte(this.offset + RECOVERY_ADDRESS_OFFSET + RECOVERY_ADDRESS_ITEM_LENGTH * pos);
+        }
+        public ExportExchange getRecoveryAddress(byte[] value, int pos) {
+            buffer.getBytes(this.offset + RECOVERY_ADDRESS_OFFSET, value, pos, 20);
+            return this;
+        }
+        public ExportExchange getRecoveryAddress(byte[] value) {
+            buffer.getBytes(this.offset + RECOVERY_ADDRESS_OFFSET, value, 0, 20);
+            return this;
+        }
+        public ExportExchange setRecoveryAddress(byte[] value, int pos) {
+            buffer.putBytes(this.offset + RECOVERY_ADDRESS_OFFSET, value, pos, 20);
+            return this;
+        }
+        public ExportExchange setRecoveryAddress(byte[] value) {
+            buffer.putBytes(this.offset + RECOVERY_ADDRESS_OFFSET, value, 0, 20);
+            return this;
+        }
+        public ExportExchange recoveryAddressProposed(int pos, byte value) {
+            assert(pos >= 0 && pos < RECOVERY_ADDRESS_PROPOSED_COUNT);
+            buffer.putByte(this.offset + RECOVERY_ADDRESS_PROPOSED_OFFSET + RECOVERY_ADDRESS_PROPOSED_ITEM_LENGTH * pos, value);
+            return this;
+        }
+        public byte recoveryAddressProposed(int pos) {
+            assert(pos >= 0 && pos < RECOVERY_ADDRESS_PROPOSED_COUNT);
+            return buffer.getByte(this.offset + RECOVERY_ADDRESS_PROPOSED_OFFSET + RECOVERY_ADDRESS_PROPOSED_ITEM_LENGTH * pos);
+        }
+        public ExportExchange getRecoveryAddressProposed(byte[] value, int pos) {
+            buffer.getBytes(this.offset + RECOVERY_ADDRESS_PROPOSED_OFFSET, value, pos, 20);
+            return this;
+        }
+        public ExportExchange getRecoveryAddressProposed(byte[] value) {
+            buffer.getBytes(this.offset + RECOVERY_ADDRESS_PROPOSED_OFFSET, value, 0, 20);
+            return this;
+        }
+        public ExportExchange setRecoveryAddressProposed(byte[] value, int pos) {
+            buffer.putBytes(this.offset + RECOVERY_ADDRESS_PROPOSED_OFFSET, value, pos, 20);
+            return this;
+        }
+        public ExportExchange setRecoveryAddressProposed(byte[] value) {
+            buffer.putBytes(this.offset + RECOVERY_ADDRESS_PROPOSED_OFFSET, value, 0, 20);
+            return this;
+        }
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("ExportExchange { ");
+            sb.append("exchange_id: ");
+            sb.append(Integer.toUnsignedString(exchangeId()));
+            sb.append(", name: ");
+            sb.append("[").append(name(0)).append(", ").append(name(1)).append(", ").append(name(2)).append(", ")
+                    .append(name(3)).append(", ").append(name(4)).append(", ").append(name(5)).append(", ")
+                    .append(name(6)).append(", ").append(name(7)).append(", ").append(name(8)).append(", ")
+                    .append(name(9)).append(", ").append(name(10))
+                    .append("]");
+            sb.append(", locked: ");
+            sb.append(locked());
+            sb.append(", owner: ");
+            sb.append("[").append(owner(0)).append(", ").append(owner(1)).append(", ").append(owner(2)).append(", ")
+                    .append(owner(3)).append(", ").append(owner(4)).append(", ").append(owner(5)).append(", ")
+                    .append(owner(6)).append(", ").append(owner(7)).append(", ").append(owner(8)).append(", ")
+                    .append(owner(9)).append(", ").append(owner(10)).append(", ").append(owner(11)).append(", ")
+                    .append(owner(12)).append(", ").append(owner(13)).append(", ").append(owner(14)).append(", ")
+                    .append(owner(15)).append(", ").append(owner(16)).append(", ").append(owner(17)).append(", ")
+                    .append(owner(18)).append(", ").append(owner(19))
+                    .append("]");
+            sb.append(", withdraw_address: ");
+            sb.append("[").append(withdrawAddress(0)).append(", ").append(withdrawAddress(1)).append(", ").append(withdrawAddress(2)).append(", ")
+                    .append(withdrawAddress(3)).append(", ").append(withdrawAddress(4)).append(", ").append(withdrawAddress(5)).append(", ")
+                    .append(withdrawAddress(6)).append(", ").append(withdrawAddress(7)).append(", ").append(withdrawAddress(8)).append(", ")
+                    .append(withdrawAddress(9)).append(", ").append(withdrawAddress(10)).append(", ").append(withdrawAddress(11)).append(", ")
+                    .append(withdrawAddress(12)).append(", ").append(withdrawAddress(13)).append(", ").append(withdrawAddress(14)).append(", ")
+                    .append(withdrawAddress(15)).append(", ").append(withdrawAddress(16)).append(", ").append(withdrawAddress(17)).append(", ")
+                    .append(withdrawAddress(18)).append(", ").append(withdrawAddress(19))
+                    .append("]");
+            sb.append(", recovery_address: ");
+            sb.append("[").append(recoveryAddress(0)).append(", ").append(recoveryAddress(1)).append(", ").append(recoveryAddress(2)).append(", ")
+                    .append(recoveryAddress(3)).append(", ").append(recoveryAddress(4)).append(", ").append(recoveryAddress(5)).append(", ")
+                    .append(recoveryAddress(6)).append(", ").append(recoveryAddress(7)).append(", ").append(recoveryAddress(8)).append(", ")
+                    .append(recoveryAddress(9)).append(", ").append(recoveryAddress(10)).append(", ").append(recoveryAddress(11)).append(", ")
+                    .append(recoveryAddress(12)).append(", ").append(recoveryAddress(13)).append(", ").append(recoveryAddress(14)).append(", ")
+                    .append(recoveryAddress(15)).append(", ").append(recoveryAddress(16)).append(", ").append(recoveryAddress(17)).append(", ")
+                    .append(recoveryAddress(18)).append(", ").append(recoveryAddress(19))
+                    .append("]");
+            sb.append(", recovery_address_proposed: ");
+            sb.append("[").append(recoveryAddressProposed(0)).append(", ").append(recoveryAddressProposed(1)).append(", ").append(recoveryAddressProposed(2)).append(", ")
+                    .append(recoveryAddressProposed(3)).append(", ").append(recoveryAddressProposed(4)).append(", ").append(recoveryAddressProposed(5)).append(", ")
+                    .append(recoveryAddressProposed(6)).append(", ").append(recoveryAddressProposed(7)).append(", ").append(recoveryAddressProposed(8)).append(", ")
+                    .append(recoveryAddressProposed(9)).append(", ").append(recoveryAddressProposed(10)).append(", ").append(recoveryAddressProposed(11)).append(", ")
+                    .append(recoveryAddressProposed(12)).append(", ").append(recoveryAddressProposed(13)).append(", ").append(recoveryAddressProposed(14)).append(", ")
+                    .append(recoveryAddressProposed(15)).append(", ").append(recoveryAddressProposed(16)).append(", ").append(recoveryAddressProposed(17)).append(", ")
+                    .append(recoveryAddressProposed(18)).append(", ").append(recoveryAddressProposed(19))
+                    .append("]");
+            sb.append(" }");
+            return sb.toString();
+        }
+    }
+    public static class ExportUser {
+        public ExportUser clearToZeros() {
+            this.buffer.setMemory(offset, BYTES, (byte) 0);
+            return this;
+        }
+        private MutableDirectBuffer buffer;
+        private int offset;
+        public MutableDirectBuffer messageMemoryBuffer() {
+            return buffer;
+        }
+        public int messageMemoryOffset() {
+            return offset;
+        }
+        public static final int USER_ID_OFFSET = 0;
+        public static final int USER_ID_LENGTH = 8;
+        public static final int TRADE_ADDRESS_OFFSET = 8;
+        public static final int TRADE_ADDRESS_COUNT = 20;
+        public static final int TRADE_ADDRESS_LENGTH = 20;
+        public static final int TRADE_ADDRESS_ITEM_LENGTH = 1;
+        public static final int WITHDRAW_ADDRESS_OFFSET = 28;
+        public static final int WITHDRAW_ADDRESS_COUNT = 20;
+        public static final int WITHDRAW_ADDRESS_LENGTH = 20;
+        public static final int WITHDRAW_ADDRESS_ITEM_LENGTH = 1;
+        public static final int RECOVERY_ADDRESS_OFFSET = 48;
+        public static final int RECOVERY_ADDRESS_COUNT = 20;
+        public static final int RECOVERY_ADDRESS_LENGTH = 20;
+        public static final int RECOVERY_ADDRESS_ITEM_LENGTH = 1;
+        public static final int RECOVERY_ADDRESS_PROPOSED_OFFSET = 68;
+        public static final int RECOVERY_ADDRESS_PROPOSED_COUNT = 20;
+        public static final int RECOVERY_ADDRESS_PROPOSED_LENGTH = 20;
+        public static final int RECOVERY_ADDRESS_PROPOSED_ITEM_LENGTH = 1;
+        public static final int BYTES = 88;
+        public ExportUser wrap(MutableDirectBuffer buffer, int offset) {
+            this.buffer = buffer;
+            this.offset = offset;
+            return this;
+        }
+        public void copyFrom(ExportUser other) {
+            buffer.putBytes(offset, other.buffer, other.offset, BYTES);
+        }
+        public void writeTo(MutableDirectBuffer buffer, int offset) {
+            buffer.putBytes(offset, this.buffer, this.offset, BYTES);
+        }
+        public long userId() {
+            return this.buffer.getLong(this.offset + USER_ID_OFFSET, ByteOrder.BIG_ENDIAN);
+        }
+        public ExportUser userId(long value) {
+            this.buffer.putLong(this.offset + USER_ID_OFFSET, value, ByteOrder.BIG_ENDIAN);
+            return this;
+        }
+        public ExportUser tradeAddress(int pos, byte value) {
+            assert(pos >= 0 && pos < TRADE_ADDRESS_COUNT);
+            buffer.putByte(this.offset + TRADE_ADDRESS_OFFSET + TRADE_ADDRESS_ITEM_LENGTH * pos, value);
+            return this;
+        }
+        public byte tradeAddress(int pos) {
+            assert(pos >= 0 && pos < TRADE_ADDRESS_COUNT);
+            return buffer.getByte(this.offset + TRADE_ADDRESS_OFFSET + TRADE_ADDRESS_ITEM_LENGTH * pos);
+        }
+        public ExportUser getTradeAddress(byte[] value, int pos) {
+            buffer.getBytes(this.offset + TRADE_ADDRESS_OFFSET, value, pos, 20);
+            return this;
+        }
+        public ExportUser getTradeAddress(byte[] value) {
+            buffer.getBytes(this.offset + TRADE_ADDRESS_OFFSET, value, 0, 20);
+            return this;
+        }
+        public ExportUser setTradeAddress(byte[] value, int pos) {
+            buffer.putBytes(this.offset + TRADE_ADDRESS_OFFSET, value, pos, 20);
+            return this;
+        }
+        public ExportUser setTradeAddress(byte[] value) {
+            buffer.putBytes(this.offset + TRADE_ADDRESS_OFFSET, value, 0, 20);
+            return this;
+        }
+        public ExportUser withdrawAddress(int pos, byte value) {
+            assert(pos >= 0 && pos < WITHDRAW_ADDRESS_COUNT);
+            buffer.putByte(this.offset + WITHDRAW_ADDRESS_OFFSET + WITHDRAW_ADDRESS_ITEM_LENGTH * pos, value);
+            return this;
+        }
+        public byte withdrawAddress(int pos) {
+            assert(pos >= 0 && pos < WITHDRAW_ADDRESS_COUNT);
+            return buffer.getByte(this.offset + WITHDRAW_ADDRESS_OFFSET + WITHDRAW_ADDRESS_ITEM_LENGTH * pos);
+        }
+        public ExportUser getWithdrawAddress(byte[] value, int pos) {
+            buffer.getBytes(this.offset + WITHDRAW_ADDRESS_OFFSET, value, pos, 20);
+            return this;
+        }
+        public ExportUser getWithdrawAddress(byte[] value) {
+            buffer.getBytes(this.offset + WITHDRAW_ADDRESS_OFFSET, value, 0, 20);
+            return this;
+        }
+        public ExportUser setWithdrawAddress(byte[] value, int pos) {
+            buffer.putBytes(this.offset + WITHDRAW_ADDRESS_OFFSET, value, pos, 20);
+            return this;
+        }
+        public ExportUser setWithdrawAddress(byte[] value) {
+            buffer.putBytes(this.offset + WITHDRAW_ADDRESS_OFFSET, value, 0, 20);
+            return this;
+        }
+        public ExportUser recoveryAddress(int pos, byte value) {
+            assert(pos >= 0 && pos < RECOVERY_ADDRESS_COUNT);
+            buffer.putByte(this.offset + RECOVERY_ADDRESS_OFFSET + RECOVERY_ADDRESS_ITEM_LENGTH * pos, value);
+            return this;
+        }
+        public byte recoveryAddress(int pos) {
+            assert(pos >= 0 && pos < RECOVERY_ADDRESS_COUNT);
+            return buffer.getByte(this.offset + RECOVERY_ADDRESS_OFFSET + RECOVERY_ADDRESS_ITEM_LENGTH * pos);
+        }
+        public ExportUser getRecoveryAddress(byte[] value, int pos) {
+            buffer.getBytes(this.offset + RECOVERY_ADDRESS_OFFSET, value, pos, 20);
+            return this;
+        }
+        public ExportUser getRecoveryAddress(byte[] value) {
+            buffer.getBytes(this.offset + RECOVERY_ADDRESS_OFFSET, value, 0, 20);
+            return this;
+        }
+        public ExportUser setRecoveryAddress(byte[] value, int pos) {
+            buffer.putBytes(this.offset + RECOVERY_ADDRESS_OFFSET, value, pos, 20);
+            return this;
+        }
+        public ExportUser setRecoveryAddress(byte[] value) {
+            buffer.putBytes(this.offset + RECOVERY_ADDRESS_OFFSET, value, 0, 20);
+            return this;
+        }
+        public ExportUser recoveryAddressProposed(int pos, byte value) {
+            assert(pos >= 0 && pos < RECOVERY_ADDRESS_PROPOSED_COUNT);
+            buffer.putByte(this.offset + RECOVERY_ADDRESS_PROPOSED_OFFSET + RECOVERY_ADDRESS_PROPOSED_ITEM_LENGTH * pos, value);
+            return this;
+        }
+        public byte recoveryAddressProposed(int pos) {
+            assert(pos >= 0 && pos < RECOVERY_ADDRESS_PROPOSED_COUNT);
+            return buffer.getByte(this.offset + RECOVERY_ADDRESS_PROPOSED_OFFSET + RECOVERY_ADDRESS_PROPOSED_ITEM_LENGTH * pos);
+        }
+        public ExportUser getRecoveryAddressProposed(byte[] value, int pos) {
+            buffer.getBytes(this.offset + RECOVERY_ADDRESS_PROPOSED_OFFSET, value, pos, 20);
+            return this;
+        }
+        public ExportUser getRecoveryAddressProposed(byte[] value) {
+            buffer.getBytes(this.offset + RECOVERY_ADDRESS_PROPOSED_OFFSET, value, 0, 20);
+            return this;
+        }
+        public ExportUser setRecoveryAddressProposed(byte[] value, int pos) {
+            buffer.putBytes(this.offset + RECOVERY_ADDRESS_PROPOSED_OFFSET, value, pos, 20);
+            return this;
+        }
+        public ExportUser setRecoveryAddressProposed(byte[] value) {
+            buffer.putBytes(this.offset + RECOVERY_ADDRESS_PROPOSED_OFFSET, value, 0, 20);
+            return this;
+        }
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("ExportUser { ");
+            sb.append("user_id: ");
+            sb.append(Long.toUnsignedString(userId()));
+            sb.append(", trade_address: ");
+            sb.append("[").append(tradeAddress(0)).append(", ").append(tradeAddress(1)).append(", ").append(tradeAddress(2)).append(", ")
+                    .append(tradeAddress(3)).append(", ").append(tradeAddress(4)).append(", ").append(tradeAddress(5)).append(", ")
+                    .append(tradeAddress(6)).append(", ").append(tradeAddress(7)).append(", ").append(tradeAddress(8)).append(", ")
+                    .append(tradeAddress(9)).append(", ").append(tradeAddress(10)).append(", ").append(tradeAddress(11)).append(", ")
+                    .append(tradeAddress(12)).append(", ").append(tradeAddress(13)).append(", ").append(tradeAddress(14)).append(", ")
+                    .append(tradeAddress(15)).append(", ").append(tradeAddress(16)).append(", ").append(tradeAddress(17)).append(", ")
+                    .append(tradeAddress(18)).append(", ").append(tradeAddress(19))
+                    .append("]");
+            sb.append(", withdraw_address: ");
+            sb.append("[").append(withdrawAddress(0)).append(", ").append(withdrawAddress(1)).append(", ").append(withdrawAddress(2)).append(", ")
+                    .append(withdrawAddress(3)).append(", ").append(withdrawAddress(4)).append(", ").append(withdrawAddress(5)).append(", ")
+                    .append(withdrawAddress(6)).append(", ").append(withdrawAddress(7)).append(", ").append(withdrawAddress(8)).append(", ")
+                    .append(withdrawAddress(9)).append(", ").append(withdrawAddress(10)).append(", ").append(withdrawAddress(11)).append(", ")
+                    .append(withdrawAddress(12)).append(", ").append(withdrawAddress(13)).append(", ").append(withdrawAddress(14)).append(", ")
+                    .append(withdrawAddress(15)).append(", ").append(withdrawAddress(16)).append(", ").append(withdrawAddress(17)).append(", ")
+                    .append(withdrawAddress(18)).append(", ").append(withdrawAddress(19))
+                    .append("]");
+            sb.append(", recovery_address: ");
+            sb.append("[").append(recoveryAddress(0)).append(", ").append(recoveryAddress(1)).append(", ").append(recoveryAddress(2)).append(", ")
+                    .append(recoveryAddress(3)).append(", ").append(recoveryAddress(4)).append(", ").append(recoveryAddress(5)).append(", ")
+                    .append(recoveryAddress(6)).append(", ").append(recoveryAddress(7)).append(", ").append(recoveryAddress(8)).append(", ")
+                    .append(recoveryAddress(9)).append(", ").append(recoveryAddress(10)).append(", ").append(recoveryAddress(11)).append(", ")
+                    .append(recoveryAddress(12)).append(", ").append(recoveryAddress(13)).append(", ").append(recoveryAddress(14)).append(", ")
+                    .append(recoveryAddress(15)).append(", ").append(recoveryAddress(16)).append(", ").append(recoveryAddress(17)).append(", ")
+                    .append(recoveryAddress(18)).append(", ").append(recoveryAddress(19))
+                    .append("]");
+            sb.append(", recovery_address_proposed: ");
+            sb.append("[").append(recoveryAddressProposed(0)).append(", ").append(recoveryAddressProposed(1)).append(", ").append(recoveryAddressProposed(2)).append(", ")
+                    .append(recoveryAddressProposed(3)).append(", ").append(recoveryAddressProposed(4)).append(", ").append(recoveryAddressProposed(5)).append(", ")
+                    .append(recoveryAddressProposed(6)).append(", ").append(recoveryAddressProposed(7)).append(", ").append(recoveryAddressProposed(8)).append(", ")
+                    .append(recoveryAddressProposed(9)).append(", ").append(recoveryAddressProposed(10)).append(", ").append(recoveryAddressProposed(11)).append(", ")
+                    .append(recoveryAddressProposed(12)).append(", ").append(recoveryAddressProposed(13)).append(", ").append(recoveryAddressProposed(14)).append(", ")
+                    .append(recoveryAddressProposed(15)).append(", ").append(recoveryAddressProposed(16)).append(", ").append(recoveryAddressProposed(17)).append(", ")
+                    .append(recoveryAddressProposed(18)).append(", ").append(recoveryAddressProposed(19))
+                    .append("]");
+            sb.append(" }");
+            return sb.toString();
+        }
+    }
+    public static class ExportBalance {
+        public ExportBalance clearToZeros() {
+            this.buffer.setMemory(offset, BYTES, (byte) 0);
+            return this;
+        }
+        private MutableDirectBuffer buffer;
+        private int offset;
+        public MutableDirectBuffer messageMemoryBuffer() {
+            return buffer;
+        }
+        public int messageMemoryOffset() {
+            return offset;
+        }
+        public static final int USER_ID_OFFSET = 0;
+        public static final int USER_ID_LENGTH = 8;
+        public static final int ASSET_ID_OFFSET = 8;
+        public static final int ASSET_ID_LENGTH = 4;
+        public static final int BALANCE_OFFSET = 12;
+        public static final int BALANCE_COUNT = 32;
+        public static final int BALANCE_LENGTH = 32;
+        public static final int BALANCE_ITEM_LENGTH = 1;
+        public static final int BYTES = 44;
+        public ExportBalance wrap(MutableDirectBuffer buffer, int offset) {
+            this.buffer = buffer;
+            this.offset = offset;
+            return this;
+        }
+        public void copyFrom(ExportBalance other) {
+            buffer.putBytes(offset, other.buffer, other.offset, BYTES);
+        }
+        public void writeTo(MutableDirectBuffer buffer, int offset) {
+            buffer.putBytes(offset, this.buffer, this.offset, BYTES);
+        }
+        public long userId() {
+            return this.buffer.getLong(this.offset + USER_ID_OFFSET, ByteOrder.BIG_ENDIAN);
+        }
+        public ExportBalance userId(long value) {
+            this.buffer.putLong(this.offset + USER_ID_OFFSET, value, ByteOrder.BIG_ENDIAN);
+            return this;
+        }
+        public int assetId() {
+            return this.buffer.getInt(this.offset + ASSET_ID_OFFSET, ByteOrder.BIG_ENDIAN);
+        }
+        public ExportBalance assetId(int value) {
+            this.buffer.putInt(this.offset + ASSET_ID_OFFSET, value, ByteOrder.BIG_ENDIAN);
+            return this;
+        }
+        public ExportBalance balance(int pos, byte value) {
+            assert(pos >= 0 && pos < BALANCE_COUNT);
+            buffer.putByte(this.offset + BALANCE_OFFSET + BALANCE_ITEM_LENGTH * pos, value);
+            return this;
+        }
+        public byte balance(int pos) {
+            assert(pos >= 0 && pos < BALANCE_COUNT);
+            return buffer.getByte(this.offset + BALANCE_OFFSET + BALANCE_ITEM_LENGTH * pos);
+        }
+        public ExportBalance getBalance(byte[] value, int pos) {
+            buffer.getBytes(this.offset + BALANCE_OFFSET, value, pos, 32);
+            return this;
+        }
+        public ExportBalance getBalance(byte[] value) {
+            buffer.getBytes(this.offset + BALANCE_OFFSET, value, 0, 32);
+            return this;
+        }
+        public ExportBalance setBalance(byte[] value, int pos) {
+            buffer.putBytes(this.offset + BALANCE_OFFSET, value, pos, 32);
+            return this;
+        }
+        public ExportBalance setBalance(byte[] value) {
+            buffer.putBytes(this.offset + BALANCE_OFFSET, value, 0, 32);
+            return this;
+        }
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("ExportBalance { ");
+            sb.append("user_id: ");
+            sb.append(Long.toUnsignedString(userId()));
+            sb.append(", asset_id: ");
+            sb.append(Integer.toUnsignedString(assetId()));
+            sb.append(", balance: ");
+            sb.append("[").append(balance(0)).append(", ").append(balance(1)).append(", ").append(balance(2)).append(", ")
+                    .append(balance(3)).append(", ").append(balance(4)).append(", ").append(balance(5)).append(", ")
+                    .append(balance(6)).append(", ").append(balance(7)).append(", ").append(balance(8)).append(", ")
+                    .append(balance(9)).append(", ").append(balance(10)).append(", ").append(balance(11)).append(", ")
+                    .append(balance(12)).append(", ").append(balance(13)).append(", ").append(balance(14)).append(", ")
+                    .append(balance(15)).append(", ").append(balance(16)).append(", ").append(balance(17)).append(", ")
+                    .append(balance(18)).append(", ").append(balance(19)).append(", ").append(balance(20)).append(", ")
+                    .append(balance(21)).append(", ").append(balance(22)).append(", ").append(balance(23)).append(", ")
+                    .append(balance(24)).append(", ").append(balance(25)).append(", ").append(balance(26)).append(", ")
+                    .append(balance(27)).append(", ").append(balance(28)).append(", ").append(balance(29)).append(", ")
+                    .append(balance(30)).append(", ").append(balance(31))
+                    .append("]");
+            sb.append(" }");
+            return sb.toString();
+        }
+    }
+}
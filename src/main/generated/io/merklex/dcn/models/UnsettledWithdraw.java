@@ -0,0 +1,119 @@
+package io.merklex.dcn.models;
+import org.agrona.MutableDirectBuffer;
+import java.util.HashMap;
+import java.nio.ByteOrder;
+
+@javax.annotation.Generated(value="merklex-code-gen")
+public class UnsettledWithdraw {
+    public static class Type {
+        private Type() {}
+    }
+    public static class UnsettledWithdrawHeader {
+        public UnsettledWithdrawHeader clearToZeros() {
+            this.buffer.setMemory(offset, BYTES, (byte) 0);
+            return this;
+        }
+        private MutableDirectBuffer buffer;
+        private int offset;
+        public MutableDirectBuffer messageMemoryBuffer() {
+            return buffer;
+        }
+        public int messageMemoryOffset() {
+            return offset;
+        }
+        public static final int EXCHANGE_ID_OFFSET = 0;
+        public static final int EXCHANGE_ID_LENGTH = 4;
+        public static final int ASSET_ID_OFFSET = 4;
+        public static final int ASSET_ID_LENGTH = 4;
+        public static final int USER_COUNT_OFFSET = 8;
+        public static final int USER_COUNT_LENGTH = 4;
+        public static final int BYTES = 12;
+        public UnsettledWithdrawHeader wrap(MutableDirectBuffer buffer, int offset) {
+            this.buffer = buffer;
+            this.offset = offset;
+            return this;
+        }
+        public void copyFrom(UnsettledWithdrawHeader other) {
+            buffer.putBytes(offset, other.buffer, other.offset, BYTES);
+        }
+        public void writeTo(MutableDirectBuffer buffer, int offset) {
+            buffer.putBytes(offset, this.buffer, this.offset, BYTES);
+        }
+        public int exchangeId() {
+            return this.buffer.getInt(this.offset + EXCHANGE_ID_OFFSET, ByteOrder.BIG_ENDIAN);
+        }
+        public UnsettledWithdrawHeader exchangeId(int value) {
+            this.buffer.putInt(this.offset + EXCHANGE_ID_OFFSET, value, ByteOrder.BIG_ENDIAN);
+            return this;
+        }
+        public int assetId() {
+            return this.buffer.getInt(this.offset + ASSET_ID_OFFSET, ByteOrder.BIG_ENDIAN);
+        }
+        public UnsettledWithdrawHeader assetId(int value) {
+            this.buffer.putInt(this.offset + ASSET_ID_OFFSET, value, ByteOrder.BIG_ENDIAN);
+            return this;
+        }
+        public int userCount() {
+            return this.buffer.getInt(this.offset + USER_COUNT_OFFSET, ByteOrder.BIG_ENDIAN);
+        }
+        public UnsettledWithdrawHeader userCount(int value) {
+            this.buffer.putInt(this.offset + USER_COUNT_OFFSET, value, ByteOrder.BIG_ENDIAN);
+            return this;
+        }
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("UnsettledWithdrawHeader { ");
+            sb.append("exchange_id: ");
+            sb.append(Integer.toUnsignedString(exchangeId()));
+            sb.append(", asset_id: ");
+            sb.append(Integer.toUnsignedString(assetId()));
+            sb.append(", user_count: ");
+            sb.append(Integer.toUnsignedString(userCount()));
+            sb.append(" }");
+            return sb.toString();
+        }
+    }
+    public static class UnsettledWithdrawUser {
+        public UnsettledWithdrawUser clearToZeros() {
+            this.buffer.setMemory(offset, BYTES, (byte) 0);
+            return this;
+        }
+        private MutableDirectBuffer buffer;
+        private int offset;
+        public MutableDirectBuffer messageMemoryBuffer() {
+            return buffer;
+        }
+        public int messageMemoryOffset() {
+            return offset;
+        }
+        public static final int USER_ID_OFFSET = 0;
+        public static final int USER_ID_LENGTH = 8;
+        public static final int BYTES = 8;
+        public UnsettledWithdrawUser wrap(MutableDirectBuffer buffer, int offset) {
+            this.buffer = buffer;
+            this.offset = offset;
+            return this;
+        }
+        public void copyFrom(UnsettledWithdrawUser other) {
+            buffer.putBytes(offset, other.buffer, other.offset, BYTES);
+        }
+        public void writeTo(MutableDirectBuffer buffer, int offset) {
+            buffer.putBytes(offset, this.buffer, this.offset, BYTES);
+        }
+        public long userId() {
+            return this.buffer.getLong(this.offset + USER_ID_OFFSET, ByteOrder.BIG_ENDIAN);
+        }
+        public UnsettledWithdrawUser userId(long value) {
+            this.buffer.putLong(this.offset + USER_ID_OFFSET, value, ByteOrder.BIG_ENDIAN);
+            return this;
+        }
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("UnsettledWithdrawUser { ");
+            sb.append("user_id: ");
+            sb.append(Long.toUnsignedString(userId()));
+            sb.append(" }");
+            return sb.toString();
+        }
+    }
+}
@@ -3,17 +3,34 @@ package io.merklex.dcn;
 import java.math.BigInteger;
 
 public class FeatureLocks {
-    public static final BigInteger ADD_ASSET = BigInteger.ONE.shiftLeft(0);
-    public static final BigInteger ADD_EXCHANGE = BigInteger.ONE.shiftLeft(1);
-    public static final BigInteger CREATE_USER = BigInteger.ONE.shiftLeft(2);
-    public static final BigInteger EXCHANGE_DEPOSIT = BigInteger.ONE.shiftLeft(3);
-    public static final BigInteger USER_DEPOSIT = BigInteger.ONE.shiftLeft(4);
-    public static final BigInteger TRANSFER_TO_SESSION = BigInteger.ONE.shiftLeft(5);
-    public static final BigInteger DEPOSIT_ASSET_TO_SESSION = BigInteger.ONE.shiftLeft(6);
-    public static final BigInteger EXCHANGE_TRANSFER_FROM = BigInteger.ONE.shiftLeft(7);
-    public static final BigInteger EXCHANGE_SET_LIMITS = BigInteger.ONE.shiftLeft(8);
-    public static final BigInteger APPLY_SETTLEMENT_GROUPS = BigInteger.ONE.shiftLeft(9);
-    public static final BigInteger USER_MARKET_RESET = BigInteger.ONE.shiftLeft(10);
-    public static final BigInteger RECOVER_UNSETTLED_WITHDRAWS = BigInteger.ONE.shiftLeft(11);
+    public static final int ADD_ASSET_BIT = 0;
+    public static final int ADD_EXCHANGE_BIT = 1;
+    public static final int CREATE_USER_BIT = 2;
+    public static final int EXCHANGE_DEPOSIT_BIT = 3;
+    public static final int USER_DEPOSIT_BIT = 4;
+    public static final int TRANSFER_TO_SESSION_BIT = 5;
+    public static final int DEPOSIT_ASSET_TO_SESSION_BIT = 6;
+    public static final int EXCHANGE_TRANSFER_FROM_BIT = 7;
+    public static final int EXCHANGE_SET_LIMITS_BIT = 8;
+    public static final int APPLY_SETTLEMENT_GROUPS_BIT = 9;
+    public static final int USER_MARKET_RESET_BIT = 10;
+    public static final int RECOVER_UNSETTLED_WITHDRAWS_BIT = 11;
+
+    public static final BigInteger ADD_ASSET = BigInteger.ONE.shiftLeft(ADD_ASSET_BIT);
+    public static final BigInteger ADD_EXCHANGE = BigInteger.ONE.shiftLeft(ADD_EXCHANGE_BIT);
+    public static final BigInteger CREATE_USER = BigInteger.ONE.shiftLeft(CREATE_USER_BIT);
+    public static final BigInteger EXCHANGE_DEPOSIT = BigInteger.ONE.shiftLeft(EXCHANGE_DEPOSIT_BIT);
+    public static final BigInteger USER_DEPOSIT = BigInteger.ONE.shiftLeft(USER_DEPOSIT_BIT);
+    public static final BigInteger TRANSFER_TO_SESSION = BigInteger.ONE.shiftLeft(TRANSFER_TO_SESSION_BIT);
+    public static final BigInteger DEPOSIT_ASSET_TO_SESSION = BigInteger.ONE.shiftLeft(DEPOSIT_ASSET_TO_SESSION_BIT);
+    public static final BigInteger EXCHANGE_TRANSFER_FROM = BigInteger.ONE.shiftLeft(EXCHANGE_TRANSFER_FROM_BIT);
+    public static final BigInteger EXCHANGE_SET_LIMITS = BigInteger.ONE.shiftLeft(EXCHANGE_SET_LIMITS_BIT);
+    public static final BigInteger APPLY_SETTLEMENT_GROUPS = BigInteger.ONE.shiftLeft(APPLY_SETTLEMENT_GROUPS_BIT);
+    public static final BigInteger USER_MARKET_RESET = BigInteger.ONE.shiftLeft(USER_MARKET_RESET_BIT);
+    public static final BigInteger RECOVER_UNSETTLED_WITHDRAWS = BigInteger.ONE.shiftLeft(RECOVER_UNSETTLED_WITHDRAWS_BIT);
     public static final BigInteger ALL = BigInteger.ONE.shiftLeft(256).subtract(BigInteger.ONE);
+
+    public static boolean IsLocked(UInt256 locks, int bit) {
+        return locks.testBit(bit);
+    }
 }
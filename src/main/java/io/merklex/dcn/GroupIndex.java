@@ -0,0 +1,224 @@
+package io.merklex.dcn;
+
+import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
+
+import java.util.Arrays;
+
+/**
+ * Start offset and records before every group of a grouped payload (Settlements,
+ * Transfers), kept in one int[] as {offset, records} pairs with a closing pair at the end.
+ * Group sizes depend on their record count so finding group k otherwise means walking
+ * every group before it.
+ * <p>
+ * Built in one pass over an encoded payload or while encoding by adding each group's
+ * record count. Sub-payloads share the payload's header and are encoded straight from the
+ * source buffer.
+ */
+public class GroupIndex {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final int headerBytes;
+    private final int groupBytes;
+    private final int recordBytes;
+
+    private DirectBuffer buffer;
+    private int offset;
+    private int groups;
+    private int[] entries = new int[32];
+
+    public GroupIndex(int headerBytes, int groupBytes, int recordBytes) {
+        this.headerBytes = headerBytes;
+        this.groupBytes = groupBytes;
+        this.recordBytes = recordBytes;
+    }
+
+    public static GroupIndex Settlements() {
+        return new GroupIndex(Settlements.BYTES, Settlements.Group.BYTES, Settlements.SettlementData.BYTES);
+    }
+
+    public static GroupIndex Transfers() {
+        return new GroupIndex(Transfers.BYTES, Transfers.Group.BYTES, Transfers.Transfer.BYTES);
+    }
+
+    /**
+     * Starts an empty index over the payload at offset, groups are then added as encoded
+     */
+    public GroupIndex reset(DirectBuffer buffer, int offset) {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.groups = 0;
+        entries[0] = headerBytes;
+        entries[1] = 0;
+        return this;
+    }
+
+    public GroupIndex add(int records) {
+        int next = (groups + 1) * 2;
+        if (next + 1 >= entries.length) {
+            entries = Arrays.copyOf(entries, entries.length * 2);
+        }
+        entries[next] = entries[next - 2] + groupBytes + records * recordBytes;
+        entries[next + 1] = entries[next - 1] + records;
+        groups++;
+        return this;
+    }
+
+    public GroupIndex index(Settlements settlements, int groups) {
+        reset(settlements.messageMemoryBuffer(), settlements.messageMemoryOffset());
+        Settlements.Group group = settlements.firstGroup(new Settlements.Group());
+        for (int i = 0; i < groups; i++) {
+            add(Byte.toUnsignedInt(group.userCount()));
+            group.nextGroup(group);
+        }
+        return this;
+    }
+
+    public GroupIndex index(Transfers transfers, int groups) {
+        reset(transfers.messageMemoryBuffer(), transfers.messageMemoryOffset());
+        Transfers.Group group = transfers.firstGroup(new Transfers.Group());
+        for (int i = 0; i < groups; i++) {
+            add(Byte.toUnsignedInt(group.transferCount()));
+            group.nextGroup(group);
+        }
+        return this;
+    }
+
+    public DirectBuffer buffer() {
+        return buffer;
+    }
+
+    public int groupCount() {
+        return groups;
+    }
+
+    public int recordCount() {
+        return entries[groups * 2 + 1];
+    }
+
+    public int recordCount(int group) {
+        check(group, groups);
+        return entries[group * 2 + 3] - entries[group * 2 + 1];
+    }
+
+    /**
+     * Records in the groups before group
+     */
+    public int firstRecord(int group) {
+        check(group, groups + 1);
+        return entries[group * 2 + 1];
+    }
+
+    /**
+     * Buffer offset of the group's header
+     */
+    public int groupOffset(int group) {
+        check(group, groups + 1);
+        return offset + entries[group * 2];
+    }
+
+    /**
+     * Group holding the record-th record of the payload, binary search over the record counts
+     */
+    public int groupOf(int record) {
+        check(record, recordCount());
+        int low = 0;
+        int high = groups;
+        while (low + 1 < high) {
+            int mid = (low + high) >>> 1;
+            if (entries[mid * 2 + 1] <= record) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Buffer offset of the record-th record of the payload
+     */
+    public int recordOffset(int record) {
+        int group = groupOf(record);
+        return offset + entries[group * 2] + groupBytes + (record - entries[group * 2 + 1]) * recordBytes;
+    }
+
+    /**
+     * Bytes of the payload holding groups [from, to)
+     */
+    public int bytes(int from, int to) {
+        checkRange(from, to);
+        return headerBytes + entries[to * 2] - entries[from * 2];
+    }
+
+    public int bytes() {
+        return entries[groups * 2];
+    }
+
+    /**
+     * Copies the header and groups [from, to) to destination as one payload
+     *
+     * @return the bytes written
+     */
+    public int write(int from, int to, MutableDirectBuffer destination, int destinationOffset) {
+        int length = bytes(from, to);
+        destination.putBytes(destinationOffset, buffer, offset, headerBytes);
+        destination.putBytes(destinationOffset + headerBytes, buffer, groupOffset(from), length - headerBytes);
+        return length;
+    }
+
+    /**
+     * Hex payload of the header and groups [from, to), encoded from the source buffer
+     */
+    public String payload(int from, int to) {
+        checkRange(from, to);
+        char[] hex = new char[2 + bytes(from, to) * 2];
+        hex[0] = '0';
+        hex[1] = 'x';
+        int position = hex(offset, headerBytes, hex, 2);
+        hex(groupOffset(from), entries[to * 2] - entries[from * 2], hex, position);
+        return new String(hex);
+    }
+
+    /**
+     * Hex payload of the header and the groups listed in groups[from, to), in that order
+     */
+    public String payload(int[] groups, int from, int to) {
+        int length = headerBytes;
+        for (int i = from; i < to; i++) {
+            check(groups[i], this.groups);
+            length += entries[groups[i] * 2 + 2] - entries[groups[i] * 2];
+        }
+
+        char[] hex = new char[2 + length * 2];
+        hex[0] = '0';
+        hex[1] = 'x';
+        int position = hex(offset, headerBytes, hex, 2);
+        for (int i = from; i < to; i++) {
+            int group = groups[i];
+            position = hex(groupOffset(group), entries[group * 2 + 2] - entries[group * 2], hex, position);
+        }
+        return new String(hex);
+    }
+
+    private int hex(int from, int length, char[] hex, int position) {
+        for (int i = 0; i < length; i++) {
+            int value = buffer.getByte(from + i) & 0xFF;
+            hex[position++] = HEX[value >>> 4];
+            hex[position++] = HEX[value & 0xF];
+        }
+        return position;
+    }
+
+    private static void check(int index, int limit) {
+        if (index < 0 || index >= limit) {
+            throw new IndexOutOfBoundsException("index=" + index + " limit=" + limit);
+        }
+    }
+
+    private void checkRange(int from, int to) {
+        if (from < 0 || from > to || to > groups) {
+            throw new IndexOutOfBoundsException("from=" + from + " to=" + to + " groups=" + groups);
+        }
+    }
+}
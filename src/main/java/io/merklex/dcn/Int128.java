@@ -0,0 +1,303 @@
+package io.merklex.dcn;
+
+import java.math.BigInteger;
+
+/**
+ * Mutable signed 128 bit integer held in two longs, for mirroring contract math without
+ * allocating. Arithmetic wraps like the EVM does on the low 128 bits and returns true when
+ * the exact result did not fit.
+ */
+public class Int128 implements Comparable<Int128> {
+    public long high;
+    public long low;
+
+    public Int128() {
+    }
+
+    public Int128(long value) {
+        set(value);
+    }
+
+    public Int128(long high, long low) {
+        set(high, low);
+    }
+
+    public Int128 set(long value) {
+        this.high = value >> 63;
+        this.low = value;
+        return this;
+    }
+
+    public Int128 set(long high, long low) {
+        this.high = high;
+        this.low = low;
+        return this;
+    }
+
+    public Int128 set(Int128 other) {
+        return set(other.high, other.low);
+    }
+
+    public Int128 set(BigInteger value) {
+        if (value.bitLength() > bits() - 1) {
+            throw new ArithmeticException(value + " does not fit int" + bits());
+        }
+        return set(value.shiftRight(64).longValue(), value.longValue());
+    }
+
+    public int bits() {
+        return 128;
+    }
+
+    /**
+     * @return true on signed overflow
+     */
+    public boolean add(Int128 other) {
+        return add(other.high, other.low);
+    }
+
+    public boolean add(long value) {
+        return add(value >> 63, value);
+    }
+
+    protected boolean add(long otherHigh, long otherLow) {
+        long sumLow = low + otherLow;
+        long sumHigh = high + otherHigh + (Long.compareUnsigned(sumLow, low) < 0 ? 1 : 0);
+        boolean overflow = ((high ^ sumHigh) & (otherHigh ^ sumHigh)) < 0;
+        high = sumHigh;
+        low = sumLow;
+        return overflow;
+    }
+
+    /**
+     * @return true on signed overflow
+     */
+    public boolean sub(Int128 other) {
+        return sub(other.high, other.low);
+    }
+
+    public boolean sub(long value) {
+        return sub(value >> 63, value);
+    }
+
+    protected boolean sub(long otherHigh, long otherLow) {
+        long diffLow = low - otherLow;
+        long diffHigh = high - otherHigh - (Long.compareUnsigned(low, otherLow) < 0 ? 1 : 0);
+        boolean overflow = ((high ^ otherHigh) & (high ^ diffHigh)) < 0;
+        high = diffHigh;
+        low = diffLow;
+        return overflow;
+    }
+
+    /**
+     * @return true when negating the minimum value
+     */
+    public boolean negate() {
+        boolean overflow = high == Long.MIN_VALUE && low == 0;
+        Negate(this);
+        return overflow;
+    }
+
+    private static void Negate(Int128 value) {
+        value.low = -value.low;
+        value.high = ~value.high + (value.low == 0 ? 1 : 0);
+    }
+
+    /**
+     * @return true on signed overflow
+     */
+    public boolean mul(Int128 other) {
+        return mul(other.high, other.low);
+    }
+
+    public boolean mul(long value) {
+        return mul(value >> 63, value);
+    }
+
+    protected boolean mul(long otherHigh, long otherLow) {
+        boolean negative = (high ^ otherHigh) < 0;
+
+        /* magnitudes as unsigned 128 bit */
+        long aHigh = high;
+        long aLow = low;
+        if (aHigh < 0) {
+            aLow = -aLow;
+            aHigh = ~aHigh + (aLow == 0 ? 1 : 0);
+        }
+        long bHigh = otherHigh;
+        long bLow = otherLow;
+        if (bHigh < 0) {
+            bLow = -bLow;
+            bHigh = ~bHigh + (bLow == 0 ? 1 : 0);
+        }
+
+        /* |a| * |b| must stay below 2^127, or equal it for a negative result */
+        long crossA = aHigh * bLow;
+        long crossB = aLow * bHigh;
+        long magnitudeLow = aLow * bLow;
+        long magnitudeHigh = MultiplyHighUnsigned(aLow, bLow);
+        boolean overflow = (aHigh != 0 && bHigh != 0)
+                || MultiplyHighUnsigned(aHigh, bLow) != 0
+                || MultiplyHighUnsigned(aLow, bHigh) != 0;
+        long partial = magnitudeHigh + crossA;
+        overflow |= Long.compareUnsigned(partial, crossA) < 0;
+        long total = partial + crossB;
+        overflow |= Long.compareUnsigned(total, crossB) < 0;
+        if (!overflow && total < 0) {
+            overflow = !negative || total != Long.MIN_VALUE || magnitudeLow != 0;
+        }
+
+        long productLow = low * otherLow;
+        long productHigh = MultiplyHighUnsigned(low, otherLow) + low * otherHigh + high * otherLow;
+        this.low = productLow;
+        this.high = productHigh;
+        return overflow;
+    }
+
+    /**
+     * Truncating division like the EVM sdiv, dividing by zero gives zero.
+     *
+     * @return true when dividing by zero or the minimum value by -1
+     */
+    public boolean div(Int128 divisor) {
+        return divRem(divisor, null);
+    }
+
+    /**
+     * @param remainder receives the remainder with the sign of the dividend like smod, may be null
+     */
+    public boolean divRem(Int128 divisor, Int128 remainder) {
+        long dHigh = divisor.high;
+        long dLow = divisor.low;
+
+        if (dHigh == 0 && dLow == 0) {
+            high = 0;
+            low = 0;
+            if (remainder != null) {
+                remainder.high = 0;
+                remainder.low = 0;
+            }
+            return true;
+        }
+
+        boolean overflow = high == Long.MIN_VALUE && low == 0 && dHigh == -1 && dLow == -1;
+        boolean negativeQuotient = (high ^ dHigh) < 0;
+        boolean negativeRemainder = high < 0;
+
+        long nHigh = high;
+        long nLow = low;
+        if (nHigh < 0) {
+            nLow = -nLow;
+            nHigh = ~nHigh + (nLow == 0 ? 1 : 0);
+        }
+        if (dHigh < 0) {
+            dLow = -dLow;
+            dHigh = ~dHigh + (dLow == 0 ? 1 : 0);
+        }
+
+        long qHigh;
+        long qLow;
+        long rHigh;
+        long rLow;
+        if (nHigh == 0 && dHigh == 0) {
+            qHigh = 0;
+            qLow = Long.divideUnsigned(nLow, dLow);
+            rHigh = 0;
+            rLow = Long.remainderUnsigned(nLow, dLow);
+        }
+        else {
+            qHigh = 0;
+            qLow = 0;
+            rHigh = 0;
+            rLow = 0;
+            for (int i = 127; i >= 0; i--) {
+                boolean top = rHigh < 0;
+                long bit = (i >= 64 ? nHigh >>> (i - 64) : nLow >>> i) & 1;
+                rHigh = rHigh << 1 | rLow >>> 63;
+                rLow = rLow << 1 | bit;
+
+                int cmp = Long.compareUnsigned(rHigh, dHigh);
+                if (top || cmp > 0 || (cmp == 0 && Long.compareUnsigned(rLow, dLow) >= 0)) {
+                    long borrow = Long.compareUnsigned(rLow, dLow) < 0 ? 1 : 0;
+                    rLow -= dLow;
+                    rHigh = rHigh - dHigh - borrow;
+                    if (i >= 64) {
+                        qHigh |= 1L << (i - 64);
+                    }
+                    else {
+                        qLow |= 1L << i;
+                    }
+                }
+            }
+        }
+
+        high = qHigh;
+        low = qLow;
+        if (negativeQuotient) {
+            Negate(this);
+        }
+        if (remainder != null) {
+            remainder.high = rHigh;
+            remainder.low = rLow;
+            if (negativeRemainder) {
+                Negate(remainder);
+            }
+        }
+        return overflow;
+    }
+
+    public int signum() {
+        return high < 0 ? -1 : (high == 0 && low == 0 ? 0 : 1);
+    }
+
+    public boolean isZero() {
+        return high == 0 && low == 0;
+    }
+
+    public boolean fitsLong() {
+        return high == low >> 63;
+    }
+
+    @Override
+    public int compareTo(Int128 other) {
+        int cmp = Long.compare(high, other.high);
+        return cmp != 0 ? cmp : Long.compareUnsigned(low, other.low);
+    }
+
+    public BigInteger toBigInteger() {
+        return BigInteger.valueOf(high).shiftLeft(64).add(new BigInteger(Long.toUnsignedString(low)));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof Int128)) {
+            return false;
+        }
+        Int128 other = (Int128) o;
+        return high == other.high && low == other.low;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(high) * 31 + Long.hashCode(low);
+    }
+
+    @Override
+    public String toString() {
+        return toBigInteger().toString();
+    }
+
+    /**
+     * High 64 bits of the unsigned 128 bit product of a and b
+     */
+    public static long MultiplyHighUnsigned(long a, long b) {
+        long aLow = a & 0xFFFFFFFFL;
+        long aHigh = a >>> 32;
+        long bLow = b & 0xFFFFFFFFL;
+        long bHigh = b >>> 32;
+
+        long t = aHigh * bLow + ((aLow * bLow) >>> 32);
+        long w = (t & 0xFFFFFFFFL) + aLow * bHigh;
+        return aHigh * bHigh + (t >>> 32) + (w >>> 32);
+    }
+}
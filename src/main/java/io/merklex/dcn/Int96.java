@@ -0,0 +1,90 @@
+package io.merklex.dcn;
+
+import java.math.BigInteger;
+
+/**
+ * Signed 96 bit integer as used for MarketState quote_shift and base_shift, the high word
+ * always holds the sign extended upper 32 bits. Results wrap to 96 bits like signextend(11, x).
+ */
+public class Int96 extends Int128 {
+    public Int96() {
+    }
+
+    public Int96(long value) {
+        set(value);
+    }
+
+    public Int96(int major, long minor) {
+        set(major, minor);
+    }
+
+    /**
+     * Upper 32 bits, the layout of UpdateLimits quote_shift_major / base_shift_major
+     */
+    public int major() {
+        return (int) high;
+    }
+
+    public long minor() {
+        return low;
+    }
+
+    @Override
+    public int bits() {
+        return 96;
+    }
+
+    @Override
+    public Int96 set(long value) {
+        return (Int96) super.set(value);
+    }
+
+    @Override
+    public Int96 set(long high, long low) {
+        if (high != (int) high) {
+            throw new ArithmeticException("High word " + high + " does not fit int96");
+        }
+        return (Int96) super.set(high, low);
+    }
+
+    @Override
+    public Int96 set(Int128 other) {
+        return set(other.high, other.low);
+    }
+
+    @Override
+    public Int96 set(BigInteger value) {
+        return (Int96) super.set(value);
+    }
+
+    @Override
+    protected boolean add(long otherHigh, long otherLow) {
+        return wrap(super.add(otherHigh, otherLow));
+    }
+
+    @Override
+    protected boolean sub(long otherHigh, long otherLow) {
+        return wrap(super.sub(otherHigh, otherLow));
+    }
+
+    @Override
+    protected boolean mul(long otherHigh, long otherLow) {
+        return wrap(super.mul(otherHigh, otherLow));
+    }
+
+    @Override
+    public boolean negate() {
+        return wrap(super.negate());
+    }
+
+    @Override
+    public boolean divRem(Int128 divisor, Int128 remainder) {
+        return wrap(super.divRem(divisor, remainder));
+    }
+
+    private boolean wrap(boolean overflow) {
+        boolean fits = high == (int) high;
+        high = (int) high;
+        return overflow || !fits;
+    }
+}
@@ -0,0 +1,323 @@
+package io.merklex.dcn;
+
+import io.merklex.dcn.contracts.DCN;
+import io.merklex.dcn.storage.StorageDecoder;
+import io.merklex.dcn.storage.StorageReader;
+import io.merklex.dcn.storage.StorageSlots;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.web3j.crypto.Credentials;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.utils.Numeric;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.LongFunction;
+
+/**
+ * Plans exchange_set_limits transactions from the limits an exchange wants in place.
+ * <p>
+ * Desired limits are diffed against the market states read from storage in one batch,
+ * only markets where a limit or shift differs get a new update, signed with the next
+ * limit_version. Signing is spread over a thread pool and the signed updates are packed
+ * into payloads bounded by a gas budget, an update is charged for the storage writes it
+ * actually causes.
+ */
+public class LimitUpdatePlanner {
+    public static final long DEFAULT_GAS_BUDGET = 6_000_000;
+    public static final int DEFAULT_PARALLELISM = Runtime.getRuntime().availableProcessors();
+
+    /* upper bounds of the gas used by exchange_set_limits */
+    public static final long TRANSACTION_GAS = 30_000;
+    public static final long UPDATE_GAS = 15_000;
+    public static final long SSTORE_SET_GAS = 20_000;
+    public static final long SSTORE_RESET_GAS = 5_000;
+
+    private final StorageReader reader;
+    private final int dcnId;
+    private final int exchangeId;
+    private final DCNHasher hasher;
+    private final long gasBudget;
+    private final int parallelism;
+    private final List<Limit> limits = new ArrayList<>();
+
+    public LimitUpdatePlanner(StorageReader reader, int dcnId, int exchangeId) {
+        this(reader, dcnId, exchangeId, DCNHasher.instance, DEFAULT_GAS_BUDGET, DEFAULT_PARALLELISM);
+    }
+
+    public LimitUpdatePlanner(StorageReader reader, int dcnId, int exchangeId, DCNHasher hasher,
+                              long gasBudget, int parallelism) {
+        if (gasBudget < TRANSACTION_GAS + UpdateGas(BigInteger.ZERO, BigInteger.ZERO, BigInteger.ZERO)) {
+            throw new IllegalArgumentException("Gas budget " + gasBudget + " does not fit a single update");
+        }
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Invalid parallelism " + parallelism);
+        }
+        this.reader = reader;
+        this.dcnId = dcnId;
+        this.exchangeId = exchangeId;
+        this.hasher = hasher;
+        this.gasBudget = gasBudget;
+        this.parallelism = parallelism;
+    }
+
+    public LimitUpdatePlanner add(Limit limit) {
+        limits.add(limit);
+        return this;
+    }
+
+    public int limitCount() {
+        return limits.size();
+    }
+
+    public void clear() {
+        limits.clear();
+    }
+
+    /**
+     * @param signers Trade key of a user, the key of the session's trade_address
+     * @param block Block the current market states are read at
+     */
+    public Plan plan(LongFunction<Credentials> signers, DefaultBlockParameter block)
+            throws IOException, InterruptedException {
+        BigInteger[] slots = new BigInteger[limits.size() * 3];
+        for (int i = 0; i < limits.size(); i++) {
+            Limit limit = limits.get(i);
+            BigInteger slot = StorageSlots.MarketState(limit.userId, exchangeId, limit.quoteAssetId, limit.baseAssetId);
+            slots[i * 3] = slot;
+            slots[i * 3 + 1] = slot.add(BigInteger.ONE);
+            slots[i * 3 + 2] = slot.add(BigInteger.valueOf(2));
+        }
+        BigInteger[] words = reader.read(slots, block);
+
+        List<Limit> changed = new ArrayList<>();
+        List<Long> versions = new ArrayList<>();
+        List<Long> gas = new ArrayList<>();
+        for (int i = 0; i < limits.size(); i++) {
+            Limit limit = limits.get(i);
+            DCN.GetMarketStateReturnValue current = StorageDecoder.MarketState(
+                    words[i * 3], words[i * 3 + 1], words[i * 3 + 2]);
+            if (limit.matches(current)) {
+                continue;
+            }
+            if (current.limit_version == -1L) {
+                throw new IllegalStateException("Limit version exhausted for user " + limit.userId);
+            }
+            changed.add(limit);
+            versions.add(current.limit_version + 1);
+            gas.add(UpdateGas(words[i * 3], words[i * 3 + 1], words[i * 3 + 2]));
+        }
+
+        byte[] updates = new byte[changed.size() * UpdateLimits.LimitUpdate.BYTES];
+        sign(changed, versions, signers, new UnsafeBuffer(updates));
+
+        List<Payload> payloads = new ArrayList<>();
+        int first = 0;
+        long payloadGas = TRANSACTION_GAS;
+        for (int i = 0; i < changed.size(); i++) {
+            if (payloadGas + gas.get(i) > gasBudget) {
+                payloads.add(new Payload(exchangeId, updates, first, i, payloadGas));
+                first = i;
+                payloadGas = TRANSACTION_GAS;
+            }
+            payloadGas += gas.get(i);
+        }
+        if (first < changed.size()) {
+            payloads.add(new Payload(exchangeId, updates, first, changed.size(), payloadGas));
+        }
+
+        return new Plan(payloads, limits.size() - changed.size());
+    }
+
+    private void sign(List<Limit> changed, List<Long> versions, LongFunction<Credentials> signers,
+                      UnsafeBuffer buffer) throws InterruptedException {
+        int threads = Math.min(parallelism, changed.size());
+        if (threads == 0) {
+            return;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "dcn-limit-sign");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            List<Future<?>> tasks = new ArrayList<>(threads);
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                tasks.add(executor.submit(() -> {
+                    UpdateLimits.LimitUpdate update = new UpdateLimits.LimitUpdate();
+                    for (int i = thread; i < changed.size(); i += threads) {
+                        Limit limit = changed.get(i);
+                        Credentials credentials = signers.apply(limit.userId);
+                        if (credentials == null) {
+                            throw new IllegalArgumentException("No trade key for user " + limit.userId);
+                        }
+
+                        update.wrap(buffer, i * UpdateLimits.LimitUpdate.BYTES)
+                                .dcnId(dcnId)
+                                .userId(limit.userId)
+                                .exchangeId(exchangeId)
+                                .quoteAssetId(limit.quoteAssetId)
+                                .baseAssetId(limit.baseAssetId)
+                                .feeLimit(limit.feeLimit)
+                                .minQuoteQty(limit.minQuoteQty)
+                                .minBaseQty(limit.minBaseQty)
+                                .longMaxPrice(limit.longMaxPrice)
+                                .shortMinPrice(limit.shortMinPrice)
+                                .limitVersion(versions.get(i))
+                                .quoteShift(limit.quoteShift)
+                                .baseShift(limit.baseShift)
+                                .sign(credentials, hasher);
+                    }
+                }));
+            }
+
+            for (Future<?> task : tasks) {
+                try {
+                    task.get();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof RuntimeException) {
+                        throw (RuntimeException) cause;
+                    }
+                    throw new IllegalStateException("Failed to sign limit update", cause);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Gas of one update given the market state words it overwrites. The new words are never
+     * zero: word 1 carries the user's limits and word 2 the bumped limit_version.
+     */
+    private static long UpdateGas(BigInteger word0, BigInteger word1, BigInteger word2) {
+        return UPDATE_GAS
+                + (word0.signum() == 0 ? SSTORE_SET_GAS : SSTORE_RESET_GAS)
+                + (word1.signum() == 0 ? SSTORE_SET_GAS : SSTORE_RESET_GAS)
+                + (word2.signum() == 0 ? SSTORE_SET_GAS : SSTORE_RESET_GAS);
+    }
+
+    /**
+     * Limits an exchange wants in place for one market of a user
+     */
+    public static class Limit {
+        public long userId;
+        public int quoteAssetId;
+        public int baseAssetId;
+        public long feeLimit;
+        public long minQuoteQty;
+        public long minBaseQty;
+        public long longMaxPrice;
+        public long shortMinPrice;
+        public BigInteger quoteShift = BigInteger.ZERO;
+        public BigInteger baseShift = BigInteger.ZERO;
+
+        public Limit userId(long value) {
+            this.userId = value;
+            return this;
+        }
+
+        public Limit quoteAssetId(int value) {
+            this.quoteAssetId = value;
+            return this;
+        }
+
+        public Limit baseAssetId(int value) {
+            this.baseAssetId = value;
+            return this;
+        }
+
+        public Limit feeLimit(long value) {
+            this.feeLimit = value;
+            return this;
+        }
+
+        public Limit minQuoteQty(long value) {
+            this.minQuoteQty = value;
+            return this;
+        }
+
+        public Limit minBaseQty(long value) {
+            this.minBaseQty = value;
+            return this;
+        }
+
+        public Limit longMaxPrice(long value) {
+            this.longMaxPrice = value;
+            return this;
+        }
+
+        public Limit shortMinPrice(long value) {
+            this.shortMinPrice = value;
+            return this;
+        }
+
+        public Limit quoteShift(BigInteger value) {
+            this.quoteShift = value;
+            return this;
+        }
+
+        public Limit baseShift(BigInteger value) {
+            this.baseShift = value;
+            return this;
+        }
+
+        public boolean matches(DCN.GetMarketStateReturnValue state) {
+            return feeLimit == state.fee_limit
+                    && minQuoteQty == state.min_quote_qty
+                    && minBaseQty == state.min_base_qty
+                    && longMaxPrice == state.long_max_price
+                    && shortMinPrice == state.short_min_price
+                    && quoteShift.equals(state.quote_shift)
+                    && baseShift.equals(state.base_shift);
+        }
+    }
+
+    public static class Plan {
+        public final List<Payload> payloads;
+        public final int unchanged;
+
+        Plan(List<Payload> payloads, int unchanged) {
+            this.payloads = payloads;
+            this.unchanged = unchanged;
+        }
+
+        public int updateCount() {
+            int count = 0;
+            for (Payload payload : payloads) {
+                count += payload.updates;
+            }
+            return count;
+        }
+    }
+
+    public static class Payload {
+        public final byte[] data;
+        public final int updates;
+        public final long gasEstimate;
+
+        Payload(int exchangeId, byte[] signed, int from, int to, long gasEstimate) {
+            this.updates = to - from;
+            this.data = new byte[new UpdateLimits().bytes(updates)];
+            this.gasEstimate = gasEstimate;
+
+            UnsafeBuffer buffer = new UnsafeBuffer(data);
+            new UpdateLimits().wrap(buffer, 0).exchangeId(exchangeId);
+            buffer.putBytes(Integer.BYTES, signed,
+                    from * UpdateLimits.LimitUpdate.BYTES, updates * UpdateLimits.LimitUpdate.BYTES);
+        }
+
+        public String payload() {
+            return Numeric.toHexString(data);
+        }
+    }
+}
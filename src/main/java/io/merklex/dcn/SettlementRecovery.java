@@ -0,0 +1,265 @@
+package io.merklex.dcn;
+
+import io.merklex.dcn.contracts.DCN;
+import io.merklex.web3.EtherTransactions;
+import io.merklex.web3.RevertCodeExtractor;
+import org.web3j.abi.FunctionEncoder;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.request.Transaction;
+import org.web3j.protocol.core.methods.response.EthCall;
+import org.web3j.protocol.core.methods.response.EthSendTransaction;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Recovers a reverting exchange_apply_settlement_groups batch. Subsets of the batch are
+ * dry-run with eth_call, both halves of every failing range at once, until each failing
+ * range is down to one group. Those groups are quarantined with their revert code and the
+ * remaining groups are submitted as one batch.
+ * <p>
+ * Halves are checked against chain state on their own, so a group that only succeeds after
+ * an earlier group of the same batch is quarantined as well. The remainder is always dry-run
+ * as a whole before it is submitted, when groups only revert in combination the group that
+ * tips the batch over is found by bisecting prefixes.
+ */
+public class SettlementRecovery {
+    private final EtherTransactions exchange;
+    private final String dcnAddress;
+    private DefaultBlockParameter block = DefaultBlockParameterName.LATEST;
+
+    public SettlementRecovery(EtherTransactions exchange, String dcnAddress) {
+        this.exchange = exchange;
+        this.dcnAddress = dcnAddress;
+    }
+
+    /**
+     * Block the dry-runs execute against, latest by default
+     */
+    public SettlementRecovery block(DefaultBlockParameter block) {
+        this.block = block;
+        return this;
+    }
+
+    /**
+     * Finds the groups that make the batch revert, nothing is submitted
+     */
+    public Result isolate(Settlements settlements, int groups) throws IOException {
+        return isolate(GroupIndex.Settlements().index(settlements, groups));
+    }
+
+    /**
+     * Isolates the reverting groups and submits the rest
+     */
+    public Result recover(Settlements settlements, int groups) throws IOException {
+        Result result = isolate(GroupIndex.Settlements().index(settlements, groups));
+        if (result.healthyGroups.length > 0) {
+            result.submitted = exchange.sendCall(dcnAddress,
+                    DCN.exchange_apply_settlement_groups(result.healthyPayload));
+        }
+        return result;
+    }
+
+    private Result isolate(GroupIndex batch) throws IOException {
+        AtomicInteger calls = new AtomicInteger();
+        List<Quarantined> quarantined = new ArrayList<>();
+
+        int[] remaining = new int[batch.groupCount()];
+        for (int i = 0; i < remaining.length; i++) {
+            remaining[i] = i;
+        }
+        int count = remaining.length;
+
+        String code = count == 0 ? null : Await(dryRun(batch, remaining, 0, count, calls));
+        while (code != null) {
+            boolean[] bad = new boolean[batch.groupCount()];
+            for (Quarantined group : bisect(batch, remaining, count, code, calls)) {
+                bad[group.group] = true;
+                quarantined.add(group);
+            }
+
+            int kept = 0;
+            for (int i = 0; i < count; i++) {
+                if (!bad[remaining[i]]) {
+                    remaining[kept++] = remaining[i];
+                }
+            }
+            count = kept;
+
+            code = count == 0 ? null : Await(dryRun(batch, remaining, 0, count, calls));
+        }
+
+        quarantined.sort((a, b) -> Integer.compare(a.group, b.group));
+        int[] healthy = new int[count];
+        System.arraycopy(remaining, 0, healthy, 0, count);
+        return new Result(healthy, count == 0 ? null : batch.payload(remaining, 0, count),
+                quarantined, calls.get());
+    }
+
+    /**
+     * Narrows the failing range [0, count) of groups down to the groups that revert, one
+     * round of parallel dry-runs per halving
+     */
+    private List<Quarantined> bisect(GroupIndex batch, int[] groups, int count, String code, AtomicInteger calls)
+            throws IOException {
+        List<Quarantined> quarantined = new ArrayList<>();
+        List<Range> failing = new ArrayList<>();
+        failing.add(new Range(0, count, code));
+
+        while (!failing.isEmpty()) {
+            List<Range> split = new ArrayList<>();
+            List<CompletableFuture<String>> left = new ArrayList<>();
+            List<CompletableFuture<String>> right = new ArrayList<>();
+
+            for (Range range : failing) {
+                if (range.to - range.from == 1) {
+                    quarantined.add(new Quarantined(groups[range.from], range.code));
+                    continue;
+                }
+                int mid = (range.from + range.to) >>> 1;
+                split.add(range);
+                left.add(dryRun(batch, groups, range.from, mid, calls));
+                right.add(dryRun(batch, groups, mid, range.to, calls));
+            }
+
+            failing = new ArrayList<>();
+            for (int i = 0; i < split.size(); i++) {
+                Range range = split.get(i);
+                int mid = (range.from + range.to) >>> 1;
+                String leftCode = Await(left.get(i));
+                String rightCode = Await(right.get(i));
+
+                if (leftCode != null) {
+                    failing.add(new Range(range.from, mid, leftCode));
+                }
+                if (rightCode != null) {
+                    failing.add(new Range(mid, range.to, rightCode));
+                }
+                if (leftCode == null && rightCode == null) {
+                    quarantined.add(tippingGroup(batch, groups, range, mid, calls));
+                }
+            }
+        }
+        return quarantined;
+    }
+
+    /**
+     * Both halves of range pass on their own but not together, the shortest failing prefix
+     * ends with the group that tips it over
+     */
+    private Quarantined tippingGroup(GroupIndex batch, int[] groups, Range range, int passing, AtomicInteger calls)
+            throws IOException {
+        int failing = range.to;
+        String code = range.code;
+        while (failing - passing > 1) {
+            int mid = (passing + failing) >>> 1;
+            String midCode = Await(dryRun(batch, groups, range.from, mid, calls));
+            if (midCode == null) {
+                passing = mid;
+            } else {
+                failing = mid;
+                code = midCode;
+            }
+        }
+        return new Quarantined(groups[failing - 1], code);
+    }
+
+    /**
+     * @return the revert code, null if the groups apply
+     */
+    private CompletableFuture<String> dryRun(GroupIndex batch, int[] groups, int from, int to, AtomicInteger calls) {
+        calls.incrementAndGet();
+        String data = FunctionEncoder.encode(DCN.exchange_apply_settlement_groups(batch.payload(groups, from, to)));
+        return exchange.getWeb3()
+                .ethCall(Transaction.createEthCallTransaction(exchange.getAddress(), dcnAddress, data), block)
+                .sendAsync()
+                .thenApply(SettlementRecovery::RevertCode);
+    }
+
+    private static String RevertCode(EthCall call) {
+        if (!call.hasError()) {
+            return call.reverts() ? call.getRevertReason() : null;
+        }
+
+        Response.Error error = call.getError();
+        try {
+            return RevertCodeExtractor.GetRevert(error);
+        } catch (Exception e) {
+            return error.getMessage();
+        }
+    }
+
+    private static <T> T Await(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted waiting for a dry-run", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private static class Range {
+        final int from;
+        final int to;
+        final String code;
+
+        Range(int from, int to, String code) {
+            this.from = from;
+            this.to = to;
+            this.code = code;
+        }
+    }
+
+    public static class Quarantined {
+        /**
+         * Index of the group in the original batch
+         */
+        public final int group;
+        public final String revertCode;
+
+        Quarantined(int group, String revertCode) {
+            this.group = group;
+            this.revertCode = revertCode;
+        }
+
+        @Override
+        public String toString() {
+            return "group " + group + ": " + revertCode;
+        }
+    }
+
+    public static class Result {
+        /**
+         * Indexes of the groups that apply together, in batch order
+         */
+        public final int[] healthyGroups;
+        /**
+         * exchange_apply_settlement_groups data of the healthy groups, null when there are none
+         */
+        public final String healthyPayload;
+        public final List<Quarantined> quarantined;
+        public final int dryRuns;
+        /**
+         * Set by {@link #recover(Settlements, int)} when healthy groups were submitted
+         */
+        public EthSendTransaction submitted;
+
+        Result(int[] healthyGroups, String healthyPayload, List<Quarantined> quarantined, int dryRuns) {
+            this.healthyGroups = healthyGroups;
+            this.healthyPayload = healthyPayload;
+            this.quarantined = quarantined;
+            this.dryRuns = dryRuns;
+        }
+    }
+}
@@ -26,6 +26,20 @@ public class Settlements extends Settlement.GroupsHeader {
         );
     }
 
+    /**
+     * Group at any position, index built over this payload
+     */
+    public Group group(GroupIndex index, int group, Group flyweight) {
+        return flyweight.wrap(messageMemoryBuffer(), index.groupOffset(group));
+    }
+
+    /**
+     * Settlement at any position counting across groups, index built over this payload
+     */
+    public SettlementData settlement(GroupIndex index, int settlement, SettlementData flyweight) {
+        return flyweight.wrap(messageMemoryBuffer(), index.recordOffset(settlement));
+    }
+
     public String payload(int groups) {
         return BufferToHex.ToHex(messageMemoryBuffer(), messageMemoryOffset(), bytes(groups, new Group()));
     }
@@ -35,7 +49,7 @@ public class Settlements extends Settlement.GroupsHeader {
         firstGroup(group);
 
         for (int i = 0; i < groups; i++) {
-            settlements += group.userCount();
+            settlements += Byte.toUnsignedInt(group.userCount());
             group.nextGroup(group);
         }
 
@@ -96,7 +110,7 @@ public class Settlements extends Settlement.GroupsHeader {
         }
 
         public int size() {
-            return Group.BYTES + SettlementData.BYTES * userCount();
+            return Group.BYTES + SettlementData.BYTES * Byte.toUnsignedInt(userCount());
         }
     }
 
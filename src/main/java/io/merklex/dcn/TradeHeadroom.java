@@ -0,0 +1,411 @@
+package io.merklex.dcn;
+
+import io.merklex.dcn.contracts.DCN;
+
+import java.util.Arrays;
+
+/**
+ * Local view of the market states of one exchange to tell how much more a user can trade
+ * before a settlement would fail the limit checks of exchange_apply_settlement_groups,
+ * REVERT(7) to REVERT(12) and the fee_limit check REVERT(8).
+ * <p>
+ * Markets are addressed by a dense slot returned from {@link #put} and {@link #slot}, the
+ * state of every slot lives in a single long[] so queries do not allocate. Fills are applied
+ * with {@link #apply} as they are matched and the market is reloaded with {@link #put} once
+ * the settlement is on chain. Not thread safe, meant to be owned by the matching thread.
+ */
+public class TradeHeadroom {
+    public static final long PRICE_UNITS = 100_000_000L;
+
+    private static final int QUOTE_QTY = 0;
+    private static final int BASE_QTY = 1;
+    private static final int FEE_USED = 2;
+    private static final int FEE_LIMIT = 3;
+    private static final int MIN_QUOTE_QTY = 4;
+    private static final int MIN_BASE_QTY = 5;
+    private static final int LONG_MAX_PRICE = 6;
+    private static final int SHORT_MIN_PRICE = 7;
+    private static final int STRIDE = 8;
+
+    private static final long MASK_32 = 0xFFFFFFFFL;
+
+    private final int exchangeId;
+
+    private long[] keyUsers;
+    private long[] keyMarkets;
+    private int[] keySlots;
+    private int mask;
+
+    private long[] state;
+    private int size;
+
+    public TradeHeadroom(int exchangeId) {
+        this(exchangeId, 1024);
+    }
+
+    public TradeHeadroom(int exchangeId, int expectedMarkets) {
+        if (expectedMarkets <= 0) {
+            throw new IllegalArgumentException("Invalid expected markets " + expectedMarkets);
+        }
+        this.exchangeId = exchangeId;
+
+        int capacity = Integer.highestOneBit(Math.max(expectedMarkets * 2 - 1, 1)) << 1;
+        keyUsers = new long[capacity];
+        keyMarkets = new long[capacity];
+        keySlots = new int[capacity];
+        Arrays.fill(keySlots, -1);
+        mask = capacity - 1;
+        state = new long[expectedMarkets * STRIDE];
+    }
+
+    public int exchangeId() {
+        return exchangeId;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return slot of the market or -1 if it was never put
+     */
+    public int slot(long userId, int quoteAssetId, int baseAssetId) {
+        long market = Market(quoteAssetId, baseAssetId);
+        for (int i = Hash(userId, market) & mask; ; i = (i + 1) & mask) {
+            int slot = keySlots[i];
+            if (slot == -1) {
+                return -1;
+            }
+            if (keyUsers[i] == userId && keyMarkets[i] == market) {
+                return slot;
+            }
+        }
+    }
+
+    /**
+     * Loads or replaces a market state, e.g. as read with get_market_state or StorageReader
+     *
+     * @return slot of the market, stable for the life of this instance
+     */
+    public int put(long userId, int quoteAssetId, int baseAssetId,
+                   long quoteQty, long baseQty, long feeUsed, long feeLimit,
+                   long minQuoteQty, long minBaseQty, long longMaxPrice, long shortMinPrice) {
+        int slot = slot(userId, quoteAssetId, baseAssetId);
+        if (slot == -1) {
+            slot = insert(userId, Market(quoteAssetId, baseAssetId));
+        }
+
+        int base = slot * STRIDE;
+        state[base + QUOTE_QTY] = quoteQty;
+        state[base + BASE_QTY] = baseQty;
+        state[base + FEE_USED] = feeUsed;
+        state[base + FEE_LIMIT] = feeLimit;
+        state[base + MIN_QUOTE_QTY] = minQuoteQty;
+        state[base + MIN_BASE_QTY] = minBaseQty;
+        state[base + LONG_MAX_PRICE] = longMaxPrice;
+        state[base + SHORT_MIN_PRICE] = shortMinPrice;
+        return slot;
+    }
+
+    public int put(long userId, int quoteAssetId, int baseAssetId, DCN.GetMarketStateReturnValue marketState) {
+        return put(userId, quoteAssetId, baseAssetId,
+                marketState.quote_qty, marketState.base_qty, marketState.fee_used, marketState.fee_limit,
+                marketState.min_quote_qty, marketState.min_base_qty,
+                marketState.long_max_price, marketState.short_min_price);
+    }
+
+    public long quoteQty(int slot) {
+        return state[slot * STRIDE + QUOTE_QTY];
+    }
+
+    public long baseQty(int slot) {
+        return state[slot * STRIDE + BASE_QTY];
+    }
+
+    public long feeUsed(int slot) {
+        return state[slot * STRIDE + FEE_USED];
+    }
+
+    /**
+     * @return fees the user can still be charged in this market (unsigned)
+     */
+    public long feeHeadroom(int slot) {
+        int base = slot * STRIDE;
+        long used = state[base + FEE_USED];
+        long limit = state[base + FEE_LIMIT];
+        return Long.compareUnsigned(used, limit) >= 0 ? 0 : limit - used;
+    }
+
+    /**
+     * Applies a matched fill, the same deltas that will be sent in the settlement
+     */
+    public void apply(int slot, long quoteDelta, long baseDelta, long fees) {
+        int base = slot * STRIDE;
+        state[base + QUOTE_QTY] += quoteDelta;
+        state[base + BASE_QTY] += baseDelta;
+        state[base + FEE_USED] += fees;
+    }
+
+    /**
+     * @return true if a settlement with these deltas would pass the market state checks
+     */
+    public boolean canApply(int slot, long quoteDelta, long baseDelta, long fees) {
+        int base = slot * STRIDE;
+        long[] s = state;
+
+        if (!FeesFit(s, base, fees)) {
+            return false;
+        }
+
+        long quoteQty = s[base + QUOTE_QTY] + quoteDelta;
+        long baseQty = s[base + BASE_QTY] + baseDelta;
+        if (Overflows(s[base + QUOTE_QTY], quoteDelta, quoteQty) || Overflows(s[base + BASE_QTY], baseDelta, baseQty)) {
+            return false;
+        }
+
+        return Valid(s, base, quoteQty, baseQty);
+    }
+
+    /**
+     * Largest base quantity the user can buy at price in addition to their position, the quote
+     * cost of a fill is ceil(qty * price / PRICE_UNITS). Fills are charged no fees.
+     * <p>
+     * The search runs separately while the position closes and after it flips side, the checks
+     * are monotone within each. A position that fails its checks where a stretch starts ends the
+     * search, so the result is conservative and always settles.
+     */
+    public long maxLong(int slot, long price) {
+        return maxFill(slot, price, true);
+    }
+
+    /**
+     * Largest base quantity the user can sell at price in addition to their position, the quote
+     * received for a fill is floor(qty * price / PRICE_UNITS). See {@link #maxLong}.
+     */
+    public long maxShort(int slot, long price) {
+        return maxFill(slot, price, false);
+    }
+
+    private long maxFill(int slot, long price, boolean buy) {
+        if (price <= 0) {
+            throw new IllegalArgumentException("Invalid price " + price);
+        }
+
+        int base = slot * STRIDE;
+        long baseQty = state[base + BASE_QTY];
+
+        /* base_qty must stay above min_base_qty and within i64 */
+        long bound;
+        if (buy) {
+            bound = Long.MAX_VALUE - Math.max(baseQty, 0);
+
+            /* quote_qty must stay above min_quote_qty, ceil(q * price / PRICE_UNITS) <= room */
+            long quoteQty = state[base + QUOTE_QTY];
+            long minQuote = state[base + MIN_QUOTE_QTY];
+            if (quoteQty < minQuote) {
+                return 0;
+            }
+            long room = quoteQty - minQuote;
+            if (Int128.MultiplyHighUnsigned(room, PRICE_UNITS) == 0) {
+                bound = Math.min(bound, Long.divideUnsigned(room * PRICE_UNITS, price));
+            }
+        }
+        else {
+            long minBase = state[base + MIN_BASE_QTY];
+            /* exact as unsigned since baseQty >= minBase */
+            long room = baseQty - minBase;
+            bound = baseQty < minBase ? 0 : (room < 0 ? Long.MAX_VALUE : room);
+        }
+
+        /* the side of the position flips once base_qty passes zero */
+        long flip;
+        if (buy) {
+            flip = baseQty == Long.MIN_VALUE ? Long.MAX_VALUE : Math.max(-baseQty, 0);
+        }
+        else {
+            flip = Math.max(baseQty, 0);
+        }
+
+        long done = 0;
+        if (flip > 0) {
+            long end = Math.min(flip, bound);
+            done = search(base, price, buy, 0, end);
+            if (done < end) {
+                return done;
+            }
+        }
+        return done < bound ? search(base, price, buy, done, bound) : done;
+    }
+
+    /**
+     * @return largest qty in [from, to] passing the checks, from if none after it does
+     */
+    private long search(int base, long price, boolean buy, long from, long to) {
+        if (!fits(base, price, buy, from)) {
+            return from;
+        }
+
+        long lo = from;
+        long hi = to;
+        while (lo < hi) {
+            long mid = lo + ((hi - lo + 1) >>> 1);
+            if (fits(base, price, buy, mid)) {
+                lo = mid;
+            }
+            else {
+                hi = mid - 1;
+            }
+        }
+        return lo;
+    }
+
+    private boolean fits(int base, long price, boolean buy, long qty) {
+        if (qty == 0) {
+            return true;
+        }
+
+        long quoteAmount = MulDiv(qty, price, PRICE_UNITS, buy);
+        if (quoteAmount < 0) {
+            return false;
+        }
+
+        long[] s = state;
+        long quoteDelta = buy ? -quoteAmount : quoteAmount;
+        long baseDelta = buy ? qty : -qty;
+        long quoteQty = s[base + QUOTE_QTY] + quoteDelta;
+        long baseQty = s[base + BASE_QTY] + baseDelta;
+        if (Overflows(s[base + QUOTE_QTY], quoteDelta, quoteQty) || Overflows(s[base + BASE_QTY], baseDelta, baseQty)) {
+            return false;
+        }
+
+        return FeesFit(s, base, 0) && Valid(s, base, quoteQty, baseQty);
+    }
+
+    /* fee_used + fees <= fee_limit, fails even without fees once a lowered limit is below fee_used */
+    private static boolean FeesFit(long[] s, int base, long fees) {
+        long used = s[base + FEE_USED];
+        long limit = s[base + FEE_LIMIT];
+        return Long.compareUnsigned(used, limit) <= 0 && Long.compareUnsigned(fees, limit - used) <= 0;
+    }
+
+    /* the min_qty and price checks of exchange_apply_settlement_groups on a resulting position */
+    private static boolean Valid(long[] s, int base, long quoteQty, long baseQty) {
+        if (quoteQty < s[base + MIN_QUOTE_QTY] || baseQty < s[base + MIN_BASE_QTY]) {
+            return false;
+        }
+
+        if (quoteQty <= 0 && baseQty <= 0) {
+            return quoteQty == 0 && baseQty == 0;
+        }
+
+        /* long: -quote_qty * PRICE_UNITS / base_qty <= long_max_price */
+        if (quoteQty <= 0) {
+            long longMaxPrice = s[base + LONG_MAX_PRICE];
+            return longMaxPrice == -1L
+                    || CompareProducts(-quoteQty, PRICE_UNITS, longMaxPrice + 1, baseQty) < 0;
+        }
+
+        /* short: quote_qty * PRICE_UNITS / -base_qty >= short_min_price */
+        if (baseQty < 0) {
+            return CompareProducts(quoteQty, PRICE_UNITS, s[base + SHORT_MIN_PRICE], -baseQty) >= 0;
+        }
+
+        return true;
+    }
+
+    private int insert(long userId, long market) {
+        if ((size + 1) * 2 > keySlots.length) {
+            rehash(keySlots.length * 2);
+        }
+        if ((size + 1) * STRIDE > state.length) {
+            state = Arrays.copyOf(state, state.length * 2);
+        }
+
+        int slot = size++;
+        int i = Hash(userId, market) & mask;
+        while (keySlots[i] != -1) {
+            i = (i + 1) & mask;
+        }
+        keyUsers[i] = userId;
+        keyMarkets[i] = market;
+        keySlots[i] = slot;
+        return slot;
+    }
+
+    private void rehash(int capacity) {
+        long[] users = keyUsers;
+        long[] markets = keyMarkets;
+        int[] slots = keySlots;
+
+        keyUsers = new long[capacity];
+        keyMarkets = new long[capacity];
+        keySlots = new int[capacity];
+        Arrays.fill(keySlots, -1);
+        mask = capacity - 1;
+
+        for (int j = 0; j < slots.length; j++) {
+            if (slots[j] == -1) {
+                continue;
+            }
+            int i = Hash(users[j], markets[j]) & mask;
+            while (keySlots[i] != -1) {
+                i = (i + 1) & mask;
+            }
+            keyUsers[i] = users[j];
+            keyMarkets[i] = markets[j];
+            keySlots[i] = slots[j];
+        }
+    }
+
+    private static long Market(int quoteAssetId, int baseAssetId) {
+        return (Integer.toUnsignedLong(quoteAssetId) << 32) | Integer.toUnsignedLong(baseAssetId);
+    }
+
+    private static int Hash(long userId, long market) {
+        long h = userId * 0x9E3779B97F4A7C15L ^ market;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    private static boolean Overflows(long a, long b, long sum) {
+        return ((a ^ sum) & (b ^ sum)) < 0;
+    }
+
+    /**
+     * Compares the unsigned 128 bit products a * b and c * d
+     */
+    static int CompareProducts(long a, long b, long c, long d) {
+        int high = Long.compareUnsigned(Int128.MultiplyHighUnsigned(a, b), Int128.MultiplyHighUnsigned(c, d));
+        return high != 0 ? high : Long.compareUnsigned(a * b, c * d);
+    }
+
+    /**
+     * @return a * b / divisor of unsigned a and b, rounded up or down, -1 if the result does not fit an i64.
+     * divisor must be below 2^31.
+     */
+    static long MulDiv(long a, long b, long divisor, boolean roundUp) {
+        long high = Int128.MultiplyHighUnsigned(a, b);
+        long low = a * b;
+        if (Long.compareUnsigned(high, divisor) >= 0) {
+            return -1;
+        }
+
+        /* long division by 32 bit digits, divisor < 2^31 keeps every step within 63 bits */
+        long remainder = high;
+        long q1 = ((remainder << 32) | (low >>> 32)) / divisor;
+        remainder = ((remainder << 32) | (low >>> 32)) % divisor;
+        long q0 = ((remainder << 32) | (low & MASK_32)) / divisor;
+        remainder = ((remainder << 32) | (low & MASK_32)) % divisor;
+
+        if ((q1 >>> 31) != 0) {
+            return -1;
+        }
+        long quotient = (q1 << 32) + q0;
+        if (roundUp && remainder != 0) {
+            quotient++;
+        }
+        return quotient < 0 ? -1 : quotient;
+    }
+}
@@ -18,6 +18,20 @@ public class Transfers extends ExchangeTransferFrom.ExchangeTransfersHeader {
         return group.wrap(messageMemoryBuffer(), messageMemoryOffset() + BYTES);
     }
 
+    /**
+     * Group at any position, index built over this payload
+     */
+    public Group group(GroupIndex index, int group, Group flyweight) {
+        return flyweight.wrap(messageMemoryBuffer(), index.groupOffset(group));
+    }
+
+    /**
+     * Transfer at any position counting across groups, index built over this payload
+     */
+    public Transfer transfer(GroupIndex index, int transfer, Transfer flyweight) {
+        return flyweight.wrap(messageMemoryBuffer(), index.recordOffset(transfer));
+    }
+
     public String toString(int length) {
         StringBuilder sb = new StringBuilder();
         sb.append("Transfers { exchange_id: ").append(super.exchangeId()).append(",");
@@ -0,0 +1,405 @@
+package io.merklex.dcn;
+
+import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
+
+import java.math.BigInteger;
+import java.nio.ByteOrder;
+
+/**
+ * Mutable unsigned 256 bit integer, an EVM word, held in four longs with w0 the most
+ * significant. Arithmetic wraps modulo 2^256 like the EVM and returns true when the
+ * exact result did not fit.
+ */
+public class UInt256 implements Comparable<UInt256> {
+    public static final int BYTES = 32;
+
+    public long w0;
+    public long w1;
+    public long w2;
+    public long w3;
+
+    public UInt256() {
+    }
+
+    public UInt256(long unsignedValue) {
+        set(unsignedValue);
+    }
+
+    public UInt256 set(long unsignedValue) {
+        return set(0, 0, 0, unsignedValue);
+    }
+
+    /**
+     * Two's complement of a signed value, as a negative i64 is stored in a word
+     */
+    public UInt256 setSigned(long value) {
+        long sign = value >> 63;
+        return set(sign, sign, sign, value);
+    }
+
+    public UInt256 set(long w0, long w1, long w2, long w3) {
+        this.w0 = w0;
+        this.w1 = w1;
+        this.w2 = w2;
+        this.w3 = w3;
+        return this;
+    }
+
+    public UInt256 set(UInt256 other) {
+        return set(other.w0, other.w1, other.w2, other.w3);
+    }
+
+    public UInt256 set(BigInteger value) {
+        if (value.signum() < 0 || value.bitLength() > 256) {
+            throw new ArithmeticException(value + " does not fit uint256");
+        }
+        return set(value.shiftRight(192).longValue(), value.shiftRight(128).longValue(),
+                value.shiftRight(64).longValue(), value.longValue());
+    }
+
+    public UInt256 read(DirectBuffer buffer, int offset) {
+        return set(buffer.getLong(offset, ByteOrder.BIG_ENDIAN),
+                buffer.getLong(offset + 8, ByteOrder.BIG_ENDIAN),
+                buffer.getLong(offset + 16, ByteOrder.BIG_ENDIAN),
+                buffer.getLong(offset + 24, ByteOrder.BIG_ENDIAN));
+    }
+
+    public UInt256 write(MutableDirectBuffer buffer, int offset) {
+        buffer.putLong(offset, w0, ByteOrder.BIG_ENDIAN);
+        buffer.putLong(offset + 8, w1, ByteOrder.BIG_ENDIAN);
+        buffer.putLong(offset + 16, w2, ByteOrder.BIG_ENDIAN);
+        buffer.putLong(offset + 24, w3, ByteOrder.BIG_ENDIAN);
+        return this;
+    }
+
+    /**
+     * @return true on carry out of 256 bits
+     */
+    public boolean add(UInt256 other) {
+        return add(other.w0, other.w1, other.w2, other.w3);
+    }
+
+    public boolean add(long unsignedValue) {
+        return add(0, 0, 0, unsignedValue);
+    }
+
+    private boolean add(long o0, long o1, long o2, long o3) {
+        long s3 = w3 + o3;
+        long c = Long.compareUnsigned(s3, o3) < 0 ? 1 : 0;
+        long s2 = w2 + o2;
+        long c2 = Long.compareUnsigned(s2, o2) < 0 ? 1 : 0;
+        s2 += c;
+        c = c2 | (s2 == 0 && c == 1 ? 1 : 0);
+        long s1 = w1 + o1;
+        long c1 = Long.compareUnsigned(s1, o1) < 0 ? 1 : 0;
+        s1 += c;
+        c = c1 | (s1 == 0 && c == 1 ? 1 : 0);
+        long s0 = w0 + o0;
+        long c0 = Long.compareUnsigned(s0, o0) < 0 ? 1 : 0;
+        s0 += c;
+        c = c0 | (s0 == 0 && c == 1 ? 1 : 0);
+
+        set(s0, s1, s2, s3);
+        return c != 0;
+    }
+
+    /**
+     * @return true on borrow, when other was larger
+     */
+    public boolean sub(UInt256 other) {
+        return sub(other.w0, other.w1, other.w2, other.w3);
+    }
+
+    public boolean sub(long unsignedValue) {
+        return sub(0, 0, 0, unsignedValue);
+    }
+
+    private boolean sub(long o0, long o1, long o2, long o3) {
+        long d3 = w3 - o3;
+        long b = Long.compareUnsigned(w3, o3) < 0 ? 1 : 0;
+        long d2 = w2 - o2 - b;
+        b = Long.compareUnsigned(w2, o2) < 0 || (w2 == o2 && b == 1) ? 1 : 0;
+        long d1 = w1 - o1 - b;
+        b = Long.compareUnsigned(w1, o1) < 0 || (w1 == o1 && b == 1) ? 1 : 0;
+        long d0 = w0 - o0 - b;
+        b = Long.compareUnsigned(w0, o0) < 0 || (w0 == o0 && b == 1) ? 1 : 0;
+
+        set(d0, d1, d2, d3);
+        return b != 0;
+    }
+
+    /**
+     * @return true when the product did not fit 256 bits
+     */
+    public boolean mul(UInt256 other) {
+        return mul(other.w3, other.w2, other.w1, other.w0);
+    }
+
+    public boolean mul(long unsignedValue) {
+        return mul(unsignedValue, 0, 0, 0);
+    }
+
+    /* b0 is the least significant limb */
+    private boolean mul(long b0, long b1, long b2, long b3) {
+        long a0 = w3;
+        long a1 = w2;
+        long a2 = w1;
+        long a3 = w0;
+
+        long r0 = a0 * b0;
+
+        long s1 = Int128.MultiplyHighUnsigned(a0, b0);
+        long c1 = 0;
+        long x = a0 * b1;
+        s1 += x;
+        c1 += Carry(s1, x);
+        x = a1 * b0;
+        s1 += x;
+        c1 += Carry(s1, x);
+
+        long s2 = c1;
+        long c2 = 0;
+        x = Int128.MultiplyHighUnsigned(a0, b1);
+        s2 += x;
+        c2 += Carry(s2, x);
+        x = Int128.MultiplyHighUnsigned(a1, b0);
+        s2 += x;
+        c2 += Carry(s2, x);
+        x = a0 * b2;
+        s2 += x;
+        c2 += Carry(s2, x);
+        x = a1 * b1;
+        s2 += x;
+        c2 += Carry(s2, x);
+        x = a2 * b0;
+        s2 += x;
+        c2 += Carry(s2, x);
+
+        long s3 = c2;
+        long c3 = 0;
+        x = Int128.MultiplyHighUnsigned(a0, b2);
+        s3 += x;
+        c3 += Carry(s3, x);
+        x = Int128.MultiplyHighUnsigned(a1, b1);
+        s3 += x;
+        c3 += Carry(s3, x);
+        x = Int128.MultiplyHighUnsigned(a2, b0);
+        s3 += x;
+        c3 += Carry(s3, x);
+        x = a0 * b3;
+        s3 += x;
+        c3 += Carry(s3, x);
+        x = a1 * b2;
+        s3 += x;
+        c3 += Carry(s3, x);
+        x = a2 * b1;
+        s3 += x;
+        c3 += Carry(s3, x);
+        x = a3 * b0;
+        s3 += x;
+        c3 += Carry(s3, x);
+
+        boolean overflow = c3 != 0
+                || Int128.MultiplyHighUnsigned(a0, b3) != 0
+                || Int128.MultiplyHighUnsigned(a1, b2) != 0
+                || Int128.MultiplyHighUnsigned(a2, b1) != 0
+                || Int128.MultiplyHighUnsigned(a3, b0) != 0
+                || (a1 != 0 && b3 != 0)
+                || (a2 != 0 && (b2 | b3) != 0)
+                || (a3 != 0 && (b1 | b2 | b3) != 0);
+
+        set(s3, s2, s1, r0);
+        return overflow;
+    }
+
+    private static long Carry(long sum, long added) {
+        return Long.compareUnsigned(sum, added) < 0 ? 1 : 0;
+    }
+
+    /**
+     * Division like the EVM div, dividing by zero gives zero.
+     *
+     * @return true when dividing by zero
+     */
+    public boolean div(UInt256 divisor) {
+        return divRem(divisor, null);
+    }
+
+    /**
+     * @param remainder receives the remainder like mod, may be null
+     */
+    public boolean divRem(UInt256 divisor, UInt256 remainder) {
+        long d0 = divisor.w0;
+        long d1 = divisor.w1;
+        long d2 = divisor.w2;
+        long d3 = divisor.w3;
+
+        if ((d0 | d1 | d2 | d3) == 0) {
+            set(0);
+            if (remainder != null) {
+                remainder.set(0);
+            }
+            return true;
+        }
+
+        if ((w0 | w1 | w2 | d0 | d1 | d2) == 0) {
+            long q = Long.divideUnsigned(w3, d3);
+            long r = Long.remainderUnsigned(w3, d3);
+            set(q);
+            if (remainder != null) {
+                remainder.set(r);
+            }
+            return false;
+        }
+
+        long n0 = w0;
+        long n1 = w1;
+        long n2 = w2;
+        long n3 = w3;
+        long q0 = 0;
+        long q1 = 0;
+        long q2 = 0;
+        long q3 = 0;
+        long r0 = 0;
+        long r1 = 0;
+        long r2 = 0;
+        long r3 = 0;
+
+        for (int i = 255; i >= 0; i--) {
+            boolean top = r0 < 0;
+            long word = i >= 192 ? n0 : i >= 128 ? n1 : i >= 64 ? n2 : n3;
+            long bit = (word >>> (i & 63)) & 1;
+
+            r0 = r0 << 1 | r1 >>> 63;
+            r1 = r1 << 1 | r2 >>> 63;
+            r2 = r2 << 1 | r3 >>> 63;
+            r3 = r3 << 1 | bit;
+
+            if (top || Compare(r0, r1, r2, r3, d0, d1, d2, d3) >= 0) {
+                long b = Long.compareUnsigned(r3, d3) < 0 ? 1 : 0;
+                r3 -= d3;
+                long nb = Long.compareUnsigned(r2, d2) < 0 || (r2 == d2 && b == 1) ? 1 : 0;
+                r2 = r2 - d2 - b;
+                b = nb;
+                nb = Long.compareUnsigned(r1, d1) < 0 || (r1 == d1 && b == 1) ? 1 : 0;
+                r1 = r1 - d1 - b;
+                b = nb;
+                r0 = r0 - d0 - b;
+
+                long mask = 1L << (i & 63);
+                if (i >= 192) {
+                    q0 |= mask;
+                }
+                else if (i >= 128) {
+                    q1 |= mask;
+                }
+                else if (i >= 64) {
+                    q2 |= mask;
+                }
+                else {
+                    q3 |= mask;
+                }
+            }
+        }
+
+        set(q0, q1, q2, q3);
+        if (remainder != null) {
+            remainder.set(r0, r1, r2, r3);
+        }
+        return false;
+    }
+
+    public UInt256 and(UInt256 other) {
+        return set(w0 & other.w0, w1 & other.w1, w2 & other.w2, w3 & other.w3);
+    }
+
+    public UInt256 or(UInt256 other) {
+        return set(w0 | other.w0, w1 | other.w1, w2 | other.w2, w3 | other.w3);
+    }
+
+    public boolean testBit(int bit) {
+        return ((word(bit) >>> (bit & 63)) & 1) != 0;
+    }
+
+    public UInt256 setBit(int bit) {
+        long mask = 1L << (bit & 63);
+        switch (bit >>> 6) {
+            case 3: w0 |= mask; break;
+            case 2: w1 |= mask; break;
+            case 1: w2 |= mask; break;
+            case 0: w3 |= mask; break;
+            default: throw new IllegalArgumentException("Bit " + bit + " out of range");
+        }
+        return this;
+    }
+
+    private long word(int bit) {
+        switch (bit >>> 6) {
+            case 3: return w0;
+            case 2: return w1;
+            case 1: return w2;
+            case 0: return w3;
+            default: throw new IllegalArgumentException("Bit " + bit + " out of range");
+        }
+    }
+
+    public boolean isZero() {
+        return (w0 | w1 | w2 | w3) == 0;
+    }
+
+    /**
+     * @return true if the value fits an unsigned 64 bit long
+     */
+    public boolean fitsU64() {
+        return (w0 | w1 | w2) == 0;
+    }
+
+    @Override
+    public int compareTo(UInt256 other) {
+        return Compare(w0, w1, w2, w3, other.w0, other.w1, other.w2, other.w3);
+    }
+
+    private static int Compare(long a0, long a1, long a2, long a3, long b0, long b1, long b2, long b3) {
+        if (a0 != b0) {
+            return Long.compareUnsigned(a0, b0);
+        }
+        if (a1 != b1) {
+            return Long.compareUnsigned(a1, b1);
+        }
+        if (a2 != b2) {
+            return Long.compareUnsigned(a2, b2);
+        }
+        return Long.compareUnsigned(a3, b3);
+    }
+
+    public BigInteger toBigInteger() {
+        byte[] bytes = new byte[BYTES + 1];
+        for (int i = 0; i < 8; i++) {
+            bytes[1 + i] = (byte) (w0 >>> (56 - i * 8));
+            bytes[9 + i] = (byte) (w1 >>> (56 - i * 8));
+            bytes[17 + i] = (byte) (w2 >>> (56 - i * 8));
+            bytes[25 + i] = (byte) (w3 >>> (56 - i * 8));
+        }
+        return new BigInteger(bytes);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof UInt256)) {
+            return false;
+        }
+        UInt256 other = (UInt256) o;
+        return w0 == other.w0 && w1 == other.w1 && w2 == other.w2 && w3 == other.w3;
+    }
+
+    @Override
+    public int hashCode() {
+        return ((Long.hashCode(w0) * 31 + Long.hashCode(w1)) * 31 + Long.hashCode(w2)) * 31 + Long.hashCode(w3);
+    }
+
+    @Override
+    public String toString() {
+        return toBigInteger().toString();
+    }
+}
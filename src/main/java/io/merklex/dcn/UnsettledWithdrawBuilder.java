@@ -0,0 +1,171 @@
+package io.merklex.dcn;
+
+import io.merklex.dcn.contracts.DCN;
+import org.agrona.ExpandableArrayBuffer;
+import org.agrona.collections.LongArrayList;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.web3j.utils.Numeric;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Plans recover_unsettled_withdraws transactions from a local view of sessions.
+ * <p>
+ * Sessions with unsettled withdraws are grouped by (exchange_id, asset_id) so each
+ * exchange balance is loaded and stored once per group. Groups are packed up to
+ * maxGroupUsers users and transactions are filled up to the gas budget, a group that
+ * does not fit the remainder of a transaction is split and continues in the next one.
+ */
+public class UnsettledWithdrawBuilder {
+    public static final long DEFAULT_GAS_BUDGET = 6_000_000;
+    public static final int DEFAULT_MAX_GROUP_USERS = 1024;
+
+    /* upper bounds of the gas used by recover_unsettled_withdraws */
+    public static final long TRANSACTION_GAS = 30_000;
+    public static final long GROUP_GAS = 7_000;
+    public static final long USER_GAS = 6_500;
+
+    private final long gasBudget;
+    private final int maxGroupUsers;
+    private final TreeMap<Long, LongArrayList> groups = new TreeMap<>(Long::compareUnsigned);
+    private int sessions;
+
+    public UnsettledWithdrawBuilder() {
+        this(DEFAULT_GAS_BUDGET, DEFAULT_MAX_GROUP_USERS);
+    }
+
+    public UnsettledWithdrawBuilder(long gasBudget, int maxGroupUsers) {
+        if (gasBudget < TRANSACTION_GAS + GROUP_GAS + USER_GAS) {
+            throw new IllegalArgumentException("Gas budget " + gasBudget + " does not fit a single user");
+        }
+        if (maxGroupUsers <= 0) {
+            throw new IllegalArgumentException("Invalid max group users " + maxGroupUsers);
+        }
+        this.gasBudget = gasBudget;
+        this.maxGroupUsers = maxGroupUsers;
+    }
+
+    /**
+     * @return true if the session has funds to recover and was added
+     */
+    public boolean add(long userId, int exchangeId, int assetId, long unsettledWithdrawTotal, long assetBalance) {
+        if (unsettledWithdrawTotal == 0 || assetBalance == 0) {
+            return false;
+        }
+
+        long key = (Integer.toUnsignedLong(exchangeId) << 32) | Integer.toUnsignedLong(assetId);
+        groups.computeIfAbsent(key, k -> new LongArrayList()).addLong(userId);
+        sessions++;
+        return true;
+    }
+
+    public boolean add(long userId, int exchangeId, int assetId, DCN.GetSessionBalanceReturnValue balance) {
+        return add(userId, exchangeId, assetId, balance.unsettled_withdraw_total, balance.asset_balance);
+    }
+
+    public int sessionCount() {
+        return sessions;
+    }
+
+    public void clear() {
+        groups.clear();
+        sessions = 0;
+    }
+
+    /**
+     * @return Payloads in (exchange_id, asset_id, user_id) order, each estimated to fit the gas budget
+     */
+    public List<Payload> build() {
+        List<Payload> payloads = new ArrayList<>();
+        ExpandableArrayBuffer buffer = new ExpandableArrayBuffer(4096);
+        UnsettledWithdraws.Group group = new UnsettledWithdraws.Group();
+        UnsettledWithdraws.User user = new UnsettledWithdraws.User();
+
+        int length = 0;
+        int groupCount = 0;
+        int userCount = 0;
+        long gas = TRANSACTION_GAS;
+
+        for (Map.Entry<Long, LongArrayList> entry : groups.entrySet()) {
+            int exchangeId = (int) (entry.getKey() >>> 32);
+            int assetId = (int) (long) entry.getKey();
+            long[] userIds = unique(entry.getValue());
+
+            for (int i = 0; i < userIds.length; ) {
+                if (gas + GROUP_GAS + USER_GAS > gasBudget) {
+                    payloads.add(new Payload(buffer, length, groupCount, userCount, gas));
+                    length = 0;
+                    groupCount = 0;
+                    userCount = 0;
+                    gas = TRANSACTION_GAS;
+                }
+
+                int fit = (int) Math.min(Math.min(userIds.length - i, maxGroupUsers),
+                        (gasBudget - gas - GROUP_GAS) / USER_GAS);
+
+                buffer.checkLimit(length + UnsettledWithdraws.bytes(1, fit));
+                group.wrap(buffer, length)
+                        .clearToZeros()
+                        .exchangeId(exchangeId)
+                        .assetId(assetId)
+                        .userCount(fit)
+                        .firstUser(user);
+                for (int j = 0; j < fit; j++) {
+                    user.userId(userIds[i + j]).nextUser(user);
+                }
+
+                length += group.size();
+                groupCount++;
+                userCount += fit;
+                gas += GROUP_GAS + fit * USER_GAS;
+                i += fit;
+            }
+        }
+
+        if (userCount > 0) {
+            payloads.add(new Payload(buffer, length, groupCount, userCount, gas));
+        }
+        return payloads;
+    }
+
+    private static long[] unique(LongArrayList list) {
+        long[] values = list.toLongArray();
+        Arrays.sort(values);
+
+        int count = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (i == 0 || values[i] != values[count - 1]) {
+                values[count++] = values[i];
+            }
+        }
+        return Arrays.copyOf(values, count);
+    }
+
+    public static class Payload {
+        public final byte[] data;
+        public final int groups;
+        public final int users;
+        public final long gasEstimate;
+
+        Payload(ExpandableArrayBuffer buffer, int length, int groups, int users, long gasEstimate) {
+            this.data = new byte[length];
+            buffer.getBytes(0, this.data);
+            this.groups = groups;
+            this.users = users;
+            this.gasEstimate = gasEstimate;
+        }
+
+        public String payload() {
+            return Numeric.toHexString(data);
+        }
+
+        @Override
+        public String toString() {
+            return UnsettledWithdraws.toString(new UnsafeBuffer(data), 0, data.length);
+        }
+    }
+}
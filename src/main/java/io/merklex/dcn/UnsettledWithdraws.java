@@ -0,0 +1,121 @@
+package io.merklex.dcn;
+
+import io.merklex.dcn.models.UnsettledWithdraw;
+import org.agrona.MutableDirectBuffer;
+
+/**
+ * Payload of recover_unsettled_withdraws, groups written back to back without
+ * a leading header.
+ * <p>
+ * The deployed contract does not advance past a group header before reading users,
+ * it reads 8 byte user ids starting at the header itself and so steps over the
+ * 12 byte header and 4 more bytes. Users therefore start USERS_OFFSET bytes into a
+ * group, the two ids read from the header and padding belong to user
+ * (exchange_id << 32 | asset_id) and user (user_count << 32).
+ */
+public class UnsettledWithdraws {
+    public static final int PADDING = 4;
+    public static final int USERS_OFFSET = Group.BYTES + PADDING;
+
+    public static Group firstGroup(MutableDirectBuffer buffer, int offset, Group group) {
+        return group.wrap(buffer, offset);
+    }
+
+    public static int bytes(int groups, int users) {
+        return USERS_OFFSET * groups + User.BYTES * users;
+    }
+
+    public static String payload(MutableDirectBuffer buffer, int offset, int length) {
+        return BufferToHex.ToHex(buffer, offset, length);
+    }
+
+    public static String toString(MutableDirectBuffer buffer, int offset, int length) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("UnsettledWithdraws {");
+
+        Group group = firstGroup(buffer, offset, new Group());
+        User user = new User();
+        int end = offset + length;
+
+        while (group.messageMemoryOffset() < end) {
+            sb.append(" Group { exchange_id: ").append(Integer.toUnsignedString(group.exchangeId()))
+                    .append(", asset_id: ").append(Integer.toUnsignedString(group.assetId()))
+                    .append(", users: [");
+
+            group.firstUser(user);
+            for (int i = 0; i < group.userCount(); i++) {
+                sb.append(i == 0 ? "" : ", ").append(Long.toUnsignedString(user.userId()));
+                user.nextUser(user);
+            }
+
+            sb.append("] }");
+            group.nextGroup(group);
+        }
+
+        sb.append(" }");
+        return sb.toString();
+    }
+
+    public static class Group extends UnsettledWithdraw.UnsettledWithdrawHeader {
+        @Override
+        public Group wrap(MutableDirectBuffer buffer, int offset) {
+            return (Group) super.wrap(buffer, offset);
+        }
+
+        @Override
+        public Group clearToZeros() {
+            messageMemoryBuffer().setMemory(messageMemoryOffset(), USERS_OFFSET, (byte) 0);
+            return this;
+        }
+
+        @Override
+        public Group exchangeId(int value) {
+            return (Group) super.exchangeId(value);
+        }
+
+        @Override
+        public Group assetId(int value) {
+            return (Group) super.assetId(value);
+        }
+
+        @Override
+        public Group userCount(int value) {
+            return (Group) super.userCount(value);
+        }
+
+        public User firstUser(User user) {
+            return user(user, 0);
+        }
+
+        public User user(User user, int index) {
+            return user.wrap(
+                    this.messageMemoryBuffer(),
+                    this.messageMemoryOffset() + USERS_OFFSET + User.BYTES * index
+            );
+        }
+
+        public Group nextGroup(Group group) {
+            return group.wrap(messageMemoryBuffer(), messageMemoryOffset() + size());
+        }
+
+        public int size() {
+            return USERS_OFFSET + User.BYTES * userCount();
+        }
+    }
+
+    public static class User extends UnsettledWithdraw.UnsettledWithdrawUser {
+        @Override
+        public User wrap(MutableDirectBuffer buffer, int offset) {
+            return (User) super.wrap(buffer, offset);
+        }
+
+        @Override
+        public User userId(long value) {
+            return (User) super.userId(value);
+        }
+
+        public User nextUser(User user) {
+            return user.wrap(messageMemoryBuffer(), messageMemoryOffset() + BYTES);
+        }
+    }
+}
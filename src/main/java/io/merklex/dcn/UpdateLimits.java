@@ -41,11 +41,11 @@ public class UpdateLimits {
     }
 
     public int exchangeId() {
-        return buffer.getInt(offset);
+        return buffer.getInt(offset, ByteOrder.BIG_ENDIAN);
     }
 
     public UpdateLimits exchangeId(int value) {
-        buffer.putInt(offset, value);
+        buffer.putInt(offset, value, ByteOrder.BIG_ENDIAN);
         return this;
     }
 
@@ -160,16 +160,13 @@ public class UpdateLimits {
         }
 
         public LimitUpdate quoteShift(BigInteger value) {
-            int majorValue = value.shiftRight(64).intValue();
-            long minorValue = value.longValue();
-
-            if (!value.equals(BigInteger.valueOf(majorValue).shiftLeft(64).or(BigInteger.valueOf(minorValue)))) {
-                throw new IllegalStateException();
+            Int96 shift = new Int96();
+            try {
+                shift.set(value);
+            } catch (ArithmeticException e) {
+                throw new IllegalStateException(e);
             }
-
-            quoteShiftMajor(majorValue);
-            quoteShift(minorValue);
-            return this;
+            return quoteShift(shift);
         }
 
         @Override
@@ -182,22 +179,28 @@ public class UpdateLimits {
             return (LimitUpdate) super.quoteShift(value);
         }
 
+        public LimitUpdate quoteShift(Int96 value) {
+            quoteShiftMajor(value.major());
+            quoteShift(value.minor());
+            return this;
+        }
+
+        public Int96 quoteShiftTo(Int96 out) {
+            return out.set(super.quoteShiftMajor(), quoteShift());
+        }
+
         public BigInteger quoteShiftBig() {
-            return BigInteger.valueOf(super.quoteShiftMajor()).shiftLeft(64)
-                    .or(BigInteger.valueOf(quoteShift()));
+            return quoteShiftTo(new Int96()).toBigInteger();
         }
 
         public LimitUpdate baseShift(BigInteger value) {
-            int majorValue = value.shiftRight(64).intValue();
-            long minorValue = value.longValue();
-
-            if (value.compareTo(BigInteger.valueOf(majorValue).shiftLeft(64).or(BigInteger.valueOf(minorValue))) != 0) {
-                throw new IllegalStateException();
+            Int96 shift = new Int96();
+            try {
+                shift.set(value);
+            } catch (ArithmeticException e) {
+                throw new IllegalStateException(e);
             }
-
-            baseShiftMajor(majorValue);
-            baseShift(minorValue);
-            return this;
+            return baseShift(shift);
         }
 
         @Override
@@ -210,9 +213,18 @@ public class UpdateLimits {
             return (LimitUpdate) super.baseShift(value);
         }
 
+        public LimitUpdate baseShift(Int96 value) {
+            baseShiftMajor(value.major());
+            baseShift(value.minor());
+            return this;
+        }
+
+        public Int96 baseShiftTo(Int96 out) {
+            return out.set(baseShiftMajor(), baseShift());
+        }
+
         public BigInteger baseShiftBig() {
-            return BigInteger.valueOf(baseShiftMajor()).shiftLeft(64)
-                    .or(BigInteger.valueOf(baseShift()));
+            return baseShiftTo(new Int96()).toBigInteger();
         }
 
         public byte[] hash() {
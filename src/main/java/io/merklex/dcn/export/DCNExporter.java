@@ -0,0 +1,213 @@
+package io.merklex.dcn.export;
+
+import io.merklex.dcn.contracts.DCN;
+import io.merklex.dcn.contracts.ERC20;
+import io.merklex.dcn.models.MigrationExport.*;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.methods.request.Transaction;
+import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.protocol.core.methods.response.EthCall;
+import org.web3j.utils.Numeric;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Streams the state of a DCN contract into an {@link ExportSpool}. Every query is made
+ * against one pinned block so the export is a consistent snapshot even while the
+ * contract keeps processing transactions.
+ * <p>
+ * Users and balances are fetched by a pool of parallel eth_calls but written in id order,
+ * at most parallelism * WINDOW_PER_THREAD records are held in memory at any time.
+ * <p>
+ * Balances are the users' get_balance values, which user_deposit credits with the raw ERC20
+ * amount, so they are already in token base units. An asset carries its full uint192
+ * unit_scale (token amount = session quantity * unit_scale) and the decimals() of its ERC20
+ * token, when the token answers that optional call at the pinned block.
+ * <p>
+ * Only user balances are exported. Funds held in exchange sessions (get_session_balance) and
+ * exchange balances (get_exchange_balance) are not, a migration from this spool drops them.
+ */
+public class DCNExporter {
+    public static final int DEFAULT_PARALLELISM = 16;
+
+    private static final int WINDOW_PER_THREAD = 4;
+
+    private final Web3j web3j;
+    private final String dcn;
+    private final int parallelism;
+
+    public DCNExporter(Web3j web3j, String dcn) {
+        this(web3j, dcn, DEFAULT_PARALLELISM);
+    }
+
+    public DCNExporter(Web3j web3j, String dcn, int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Invalid parallelism " + parallelism);
+        }
+        this.web3j = web3j;
+        this.dcn = dcn;
+        this.parallelism = parallelism;
+    }
+
+    public void export(File spool) throws IOException, InterruptedException {
+        export(spool, DefaultBlockParameterName.LATEST);
+    }
+
+    public void export(File spool, DefaultBlockParameter at) throws IOException, InterruptedException {
+        EthBlock response = web3j.ethGetBlockByNumber(at, false).send();
+        if (response.hasError() || response.getBlock() == null) {
+            throw new IOException("Failed to load block " + at.getValue()
+                    + (response.hasError() ? ": " + response.getError().getMessage() : ""));
+        }
+
+        EthBlock.Block pinned = response.getBlock();
+        DefaultBlockParameter block = DefaultBlockParameter.valueOf(pinned.getNumber());
+
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "dcn-export");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try (ExportSpool.Writer writer = new ExportSpool.Writer(spool,
+                pinned.getNumber().longValueExact(), Numeric.hexStringToByteArray(pinned.getHash()))) {
+
+            int assetCount = DCN.query_get_asset_count(dcn, web3j, DCN.get_asset_count(), block).count;
+            for (int assetId = 0; assetId < assetCount; assetId++) {
+                DCN.GetAssetReturnValue asset = DCN.query_get_asset(dcn, web3j, DCN.get_asset(assetId), block);
+                int decimals = TokenDecimals(asset.contract_address, block);
+                writer.appendAsset()
+                        .assetId(assetId)
+                        .setSymbol(Ascii(asset.symbol, ExportAsset.SYMBOL_LENGTH))
+                        .setUnitScale(Numeric.toBytesPadded(asset.unit_scale, ExportAsset.UNIT_SCALE_LENGTH))
+                        .tokenDecimals((byte) Math.max(decimals, 0))
+                        .hasTokenDecimals(decimals >= 0)
+                        .setContractAddress(Address(asset.contract_address));
+            }
+
+            int exchangeCount = DCN.query_get_exchange_count(dcn, web3j, DCN.get_exchange_count(), block).count;
+            for (int exchangeId = 0; exchangeId < exchangeCount; exchangeId++) {
+                DCN.GetExchangeReturnValue exchange = DCN.query_get_exchange(dcn, web3j, DCN.get_exchange(exchangeId), block);
+                writer.appendExchange()
+                        .exchangeId(exchangeId)
+                        .setName(Ascii(exchange.name, ExportExchange.NAME_LENGTH))
+                        .locked(exchange.locked)
+                        .setOwner(Address(exchange.owner))
+                        .setWithdrawAddress(Address(exchange.withdraw_address))
+                        .setRecoveryAddress(Address(exchange.recovery_address))
+                        .setRecoveryAddressProposed(Address(exchange.recovery_address_proposed));
+            }
+
+            int userCount = DCN.query_get_user_count(dcn, web3j, DCN.get_user_count(), block).count;
+
+            fetchInOrder(executor, userCount,
+                    userId -> DCN.query_get_user(dcn, web3j, DCN.get_user(userId), block),
+                    (userId, user) -> writer.appendUser()
+                            .userId(userId)
+                            .setTradeAddress(Address(user.trade_address))
+                            .setWithdrawAddress(Address(user.withdraw_address))
+                            .setRecoveryAddress(Address(user.recovery_address))
+                            .setRecoveryAddressProposed(Address(user.recovery_address_proposed)));
+
+            fetchInOrder(executor, userCount,
+                    userId -> {
+                        BigInteger[] balances = new BigInteger[assetCount];
+                        for (int assetId = 0; assetId < assetCount; assetId++) {
+                            balances[assetId] = DCN.query_get_balance(dcn, web3j,
+                                    DCN.get_balance(userId, assetId), block).return_balance;
+                        }
+                        return balances;
+                    },
+                    (userId, balances) -> {
+                        for (int assetId = 0; assetId < balances.length; assetId++) {
+                            if (balances[assetId].signum() == 0) {
+                                continue;
+                            }
+                            writer.appendBalance()
+                                    .userId(userId)
+                                    .assetId(assetId)
+                                    .setBalance(Numeric.toBytesPadded(balances[assetId], ExportBalance.BALANCE_LENGTH));
+                        }
+                    });
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * decimals() is optional in ERC20, a token that has no code, reverts or answers
+     * outside of uint8 is exported without decimals.
+     *
+     * @return the token's decimals, -1 if unknown
+     */
+    private int TokenDecimals(String token, DefaultBlockParameter block) throws IOException {
+        EthCall call = web3j.ethCall(Transaction.createEthCallTransaction(
+                "0x0000000000000000000000000000000000000000", token, ERC20.encode_decimals()), block).send();
+        if (call.hasError() || call.reverts()) {
+            return -1;
+        }
+
+        byte[] value = Numeric.hexStringToByteArray(call.getValue());
+        if (value.length != 32) {
+            return -1;
+        }
+        BigInteger decimals = new BigInteger(1, value);
+        return decimals.bitLength() <= 8 ? decimals.intValue() : -1;
+    }
+
+    private interface Fetch<T> {
+        T fetch(int index) throws IOException;
+    }
+
+    private interface Sink<T> {
+        void write(int index, T value) throws IOException;
+    }
+
+    private <T> void fetchInOrder(ExecutorService executor, int count, Fetch<T> fetch, Sink<T> sink)
+            throws IOException, InterruptedException {
+        ArrayDeque<Future<T>> window = new ArrayDeque<>();
+        int next = 0;
+
+        try {
+            for (int written = 0; written < count; written++) {
+                while (next < count && window.size() < parallelism * WINDOW_PER_THREAD) {
+                    int index = next++;
+                    window.add(executor.submit(() -> fetch.fetch(index)));
+                }
+
+                T value;
+                try {
+                    value = window.poll().get();
+                } catch (ExecutionException e) {
+                    throw new IOException("Failed to export record " + written, e.getCause());
+                }
+                sink.write(written, value);
+            }
+        } finally {
+            for (Future<T> pending : window) {
+                pending.cancel(true);
+            }
+        }
+    }
+
+    static byte[] Address(String address) {
+        return Numeric.toBytesPadded(Numeric.toBigInt(address), 20);
+    }
+
+    static byte[] Ascii(String value, int length) {
+        byte[] bytes = new byte[length];
+        byte[] chars = value.getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(chars, 0, bytes, 0, Math.min(chars.length, length));
+        return bytes;
+    }
+}
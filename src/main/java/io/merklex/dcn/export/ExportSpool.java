@@ -0,0 +1,227 @@
+package io.merklex.dcn.export;
+
+import io.merklex.dcn.models.MigrationExport.*;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Binary spool of DCN state exported at one block. The file is an {@link ExportHeader}
+ * followed by the asset, exchange, user and balance sections, in that order. Records
+ * have a fixed width (models/migration_export.h) so record i of a section is at a
+ * known offset and sections can be read through a memory map without parsing.
+ */
+public class ExportSpool {
+    public static final int MAGIC = 0x44434E58;
+    public static final int VERSION = 2;
+
+    private static final int WRITE_BUFFER_BYTES = 1 << 16;
+
+    private static final int ASSETS = 0;
+    private static final int EXCHANGES = 1;
+    private static final int USERS = 2;
+    private static final int BALANCES = 3;
+
+    public static class Writer implements Closeable {
+        private final RandomAccessFile file;
+        private final FileChannel channel;
+        private final ByteBuffer bytes = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES);
+        private final UnsafeBuffer buffer = new UnsafeBuffer(bytes);
+        private final UnsafeBuffer headerBuffer = new UnsafeBuffer(new byte[ExportHeader.BYTES]);
+        private final ExportHeader header = new ExportHeader();
+
+        private final ExportAsset asset = new ExportAsset();
+        private final ExportExchange exchange = new ExportExchange();
+        private final ExportUser user = new ExportUser();
+        private final ExportBalance balance = new ExportBalance();
+
+        private int section = ASSETS;
+        private int position;
+
+        public Writer(File path, long blockNumber, byte[] blockHash) throws IOException {
+            file = new RandomAccessFile(path, "rw");
+            file.setLength(0);
+            channel = file.getChannel();
+
+            header.wrap(headerBuffer, 0).clearToZeros()
+                    .magic(MAGIC)
+                    .version(VERSION)
+                    .blockNumber(blockNumber)
+                    .setBlockHash(blockHash);
+
+            /* reserve the header, counts are filled in on close */
+            channel.write(ByteBuffer.wrap(headerBuffer.byteArray()));
+        }
+
+        public ExportAsset appendAsset() throws IOException {
+            enter(ASSETS);
+            header.assetCount(header.assetCount() + 1);
+            return asset.wrap(buffer, reserve(ExportAsset.BYTES)).clearToZeros();
+        }
+
+        public ExportExchange appendExchange() throws IOException {
+            enter(EXCHANGES);
+            header.exchangeCount(header.exchangeCount() + 1);
+            return exchange.wrap(buffer, reserve(ExportExchange.BYTES)).clearToZeros();
+        }
+
+        public ExportUser appendUser() throws IOException {
+            enter(USERS);
+            header.userCount(header.userCount() + 1);
+            return user.wrap(buffer, reserve(ExportUser.BYTES)).clearToZeros();
+        }
+
+        public ExportBalance appendBalance() throws IOException {
+            enter(BALANCES);
+            header.balanceCount(header.balanceCount() + 1);
+            return balance.wrap(buffer, reserve(ExportBalance.BYTES)).clearToZeros();
+        }
+
+        private void enter(int next) {
+            if (next < section) {
+                throw new IllegalStateException("Sections must be written in order, section "
+                        + next + " after " + section);
+            }
+            section = next;
+        }
+
+        private int reserve(int length) throws IOException {
+            if (position + length > bytes.capacity()) {
+                flush();
+            }
+            int offset = position;
+            position += length;
+            return offset;
+        }
+
+        private void flush() throws IOException {
+            bytes.clear().limit(position);
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            position = 0;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+
+                ByteBuffer headerBytes = ByteBuffer.wrap(headerBuffer.byteArray());
+                while (headerBytes.hasRemaining()) {
+                    channel.write(headerBytes, headerBytes.position());
+                }
+                channel.force(true);
+            } finally {
+                file.close();
+            }
+        }
+    }
+
+    public static class Reader implements Closeable {
+        private final RandomAccessFile file;
+        private final ExportHeader header = new ExportHeader();
+        private final UnsafeBuffer[] sections = new UnsafeBuffer[4];
+
+        public Reader(File path) throws IOException {
+            file = new RandomAccessFile(path, "r");
+            try {
+                FileChannel channel = file.getChannel();
+
+                ByteBuffer headerBytes = ByteBuffer.allocate(ExportHeader.BYTES);
+                while (headerBytes.hasRemaining()) {
+                    if (channel.read(headerBytes) < 0) {
+                        throw new IOException(path + " is too short for an export header");
+                    }
+                }
+                header.wrap(new UnsafeBuffer(headerBytes.array()), 0);
+
+                if (header.magic() != MAGIC || header.version() != VERSION) {
+                    throw new IOException(path + " is not a version " + VERSION + " export spool");
+                }
+
+                long[] lengths = {
+                        Integer.toUnsignedLong(header.assetCount()) * ExportAsset.BYTES,
+                        Integer.toUnsignedLong(header.exchangeCount()) * ExportExchange.BYTES,
+                        header.userCount() * ExportUser.BYTES,
+                        header.balanceCount() * ExportBalance.BYTES,
+                };
+
+                long offset = ExportHeader.BYTES;
+                for (int i = 0; i < lengths.length; i++) {
+                    if (lengths[i] < 0 || lengths[i] > Integer.MAX_VALUE) {
+                        throw new IOException("Section " + i + " of " + path + " is too large to map");
+                    }
+                    sections[i] = new UnsafeBuffer(channel.map(FileChannel.MapMode.READ_ONLY, offset, lengths[i]));
+                    offset += lengths[i];
+                }
+
+                if (offset != channel.size()) {
+                    throw new IOException(path + " is " + channel.size() + " bytes, header describes " + offset);
+                }
+            } catch (IOException | RuntimeException e) {
+                close();
+                throw e;
+            }
+        }
+
+        public long blockNumber() {
+            return header.blockNumber();
+        }
+
+        public byte[] blockHash() {
+            byte[] hash = new byte[ExportHeader.BLOCK_HASH_LENGTH];
+            header.getBlockHash(hash);
+            return hash;
+        }
+
+        public int assetCount() {
+            return header.assetCount();
+        }
+
+        public int exchangeCount() {
+            return header.exchangeCount();
+        }
+
+        public int userCount() {
+            return (int) header.userCount();
+        }
+
+        public int balanceCount() {
+            return (int) header.balanceCount();
+        }
+
+        public ExportAsset asset(int index, ExportAsset flyweight) {
+            return flyweight.wrap(sections[ASSETS], index * ExportAsset.BYTES);
+        }
+
+        public ExportExchange exchange(int index, ExportExchange flyweight) {
+            return flyweight.wrap(sections[EXCHANGES], index * ExportExchange.BYTES);
+        }
+
+        public ExportUser user(int index, ExportUser flyweight) {
+            return flyweight.wrap(sections[USERS], index * ExportUser.BYTES);
+        }
+
+        public ExportBalance balance(int index, ExportBalance flyweight) {
+            return flyweight.wrap(sections[BALANCES], index * ExportBalance.BYTES);
+        }
+
+        /**
+         * Closes the file. The mappings are released once the reader and any flyweight
+         * still wrapping a section are collected.
+         */
+        @Override
+        public void close() throws IOException {
+            for (int i = 0; i < sections.length; i++) {
+                sections[i] = null;
+            }
+            file.close();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package io.merklex.dcn.export;
+
+import io.merklex.dcn.models.MigrationExport.*;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Single pass consistency check of an export spool. Ids must be strictly increasing within
+ * a section (the exporter writes them in order, so a gap or repeat means a broken export)
+ * and every balance must reference an exported user and asset.
+ */
+public class SpoolValidator {
+    public static final int MAX_ERRORS = 100;
+
+    public static List<String> Validate(ExportSpool.Reader spool) {
+        List<String> errors = new ArrayList<>();
+
+        BitSet assets = new BitSet();
+        ExportAsset asset = new ExportAsset();
+        long previous = -1;
+        for (int i = 0; i < spool.assetCount() && errors.size() < MAX_ERRORS; i++) {
+            long assetId = Integer.toUnsignedLong(spool.asset(i, asset).assetId());
+            if (assetId <= previous || assetId > Integer.MAX_VALUE) {
+                errors.add("Asset " + assetId + " at " + i + " is out of order");
+                continue;
+            }
+            if (IsZero(asset)) {
+                errors.add("Asset " + assetId + " has a zero unit scale");
+            }
+            assets.set((int) assetId);
+            previous = assetId;
+        }
+
+        ExportExchange exchange = new ExportExchange();
+        previous = -1;
+        for (int i = 0; i < spool.exchangeCount() && errors.size() < MAX_ERRORS; i++) {
+            long exchangeId = Integer.toUnsignedLong(spool.exchange(i, exchange).exchangeId());
+            if (exchangeId <= previous) {
+                errors.add("Exchange " + exchangeId + " at " + i + " is out of order");
+            }
+            previous = exchangeId;
+        }
+
+        BitSet users = new BitSet();
+        ExportUser user = new ExportUser();
+        previous = -1;
+        for (int i = 0; i < spool.userCount() && errors.size() < MAX_ERRORS; i++) {
+            long userId = spool.user(i, user).userId();
+            if (userId <= previous || userId > Integer.MAX_VALUE) {
+                errors.add("User " + userId + " at " + i + " is out of order");
+                continue;
+            }
+            users.set((int) userId);
+            previous = userId;
+        }
+
+        ExportBalance balance = new ExportBalance();
+        long previousUser = -1;
+        long previousAsset = -1;
+        for (int i = 0; i < spool.balanceCount() && errors.size() < MAX_ERRORS; i++) {
+            spool.balance(i, balance);
+            long userId = balance.userId();
+            long assetId = Integer.toUnsignedLong(balance.assetId());
+
+            if (userId < previousUser || (userId == previousUser && assetId <= previousAsset)) {
+                errors.add("Balance " + userId + ":" + assetId + " at " + i + " is out of order");
+            }
+            if (userId < 0 || userId > Integer.MAX_VALUE || !users.get((int) userId)) {
+                errors.add("Balance " + userId + ":" + assetId + " references a missing user");
+            }
+            if (assetId > Integer.MAX_VALUE || !assets.get((int) assetId)) {
+                errors.add("Balance " + userId + ":" + assetId + " references a missing asset");
+            }
+            previousUser = userId;
+            previousAsset = assetId;
+        }
+
+        return errors.size() > MAX_ERRORS ? errors.subList(0, MAX_ERRORS) : errors;
+    }
+
+    private static boolean IsZero(ExportAsset asset) {
+        for (int i = 0; i < ExportAsset.UNIT_SCALE_LENGTH; i++) {
+            if (asset.unitScale(i) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,94 @@
+package io.merklex.dcn.storage;
+
+import io.merklex.dcn.contracts.DCN;
+import org.web3j.utils.Numeric;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Decodes raw storage words into the same values the DCN getters return.
+ * Fields declared first in a struct occupy the most significant bits of a word,
+ * signed fields are sign extended the way the getters do with signextend.
+ */
+public class StorageDecoder {
+    private static final BigInteger MASK_96 = mask(96);
+    private static final BigInteger MASK_128 = mask(128);
+    private static final BigInteger MASK_160 = mask(160);
+    private static final BigInteger MASK_192 = mask(192);
+
+    public static DCN.GetSessionBalanceReturnValue SessionBalance(BigInteger word) {
+        DCN.GetSessionBalanceReturnValue value = new DCN.GetSessionBalanceReturnValue();
+        value.total_deposit = word.shiftRight(128).and(MASK_128);
+        value.unsettled_withdraw_total = word.shiftRight(64).longValue();
+        value.asset_balance = word.longValue();
+        return value;
+    }
+
+    public static DCN.GetMarketStateReturnValue MarketState(BigInteger word0, BigInteger word1, BigInteger word2) {
+        DCN.GetMarketStateReturnValue value = new DCN.GetMarketStateReturnValue();
+        value.quote_qty = word0.shiftRight(192).longValue();
+        value.base_qty = word0.shiftRight(128).longValue();
+        value.fee_used = word0.shiftRight(64).longValue();
+        value.fee_limit = word0.longValue();
+        value.min_quote_qty = word1.shiftRight(192).longValue();
+        value.min_base_qty = word1.shiftRight(128).longValue();
+        value.long_max_price = word1.shiftRight(64).longValue();
+        value.short_min_price = word1.longValue();
+        value.limit_version = word2.shiftRight(192).longValue();
+        value.quote_shift = Int96(word2.shiftRight(96));
+        value.base_shift = Int96(word2);
+        return value;
+    }
+
+    /**
+     * @param words The four words starting at {@link StorageSlots#Exchange(int)}
+     */
+    public static DCN.GetExchangeReturnValue Exchange(BigInteger[] words, int offset) {
+        BigInteger word0 = words[offset];
+        DCN.GetExchangeReturnValue value = new DCN.GetExchangeReturnValue();
+        value.name = Text(word0, 11);
+        value.locked = (word0.shiftRight(160).intValue() & 0xFF) != 0;
+        value.owner = Address(word0);
+        value.withdraw_address = Address(words[offset + 1]);
+        value.recovery_address = Address(words[offset + 2]);
+        value.recovery_address_proposed = Address(words[offset + 3]);
+        return value;
+    }
+
+    public static DCN.GetAssetReturnValue Asset(BigInteger word0, BigInteger word1) {
+        DCN.GetAssetReturnValue value = new DCN.GetAssetReturnValue();
+        value.symbol = Text(word0, 8);
+        value.unit_scale = word0.and(MASK_192);
+        value.contract_address = Address(word1);
+        return value;
+    }
+
+    public static DCN.GetSessionReturnValue Session(BigInteger word0, BigInteger word1) {
+        DCN.GetSessionReturnValue value = new DCN.GetSessionReturnValue();
+        value.unlock_at = word0;
+        value.trade_address = Address(word1);
+        return value;
+    }
+
+    public static String Address(BigInteger word) {
+        return Numeric.toHexStringWithPrefixZeroPadded(word.and(MASK_160), 40);
+    }
+
+    /**
+     * Fixed length string stored in the most significant bytes of a word
+     */
+    public static String Text(BigInteger word, int length) {
+        byte[] bytes = Numeric.toBytesPadded(word, 32);
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private static BigInteger Int96(BigInteger word) {
+        BigInteger value = word.and(MASK_96);
+        return value.testBit(95) ? value.subtract(MASK_96).subtract(BigInteger.ONE) : value;
+    }
+
+    private static BigInteger mask(int bits) {
+        return BigInteger.ONE.shiftLeft(bits).subtract(BigInteger.ONE);
+    }
+}
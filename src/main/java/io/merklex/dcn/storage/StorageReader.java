@@ -0,0 +1,253 @@
+package io.merklex.dcn.storage;
+
+import io.merklex.dcn.contracts.DCN;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.DefaultBlockParameterNumber;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.protocol.core.methods.response.EthGetStorageAt;
+import org.web3j.rlp.RlpDecoder;
+import org.web3j.rlp.RlpList;
+import org.web3j.rlp.RlpString;
+import org.web3j.utils.Numeric;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Reads DCN state straight from contract storage instead of through the getters.
+ * A read of many slots keeps up to window eth_getStorageAt requests in flight, all
+ * against one block, so reading every balance of a session costs one round trip per
+ * window rather than one eth_call per balance.
+ * <p>
+ * A reader built with a {@link Web3jService} reads through eth_getProof instead and
+ * checks every value against the state root of the block before returning it, so an
+ * untrusted node can serve the reads.
+ */
+public class StorageReader {
+    public static final int DEFAULT_WINDOW = 64;
+
+    private final Web3j web3j;
+    private final Web3jService proofService;
+    private final String dcn;
+    private final int window;
+
+    public StorageReader(Web3j web3j, String dcn) {
+        this(web3j, dcn, DEFAULT_WINDOW);
+    }
+
+    public StorageReader(Web3j web3j, String dcn, int window) {
+        this(web3j, null, dcn, window);
+    }
+
+    /**
+     * @param proofService Service of web3j, eth_getProof is sent through it
+     */
+    public StorageReader(Web3j web3j, Web3jService proofService, String dcn) {
+        this(web3j, proofService, dcn, DEFAULT_WINDOW);
+    }
+
+    private StorageReader(Web3j web3j, Web3jService proofService, String dcn, int window) {
+        if (window <= 0) {
+            throw new IllegalArgumentException("Invalid window " + window);
+        }
+        this.web3j = web3j;
+        this.proofService = proofService;
+        this.dcn = dcn;
+        this.window = window;
+    }
+
+    public boolean isVerified() {
+        return proofService != null;
+    }
+
+    /**
+     * @return Words stored in slots, in the same order
+     */
+    public BigInteger[] read(BigInteger[] slots, DefaultBlockParameter block) throws IOException {
+        Pinned pinned = pin(block);
+        return isVerified()
+                ? readProven(slots, pinned.number, pinned.stateRoot)
+                : readPipelined(slots, pinned.number);
+    }
+
+    public DCN.GetSessionBalanceReturnValue sessionBalance(long userId, int exchangeId, int assetId,
+                                                           DefaultBlockParameter block) throws IOException {
+        return sessionBalances(userId, exchangeId, new int[]{assetId}, block)[0];
+    }
+
+    public DCN.GetSessionBalanceReturnValue[] sessionBalances(long userId, int exchangeId, int[] assetIds,
+                                                              DefaultBlockParameter block) throws IOException {
+        BigInteger[] slots = new BigInteger[assetIds.length];
+        for (int i = 0; i < assetIds.length; i++) {
+            slots[i] = StorageSlots.SessionBalance(userId, exchangeId, assetIds[i]);
+        }
+
+        BigInteger[] words = read(slots, block);
+        DCN.GetSessionBalanceReturnValue[] balances = new DCN.GetSessionBalanceReturnValue[words.length];
+        for (int i = 0; i < words.length; i++) {
+            balances[i] = StorageDecoder.SessionBalance(words[i]);
+        }
+        return balances;
+    }
+
+    public DCN.GetMarketStateReturnValue marketState(long userId, int exchangeId, int quoteAssetId, int baseAssetId,
+                                                     DefaultBlockParameter block) throws IOException {
+        BigInteger slot = StorageSlots.MarketState(userId, exchangeId, quoteAssetId, baseAssetId);
+        BigInteger[] words = read(new BigInteger[]{
+                slot,
+                slot.add(BigInteger.ONE),
+                slot.add(BigInteger.valueOf(2))
+        }, block);
+        return StorageDecoder.MarketState(words[0], words[1], words[2]);
+    }
+
+    public DCN.GetExchangeReturnValue exchange(int exchangeId, DefaultBlockParameter block) throws IOException {
+        BigInteger slot = StorageSlots.Exchange(exchangeId);
+        BigInteger[] slots = new BigInteger[4];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = slot.add(BigInteger.valueOf(i));
+        }
+        return StorageDecoder.Exchange(read(slots, block), 0);
+    }
+
+    private BigInteger[] readPipelined(BigInteger[] slots, DefaultBlockParameter block) throws IOException {
+        BigInteger[] words = new BigInteger[slots.length];
+        ArrayDeque<CompletableFuture<EthGetStorageAt>> inFlight = new ArrayDeque<>();
+        int next = 0;
+
+        for (int i = 0; i < slots.length; i++) {
+            while (next < slots.length && inFlight.size() < window) {
+                inFlight.add(web3j.ethGetStorageAt(dcn, slots[next++], block).sendAsync());
+            }
+
+            EthGetStorageAt response;
+            try {
+                response = inFlight.poll().get();
+            } catch (ExecutionException e) {
+                throw new IOException("Failed to read slot " + slots[i].toString(16), e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted reading slot " + slots[i].toString(16), e);
+            }
+
+            if (response.hasError()) {
+                throw new IOException("Failed to read slot " + slots[i].toString(16) + ": "
+                        + response.getError().getMessage());
+            }
+            words[i] = Numeric.toBigInt(response.getData());
+        }
+        return words;
+    }
+
+    private BigInteger[] readProven(BigInteger[] slots, DefaultBlockParameter block, byte[] stateRoot)
+            throws IOException {
+        List<String> keys = new ArrayList<>(slots.length);
+        for (BigInteger slot : slots) {
+            keys.add(Numeric.toHexStringWithPrefixZeroPadded(slot, 64));
+        }
+
+        EthGetProof response = new Request<>("eth_getProof",
+                Arrays.asList(dcn, keys, block.getValue()), proofService, EthGetProof.class).send();
+        if (response.hasError() || response.getResult() == null) {
+            throw new IOException("Failed to load proof"
+                    + (response.hasError() ? ": " + response.getError().getMessage() : ""));
+        }
+
+        AccountProof proof = response.getResult();
+        try {
+            byte[] account = TrieProof.Verify(stateRoot, Numeric.hexStringToByteArray(dcn), Bytes(proof.accountProof));
+            if (account == null) {
+                throw new IOException("Proof shows no account at " + dcn);
+            }
+            byte[] storageRoot = ((RlpString) ((RlpList) RlpDecoder.decode(account).getValues().get(0))
+                    .getValues().get(2)).getBytes();
+            if (!Arrays.equals(storageRoot, Numeric.hexStringToByteArray(proof.storageHash))) {
+                throw new IOException("Account proof storage root does not match " + proof.storageHash);
+            }
+            if (proof.storageProof == null || proof.storageProof.size() != slots.length) {
+                throw new IOException("Expected " + slots.length + " storage proofs");
+            }
+
+            BigInteger[] words = new BigInteger[slots.length];
+            for (int i = 0; i < slots.length; i++) {
+                StorageProof storage = proof.storageProof.get(i);
+                if (!Numeric.toBigInt(storage.key).equals(slots[i])) {
+                    throw new IOException("Storage proof " + i + " is for slot " + storage.key);
+                }
+
+                byte[] value = TrieProof.Verify(storageRoot, Numeric.toBytesPadded(slots[i], 32), Bytes(storage.proof));
+                words[i] = value == null ? BigInteger.ZERO
+                        : new BigInteger(1, ((RlpString) RlpDecoder.decode(value).getValues().get(0)).getBytes());
+                if (storage.value != null && !Numeric.toBigInt(storage.value).equals(words[i])) {
+                    throw new IOException("Slot " + slots[i].toString(16) + " reported " + storage.value
+                            + ", proof shows " + words[i].toString(16));
+                }
+            }
+            return words;
+        } catch (IllegalArgumentException | ClassCastException e) {
+            throw new IOException("Invalid proof for " + dcn + " at " + block.getValue(), e);
+        }
+    }
+
+    private Pinned pin(DefaultBlockParameter block) throws IOException {
+        if (block instanceof DefaultBlockParameterNumber && !isVerified()) {
+            return new Pinned(block, null);
+        }
+
+        EthBlock response = web3j.ethGetBlockByNumber(block, false).send();
+        if (response.hasError() || response.getBlock() == null) {
+            throw new IOException("Failed to load block " + block.getValue()
+                    + (response.hasError() ? ": " + response.getError().getMessage() : ""));
+        }
+        EthBlock.Block pinned = response.getBlock();
+        return new Pinned(DefaultBlockParameter.valueOf(pinned.getNumber()),
+                Numeric.hexStringToByteArray(pinned.getStateRoot()));
+    }
+
+    private static List<byte[]> Bytes(List<String> nodes) {
+        List<byte[]> bytes = new ArrayList<>(nodes.size());
+        for (String node : nodes) {
+            bytes.add(Numeric.hexStringToByteArray(node));
+        }
+        return bytes;
+    }
+
+    private static class Pinned {
+        final DefaultBlockParameter number;
+        final byte[] stateRoot;
+
+        Pinned(DefaultBlockParameter number, byte[] stateRoot) {
+            this.number = number;
+            this.stateRoot = stateRoot;
+        }
+    }
+
+    public static class EthGetProof extends Response<AccountProof> {
+    }
+
+    public static class AccountProof {
+        public String address;
+        public List<String> accountProof;
+        public String balance;
+        public String codeHash;
+        public String nonce;
+        public String storageHash;
+        public List<StorageProof> storageProof;
+    }
+
+    public static class StorageProof {
+        public String key;
+        public String value;
+        public List<String> proof;
+    }
+}
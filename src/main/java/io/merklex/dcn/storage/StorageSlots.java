@@ -0,0 +1,96 @@
+package io.merklex.dcn.storage;
+
+import java.math.BigInteger;
+
+/**
+ * Storage slot addresses of DCN state, mirrors the pointer macros in DCN.sol
+ * (USER_PTR_, SESSION_PTR_, SESSION_BALANCE_PTR_, MARKET_STATE_PTR_, ...).
+ * <p>
+ * State is laid out as fixed size arrays of structs starting at the slot after
+ * the scalar variables, so every address is base + index * struct size.
+ */
+public class StorageSlots {
+    public static final BigInteger CREATOR = BigInteger.valueOf(0);
+    public static final BigInteger CREATOR_RECOVERY = BigInteger.valueOf(1);
+    public static final BigInteger CREATOR_RECOVERY_PROPOSED = BigInteger.valueOf(2);
+    public static final BigInteger USER_COUNT = BigInteger.valueOf(3);
+    public static final BigInteger EXCHANGE_COUNT = BigInteger.valueOf(4);
+    public static final BigInteger ASSET_COUNT = BigInteger.valueOf(5);
+    public static final BigInteger SECURITY_LOCKED_FEATURES = BigInteger.valueOf(6);
+    public static final BigInteger SECURITY_LOCKED_FEATURES_PROPOSED = BigInteger.valueOf(7);
+    public static final BigInteger SECURITY_PROPOSED_UNLOCK_TIMESTAMP = BigInteger.valueOf(8);
+
+    private static final BigInteger MAX_ASSETS = BigInteger.ONE.shiftLeft(32);
+    private static final BigInteger MAX_EXCHANGES = BigInteger.ONE.shiftLeft(32);
+    private static final BigInteger MAX_USERS = BigInteger.ONE.shiftLeft(64);
+    private static final BigInteger MAX_MARKETS = BigInteger.ONE.shiftLeft(64);
+
+    /* struct sizes in slots */
+    public static final BigInteger ASSET_SIZE = BigInteger.valueOf(2);
+    public static final BigInteger MARKET_STATE_SIZE = BigInteger.valueOf(3);
+    public static final BigInteger SESSION_BALANCE_SIZE = BigInteger.ONE;
+    public static final BigInteger EXCHANGE_SIZE = BigInteger.valueOf(4).add(MAX_ASSETS);
+    public static final BigInteger SESSION_SIZE = BigInteger.valueOf(2)
+            .add(MAX_ASSETS.multiply(SESSION_BALANCE_SIZE))
+            .add(MAX_MARKETS.multiply(MARKET_STATE_SIZE));
+    public static final BigInteger USER_SIZE = BigInteger.valueOf(4)
+            .add(MAX_ASSETS)
+            .add(MAX_EXCHANGES.multiply(SESSION_SIZE));
+
+    /* field offsets */
+    private static final long USER_BALANCES = 4;
+    private static final BigInteger USER_SESSIONS = BigInteger.valueOf(4).add(MAX_ASSETS);
+    private static final long SESSION_BALANCES = 2;
+    private static final BigInteger SESSION_MARKET_STATES = BigInteger.valueOf(2).add(MAX_ASSETS);
+    private static final long EXCHANGE_BALANCES = 4;
+
+    public static final BigInteger USERS = BigInteger.valueOf(9);
+    public static final BigInteger ASSETS = USERS.add(MAX_USERS.multiply(USER_SIZE));
+    public static final BigInteger EXCHANGES = ASSETS.add(MAX_ASSETS.multiply(ASSET_SIZE));
+
+    public static BigInteger User(long userId) {
+        return USERS.add(USER_SIZE.multiply(unsigned(userId)));
+    }
+
+    public static BigInteger UserBalance(long userId, int assetId) {
+        return User(userId).add(BigInteger.valueOf(USER_BALANCES + unsigned(assetId)));
+    }
+
+    public static BigInteger Session(long userId, int exchangeId) {
+        return User(userId).add(USER_SESSIONS).add(SESSION_SIZE.multiply(BigInteger.valueOf(unsigned(exchangeId))));
+    }
+
+    public static BigInteger SessionBalance(long userId, int exchangeId, int assetId) {
+        return Session(userId, exchangeId).add(BigInteger.valueOf(SESSION_BALANCES + unsigned(assetId)));
+    }
+
+    public static BigInteger MarketState(long userId, int exchangeId, int quoteAssetId, int baseAssetId) {
+        return Session(userId, exchangeId).add(SESSION_MARKET_STATES)
+                .add(MARKET_STATE_SIZE.multiply(MarketIndex(quoteAssetId, baseAssetId)));
+    }
+
+    public static BigInteger MarketIndex(int quoteAssetId, int baseAssetId) {
+        return BigInteger.valueOf(unsigned(quoteAssetId)).shiftLeft(32).or(BigInteger.valueOf(unsigned(baseAssetId)));
+    }
+
+    public static BigInteger Asset(int assetId) {
+        return ASSETS.add(ASSET_SIZE.multiply(BigInteger.valueOf(unsigned(assetId))));
+    }
+
+    public static BigInteger Exchange(int exchangeId) {
+        return EXCHANGES.add(EXCHANGE_SIZE.multiply(BigInteger.valueOf(unsigned(exchangeId))));
+    }
+
+    public static BigInteger ExchangeBalance(int exchangeId, int assetId) {
+        return Exchange(exchangeId).add(BigInteger.valueOf(EXCHANGE_BALANCES + unsigned(assetId)));
+    }
+
+    private static long unsigned(int value) {
+        return Integer.toUnsignedLong(value);
+    }
+
+    private static BigInteger unsigned(long value) {
+        BigInteger result = BigInteger.valueOf(value);
+        return value < 0 ? result.add(MAX_USERS) : result;
+    }
+}
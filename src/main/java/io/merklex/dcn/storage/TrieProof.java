@@ -0,0 +1,109 @@
+package io.merklex.dcn.storage;
+
+import io.merklex.dcn.KeccakHash;
+import org.web3j.rlp.RlpDecoder;
+import org.web3j.rlp.RlpList;
+import org.web3j.rlp.RlpString;
+import org.web3j.rlp.RlpType;
+import org.web3j.utils.Numeric;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Verifies Merkle Patricia proofs as returned by eth_getProof. Account and storage
+ * tries are secure tries, keys are hashed with keccak256 before they are walked.
+ * <p>
+ * Nodes of at least 32 bytes are referenced by hash and must be the next element of
+ * the proof, smaller nodes are embedded in their parent.
+ */
+public class TrieProof {
+    private static final int BRANCH_SIZE = 17;
+
+    /**
+     * @param root Root hash of the trie
+     * @param key Unhashed key, an address or a 32 byte slot
+     * @param proof Nodes from the root towards the key
+     * @return Value stored under key, null if the proof shows the key is absent
+     * @throws IllegalArgumentException if the proof does not match the root
+     */
+    public static byte[] Verify(byte[] root, byte[] key, List<byte[]> proof) {
+        byte[] path = Nibbles(KeccakHash.Hash(key), 0);
+        int depth = 0;
+        int nextProof = 0;
+
+        RlpType reference = RlpString.create(root);
+        while (true) {
+            RlpList node;
+            if (reference instanceof RlpList) {
+                node = (RlpList) reference;
+            } else {
+                byte[] hash = ((RlpString) reference).getBytes();
+                if (hash.length == 0) {
+                    return null;
+                }
+                if (nextProof == proof.size()) {
+                    throw new IllegalArgumentException("Proof ends before node " + Numeric.toHexString(hash));
+                }
+                byte[] encoded = proof.get(nextProof++);
+                if (!Arrays.equals(hash, KeccakHash.Hash(encoded))) {
+                    throw new IllegalArgumentException("Proof node " + (nextProof - 1) + " does not hash to " + Numeric.toHexString(hash));
+                }
+                node = (RlpList) RlpDecoder.decode(encoded).getValues().get(0);
+            }
+
+            List<RlpType> items = node.getValues();
+            if (items.size() == BRANCH_SIZE) {
+                if (depth == path.length) {
+                    return Value(items.get(16));
+                }
+                reference = items.get(path[depth++]);
+                continue;
+            }
+            if (items.size() != 2) {
+                throw new IllegalArgumentException("Invalid trie node with " + items.size() + " items");
+            }
+
+            byte[] compact = ((RlpString) items.get(0)).getBytes();
+            if (compact.length == 0) {
+                throw new IllegalArgumentException("Invalid trie node without path");
+            }
+            boolean leaf = (compact[0] & 0x20) != 0;
+            byte[] partial = Nibbles(compact, (compact[0] & 0x10) != 0 ? 1 : 2);
+
+            if (depth + partial.length > path.length
+                    || !Arrays.equals(partial, Arrays.copyOfRange(path, depth, depth + partial.length))) {
+                return null;
+            }
+            depth += partial.length;
+
+            if (leaf) {
+                if (depth != path.length) {
+                    return null;
+                }
+                return Value(items.get(1));
+            }
+            reference = items.get(1);
+        }
+    }
+
+    /**
+     * Nibbles of data starting at nibble offset start
+     */
+    private static byte[] Nibbles(byte[] data, int start) {
+        byte[] nibbles = new byte[data.length * 2 - start];
+        for (int i = start; i < data.length * 2; i++) {
+            int b = data[i >> 1];
+            nibbles[i - start] = (byte) ((i & 1) == 0 ? (b >> 4) & 0xF : b & 0xF);
+        }
+        return nibbles;
+    }
+
+    private static byte[] Value(RlpType item) {
+        if (!(item instanceof RlpString)) {
+            throw new IllegalArgumentException("Invalid trie value");
+        }
+        byte[] value = ((RlpString) item).getBytes();
+        return value.length == 0 ? null : value;
+    }
+}
@@ -0,0 +1,717 @@
+package io.merklex.dcn.tools;
+
+import io.merklex.dcn.BufferToHex;
+import io.merklex.dcn.DCNHasher;
+import io.merklex.dcn.Settlements;
+import io.merklex.dcn.Transfers;
+import io.merklex.dcn.UpdateLimits;
+import io.merklex.dcn.contracts.DCN;
+import io.merklex.dcn.contracts.ERC20;
+import io.merklex.ether_net.EtherDebugNet;
+import io.merklex.ether_net.EtherInProcessNet;
+import io.merklex.ether_net.EtherPrivateNet;
+import io.merklex.ether_net.Web3Provider;
+import io.merklex.web3.EtherTransactions;
+import io.merklex.web3.RevertCodeExtractor;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.web3j.crypto.Credentials;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.methods.response.EthSendTransaction;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.web3j.utils.Numeric;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Drives a configurable mix of exchange_apply_settlement_groups, exchange_transfer_from
+ * and exchange_set_limits against a freshly deployed DCN and reports throughput,
+ * gas per settlement and latency percentiles.
+ * <p>
+ * Every exchange gets its own owner key and submitter thread so nonces stay ordered
+ * per sender, exchanges=N runs N concurrent submitters. Arguments are key=value pairs,
+ * see {@link Config}. All keys and operation choices derive from the seed so runs with
+ * the same arguments are reproducible.
+ * <p>
+ * exchange_set_limits compares the payload's exchange_id against a memory slot it never
+ * writes, so the deployed contract only accepts limits for exchange 0. Without limits every
+ * settlement reverts, so exchange 0 runs the configured mix and the submitters of the other
+ * exchanges only run exchange_transfer_from.
+ * <p>
+ * Gas per record only counts successful transactions. Gas burnt by reverted transactions is
+ * reported separately.
+ */
+public class SettlementBenchmark {
+    private static final BigInteger INITIAL_WEI = new BigInteger("1000000000000000000000000000000000");
+    private static final long DEPOSIT = 1_000_000_000_000L;
+    private static final long PRICE = 5;
+    private static final int LIMITS_PER_TX = 16;
+
+    private static final int OP_SETTLE = 0;
+    private static final int OP_TRANSFER = 1;
+    private static final int OP_LIMITS = 2;
+    private static final String[] OP_NAMES = {"apply_settlement_groups", "transfer_from", "set_limits"};
+
+    public static class Config {
+        public String net = "ganache";
+        /* http, ipc, pipelined_ipc or websocket, defaults to ipc for geth and http for ganache */
+        public String transport;
+        public int rpcPort = 8545;
+        public int users = 50;
+        public int exchanges = 1;
+        public int assets = 2;
+        public int transactions = 200;
+        public int groupsPerTx = 8;
+        public int usersPerGroup = 2;
+        public int transfersPerTx = 8;
+        public int limitsPerTx = 4;
+        public int[] mix = {80, 10, 10};
+        public int window = 4;
+        public long seed = 1;
+        public long gasLimit = 8_000_000;
+        public BigInteger gasPrice = BigInteger.ZERO;
+        public String report;
+
+        public static Config Parse(String[] args) {
+            Config config = new Config();
+            for (String arg : args) {
+                int split = arg.indexOf('=');
+                if (split < 0) {
+                    throw new IllegalArgumentException("Expected key=value: " + arg);
+                }
+
+                String key = arg.substring(0, split);
+                String value = arg.substring(split + 1);
+
+                switch (key) {
+                    case "net": config.net = value; break;
+                    case "transport": config.transport = value; break;
+                    case "rpcPort": config.rpcPort = Integer.parseInt(value); break;
+                    case "users": config.users = Integer.parseInt(value); break;
+                    case "exchanges": config.exchanges = Integer.parseInt(value); break;
+                    case "assets": config.assets = Integer.parseInt(value); break;
+                    case "transactions": config.transactions = Integer.parseInt(value); break;
+                    case "groupsPerTx": config.groupsPerTx = Integer.parseInt(value); break;
+                    case "usersPerGroup": config.usersPerGroup = Integer.parseInt(value); break;
+                    case "transfersPerTx": config.transfersPerTx = Integer.parseInt(value); break;
+                    case "limitsPerTx": config.limitsPerTx = Integer.parseInt(value); break;
+                    case "window": config.window = Integer.parseInt(value); break;
+                    case "seed": config.seed = Long.parseLong(value); break;
+                    case "gasLimit": config.gasLimit = Long.parseLong(value); break;
+                    case "gasPrice": config.gasPrice = new BigInteger(value); break;
+                    case "report": config.report = value; break;
+                    case "mix":
+                        String[] parts = value.split(":");
+                        if (parts.length != 3) {
+                            throw new IllegalArgumentException("mix must be settle:transfer:limits");
+                        }
+                        for (int i = 0; i < 3; i++) {
+                            config.mix[i] = Integer.parseInt(parts[i]);
+                        }
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option: " + key);
+                }
+            }
+
+            if (config.exchanges < 1) {
+                throw new IllegalArgumentException("Need at least 1 exchange");
+            }
+            if (config.assets < 2) {
+                throw new IllegalArgumentException("Need at least 2 assets");
+            }
+            if (config.usersPerGroup < 2 || (config.usersPerGroup & 1) != 0 || config.usersPerGroup > config.users) {
+                throw new IllegalArgumentException("usersPerGroup must be even, >= 2 and <= users");
+            }
+            return config;
+        }
+
+        @Override
+        public String toString() {
+            return "net=" + net + (transport == null ? "" : " transport=" + transport) + " users=" + users + " exchanges=" + exchanges + " assets=" + assets +
+                    " transactions=" + transactions + " groupsPerTx=" + groupsPerTx +
+                    " usersPerGroup=" + usersPerGroup + " transfersPerTx=" + transfersPerTx +
+                    " limitsPerTx=" + limitsPerTx + " mix=" + mix[0] + ":" + mix[1] + ":" + mix[2] +
+                    " window=" + window + " seed=" + seed + " gasLimit=" + gasLimit + " gasPrice=" + gasPrice;
+        }
+    }
+
+    public static class Latencies {
+        private long[] values = new long[1024];
+        private int count;
+
+        public void add(long nanos) {
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = nanos;
+        }
+
+        public void addAll(Latencies other) {
+            for (int i = 0; i < other.count; i++) {
+                add(other.values[i]);
+            }
+        }
+
+        public int count() {
+            return count;
+        }
+
+        public long percentile(double p) {
+            if (count == 0) {
+                return 0;
+            }
+            long[] sorted = Arrays.copyOf(values, count);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(p / 100.0 * count) - 1;
+            return sorted[Math.max(0, Math.min(count - 1, index))];
+        }
+    }
+
+    private static class OpStats {
+        final Latencies latency = new Latencies();
+        long transactions;
+        long records;
+        long reverts;
+        /* gas of successful transactions, the only ones that apply records */
+        BigInteger gasUsed = BigInteger.ZERO;
+        BigInteger revertedGas = BigInteger.ZERO;
+
+        void merge(OpStats other) {
+            latency.addAll(other.latency);
+            transactions += other.transactions;
+            records += other.records;
+            reverts += other.reverts;
+            gasUsed = gasUsed.add(other.gasUsed);
+            revertedGas = revertedGas.add(other.revertedGas);
+        }
+    }
+
+    private static class Pending {
+        final EthSendTransaction ticket;
+        final int op;
+        final int records;
+        final long startedAt;
+
+        Pending(EthSendTransaction ticket, int op, int records, long startedAt) {
+            this.ticket = ticket;
+            this.op = op;
+            this.records = records;
+            this.startedAt = startedAt;
+        }
+    }
+
+    private final Config config;
+    private final Random random;
+
+    private final Credentials creator;
+    private final List<Credentials> userKeys = new ArrayList<>();
+    private final List<Credentials> exchangeKeys = new ArrayList<>();
+
+    private Web3Provider network;
+    private String dcnAddress;
+
+    public SettlementBenchmark(Config config) {
+        this.config = config;
+        this.random = new Random(config.seed);
+
+        creator = NextKey(random);
+        for (int i = 0; i < config.users; i++) {
+            userKeys.add(NextKey(random));
+        }
+        for (int i = 0; i < config.exchanges; i++) {
+            exchangeKeys.add(NextKey(random));
+        }
+    }
+
+    private static Credentials NextKey(Random random) {
+        byte[] bucket = new byte[32];
+        random.nextBytes(bucket);
+        return Credentials.create(Numeric.toHexStringNoPrefixZeroPadded(new BigInteger(1, bucket), 64));
+    }
+
+    private EtherTransactions tx(Credentials credentials) {
+        return new EtherTransactions(network.web3(), credentials)
+                .withGas(config.gasPrice, BigInteger.valueOf(config.gasLimit));
+    }
+
+    public void start() throws IOException, InterruptedException {
+        HashMap<String, String> balances = new HashMap<>();
+        balances.put(creator.getEcKeyPair().getPrivateKey().toString(16), INITIAL_WEI.toString());
+        for (Credentials key : userKeys) {
+            balances.put(key.getEcKeyPair().getPrivateKey().toString(16), INITIAL_WEI.toString());
+        }
+        for (Credentials key : exchangeKeys) {
+            balances.put(key.getEcKeyPair().getPrivateKey().toString(16), INITIAL_WEI.toString());
+        }
+
+        if ("geth".equals(config.net)) {
+            network = new EtherPrivateNet(config.rpcPort, "127.0.0.1", balances, config.gasLimit, 9999,
+                    transport(Web3Provider.Transport.IPC));
+        }
+        else if ("ganache".equals(config.net)) {
+            network = new EtherDebugNet(config.rpcPort, "127.0.0.1", balances, config.gasLimit, 9999, null,
+                    transport(Web3Provider.Transport.HTTP));
+        }
+        else if ("inprocess".equals(config.net)) {
+            network = new EtherInProcessNet(balances, config.gasLimit, 9999);
+        }
+        else {
+            throw new IllegalArgumentException("Unknown net: " + config.net);
+        }
+    }
+
+    private Web3Provider.Transport transport(Web3Provider.Transport fallback) {
+        return config.transport == null ? fallback : Web3Provider.Transport.valueOf(config.transport.toUpperCase());
+    }
+
+    public void setup() throws Exception {
+        EtherTransactions creatorTx = tx(creator);
+        dcnAddress = creatorTx.deployContract(config.gasPrice, BigInteger.valueOf(config.gasLimit),
+                DCN.DeployData(), BigInteger.ZERO);
+
+        BigInteger supply = BigInteger.valueOf(DEPOSIT)
+                .multiply(BigInteger.valueOf(config.users))
+                .multiply(BigInteger.valueOf(config.exchanges));
+
+        ArrayList<EthSendTransaction> tickets = new ArrayList<>();
+        for (int assetId = 0; assetId < config.assets; assetId++) {
+            String token = creatorTx.deployContract(config.gasPrice, BigInteger.valueOf(config.gasLimit),
+                    ERC20.DeployData(supply, "T" + assetId, 0, "T" + assetId), BigInteger.ZERO);
+            tickets.add(creatorTx.sendCall(token, ERC20.approve(dcnAddress, supply)));
+            tickets.add(creatorTx.sendCall(dcnAddress, DCN.add_asset(String.format("tkn%05d", assetId), 1, token)));
+        }
+
+        for (int exchangeId = 0; exchangeId < config.exchanges; exchangeId++) {
+            tickets.add(creatorTx.sendCall(dcnAddress, DCN.add_exchange(
+                    String.format("bench%06d", exchangeId), exchangeKeys.get(exchangeId).getAddress())));
+        }
+        awaitAll(creatorTx, tickets);
+
+        BigInteger unlockAt = BigInteger.valueOf(System.currentTimeMillis() / 1000 + 28800 * 2);
+        for (int userId = 0; userId < config.users; userId++) {
+            EtherTransactions userTx = tx(userKeys.get(userId));
+            tickets.add(userTx.sendCall(dcnAddress, DCN.user_create()));
+            awaitAll(userTx, tickets);
+
+            for (int exchangeId = 0; exchangeId < config.exchanges; exchangeId++) {
+                tickets.add(userTx.sendCall(dcnAddress, DCN.user_session_set_unlock_at(userId, exchangeId, unlockAt)));
+            }
+            awaitAll(userTx, tickets);
+
+            for (int exchangeId = 0; exchangeId < config.exchanges; exchangeId++) {
+                for (int assetId = 0; assetId < config.assets; assetId++) {
+                    tickets.add(creatorTx.sendCall(dcnAddress,
+                            DCN.user_deposit_to_session(userId, exchangeId, assetId, DEPOSIT / config.assets)));
+                }
+            }
+            awaitAll(creatorTx, tickets);
+        }
+
+        UnsafeBuffer buffer = new UnsafeBuffer(new byte[new UpdateLimits().bytes(LIMITS_PER_TX)]);
+        UpdateLimits limits = new UpdateLimits().wrap(buffer, 0);
+        UpdateLimits.LimitUpdate update = new UpdateLimits.LimitUpdate();
+
+        /* only exchange 0 can set limits, see the class comment */
+        for (int exchangeId = 0; exchangeId < 1; exchangeId++) {
+            EtherTransactions exchangeTx = tx(exchangeKeys.get(exchangeId));
+            int count = 0;
+
+            limits.exchangeId(exchangeId).firstLimitUpdate(update);
+            for (int userId = 0; userId < config.users; userId++) {
+                for (int baseAssetId = 1; baseAssetId < config.assets; baseAssetId++) {
+                    writeLimit(update, userId, exchangeId, baseAssetId, 1).nextLimitUpdate(update);
+
+                    if (++count == LIMITS_PER_TX) {
+                        tickets.add(exchangeTx.sendCall(dcnAddress, DCN.exchange_set_limits(limits.payload(count))));
+                        limits.firstLimitUpdate(update);
+                        count = 0;
+                    }
+                }
+            }
+
+            if (count > 0) {
+                tickets.add(exchangeTx.sendCall(dcnAddress, DCN.exchange_set_limits(limits.payload(count))));
+            }
+            awaitAll(exchangeTx, tickets);
+        }
+    }
+
+    private UpdateLimits.LimitUpdate writeLimit(UpdateLimits.LimitUpdate update, int userId, int exchangeId,
+                                                int baseAssetId, long version) {
+        return update
+                .dcnId(1)
+                .userId(userId)
+                .exchangeId(exchangeId)
+                .quoteAssetId(0)
+                .baseAssetId(baseAssetId)
+                .feeLimit(0)
+                .minQuoteQty(Long.MIN_VALUE / 2)
+                .minBaseQty(Long.MIN_VALUE / 2)
+                .longMaxPrice(-1)
+                .shortMinPrice(0)
+                .limitVersion(version)
+                .quoteShift(BigInteger.ZERO)
+                .baseShift(BigInteger.ZERO)
+                .sign(userKeys.get(userId), DCNHasher.instance);
+    }
+
+    private static void awaitAll(EtherTransactions tx, List<EthSendTransaction> tickets) throws Exception {
+        for (EthSendTransaction ticket : tickets) {
+            if (ticket.hasError()) {
+                throw new IllegalStateException("Setup transaction failed: " + DescribeError(ticket));
+            }
+            TransactionReceipt receipt = tx.waitForResult(ticket);
+            if (!"0x1".equals(receipt.getStatus())) {
+                throw new IllegalStateException("Setup transaction reverted: " + receipt.getTransactionHash());
+            }
+        }
+        tickets.clear();
+    }
+
+    private static String DescribeError(EthSendTransaction ticket) {
+        try {
+            return "revert " + RevertCodeExtractor.GetRevert(ticket.getError());
+        } catch (Exception e) {
+            return ticket.getError().getMessage();
+        }
+    }
+
+    private class Submitter implements Runnable {
+        private final int exchangeId;
+        private final Random random;
+        private final int transactions;
+        private final EtherTransactions tx;
+        private final OpStats[] stats = {new OpStats(), new OpStats(), new OpStats()};
+        private final long[][] limitVersions;
+
+        private final UnsafeBuffer buffer;
+        private final Settlements settlements = new Settlements();
+        private final Settlements.Group group = new Settlements.Group();
+        private final Settlements.SettlementData settlement = new Settlements.SettlementData();
+        private final Transfers transfers = new Transfers();
+        private final Transfers.Group transferGroup = new Transfers.Group();
+        private final Transfers.Transfer transfer = new Transfers.Transfer();
+        private final UpdateLimits limits = new UpdateLimits();
+        private final UpdateLimits.LimitUpdate update = new UpdateLimits.LimitUpdate();
+
+        Submitter(int exchangeId, long seed, int transactions) {
+            this.exchangeId = exchangeId;
+            this.random = new Random(seed);
+            this.transactions = transactions;
+            this.tx = tx(exchangeKeys.get(exchangeId));
+            this.limitVersions = new long[config.users][config.assets];
+            for (long[] versions : limitVersions) {
+                Arrays.fill(versions, 1);
+            }
+
+            int settleBytes = settlements.bytes(config.groupsPerTx, config.groupsPerTx * config.usersPerGroup);
+            int transferBytes = Transfers.BYTES + Transfers.Group.BYTES + Transfers.Transfer.BYTES * config.transfersPerTx;
+            int limitBytes = limits.bytes(config.limitsPerTx);
+            buffer = new UnsafeBuffer(new byte[Math.max(settleBytes, Math.max(transferBytes, limitBytes))]);
+        }
+
+        private int pickOp() {
+            if (exchangeId != 0) {
+                return OP_TRANSFER;
+            }
+
+            int total = config.mix[0] + config.mix[1] + config.mix[2];
+            int roll = random.nextInt(total);
+            if (roll < config.mix[0]) {
+                return OP_SETTLE;
+            }
+            if (roll < config.mix[0] + config.mix[1]) {
+                return OP_TRANSFER;
+            }
+            return OP_LIMITS;
+        }
+
+        private int[] pickUsers(int count) {
+            int[] picked = new int[count];
+            for (int i = 0; i < count; i++) {
+                boolean duplicate;
+                do {
+                    picked[i] = random.nextInt(config.users);
+                    duplicate = false;
+                    for (int j = 0; j < i; j++) {
+                        duplicate |= picked[j] == picked[i];
+                    }
+                } while (duplicate);
+            }
+            return picked;
+        }
+
+        private String encodeSettlements() {
+            settlements.wrap(buffer, 0).exchangeId(exchangeId).firstGroup(group);
+
+            for (int g = 0; g < config.groupsPerTx; g++) {
+                int baseAssetId = 1 + random.nextInt(config.assets - 1);
+                int[] users = pickUsers(config.usersPerGroup);
+
+                group.quoteAssetId(0).baseAssetId(baseAssetId).userCount(users.length).firstSettlement(settlement);
+                for (int i = 0; i < users.length; i += 2) {
+                    long qty = 1 + random.nextInt(100);
+                    long side = random.nextBoolean() ? 1 : -1;
+
+                    settlement.userId(users[i]).quoteDelta(-side * qty * PRICE).baseDelta(side * qty).fees(0)
+                            .nextSettlement(settlement)
+                            .userId(users[i + 1]).quoteDelta(side * qty * PRICE).baseDelta(-side * qty).fees(0)
+                            .nextSettlement(settlement);
+                }
+                group.nextGroup(group);
+            }
+
+            return settlements.payload(config.groupsPerTx);
+        }
+
+        private String encodeTransfers() {
+            transfers.wrap(buffer, 0).exchangeId(exchangeId).firstGroup(transferGroup)
+                    .assetId(random.nextInt(config.assets))
+                    .allowOverdraft(false)
+                    .transferCount(config.transfersPerTx)
+                    .firstTransfer(transfer);
+
+            for (int i = 0; i < config.transfersPerTx; i++) {
+                transfer.userId(random.nextInt(config.users)).quantity(1).nextTransfer(transfer);
+            }
+
+            return BufferToHex.ToHex(buffer, 0, transfers.bytes(1, transferGroup));
+        }
+
+        private String encodeLimits() {
+            limits.wrap(buffer, 0).exchangeId(exchangeId).firstLimitUpdate(update);
+
+            int[] users = pickUsers(Math.min(config.limitsPerTx, config.users));
+            for (int userId : users) {
+                int baseAssetId = 1 + random.nextInt(config.assets - 1);
+                long version = ++limitVersions[userId][baseAssetId];
+                writeLimit(update, userId, exchangeId, baseAssetId, version).nextLimitUpdate(update);
+            }
+
+            return limits.payload(users.length);
+        }
+
+        @Override
+        public void run() {
+            ArrayDeque<Pending> inFlight = new ArrayDeque<>();
+
+            try {
+                for (int i = 0; i < transactions; i++) {
+                    int op = pickOp();
+                    String payload;
+                    int records;
+
+                    long startedAt = System.nanoTime();
+                    switch (op) {
+                        case OP_SETTLE:
+                            payload = encodeSettlements();
+                            records = config.groupsPerTx * config.usersPerGroup;
+                            break;
+                        case OP_TRANSFER:
+                            payload = encodeTransfers();
+                            records = config.transfersPerTx;
+                            break;
+                        default:
+                            payload = encodeLimits();
+                            records = Math.min(config.limitsPerTx, config.users);
+                            break;
+                    }
+
+                    EthSendTransaction ticket;
+                    if (op == OP_SETTLE) {
+                        ticket = tx.sendCall(dcnAddress, DCN.exchange_apply_settlement_groups(payload));
+                    }
+                    else if (op == OP_TRANSFER) {
+                        ticket = tx.sendCall(dcnAddress, DCN.exchange_transfer_from(payload));
+                    }
+                    else {
+                        ticket = tx.sendCall(dcnAddress, DCN.exchange_set_limits(payload));
+                    }
+
+                    inFlight.add(new Pending(ticket, op, records, startedAt));
+                    if (inFlight.size() >= config.window) {
+                        complete(inFlight.poll());
+                    }
+                }
+
+                while (!inFlight.isEmpty()) {
+                    complete(inFlight.poll());
+                }
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        private void complete(Pending pending) throws Exception {
+            OpStats opStats = stats[pending.op];
+            opStats.transactions++;
+
+            if (pending.ticket.hasError()) {
+                opStats.reverts++;
+                System.err.println(OP_NAMES[pending.op] + " rejected: " + DescribeError(pending.ticket));
+
+                /* ganache reports a revert as an error, but the transaction is mined */
+                String hash = RevertCodeExtractor.GetTransactionHash(pending.ticket.getError());
+                Optional<TransactionReceipt> reverted = hash == null ? Optional.empty()
+                        : network.web3().ethGetTransactionReceipt(hash).send().getTransactionReceipt();
+                if (reverted.isPresent()) {
+                    opStats.revertedGas = opStats.revertedGas.add(reverted.get().getGasUsed());
+                }
+                else {
+                    tx.reloadNonce();
+                }
+                return;
+            }
+
+            TransactionReceipt receipt;
+            while (true) {
+                Optional<TransactionReceipt> result = tx.getResult(pending.ticket);
+                if (result.isPresent()) {
+                    receipt = result.get();
+                    break;
+                }
+                Thread.sleep(2);
+            }
+
+            opStats.latency.add(System.nanoTime() - pending.startedAt);
+
+            if ("0x1".equals(receipt.getStatus())) {
+                opStats.records += pending.records;
+                opStats.gasUsed = opStats.gasUsed.add(receipt.getGasUsed());
+            }
+            else {
+                opStats.reverts++;
+                opStats.revertedGas = opStats.revertedGas.add(receipt.getGasUsed());
+            }
+        }
+    }
+
+    public String run() throws InterruptedException {
+        List<Submitter> submitters = new ArrayList<>();
+        for (int exchangeId = 0; exchangeId < config.exchanges; exchangeId++) {
+            int share = config.transactions / config.exchanges
+                    + (exchangeId < config.transactions % config.exchanges ? 1 : 0);
+            submitters.add(new Submitter(exchangeId, random.nextLong(), share));
+        }
+
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(submitters.size());
+
+        long startedAt = System.nanoTime();
+        for (Submitter submitter : submitters) {
+            Thread thread = new Thread(() -> {
+                try {
+                    submitter.run();
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                } finally {
+                    done.countDown();
+                }
+            }, "submitter-" + submitter.exchangeId);
+            thread.start();
+        }
+        done.await();
+        long elapsed = System.nanoTime() - startedAt;
+
+        if (failure.get() != null) {
+            throw new RuntimeException(failure.get());
+        }
+
+        OpStats[] totals = {new OpStats(), new OpStats(), new OpStats()};
+        for (Submitter submitter : submitters) {
+            for (int op = 0; op < totals.length; op++) {
+                totals[op].merge(submitter.stats[op]);
+            }
+        }
+
+        return report(totals, elapsed);
+    }
+
+    private String report(OpStats[] totals, long elapsedNanos) {
+        StringWriter out = new StringWriter();
+        PrintWriter w = new PrintWriter(out);
+
+        double seconds = elapsedNanos / 1e9;
+        long transactions = 0;
+        for (OpStats stats : totals) {
+            transactions += stats.transactions;
+        }
+
+        w.println("# DCN settlement benchmark");
+        w.println("config: " + config);
+        w.printf("elapsed: %.3f s%n", seconds);
+        w.printf("transactions: %d (%.2f tx/s)%n", transactions, transactions / seconds);
+
+        OpStats settle = totals[OP_SETTLE];
+        w.printf("settlements: %d (%.2f settlements/s)%n", settle.records, settle.records / seconds);
+        if (settle.records > 0) {
+            w.println("gas per settlement: " + settle.gasUsed.divide(BigInteger.valueOf(settle.records)));
+        }
+        if (settle.reverts > 0) {
+            w.println("gas of reverted settlement transactions: " + settle.revertedGas);
+        }
+        w.println();
+
+        w.printf("%-24s %8s %8s %8s %12s %14s %10s %10s %10s %10s%n",
+                "op", "tx", "records", "reverts", "gas/record", "reverted gas", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        for (int op = 0; op < totals.length; op++) {
+            OpStats stats = totals[op];
+            BigInteger gasPerRecord = stats.records == 0 ? BigInteger.ZERO
+                    : stats.gasUsed.divide(BigInteger.valueOf(stats.records));
+
+            w.printf("%-24s %8d %8d %8d %12s %14s %10.2f %10.2f %10.2f %10.2f%n",
+                    OP_NAMES[op], stats.transactions, stats.records, stats.reverts, gasPerRecord, stats.revertedGas,
+                    stats.latency.percentile(50) / 1e6,
+                    stats.latency.percentile(90) / 1e6,
+                    stats.latency.percentile(99) / 1e6,
+                    stats.latency.percentile(100) / 1e6);
+        }
+
+        w.flush();
+        return out.toString();
+    }
+
+    public void close() throws IOException {
+        if (network != null) {
+            network.close();
+        }
+    }
+
+    public Web3j web3() {
+        return network.web3();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Config config = Config.Parse(args);
+        SettlementBenchmark benchmark = new SettlementBenchmark(config);
+
+        try {
+            benchmark.start();
+            benchmark.setup();
+
+            String report = benchmark.run();
+            System.out.print(report);
+
+            if (config.report != null) {
+                try (FileWriter writer = new FileWriter(config.report)) {
+                    writer.write(report);
+                }
+            }
+        } finally {
+            benchmark.close();
+        }
+    }
+}
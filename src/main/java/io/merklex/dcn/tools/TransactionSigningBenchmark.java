@@ -0,0 +1,164 @@
+package io.merklex.dcn.tools;
+
+import io.merklex.dcn.contracts.DCN;
+import io.merklex.web3.RawTransactionSigner;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.web3j.crypto.Credentials;
+import org.web3j.crypto.RawTransaction;
+import org.web3j.tx.ChainId;
+import org.web3j.tx.RawTransactionManager;
+import org.web3j.utils.Numeric;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigInteger;
+import java.util.Random;
+
+/**
+ * Signs the same stream of transactions with web3j's RawTransactionManager and with
+ * RawTransactionSigner and reports time and heap allocated per transaction. Both paths
+ * are checked to produce identical signed transactions before timing.
+ * <p>
+ * Arguments are key=value pairs, see {@link Config}. Allocation is read from
+ * com.sun.management.ThreadMXBean and reported as -1 where the JVM does not support it.
+ */
+public class TransactionSigningBenchmark {
+    public static class Config {
+        public int transactions = 20_000;
+        public int warmup = 20_000;
+        /* calldata bytes after the selector, 0 signs a bare user_create */
+        public int dataBytes = 0;
+        public byte chainId = ChainId.NONE;
+        public long seed = 1;
+
+        public static Config Parse(String[] args) {
+            Config config = new Config();
+            for (String arg : args) {
+                int split = arg.indexOf('=');
+                if (split < 0) {
+                    throw new IllegalArgumentException("Expected key=value: " + arg);
+                }
+
+                String key = arg.substring(0, split);
+                String value = arg.substring(split + 1);
+
+                switch (key) {
+                    case "transactions": config.transactions = Integer.parseInt(value); break;
+                    case "warmup": config.warmup = Integer.parseInt(value); break;
+                    case "dataBytes": config.dataBytes = Integer.parseInt(value); break;
+                    case "chainId": config.chainId = Byte.parseByte(value); break;
+                    case "seed": config.seed = Long.parseLong(value); break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option: " + key);
+                }
+            }
+
+            if (config.transactions <= 0 || config.warmup < 0 || config.dataBytes < 0) {
+                throw new IllegalArgumentException("transactions must be positive, warmup and dataBytes not negative");
+            }
+            return config;
+        }
+    }
+
+    private interface Signer {
+        String sign(BigInteger nonce);
+    }
+
+    private static final BigInteger GAS_PRICE = BigInteger.valueOf(1_000_000_000L);
+    private static final BigInteger GAS_LIMIT = BigInteger.valueOf(8_000_000);
+
+    private final Config config;
+    private final String to;
+    private final UnsafeBuffer data;
+    private final int dataLength;
+    private final String dataHex;
+    private final Signer web3j;
+    private final Signer direct;
+
+    private TransactionSigningBenchmark(Config config) {
+        this.config = config;
+
+        Random random = new Random(config.seed);
+        byte[] key = new byte[32];
+        random.nextBytes(key);
+        key[0] &= 0x7F;
+        Credentials credentials = Credentials.create(Numeric.toHexStringNoPrefix(key));
+
+        byte[] address = new byte[20];
+        random.nextBytes(address);
+        to = Numeric.toHexString(address);
+
+        data = new UnsafeBuffer(new byte[DCN.user_create_BYTES + config.dataBytes]);
+        DCN.encode_user_create(data, 0);
+        for (int i = DCN.user_create_BYTES; i < data.capacity(); i++) {
+            data.putByte(i, (byte) random.nextInt());
+        }
+        dataLength = data.capacity();
+        dataHex = Numeric.toHexString(data.byteArray());
+
+        RawTransactionManager manager = new RawTransactionManager(null, credentials, config.chainId);
+        web3j = nonce -> manager.sign(RawTransaction.createTransaction(
+                nonce, GAS_PRICE, GAS_LIMIT, to, BigInteger.ZERO, dataHex));
+
+        RawTransactionSigner signer = new RawTransactionSigner(credentials, config.chainId);
+        direct = nonce -> signer.sign(nonce, GAS_PRICE, GAS_LIMIT, to, BigInteger.ZERO, data, 0, dataLength);
+    }
+
+    private void verify() {
+        for (int i = 0; i < 100; i++) {
+            BigInteger nonce = BigInteger.valueOf(i * 7919L);
+            String expected = web3j.sign(nonce);
+            String actual = direct.sign(nonce);
+            if (!expected.equals(actual)) {
+                throw new IllegalStateException("Signers disagree at nonce " + nonce + "\n" + expected + "\n" + actual);
+            }
+        }
+    }
+
+    private String measure(String name, Signer signer) {
+        long checksum = 0;
+        for (int i = 0; i < config.warmup; i++) {
+            checksum += signer.sign(BigInteger.valueOf(i)).length();
+        }
+
+        long allocatedBefore = AllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < config.transactions; i++) {
+            checksum += signer.sign(BigInteger.valueOf(i)).length();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocatedAfter = AllocatedBytes();
+
+        long allocated = allocatedBefore < 0 ? -1 : (allocatedAfter - allocatedBefore) / config.transactions;
+        return String.format("%-8s %10.0f ns/tx %10d bytes/tx %10.0f tx/s (checksum %d)%n", name,
+                (double) elapsed / config.transactions, allocated,
+                config.transactions * 1e9 / elapsed, checksum);
+    }
+
+    private String run() {
+        verify();
+
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("transactions=%d warmup=%d calldata=%d bytes chainId=%d%n",
+                config.transactions, config.warmup, dataLength, config.chainId));
+        report.append(measure("web3j", web3j));
+        report.append(measure("direct", direct));
+        return report.toString();
+    }
+
+    private static long AllocatedBytes() {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            return -1;
+        }
+        com.sun.management.ThreadMXBean sun = (com.sun.management.ThreadMXBean) threads;
+        if (!sun.isThreadAllocatedMemorySupported() || !sun.isThreadAllocatedMemoryEnabled()) {
+            return -1;
+        }
+        return sun.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    public static void main(String[] args) {
+        Config config = Config.Parse(args);
+        System.out.print(new TransactionSigningBenchmark(config).run());
+    }
+}
@@ -2,6 +2,7 @@ package io.merklex.ether_net;
 
 import io.merklex.web3.FileUtils;
 import org.web3j.protocol.Web3j;
+import org.web3j.protocol.Web3jService;
 import org.web3j.protocol.admin.methods.response.BooleanResponse;
 import org.web3j.protocol.core.Request;
 import org.web3j.protocol.core.Response;
@@ -9,28 +10,70 @@ import org.web3j.protocol.http.HttpService;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
 import java.math.BigInteger;
+import java.net.ServerSocket;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicBoolean;
 
-public class EtherDebugNet implements Web3Provider {
+public class EtherDebugNet implements Web3DebugProvider {
+    private static final long START_TIMEOUT_MILLIS = 60_000;
+
     private final File networkDir;
+    private final boolean ownsNetworkDir;
     private final Process ganache;
-    private final StringBuilder logs = new StringBuilder();
+    private final ProcessLog logs;
 
-    private final HttpService httpServer;
+    private final Web3jService service;
     private final Web3j web3j;
 
     public EtherDebugNet(int rpcPort, String rpcHost, Map<String, String> initialBalances,
                          long blockGasLimit, int networkId) throws IOException, InterruptedException {
-        networkDir = FileUtils.TempDir();
-        if (!networkDir.mkdirs()) {
+        this(rpcPort, rpcHost, initialBalances, blockGasLimit, networkId, null);
+    }
+
+    /**
+     * @param dataDir chain database to run on. When null a temporary directory is used and
+     *                deleted on close, otherwise the directory is left in place so its state
+     *                can be reused as a snapshot.
+     */
+    public EtherDebugNet(int rpcPort, String rpcHost, Map<String, String> initialBalances,
+                         long blockGasLimit, int networkId, File dataDir) throws IOException, InterruptedException {
+        this(rpcPort, rpcHost, initialBalances, blockGasLimit, networkId, dataDir, Transport.HTTP);
+    }
+
+    /**
+     * @param transport HTTP or WEBSOCKET, ganache serves both on rpcPort
+     */
+    public EtherDebugNet(int rpcPort, String rpcHost, Map<String, String> initialBalances, long blockGasLimit,
+                         int networkId, File dataDir, Transport transport) throws IOException, InterruptedException {
+        if (transport != Transport.HTTP && transport != Transport.WEBSOCKET) {
+            throw new IllegalArgumentException("ganache does not serve " + transport);
+        }
+
+        ownsNetworkDir = dataDir == null;
+        networkDir = ownsNetworkDir ? FileUtils.TempDir() : dataDir;
+        if (!networkDir.exists() && !networkDir.mkdirs()) {
             throw new IOException("Failed to create data dir");
         }
 
+        ArrayList<String> command = Command(rpcPort, rpcHost, initialBalances, blockGasLimit, networkId, networkDir);
+        ganache = new ProcessBuilder(command).redirectErrorStream(true).start();
+        logs = ProcessLog.Drain(ganache.getInputStream(), ProcessLog.DEFAULT_CAPACITY, "ganache-log");
+
+        HttpService http = new HttpService("http://" + rpcHost + ":" + rpcPort);
+        try {
+            NodeProbe.AwaitReady(Web3j.build(http), ganache, logs, START_TIMEOUT_MILLIS);
+            service = transport == Transport.HTTP ? http : transport.connect("ws://" + rpcHost + ":" + rpcPort);
+        } catch (IOException e) {
+            close();
+            throw new IOException(String.join(" ", command), e);
+        }
+        web3j = Web3j.build(service);
+    }
+
+    static ArrayList<String> Command(int rpcPort, String rpcHost, Map<String, String> initialBalances,
+                                     long blockGasLimit, int networkId, File dataDir) {
         ArrayList<String> command = new ArrayList<>();
         command.add("ganache-cli");
 
@@ -44,7 +87,7 @@ public class EtherDebugNet implements Web3Provider {
         command.add(String.valueOf(blockGasLimit));
 
         command.add("--db");
-        command.add(networkDir.getAbsolutePath());
+        command.add(dataDir.getAbsolutePath());
 
         command.add("--port");
         command.add(String.valueOf(rpcPort));
@@ -54,53 +97,11 @@ public class EtherDebugNet implements Web3Provider {
 
         command.add("--networkId");
         command.add(String.valueOf(networkId));
+        return command;
+    }
 
-        ganache = new ProcessBuilder(command).redirectErrorStream(true).start();
-
-        AtomicBoolean ready = new AtomicBoolean(false);
-
-        new Thread(() -> {
-            InputStream stream = ganache.getInputStream();
-            byte[] buffer = new byte[100];
-            while (true) {
-                try {
-                    int read = stream.read(buffer);
-                    if (read > 0) {
-                        logs.append(new String(buffer, 0, read));
-                    }
-                    else {
-                        break;
-                    }
-
-                    if (!ready.get()) {
-                        if (logs.toString().contains("Listening on")) {
-                            ready.set(true);
-                        }
-                    }
-                } catch (IOException e) {
-                    ready.set(true);
-                    System.out.println(logs.toString());
-                    e.printStackTrace();
-                    break;
-                }
-            }
-            ready.set(true);
-        }).start();
-
-        do {
-            Thread.sleep(100);
-        } while (!ready.get());
-
-        if (!ganache.isAlive()) {
-            int result = ganache.waitFor();
-            System.out.println(result);
-            System.out.println(String.join(" ", command));
-            throw new RuntimeException(logs.toString());
-        }
-
-        Thread.sleep(100);
-        httpServer = new HttpService("http://" + rpcHost + ":" + rpcPort);
-        web3j = Web3j.build(httpServer);
+    public ProcessLog logs() {
+        return logs;
     }
 
     public static class CheckpointResponse extends Response<String> {
@@ -115,16 +116,19 @@ public class EtherDebugNet implements Web3Provider {
         }
     }
 
+    @Override
     public Request<Void, CheckpointResponse> checkpoint() {
-        return new Request<>("evm_snapshot", Collections.emptyList(), httpServer, CheckpointResponse.class);
+        return new Request<>("evm_snapshot", Collections.emptyList(), service, CheckpointResponse.class);
     }
 
+    @Override
     public Request<BigInteger, BooleanResponse> revert(BigInteger id) {
-        return new Request<>("evm_revert", Collections.singletonList(id), httpServer, BooleanResponse.class);
+        return new Request<>("evm_revert", Collections.singletonList(id), service, BooleanResponse.class);
     }
 
+    @Override
     public Request<BigInteger, NumberResponse> increaseTime(BigInteger seconds) {
-        return new Request<>("evm_increaseTime", Collections.singletonList(seconds), httpServer, NumberResponse.class);
+        return new Request<>("evm_increaseTime", Collections.singletonList(seconds), service, NumberResponse.class);
     }
 
     @Override
@@ -134,6 +138,13 @@ public class EtherDebugNet implements Web3Provider {
 
     @Override
     public void close() {
+        if (service != null) {
+            try {
+                service.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
         ganache.destroy();
         try {
             ganache.waitFor();
@@ -141,6 +152,15 @@ public class EtherDebugNet implements Web3Provider {
             ganache.destroyForcibly();
         }
 
-        FileUtils.DeleteDir(networkDir);
+        if (ownsNetworkDir) {
+            FileUtils.DeleteDir(networkDir);
+        }
+    }
+
+    public static int FreePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            socket.setReuseAddress(true);
+            return socket.getLocalPort();
+        }
     }
 }
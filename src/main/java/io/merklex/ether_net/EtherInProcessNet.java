@@ -0,0 +1,53 @@
+package io.merklex.ether_net;
+
+import io.merklex.ether_net.evm.InProcessChain;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.admin.methods.response.BooleanResponse;
+import org.web3j.protocol.core.Request;
+
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Drop in replacement for {@link EtherDebugNet} that executes contracts in the JVM
+ * instead of starting ganache-cli. Nothing is persisted and no port is opened.
+ */
+public class EtherInProcessNet implements Web3DebugProvider {
+    private final InProcessChain chain;
+    private final Web3j web3j;
+
+    public EtherInProcessNet(Map<String, String> initialBalances, long blockGasLimit, int networkId) {
+        chain = new InProcessChain(initialBalances, blockGasLimit, networkId);
+        web3j = Web3j.build(chain);
+    }
+
+    public InProcessChain chain() {
+        return chain;
+    }
+
+    @Override
+    public Request<Void, EtherDebugNet.CheckpointResponse> checkpoint() {
+        return new Request<>("evm_snapshot", Collections.emptyList(), chain, EtherDebugNet.CheckpointResponse.class);
+    }
+
+    @Override
+    public Request<BigInteger, BooleanResponse> revert(BigInteger id) {
+        return new Request<>("evm_revert", Collections.singletonList(id), chain, BooleanResponse.class);
+    }
+
+    @Override
+    public Request<BigInteger, EtherDebugNet.NumberResponse> increaseTime(BigInteger seconds) {
+        return new Request<>("evm_increaseTime", Collections.singletonList(seconds), chain, EtherDebugNet.NumberResponse.class);
+    }
+
+    @Override
+    public Web3j web3() {
+        return web3j;
+    }
+
+    @Override
+    public void close() {
+        web3j.shutdown();
+    }
+}
@@ -3,28 +3,47 @@ package io.merklex.ether_net;
 import io.merklex.web3.FileUtils;
 import org.web3j.crypto.Credentials;
 import org.web3j.protocol.Web3j;
+import org.web3j.protocol.Web3jService;
 import org.web3j.protocol.ipc.UnixIpcService;
 
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicBoolean;
 
 public class EtherPrivateNet implements Web3Provider {
+    private static final long START_TIMEOUT_MILLIS = 60_000;
+
     private final Process geth;
     private final File networkDir;
+    private final File ipcDir;
 
+    private final Web3jService service;
     private final Web3j web3j;
 
-    private final StringBuilder logs = new StringBuilder();
+    private final ProcessLog logs;
 
     public EtherPrivateNet(int rpcPort, String rpcHost, Map<String, String> initialBalances, long blockGasLimit, int networkId) throws IOException, InterruptedException {
+        this(rpcPort, rpcHost, initialBalances, blockGasLimit, networkId, Transport.IPC);
+    }
+
+    /**
+     * @param transport for web3(), HTTP and WEBSOCKET serve on rpcPort, IPC and PIPELINED_IPC use the ipc socket
+     */
+    public EtherPrivateNet(int rpcPort, String rpcHost, Map<String, String> initialBalances, long blockGasLimit,
+                           int networkId, Transport transport) throws IOException, InterruptedException {
+        if ((transport == Transport.HTTP || transport == Transport.WEBSOCKET) && rpcPort <= 0) {
+            throw new IllegalArgumentException(transport + " needs an rpc port");
+        }
+
         networkDir = FileUtils.TempDir();
-        String ipcPath = FileUtils.TempDir().getAbsolutePath();
+        ipcDir = FileUtils.TempDir();
+        if (!ipcDir.mkdirs()) {
+            throw new IOException("Failed to create ipc dir");
+        }
+        String ipcPath = new File(ipcDir, "geth.ipc").getAbsolutePath();
 
         File genesis = File.createTempFile("genesis", ".json");
         genesis.deleteOnExit();
@@ -75,7 +94,14 @@ public class EtherPrivateNet implements Web3Provider {
                 "--etherbase", "0x09332b1e45e6172fb26e46b3db4411201547560a"
         ));
 
-        if (rpcPort > 0) {
+        if (transport == Transport.WEBSOCKET) {
+            commandParts.add("--ws");
+            commandParts.add("--wsport");
+            commandParts.add(String.valueOf(rpcPort));
+            commandParts.add("--wsaddr");
+            commandParts.add(rpcHost);
+        }
+        else if (rpcPort > 0) {
             commandParts.add("--rpc");
             commandParts.add("--rpcport");
             commandParts.add(String.valueOf(rpcPort));
@@ -84,40 +110,27 @@ public class EtherPrivateNet implements Web3Provider {
         }
 
         geth = new ProcessBuilder(commandParts).redirectErrorStream(true).start();
+        logs = ProcessLog.Drain(geth.getInputStream(), ProcessLog.DEFAULT_CAPACITY, "geth-log");
 
-        AtomicBoolean doneWaiting = new AtomicBoolean(false);
-
-        new Thread(() -> {
-            InputStream stream = geth.getInputStream();
-            byte[] buffer = new byte[100];
-            while (geth.isAlive()) {
-                try {
-                    int read = stream.read(buffer);
-                    if (read > 0) {
-                        logs.append(new String(buffer, 0, read));
-
-                        if (!doneWaiting.get()) {
-                            if (logs.toString().contains("IPC endpoint opened")) {
-                                doneWaiting.set(true);
-                            }
-                        }
-                    }
-                } catch (IOException e) {
-                    doneWaiting.set(true);
-                    break;
-                }
+        /* geth always serves ipc, probe there since a websocket can't connect before the node listens */
+        UnixIpcService probe = new UnixIpcService(ipcPath);
+        try {
+            NodeProbe.AwaitReady(Web3j.build(probe), geth, logs, START_TIMEOUT_MILLIS);
+            service = transport == Transport.IPC ? probe
+                    : transport.connect(transport == Transport.HTTP ? "http://" + rpcHost + ":" + rpcPort
+                    : transport == Transport.WEBSOCKET ? "ws://" + rpcHost + ":" + rpcPort : ipcPath);
+            if (service != probe) {
+                probe.close();
             }
-        }).start();
-
-        do {
-            Thread.sleep(100);
-        } while (!doneWaiting.get() && geth.isAlive());
-
-        if (!geth.isAlive()) {
-            throw new RuntimeException("Failed to start geth");
+        } catch (IOException e) {
+            close();
+            throw e;
         }
+        web3j = Web3j.build(service);
+    }
 
-        web3j = Web3j.build(new UnixIpcService(ipcPath));
+    public ProcessLog logs() {
+        return logs;
     }
 
     public Web3j web3() {
@@ -126,6 +139,13 @@ public class EtherPrivateNet implements Web3Provider {
 
     @Override
     public void close() {
+        if (service != null) {
+            try {
+                service.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
         geth.destroy();
         try {
             geth.waitFor();
@@ -133,5 +153,6 @@ public class EtherPrivateNet implements Web3Provider {
             geth.destroyForcibly();
         }
         FileUtils.DeleteDir(networkDir);
+        FileUtils.DeleteDir(ipcDir);
     }
 }
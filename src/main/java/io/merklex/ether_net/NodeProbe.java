@@ -0,0 +1,51 @@
+package io.merklex.ether_net;
+
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.methods.response.NetVersion;
+
+import java.io.IOException;
+
+/**
+ * Waits for a node by asking it for net_version instead of scraping its output for a
+ * banner. Polls with a short backoff so a node that is ready quickly is seen quickly.
+ */
+public class NodeProbe {
+    private static final long FIRST_DELAY_MILLIS = 2;
+    private static final long MAX_DELAY_MILLIS = 50;
+
+    public static boolean IsReady(Web3j web3j) {
+        try {
+            NetVersion version = web3j.netVersion().send();
+            return !version.hasError() && version.getNetVersion() != null;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * @param process node process, when it exits the wait fails immediately. May be null
+     *                when attaching to a node started elsewhere.
+     * @param log     output of the process, included in failure messages. May be null.
+     */
+    public static void AwaitReady(Web3j web3j, Process process, ProcessLog log,
+                                  long timeoutMillis) throws IOException, InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        long delay = FIRST_DELAY_MILLIS;
+
+        while (!IsReady(web3j)) {
+            if (process != null && !process.isAlive()) {
+                throw new IOException("Node exited with code " + process.exitValue() + describe(log));
+            }
+            if (System.currentTimeMillis() > deadline) {
+                throw new IOException("Node not ready after " + timeoutMillis + "ms" + describe(log));
+            }
+
+            Thread.sleep(delay);
+            delay = Math.min(delay * 2, MAX_DELAY_MILLIS);
+        }
+    }
+
+    private static String describe(ProcessLog log) {
+        return log == null ? "" : ":\n" + log.tail();
+    }
+}
@@ -0,0 +1,74 @@
+package io.merklex.ether_net;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Keeps the last {@code capacity} bytes a node process wrote so failures can be reported
+ * without the log growing for the lifetime of a long test run.
+ */
+public class ProcessLog {
+    public static final int DEFAULT_CAPACITY = 64 * 1024;
+
+    private final byte[] ring;
+    private long written;
+
+    public ProcessLog(int capacity) {
+        ring = new byte[capacity];
+    }
+
+    /**
+     * Starts a daemon thread that copies the stream into a new log until it closes.
+     */
+    public static ProcessLog Drain(InputStream stream, int capacity, String name) {
+        ProcessLog log = new ProcessLog(capacity);
+        Thread thread = new Thread(() -> {
+            byte[] buffer = new byte[4096];
+            try {
+                int read;
+                while ((read = stream.read(buffer)) >= 0) {
+                    log.append(buffer, 0, read);
+                }
+            } catch (IOException ignored) {
+            }
+        }, name);
+        thread.setDaemon(true);
+        thread.start();
+        return log;
+    }
+
+    public synchronized void append(byte[] bytes, int offset, int length) {
+        if (length >= ring.length) {
+            offset += length - ring.length;
+            length = ring.length;
+        }
+
+        int position = (int) (written % ring.length);
+        int first = Math.min(length, ring.length - position);
+        System.arraycopy(bytes, offset, ring, position, first);
+        System.arraycopy(bytes, offset + first, ring, 0, length - first);
+        written += length;
+    }
+
+    public synchronized long written() {
+        return written;
+    }
+
+    public synchronized String tail() {
+        if (written <= ring.length) {
+            return new String(ring, 0, (int) written, StandardCharsets.UTF_8);
+        }
+
+        int position = (int) (written % ring.length);
+        byte[] ordered = new byte[ring.length];
+        System.arraycopy(ring, position, ordered, 0, ring.length - position);
+        System.arraycopy(ring, 0, ordered, ring.length - position, position);
+        return new String(ordered, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String toString() {
+        return tail();
+    }
+}
@@ -0,0 +1,486 @@
+package io.merklex.ether_net;
+
+import io.merklex.web3.FileUtils;
+import org.web3j.crypto.Hash;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.admin.methods.response.BooleanResponse;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.http.HttpService;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.math.BigInteger;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ganache nodes that outlive the JVM that started them so the next test run gets a network
+ * without paying for a node start. Nodes live in numbered slots of a registry directory; a
+ * slot is owned by whoever holds its file lock. Leasing a slot reverts its node to the
+ * snapshot taken when the node was started, releasing it reverts again and leaves the node
+ * running for the next JVM. A cold start only happens when no idle node matches the spec.
+ * <p>
+ * Nodes keep running until {@link #ShutdownAll(File)} (gradle stop_networks) is called.
+ */
+public class WarmNetworks {
+    public static final File DEFAULT_REGISTRY = new File(System.getProperty("java.io.tmpdir"), "merklex-warm-networks");
+
+    private static final String HOST = "127.0.0.1";
+    private static final int MAX_SLOTS = 64;
+    private static final int LOG_TAIL_BYTES = 16 * 1024;
+    private static final long LOG_LIMIT_BYTES = 1024 * 1024;
+    private static final long START_TIMEOUT_MILLIS = 60_000;
+    private static final long LOG_CHECK_MILLIS = 10_000;
+    private static final long KILL_TIMEOUT_MILLIS = 5_000;
+    private static final boolean WINDOWS = System.getProperty("os.name", "").startsWith("Windows");
+
+    /* nodes started by this JVM, killed through their handle rather than by pid */
+    private static final Map<Long, Process> STARTED = new ConcurrentHashMap<>();
+
+    private static final ScheduledExecutorService LOG_TRIMMER = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "warm-network-logs");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public static class Spec {
+        final Map<String, String> initialBalances;
+        final long blockGasLimit;
+        final int networkId;
+        final File template;
+
+        /**
+         * @param template chain database copied into every new node, for example one that
+         *                 already has contracts deployed. May be null for an empty chain.
+         */
+        public Spec(Map<String, String> initialBalances, long blockGasLimit, int networkId, File template) {
+            this.initialBalances = initialBalances;
+            this.blockGasLimit = blockGasLimit;
+            this.networkId = networkId;
+            this.template = template;
+        }
+
+        String key() {
+            ArrayList<String> keys = new ArrayList<>(initialBalances.keySet());
+            Collections.sort(keys);
+
+            StringBuilder description = new StringBuilder();
+            for (String key : keys) {
+                description.append(key).append('=').append(initialBalances.get(key)).append(';');
+            }
+            description.append(blockGasLimit).append(';').append(networkId).append(';');
+            if (template != null) {
+                description.append(template.getAbsolutePath());
+            }
+
+            return Hash.sha3String(description.toString()).substring(2, 18);
+        }
+    }
+
+    public static Lease Acquire(Spec spec) throws IOException, InterruptedException {
+        return Acquire(DEFAULT_REGISTRY, spec);
+    }
+
+    public static Lease Acquire(File registry, Spec spec) throws IOException, InterruptedException {
+        if (!registry.exists() && !registry.mkdirs()) {
+            throw new IOException("Failed to create " + registry);
+        }
+
+        String key = spec.key();
+        for (int slot = 0; slot < MAX_SLOTS; slot++) {
+            Slot claimed = Slot.TryClaim(registry, key + "-" + slot);
+            if (claimed == null) {
+                continue;
+            }
+
+            try {
+                Lease lease = claimed.attach();
+                return lease != null ? lease : claimed.start(spec);
+            } catch (IOException | InterruptedException | RuntimeException e) {
+                claimed.release();
+                throw e;
+            }
+        }
+
+        throw new IOException("All " + MAX_SLOTS + " slots for " + key + " are in use");
+    }
+
+    /**
+     * Stops every idle node in the registry. Nodes leased by a running JVM are left alone.
+     */
+    public static void ShutdownAll(File registry) throws IOException {
+        File[] files = registry.listFiles((dir, name) -> name.endsWith(".lock"));
+        if (files == null) {
+            return;
+        }
+
+        for (File lockFile : files) {
+            String name = lockFile.getName().substring(0, lockFile.getName().length() - ".lock".length());
+            Slot slot = Slot.TryClaim(registry, name);
+            if (slot == null) {
+                continue;
+            }
+
+            try {
+                Properties state = slot.loadState();
+                if (state != null) {
+                    Kill(Long.parseLong(state.getProperty("pid", "-1")));
+                }
+                slot.forget();
+            } finally {
+                slot.release();
+            }
+        }
+    }
+
+    private static class Slot {
+        final File registry;
+        final String name;
+        final FileChannel channel;
+        final FileLock lock;
+
+        private Slot(File registry, String name, FileChannel channel, FileLock lock) {
+            this.registry = registry;
+            this.name = name;
+            this.channel = channel;
+            this.lock = lock;
+        }
+
+        static Slot TryClaim(File registry, String name) throws IOException {
+            FileChannel channel = FileChannel.open(new File(registry, name + ".lock").toPath(),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+
+            FileLock lock;
+            try {
+                lock = channel.tryLock();
+            } catch (OverlappingFileLockException e) {
+                lock = null;
+            }
+
+            if (lock == null) {
+                channel.close();
+                return null;
+            }
+            return new Slot(registry, name, channel, lock);
+        }
+
+        File stateFile() {
+            return new File(registry, name + ".properties");
+        }
+
+        File dataDir() {
+            return new File(registry, name + ".chain");
+        }
+
+        File logFile() {
+            return new File(registry, name + ".log");
+        }
+
+        File previousLogFile() {
+            return new File(registry, name + ".log.1");
+        }
+
+        /**
+         * Keeps the tail of the log in the previous log file and empties the log. The node
+         * appends to the log, so it goes on writing at the new end.
+         */
+        synchronized void trimLog() throws IOException {
+            if (!logFile().exists()) {
+                return;
+            }
+            try (OutputStream output = new FileOutputStream(previousLogFile())) {
+                output.write(tail(logFile()));
+            }
+            try (RandomAccessFile log = new RandomAccessFile(logFile(), "rw")) {
+                log.setLength(0);
+            }
+        }
+
+        Properties loadState() throws IOException {
+            if (!stateFile().exists()) {
+                return null;
+            }
+            Properties state = new Properties();
+            try (InputStream input = new FileInputStream(stateFile())) {
+                state.load(input);
+            }
+            return state;
+        }
+
+        void saveState(int port, long pid, BigInteger snapshot) throws IOException {
+            Properties state = new Properties();
+            state.setProperty("port", String.valueOf(port));
+            state.setProperty("pid", String.valueOf(pid));
+            state.setProperty("snapshot", snapshot.toString());
+            try (OutputStream output = new FileOutputStream(stateFile())) {
+                state.store(output, null);
+            }
+        }
+
+        void forget() {
+            if (!stateFile().delete() && stateFile().exists()) {
+                throw new IllegalStateException("Failed to delete " + stateFile());
+            }
+            FileUtils.DeleteDir(dataDir());
+        }
+
+        /**
+         * Reuses the node a previous lease left running, or returns null when there is none
+         * or it can no longer be restored to its start snapshot.
+         */
+        Lease attach() throws IOException {
+            Properties state = loadState();
+            if (state == null) {
+                return null;
+            }
+
+            int port = Integer.parseInt(state.getProperty("port"));
+            long pid = Long.parseLong(state.getProperty("pid", "-1"));
+            BigInteger snapshot = new BigInteger(state.getProperty("snapshot"));
+
+            HttpService service = new HttpService("http://" + HOST + ":" + port);
+            Web3j web3j = Web3j.build(service);
+            if (!NodeProbe.IsReady(web3j)) {
+                web3j.shutdown();
+                forget();
+                return null;
+            }
+
+            if (logFile().length() > LOG_LIMIT_BYTES) {
+                trimLog();
+            }
+
+            Lease lease = new Lease(this, service, web3j, port, pid);
+            boolean restored;
+            try {
+                restored = lease.restore(snapshot);
+            } catch (IOException e) {
+                restored = false;
+            }
+            if (!restored) {
+                web3j.shutdown();
+                Kill(pid);
+                forget();
+                return null;
+            }
+            return lease;
+        }
+
+        Lease start(Spec spec) throws IOException, InterruptedException {
+            FileUtils.DeleteDir(dataDir());
+            if (spec.template != null) {
+                FileUtils.CopyDir(spec.template, dataDir());
+            }
+            else if (!dataDir().mkdirs()) {
+                throw new IOException("Failed to create " + dataDir());
+            }
+
+            int port = EtherDebugNet.FreePort();
+            ArrayList<String> command = EtherDebugNet.Command(port, HOST, spec.initialBalances,
+                    spec.blockGasLimit, spec.networkId, dataDir());
+            command.add("--quiet");
+
+            /* output goes to a file rather than a pipe so the node survives this JVM,
+               opened for append so trimLog can cut it while the node runs */
+            trimLog();
+            Process process = new ProcessBuilder(command)
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.appendTo(logFile()))
+                    .start();
+
+            HttpService service = new HttpService("http://" + HOST + ":" + port);
+            Web3j web3j = Web3j.build(service);
+            try {
+                NodeProbe.AwaitReady(web3j, process, null, START_TIMEOUT_MILLIS);
+            } catch (IOException e) {
+                process.destroyForcibly();
+                web3j.shutdown();
+                throw new IOException(e.getMessage() + ":\n" + new String(tail(logFile())), e);
+            }
+
+            long pid = Pid(process);
+            if (pid > 0) {
+                STARTED.put(pid, process);
+            }
+
+            Lease lease = new Lease(this, service, web3j, port, pid);
+            lease.restore(null);
+            return lease;
+        }
+
+        void release() throws IOException {
+            lock.release();
+            channel.close();
+        }
+    }
+
+    public static class Lease implements Web3DebugProvider {
+        private final Slot slot;
+        private final HttpService service;
+        private final Web3j web3j;
+        private final int port;
+        private final long pid;
+        private final ScheduledFuture<?> logTrim;
+        private BigInteger base;
+        private boolean released;
+
+        private Lease(Slot slot, HttpService service, Web3j web3j, int port, long pid) {
+            this.slot = slot;
+            this.service = service;
+            this.web3j = web3j;
+            this.port = port;
+            this.pid = pid;
+
+            /* the node keeps logging while leased, so the log is capped while it runs */
+            this.logTrim = LOG_TRIMMER.scheduleWithFixedDelay(() -> {
+                try {
+                    if (slot.logFile().length() > LOG_LIMIT_BYTES) {
+                        slot.trimLog();
+                    }
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }, LOG_CHECK_MILLIS, LOG_CHECK_MILLIS, TimeUnit.MILLISECONDS);
+        }
+
+        /**
+         * Reverts to the given snapshot (skipped when null) and takes the snapshot the next
+         * lease will revert to.
+         */
+        private boolean restore(BigInteger snapshot) throws IOException {
+            if (snapshot != null && !revert(snapshot).send().success()) {
+                return false;
+            }
+            base = checkpoint().send().id();
+            slot.saveState(port, pid, base);
+            return true;
+        }
+
+        public int port() {
+            return port;
+        }
+
+        @Override
+        public Web3j web3() {
+            return web3j;
+        }
+
+        @Override
+        public Request<Void, EtherDebugNet.CheckpointResponse> checkpoint() {
+            return new Request<>("evm_snapshot", Collections.emptyList(), service, EtherDebugNet.CheckpointResponse.class);
+        }
+
+        @Override
+        public Request<BigInteger, BooleanResponse> revert(BigInteger id) {
+            return new Request<>("evm_revert", Collections.singletonList(id), service, BooleanResponse.class);
+        }
+
+        @Override
+        public Request<BigInteger, EtherDebugNet.NumberResponse> increaseTime(BigInteger seconds) {
+            return new Request<>("evm_increaseTime", Collections.singletonList(seconds), service, EtherDebugNet.NumberResponse.class);
+        }
+
+        /**
+         * Resets the node and hands it back to the registry, still running.
+         */
+        @Override
+        public void close() throws IOException {
+            if (released) {
+                return;
+            }
+            released = true;
+            logTrim.cancel(false);
+
+            try {
+                if (!restore(base)) {
+                    Kill(pid);
+                    slot.forget();
+                }
+            } catch (IOException e) {
+                Kill(pid);
+                slot.forget();
+            } finally {
+                web3j.shutdown();
+                slot.release();
+            }
+        }
+    }
+
+    static long Pid(Process process) {
+        try {
+            return (Long) Process.class.getMethod("pid").invoke(process);
+        } catch (ReflectiveOperationException ignored) {
+        }
+
+        try {
+            Field field = process.getClass().getDeclaredField("pid");
+            field.setAccessible(true);
+            return field.getInt(process);
+        } catch (ReflectiveOperationException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Stops a node through its process handle when this JVM started it. Nodes left by
+     * another JVM are only known by pid and are stopped with the platform's kill command.
+     */
+    private static void Kill(long pid) {
+        if (pid <= 0) {
+            return;
+        }
+        try {
+            Process process = STARTED.remove(pid);
+            if (process != null) {
+                process.destroy();
+                if (!process.waitFor(KILL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                    process.destroyForcibly();
+                }
+                return;
+            }
+
+            ProcessBuilder kill = WINDOWS
+                    ? new ProcessBuilder("taskkill", "/F", "/PID", String.valueOf(pid))
+                    : new ProcessBuilder("kill", String.valueOf(pid));
+            kill.start().waitFor();
+        } catch (IOException e) {
+            e.printStackTrace();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static byte[] tail(File file) throws IOException {
+        if (!file.exists()) {
+            return new byte[0];
+        }
+        try (RandomAccessFile input = new RandomAccessFile(file, "r")) {
+            long start = Math.max(0, input.length() - LOG_TAIL_BYTES);
+            byte[] bytes = new byte[(int) (input.length() - start)];
+            input.seek(start);
+            input.readFully(bytes);
+            return bytes;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        ShutdownAll(args.length > 0 ? new File(args[0]) : DEFAULT_REGISTRY);
+    }
+}
@@ -0,0 +1,17 @@
+package io.merklex.ether_net;
+
+import org.web3j.protocol.admin.methods.response.BooleanResponse;
+import org.web3j.protocol.core.Request;
+
+import java.math.BigInteger;
+
+/**
+ * Development network that supports ganache's evm_snapshot / evm_revert / evm_increaseTime.
+ */
+public interface Web3DebugProvider extends Web3Provider {
+    Request<Void, EtherDebugNet.CheckpointResponse> checkpoint();
+
+    Request<BigInteger, BooleanResponse> revert(BigInteger id);
+
+    Request<BigInteger, EtherDebugNet.NumberResponse> increaseTime(BigInteger seconds);
+}
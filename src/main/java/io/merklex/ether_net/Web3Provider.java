@@ -1,9 +1,46 @@
 package io.merklex.ether_net;
 
+import io.merklex.web3.PipelinedIpcService;
 import org.web3j.protocol.Web3j;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.http.HttpService;
+import org.web3j.protocol.ipc.UnixIpcService;
+import org.web3j.protocol.websocket.WebSocketService;
 
 import java.io.Closeable;
+import java.io.IOException;
 
 public interface Web3Provider extends Closeable {
     Web3j web3();
+
+    /**
+     * How web3() talks to the node. WEBSOCKET supports eth_subscribe, PIPELINED_IPC supports
+     * eth_subscribe and keeps many requests in flight on one connection.
+     */
+    enum Transport {
+        HTTP,
+        IPC,
+        PIPELINED_IPC,
+        WEBSOCKET;
+
+        /**
+         * @param endpoint url for HTTP and WEBSOCKET, socket path for IPC and PIPELINED_IPC
+         */
+        public Web3jService connect(String endpoint) throws IOException {
+            switch (this) {
+                case HTTP:
+                    return new HttpService(endpoint);
+                case IPC:
+                    return new UnixIpcService(endpoint);
+                case PIPELINED_IPC:
+                    return new PipelinedIpcService(endpoint);
+                case WEBSOCKET:
+                    WebSocketService service = new WebSocketService(endpoint, false);
+                    service.connect();
+                    return service;
+                default:
+                    throw new IllegalStateException();
+            }
+        }
+    }
 }
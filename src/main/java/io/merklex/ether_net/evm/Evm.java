@@ -0,0 +1,1094 @@
+package io.merklex.ether_net.evm;
+
+import org.bouncycastle.crypto.digests.RIPEMD160Digest;
+import org.web3j.crypto.ContractUtils;
+import org.web3j.crypto.ECDSASignature;
+import org.web3j.crypto.Hash;
+import org.web3j.crypto.Keys;
+import org.web3j.crypto.Sign;
+import org.web3j.utils.Numeric;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.WeakHashMap;
+import java.util.function.LongFunction;
+
+/**
+ * EVM interpreter with the Petersburg instruction set and gas schedule, executing
+ * against a {@link WorldState}. Precompiles 1 to 4 are supported; calls into the
+ * bn256 / modexp precompiles (5 to 8) fail.
+ */
+public class Evm {
+    public static final BigInteger WORD_MOD = BigInteger.ONE.shiftLeft(256);
+    public static final BigInteger MASK = WORD_MOD.subtract(BigInteger.ONE);
+    public static final BigInteger ADDRESS_MASK = BigInteger.ONE.shiftLeft(160).subtract(BigInteger.ONE);
+
+    private static final BigInteger SECP256K1_N = Sign.CURVE_PARAMS.getN();
+    private static final BigInteger V_27 = BigInteger.valueOf(27);
+    private static final BigInteger V_28 = BigInteger.valueOf(28);
+    private static final BigInteger BYTE_MASK = BigInteger.valueOf(0xFF);
+    private static final BigInteger PRECOMPILE_MAX = BigInteger.valueOf(8);
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private static final int MAX_DEPTH = 1024;
+    private static final int MAX_CODE_SIZE = 24576;
+
+    private static final int SUCCESS = 0;
+    private static final int REVERT = 1;
+    private static final int ERROR = 2;
+
+    private static final int CALL = 0;
+    private static final int CALLCODE = 1;
+    private static final int DELEGATECALL = 2;
+    private static final int STATICCALL = 3;
+
+    private static final Halt OUT_OF_GAS = new Halt("out of gas");
+    private static final Halt INVALID_OPCODE = new Halt("invalid opcode");
+    private static final Halt INVALID_JUMP = new Halt("invalid JUMP");
+    private static final Halt STACK_UNDERFLOW = new Halt("stack underflow");
+    private static final Halt STACK_OVERFLOW = new Halt("stack overflow");
+    private static final Halt STATIC_STATE_CHANGE = new Halt("static state change");
+    private static final Halt RETURN_DATA_OUT_OF_BOUNDS = new Halt("return data out of bounds");
+
+    private final WorldState state;
+    private final WeakHashMap<byte[], BitSet> jumpDests = new WeakHashMap<>();
+
+    private Env env;
+    private final ArrayList<Log> logs = new ArrayList<>();
+    private final ArrayList<BigInteger> destructs = new ArrayList<>();
+    private long refund;
+
+    public Evm(WorldState state) {
+        this.state = state;
+    }
+
+    public WorldState state() {
+        return state;
+    }
+
+    public static class Env {
+        public BigInteger origin = BigInteger.ZERO;
+        public BigInteger gasPrice = BigInteger.ZERO;
+        public BigInteger coinbase = BigInteger.ZERO;
+        public BigInteger difficulty = BigInteger.ZERO;
+        public long number;
+        public long timestamp;
+        public long gasLimit;
+        public LongFunction<byte[]> blockHashes = number -> null;
+    }
+
+    public static class Log {
+        public final BigInteger address;
+        public final byte[][] topics;
+        public final byte[] data;
+
+        public Log(BigInteger address, byte[][] topics, byte[] data) {
+            this.address = address;
+            this.topics = topics;
+            this.data = data;
+        }
+    }
+
+    public static class Result {
+        public boolean success;
+        public byte[] output = EMPTY;
+        public long gasUsed;
+        public List<Log> logs;
+        public BigInteger contractAddress;
+        public String error;
+        public int errorPc;
+    }
+
+    public static long IntrinsicGas(byte[] data, boolean create) {
+        long gas = create ? 53000 : 21000;
+        for (byte b : data) {
+            gas += b == 0 ? 4 : 68;
+        }
+        return gas;
+    }
+
+    public static BigInteger ContractAddress(BigInteger sender, BigInteger nonce) {
+        byte[] address = ContractUtils.generateContractAddress(
+                Numeric.toBytesPadded(sender, 20), nonce);
+        return new BigInteger(1, address);
+    }
+
+    public static BigInteger Create2Address(BigInteger sender, BigInteger salt, byte[] initCode) {
+        byte[] preimage = new byte[1 + 20 + 32 + 32];
+        preimage[0] = (byte) 0xFF;
+        System.arraycopy(Numeric.toBytesPadded(sender, 20), 0, preimage, 1, 20);
+        System.arraycopy(Numeric.toBytesPadded(salt, 32), 0, preimage, 21, 32);
+        System.arraycopy(Hash.sha3(initCode), 0, preimage, 53, 32);
+        return new BigInteger(1, Hash.sha3(preimage)).and(ADDRESS_MASK);
+    }
+
+    /**
+     * Executes a transaction whose gas has already been paid for. Increments the sender's
+     * nonce, runs the call or creation and applies the refund. State changes of a failed
+     * execution are rolled back, everything else stays journaled in the world state.
+     */
+    public Result transact(Env env, BigInteger from, BigInteger to, BigInteger value,
+                           byte[] data, long gasLimit) {
+        long intrinsic = IntrinsicGas(data, to == null);
+        if (gasLimit < intrinsic) {
+            throw new IllegalArgumentException("intrinsic gas too low");
+        }
+        if (state.balance(from).compareTo(value) < 0) {
+            throw new IllegalArgumentException("sender doesn't have enough funds to send tx");
+        }
+
+        this.env = env;
+        logs.clear();
+        destructs.clear();
+        refund = 0;
+
+        Result result = new Result();
+        FrameResult frame;
+        if (to == null) {
+            BigInteger address = ContractAddress(from, state.nonce(from));
+            state.incrementNonce(from);
+            frame = create(from, address, value, data, gasLimit - intrinsic, 0);
+            if (frame.status == SUCCESS) {
+                result.contractAddress = address;
+            }
+        }
+        else {
+            state.incrementNonce(from);
+            frame = call(CALL, from, to, to, value, value, data, gasLimit - intrinsic, false, 0);
+        }
+
+        long gasUsed = gasLimit - frame.gasLeft;
+        if (frame.status == SUCCESS) {
+            gasUsed -= Math.min(refund, gasUsed / 2);
+            for (BigInteger address : destructs) {
+                state.delete(address);
+            }
+        }
+
+        result.success = frame.status == SUCCESS;
+        result.output = frame.output;
+        result.gasUsed = gasUsed;
+        result.logs = new ArrayList<>(logs);
+        result.error = frame.error;
+        result.errorPc = frame.pc;
+        return result;
+    }
+
+    private static class Halt extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        Halt(String message) {
+            super(message, null, false, false);
+        }
+    }
+
+    private static class FrameResult {
+        final int status;
+        final byte[] output;
+        final long gasLeft;
+        final String error;
+        final int pc;
+
+        FrameResult(int status, byte[] output, long gasLeft, String error, int pc) {
+            this.status = status;
+            this.output = output;
+            this.gasLeft = gasLeft;
+            this.error = error;
+            this.pc = pc;
+        }
+    }
+
+    private static class Frame {
+        BigInteger address;
+        BigInteger caller;
+        BigInteger value;
+        byte[] code;
+        BitSet jumpDests;
+        byte[] input;
+        boolean isStatic;
+        int depth;
+        long gas;
+
+        final BigInteger[] stack = new BigInteger[1024];
+        int sp;
+
+        byte[] memory = EMPTY;
+        long memoryWords;
+        byte[] returnData = EMPTY;
+        int pc;
+    }
+
+    private FrameResult call(int kind, BigInteger caller, BigInteger address, BigInteger codeAddress,
+                             BigInteger value, BigInteger transfer, byte[] input, long gas,
+                             boolean isStatic, int depth) {
+        int mark = state.mark();
+        int logMark = logs.size();
+        int destructMark = destructs.size();
+        long refundMark = refund;
+
+        if (transfer.signum() > 0) {
+            state.setBalance(caller, state.balance(caller).subtract(transfer));
+            state.addBalance(address, transfer);
+        }
+        else if (kind == CALL && !state.exists(address) && !isPrecompile(codeAddress)) {
+            return new FrameResult(SUCCESS, EMPTY, gas, null, 0);
+        }
+
+        FrameResult result;
+        if (isPrecompile(codeAddress)) {
+            result = precompile(codeAddress.intValue(), input, gas);
+        }
+        else {
+            byte[] code = state.code(codeAddress);
+            if (code.length == 0) {
+                return new FrameResult(SUCCESS, EMPTY, gas, null, 0);
+            }
+
+            Frame frame = new Frame();
+            frame.address = address;
+            frame.caller = caller;
+            frame.value = value;
+            frame.code = code;
+            frame.input = input;
+            frame.isStatic = isStatic;
+            frame.depth = depth;
+            frame.gas = gas;
+            result = run(frame);
+        }
+
+        if (result.status != SUCCESS) {
+            state.rollback(mark);
+            truncate(logMark, destructMark, refundMark);
+        }
+        return result;
+    }
+
+    private FrameResult create(BigInteger caller, BigInteger address, BigInteger value,
+                               byte[] init, long gas, int depth) {
+        WorldState.Account existing = state.get(address);
+        if (existing != null && (existing.nonce().signum() != 0 || existing.code().length != 0)) {
+            return new FrameResult(ERROR, EMPTY, 0, "contract address collision", 0);
+        }
+
+        int mark = state.mark();
+        int logMark = logs.size();
+        int destructMark = destructs.size();
+        long refundMark = refund;
+
+        state.getOrCreate(address);
+        state.incrementNonce(address);
+        if (value.signum() > 0) {
+            state.setBalance(caller, state.balance(caller).subtract(value));
+            state.addBalance(address, value);
+        }
+
+        Frame frame = new Frame();
+        frame.address = address;
+        frame.caller = caller;
+        frame.value = value;
+        frame.code = init;
+        frame.input = EMPTY;
+        frame.depth = depth;
+        frame.gas = gas;
+
+        FrameResult result = run(frame);
+        if (result.status == SUCCESS) {
+            long depositCost = 200L * result.output.length;
+            if (result.output.length > MAX_CODE_SIZE) {
+                result = new FrameResult(ERROR, EMPTY, 0, "code size limit", frame.pc);
+            }
+            else if (result.gasLeft < depositCost) {
+                result = new FrameResult(ERROR, EMPTY, 0, OUT_OF_GAS.getMessage(), frame.pc);
+            }
+            else {
+                state.setCode(address, result.output);
+                result = new FrameResult(SUCCESS, EMPTY, result.gasLeft - depositCost, null, 0);
+            }
+        }
+
+        if (result.status != SUCCESS) {
+            state.rollback(mark);
+            truncate(logMark, destructMark, refundMark);
+        }
+        return result;
+    }
+
+    private void truncate(int logMark, int destructMark, long refundMark) {
+        while (logs.size() > logMark) {
+            logs.remove(logs.size() - 1);
+        }
+        while (destructs.size() > destructMark) {
+            destructs.remove(destructs.size() - 1);
+        }
+        refund = refundMark;
+    }
+
+    private static boolean isPrecompile(BigInteger address) {
+        return address.signum() > 0 && address.compareTo(PRECOMPILE_MAX) <= 0;
+    }
+
+    private static FrameResult precompile(int id, byte[] input, long gas) {
+        long words = (input.length + 31) / 32;
+        long cost;
+        switch (id) {
+            case 1:
+                cost = 3000;
+                break;
+            case 2:
+                cost = 60 + 12 * words;
+                break;
+            case 3:
+                cost = 600 + 120 * words;
+                break;
+            case 4:
+                cost = 15 + 3 * words;
+                break;
+            default:
+                return new FrameResult(ERROR, EMPTY, 0, "unsupported precompile " + id, 0);
+        }
+
+        if (gas < cost) {
+            return new FrameResult(ERROR, EMPTY, 0, OUT_OF_GAS.getMessage(), 0);
+        }
+
+        byte[] output;
+        switch (id) {
+            case 1:
+                output = ecrecover(input);
+                break;
+            case 2:
+                output = Hash.sha256(input);
+                break;
+            case 3: {
+                RIPEMD160Digest digest = new RIPEMD160Digest();
+                digest.update(input, 0, input.length);
+                output = new byte[32];
+                digest.doFinal(output, 12);
+                break;
+            }
+            default:
+                output = input.clone();
+                break;
+        }
+        return new FrameResult(SUCCESS, output, gas - cost, null, 0);
+    }
+
+    private static byte[] ecrecover(byte[] input) {
+        byte[] padded = Arrays.copyOf(input, 128);
+        byte[] hash = Arrays.copyOfRange(padded, 0, 32);
+        BigInteger v = new BigInteger(1, Arrays.copyOfRange(padded, 32, 64));
+        BigInteger r = new BigInteger(1, Arrays.copyOfRange(padded, 64, 96));
+        BigInteger s = new BigInteger(1, Arrays.copyOfRange(padded, 96, 128));
+
+        if (!v.equals(V_27) && !v.equals(V_28)) {
+            return EMPTY;
+        }
+        if (r.signum() == 0 || r.compareTo(SECP256K1_N) >= 0 || s.signum() == 0 || s.compareTo(SECP256K1_N) >= 0) {
+            return EMPTY;
+        }
+
+        BigInteger publicKey;
+        try {
+            publicKey = Sign.recoverFromSignature(v.intValue() - 27, new ECDSASignature(r, s), hash);
+        } catch (RuntimeException e) {
+            return EMPTY;
+        }
+        if (publicKey == null) {
+            return EMPTY;
+        }
+
+        byte[] output = new byte[32];
+        System.arraycopy(Numeric.hexStringToByteArray(Keys.getAddress(publicKey)), 0, output, 12, 20);
+        return output;
+    }
+
+    private BitSet jumpDests(byte[] code) {
+        BitSet dests = jumpDests.get(code);
+        if (dests == null) {
+            dests = new BitSet(code.length);
+            for (int i = 0; i < code.length; i++) {
+                int op = code[i] & 0xFF;
+                if (op == 0x5B) {
+                    dests.set(i);
+                }
+                else if (op >= 0x60 && op <= 0x7F) {
+                    i += op - 0x5F;
+                }
+            }
+            jumpDests.put(code, dests);
+        }
+        return dests;
+    }
+
+    private FrameResult run(Frame f) {
+        f.jumpDests = jumpDests(f.code);
+        byte[] code = f.code;
+
+        try {
+            while (f.pc < code.length) {
+                int op = code[f.pc] & 0xFF;
+
+                if (op >= 0x60 && op <= 0x7F) {
+                    use(f, 3);
+                    int size = op - 0x5F;
+                    int start = f.pc + 1;
+                    int end = Math.min(start + size, code.length);
+                    byte[] word = new byte[size];
+                    System.arraycopy(code, start, word, 0, end - start);
+                    push(f, new BigInteger(1, word));
+                    f.pc += size + 1;
+                    continue;
+                }
+                if (op >= 0x80 && op <= 0x8F) {
+                    use(f, 3);
+                    int n = op - 0x7F;
+                    if (f.sp < n) {
+                        throw STACK_UNDERFLOW;
+                    }
+                    push(f, f.stack[f.sp - n]);
+                    f.pc++;
+                    continue;
+                }
+                if (op >= 0x90 && op <= 0x9F) {
+                    use(f, 3);
+                    int n = op - 0x8F;
+                    if (f.sp <= n) {
+                        throw STACK_UNDERFLOW;
+                    }
+                    BigInteger top = f.stack[f.sp - 1];
+                    f.stack[f.sp - 1] = f.stack[f.sp - 1 - n];
+                    f.stack[f.sp - 1 - n] = top;
+                    f.pc++;
+                    continue;
+                }
+
+                switch (op) {
+                    case 0x00:
+                        return new FrameResult(SUCCESS, EMPTY, f.gas, null, 0);
+                    case 0x01: {
+                        use(f, 3);
+                        BigInteger sum = pop(f).add(pop(f));
+                        push(f, sum.bitLength() > 256 ? sum.subtract(WORD_MOD) : sum);
+                        break;
+                    }
+                    case 0x02:
+                        use(f, 5);
+                        push(f, pop(f).multiply(pop(f)).and(MASK));
+                        break;
+                    case 0x03: {
+                        use(f, 3);
+                        BigInteger difference = pop(f).subtract(pop(f));
+                        push(f, difference.signum() < 0 ? difference.add(WORD_MOD) : difference);
+                        break;
+                    }
+                    case 0x04: {
+                        use(f, 5);
+                        BigInteger a = pop(f);
+                        BigInteger b = pop(f);
+                        push(f, b.signum() == 0 ? BigInteger.ZERO : a.divide(b));
+                        break;
+                    }
+                    case 0x05: {
+                        use(f, 5);
+                        BigInteger a = signed(pop(f));
+                        BigInteger b = signed(pop(f));
+                        push(f, b.signum() == 0 ? BigInteger.ZERO : unsigned(a.divide(b)));
+                        break;
+                    }
+                    case 0x06: {
+                        use(f, 5);
+                        BigInteger a = pop(f);
+                        BigInteger b = pop(f);
+                        push(f, b.signum() == 0 ? BigInteger.ZERO : a.mod(b));
+                        break;
+                    }
+                    case 0x07: {
+                        use(f, 5);
+                        BigInteger a = signed(pop(f));
+                        BigInteger b = signed(pop(f));
+                        if (b.signum() == 0) {
+                            push(f, BigInteger.ZERO);
+                        }
+                        else {
+                            BigInteger remainder = a.abs().mod(b.abs());
+                            push(f, unsigned(a.signum() < 0 ? remainder.negate() : remainder));
+                        }
+                        break;
+                    }
+                    case 0x08: {
+                        use(f, 8);
+                        BigInteger a = pop(f);
+                        BigInteger b = pop(f);
+                        BigInteger n = pop(f);
+                        push(f, n.signum() == 0 ? BigInteger.ZERO : a.add(b).mod(n));
+                        break;
+                    }
+                    case 0x09: {
+                        use(f, 8);
+                        BigInteger a = pop(f);
+                        BigInteger b = pop(f);
+                        BigInteger n = pop(f);
+                        push(f, n.signum() == 0 ? BigInteger.ZERO : a.multiply(b).mod(n));
+                        break;
+                    }
+                    case 0x0A: {
+                        BigInteger base = pop(f);
+                        BigInteger exponent = pop(f);
+                        use(f, 10 + 50 * ((exponent.bitLength() + 7) / 8));
+                        push(f, base.modPow(exponent, WORD_MOD));
+                        break;
+                    }
+                    case 0x0B: {
+                        use(f, 5);
+                        BigInteger b = pop(f);
+                        BigInteger x = pop(f);
+                        if (b.compareTo(BigInteger.valueOf(31)) < 0) {
+                            int bits = b.intValue() * 8 + 8;
+                            BigInteger low = BigInteger.ONE.shiftLeft(bits).subtract(BigInteger.ONE);
+                            x = x.testBit(bits - 1) ? x.or(MASK.xor(low)) : x.and(low);
+                        }
+                        push(f, x);
+                        break;
+                    }
+                    case 0x10:
+                        use(f, 3);
+                        push(f, bool(pop(f).compareTo(pop(f)) < 0));
+                        break;
+                    case 0x11:
+                        use(f, 3);
+                        push(f, bool(pop(f).compareTo(pop(f)) > 0));
+                        break;
+                    case 0x12:
+                        use(f, 3);
+                        push(f, bool(signed(pop(f)).compareTo(signed(pop(f))) < 0));
+                        break;
+                    case 0x13:
+                        use(f, 3);
+                        push(f, bool(signed(pop(f)).compareTo(signed(pop(f))) > 0));
+                        break;
+                    case 0x14:
+                        use(f, 3);
+                        push(f, bool(pop(f).equals(pop(f))));
+                        break;
+                    case 0x15:
+                        use(f, 3);
+                        push(f, bool(pop(f).signum() == 0));
+                        break;
+                    case 0x16:
+                        use(f, 3);
+                        push(f, pop(f).and(pop(f)));
+                        break;
+                    case 0x17:
+                        use(f, 3);
+                        push(f, pop(f).or(pop(f)));
+                        break;
+                    case 0x18:
+                        use(f, 3);
+                        push(f, pop(f).xor(pop(f)));
+                        break;
+                    case 0x19:
+                        use(f, 3);
+                        push(f, MASK.subtract(pop(f)));
+                        break;
+                    case 0x1A: {
+                        use(f, 3);
+                        BigInteger i = pop(f);
+                        BigInteger x = pop(f);
+                        push(f, i.bitLength() > 5 ? BigInteger.ZERO
+                                : x.shiftRight(8 * (31 - i.intValue())).and(BYTE_MASK));
+                        break;
+                    }
+                    case 0x1B: {
+                        use(f, 3);
+                        int shift = shiftAmount(pop(f));
+                        BigInteger x = pop(f);
+                        push(f, shift >= 256 ? BigInteger.ZERO : x.shiftLeft(shift).and(MASK));
+                        break;
+                    }
+                    case 0x1C: {
+                        use(f, 3);
+                        int shift = shiftAmount(pop(f));
+                        BigInteger x = pop(f);
+                        push(f, shift >= 256 ? BigInteger.ZERO : x.shiftRight(shift));
+                        break;
+                    }
+                    case 0x1D: {
+                        use(f, 3);
+                        int shift = shiftAmount(pop(f));
+                        push(f, unsigned(signed(pop(f)).shiftRight(shift)));
+                        break;
+                    }
+                    case 0x20: {
+                        BigInteger offset = pop(f);
+                        BigInteger length = pop(f);
+                        use(f, 30 + 6 * words(length));
+                        int start = expand(f, offset, length);
+                        byte[] hash = Hash.sha3(f.memory, start, length.intValue());
+                        push(f, new BigInteger(1, hash));
+                        break;
+                    }
+                    case 0x30:
+                        use(f, 2);
+                        push(f, f.address);
+                        break;
+                    case 0x31:
+                        use(f, 400);
+                        push(f, state.balance(pop(f).and(ADDRESS_MASK)));
+                        break;
+                    case 0x32:
+                        use(f, 2);
+                        push(f, env.origin);
+                        break;
+                    case 0x33:
+                        use(f, 2);
+                        push(f, f.caller);
+                        break;
+                    case 0x34:
+                        use(f, 2);
+                        push(f, f.value);
+                        break;
+                    case 0x35: {
+                        use(f, 3);
+                        BigInteger offset = pop(f);
+                        byte[] word = new byte[32];
+                        if (offset.bitLength() <= 31) {
+                            copyPadded(f.input, offset.intValue(), word, 0, 32);
+                        }
+                        push(f, new BigInteger(1, word));
+                        break;
+                    }
+                    case 0x36:
+                        use(f, 2);
+                        push(f, BigInteger.valueOf(f.input.length));
+                        break;
+                    case 0x37:
+                        copyToMemory(f, f.input);
+                        break;
+                    case 0x38:
+                        use(f, 2);
+                        push(f, BigInteger.valueOf(code.length));
+                        break;
+                    case 0x39:
+                        copyToMemory(f, code);
+                        break;
+                    case 0x3A:
+                        use(f, 2);
+                        push(f, env.gasPrice);
+                        break;
+                    case 0x3B:
+                        use(f, 700);
+                        push(f, BigInteger.valueOf(state.code(pop(f).and(ADDRESS_MASK)).length));
+                        break;
+                    case 0x3C: {
+                        use(f, 700);
+                        BigInteger address = pop(f).and(ADDRESS_MASK);
+                        copyToMemory(f, state.code(address));
+                        break;
+                    }
+                    case 0x3D:
+                        use(f, 2);
+                        push(f, BigInteger.valueOf(f.returnData.length));
+                        break;
+                    case 0x3E: {
+                        BigInteger memoryOffset = pop(f);
+                        BigInteger dataOffset = pop(f);
+                        BigInteger length = pop(f);
+                        BigInteger end = dataOffset.add(length);
+                        if (end.compareTo(BigInteger.valueOf(f.returnData.length)) > 0) {
+                            throw RETURN_DATA_OUT_OF_BOUNDS;
+                        }
+                        use(f, 3 + 3 * words(length));
+                        int start = expand(f, memoryOffset, length);
+                        System.arraycopy(f.returnData, dataOffset.intValue(), f.memory, start, length.intValue());
+                        break;
+                    }
+                    case 0x3F: {
+                        use(f, 400);
+                        BigInteger address = pop(f).and(ADDRESS_MASK);
+                        push(f, state.isDead(address) ? BigInteger.ZERO
+                                : new BigInteger(1, state.get(address).codeHash()));
+                        break;
+                    }
+                    case 0x40: {
+                        use(f, 20);
+                        BigInteger number = pop(f);
+                        BigInteger result = BigInteger.ZERO;
+                        if (number.bitLength() < 63) {
+                            long n = number.longValue();
+                            if (n < env.number && env.number - n <= 256) {
+                                byte[] hash = env.blockHashes.apply(n);
+                                if (hash != null) {
+                                    result = new BigInteger(1, hash);
+                                }
+                            }
+                        }
+                        push(f, result);
+                        break;
+                    }
+                    case 0x41:
+                        use(f, 2);
+                        push(f, env.coinbase);
+                        break;
+                    case 0x42:
+                        use(f, 2);
+                        push(f, BigInteger.valueOf(env.timestamp));
+                        break;
+                    case 0x43:
+                        use(f, 2);
+                        push(f, BigInteger.valueOf(env.number));
+                        break;
+                    case 0x44:
+                        use(f, 2);
+                        push(f, env.difficulty);
+                        break;
+                    case 0x45:
+                        use(f, 2);
+                        push(f, BigInteger.valueOf(env.gasLimit));
+                        break;
+                    case 0x50:
+                        use(f, 2);
+                        pop(f);
+                        break;
+                    case 0x51: {
+                        use(f, 3);
+                        int start = expand(f, pop(f), BigInteger.valueOf(32));
+                        push(f, new BigInteger(1, Arrays.copyOfRange(f.memory, start, start + 32)));
+                        break;
+                    }
+                    case 0x52: {
+                        use(f, 3);
+                        BigInteger offset = pop(f);
+                        BigInteger value = pop(f);
+                        int start = expand(f, offset, BigInteger.valueOf(32));
+                        System.arraycopy(Numeric.toBytesPadded(value, 32), 0, f.memory, start, 32);
+                        break;
+                    }
+                    case 0x53: {
+                        use(f, 3);
+                        BigInteger offset = pop(f);
+                        BigInteger value = pop(f);
+                        int start = expand(f, offset, BigInteger.ONE);
+                        f.memory[start] = (byte) value.intValue();
+                        break;
+                    }
+                    case 0x54:
+                        use(f, 200);
+                        push(f, state.load(f.address, pop(f)));
+                        break;
+                    case 0x55: {
+                        if (f.isStatic) {
+                            throw STATIC_STATE_CHANGE;
+                        }
+                        BigInteger key = pop(f);
+                        BigInteger value = pop(f);
+                        BigInteger current = state.load(f.address, key);
+                        if (current.signum() == 0 && value.signum() != 0) {
+                            use(f, 20000);
+                        }
+                        else {
+                            use(f, 5000);
+                            if (current.signum() != 0 && value.signum() == 0) {
+                                refund += 15000;
+                            }
+                        }
+                        state.store(f.address, key, value);
+                        break;
+                    }
+                    case 0x56: {
+                        use(f, 8);
+                        f.pc = jumpTarget(f, pop(f));
+                        continue;
+                    }
+                    case 0x57: {
+                        use(f, 10);
+                        BigInteger target = pop(f);
+                        if (pop(f).signum() != 0) {
+                            f.pc = jumpTarget(f, target);
+                            continue;
+                        }
+                        break;
+                    }
+                    case 0x58:
+                        use(f, 2);
+                        push(f, BigInteger.valueOf(f.pc));
+                        break;
+                    case 0x59:
+                        use(f, 2);
+                        push(f, BigInteger.valueOf(f.memoryWords * 32));
+                        break;
+                    case 0x5A:
+                        use(f, 2);
+                        push(f, BigInteger.valueOf(f.gas));
+                        break;
+                    case 0x5B:
+                        use(f, 1);
+                        break;
+                    case 0xA0:
+                    case 0xA1:
+                    case 0xA2:
+                    case 0xA3:
+                    case 0xA4: {
+                        if (f.isStatic) {
+                            throw STATIC_STATE_CHANGE;
+                        }
+                        int topicCount = op - 0xA0;
+                        BigInteger offset = pop(f);
+                        BigInteger length = pop(f);
+                        byte[][] topics = new byte[topicCount][];
+                        for (int i = 0; i < topicCount; i++) {
+                            topics[i] = Numeric.toBytesPadded(pop(f), 32);
+                        }
+                        if (length.bitLength() > 31) {
+                            throw OUT_OF_GAS;
+                        }
+                        use(f, 375 + 375L * topicCount + 8L * length.longValue());
+                        int start = expand(f, offset, length);
+                        byte[] data = Arrays.copyOfRange(f.memory, start, start + length.intValue());
+                        logs.add(new Log(f.address, topics, data));
+                        break;
+                    }
+                    case 0xF0:
+                    case 0xF5: {
+                        if (f.isStatic) {
+                            throw STATIC_STATE_CHANGE;
+                        }
+                        BigInteger value = pop(f);
+                        BigInteger offset = pop(f);
+                        BigInteger length = pop(f);
+                        BigInteger salt = op == 0xF5 ? pop(f) : null;
+                        use(f, op == 0xF5 ? 32000 + 6 * words(length) : 32000);
+                        int start = expand(f, offset, length);
+                        byte[] init = Arrays.copyOfRange(f.memory, start, start + length.intValue());
+
+                        f.returnData = EMPTY;
+                        if (f.depth + 1 >= MAX_DEPTH || state.balance(f.address).compareTo(value) < 0) {
+                            push(f, BigInteger.ZERO);
+                            break;
+                        }
+
+                        BigInteger address = salt == null
+                                ? ContractAddress(f.address, state.nonce(f.address))
+                                : Create2Address(f.address, salt, init);
+                        state.incrementNonce(f.address);
+
+                        long gas = f.gas - f.gas / 64;
+                        f.gas -= gas;
+                        FrameResult result = create(f.address, address, value, init, gas, f.depth + 1);
+                        f.gas += result.gasLeft;
+                        if (result.status == REVERT) {
+                            f.returnData = result.output;
+                        }
+                        push(f, result.status == SUCCESS ? address : BigInteger.ZERO);
+                        break;
+                    }
+                    case 0xF1:
+                    case 0xF2:
+                    case 0xF4:
+                    case 0xFA:
+                        callOp(f, op);
+                        break;
+                    case 0xF3:
+                    case 0xFD: {
+                        BigInteger offset = pop(f);
+                        BigInteger length = pop(f);
+                        int start = expand(f, offset, length);
+                        byte[] output = Arrays.copyOfRange(f.memory, start, start + length.intValue());
+                        if (op == 0xF3) {
+                            return new FrameResult(SUCCESS, output, f.gas, null, 0);
+                        }
+                        return new FrameResult(REVERT, output, f.gas, "revert", f.pc);
+                    }
+                    case 0xFF: {
+                        if (f.isStatic) {
+                            throw STATIC_STATE_CHANGE;
+                        }
+                        BigInteger beneficiary = pop(f).and(ADDRESS_MASK);
+                        BigInteger balance = state.balance(f.address);
+                        use(f, balance.signum() > 0 && state.isDead(beneficiary) ? 30000 : 5000);
+
+                        if (!destructs.contains(f.address)) {
+                            destructs.add(f.address);
+                            refund += 24000;
+                        }
+                        state.addBalance(beneficiary, balance);
+                        state.setBalance(f.address, BigInteger.ZERO);
+                        return new FrameResult(SUCCESS, EMPTY, f.gas, null, 0);
+                    }
+                    default:
+                        throw INVALID_OPCODE;
+                }
+
+                f.pc++;
+            }
+            return new FrameResult(SUCCESS, EMPTY, f.gas, null, 0);
+        } catch (Halt halt) {
+            return new FrameResult(ERROR, EMPTY, 0, halt.getMessage(), f.pc);
+        }
+    }
+
+    private void callOp(Frame f, int op) {
+        BigInteger requestedGas = pop(f);
+        BigInteger target = pop(f).and(ADDRESS_MASK);
+        BigInteger value = op == 0xF1 || op == 0xF2 ? pop(f) : BigInteger.ZERO;
+        BigInteger inOffset = pop(f);
+        BigInteger inLength = pop(f);
+        BigInteger outOffset = pop(f);
+        BigInteger outLength = pop(f);
+
+        if (op == 0xF1 && f.isStatic && value.signum() != 0) {
+            throw STATIC_STATE_CHANGE;
+        }
+
+        long cost = 700;
+        if (value.signum() != 0) {
+            cost += 9000;
+            if (op == 0xF1 && state.isDead(target)) {
+                cost += 25000;
+            }
+        }
+        use(f, cost);
+
+        int inStart = expand(f, inOffset, inLength);
+        int outStart = expand(f, outOffset, outLength);
+
+        long available = f.gas - f.gas / 64;
+        long gas = requestedGas.bitLength() < 63 ? Math.min(requestedGas.longValue(), available) : available;
+        use(f, gas);
+        if (value.signum() != 0) {
+            gas += 2300;
+        }
+
+        f.returnData = EMPTY;
+        if (f.depth + 1 >= MAX_DEPTH || state.balance(f.address).compareTo(value) < 0) {
+            f.gas += gas;
+            push(f, BigInteger.ZERO);
+            return;
+        }
+
+        byte[] input = Arrays.copyOfRange(f.memory, inStart, inStart + inLength.intValue());
+
+        FrameResult result;
+        switch (op) {
+            case 0xF1:
+                result = call(CALL, f.address, target, target, value, value, input, gas, f.isStatic, f.depth + 1);
+                break;
+            case 0xF2:
+                result = call(CALLCODE, f.address, f.address, target, value, value, input, gas, f.isStatic, f.depth + 1);
+                break;
+            case 0xF4:
+                result = call(DELEGATECALL, f.caller, f.address, target, f.value, BigInteger.ZERO, input, gas, f.isStatic, f.depth + 1);
+                break;
+            default:
+                result = call(STATICCALL, f.address, target, target, BigInteger.ZERO, BigInteger.ZERO, input, gas, true, f.depth + 1);
+                break;
+        }
+
+        f.gas += result.gasLeft;
+        f.returnData = result.output;
+        int copy = Math.min(outLength.intValue(), result.output.length);
+        if (result.status != ERROR && copy > 0) {
+            System.arraycopy(result.output, 0, f.memory, outStart, copy);
+        }
+        push(f, bool(result.status == SUCCESS));
+    }
+
+    private void copyToMemory(Frame f, byte[] source) {
+        BigInteger memoryOffset = pop(f);
+        BigInteger sourceOffset = pop(f);
+        BigInteger length = pop(f);
+        use(f, 3 + 3 * words(length));
+        int start = expand(f, memoryOffset, length);
+        int from = sourceOffset.bitLength() <= 31 ? sourceOffset.intValue() : Integer.MAX_VALUE;
+        copyPadded(source, from, f.memory, start, length.intValue());
+    }
+
+    private static void copyPadded(byte[] source, int from, byte[] destination, int start, int length) {
+        int available = from >= source.length ? 0 : Math.min(length, source.length - from);
+        if (available > 0) {
+            System.arraycopy(source, from, destination, start, available);
+        }
+        Arrays.fill(destination, start + available, start + length, (byte) 0);
+    }
+
+    private static int jumpTarget(Frame f, BigInteger target) {
+        if (target.bitLength() > 31 || !f.jumpDests.get(target.intValue())) {
+            throw INVALID_JUMP;
+        }
+        return target.intValue();
+    }
+
+    private static long words(BigInteger length) {
+        if (length.bitLength() > 32) {
+            throw OUT_OF_GAS;
+        }
+        return (length.longValue() + 31) / 32;
+    }
+
+    private static long memoryCost(long words) {
+        return 3 * words + words * words / 512;
+    }
+
+    private static int expand(Frame f, BigInteger offset, BigInteger length) {
+        if (length.signum() == 0) {
+            return 0;
+        }
+        if (offset.bitLength() > 32 || length.bitLength() > 32) {
+            throw OUT_OF_GAS;
+        }
+
+        long end = offset.longValue() + length.longValue();
+        long words = (end + 31) / 32;
+        if (words > f.memoryWords) {
+            use(f, memoryCost(words) - memoryCost(f.memoryWords));
+            if (words * 32 > Integer.MAX_VALUE - 8) {
+                throw OUT_OF_GAS;
+            }
+            if (f.memory.length < words * 32) {
+                f.memory = Arrays.copyOf(f.memory, (int) Math.max(words * 32, Math.min(f.memory.length * 2L, Integer.MAX_VALUE - 8)));
+            }
+            f.memoryWords = words;
+        }
+        return offset.intValue();
+    }
+
+    private static int shiftAmount(BigInteger shift) {
+        return shift.bitLength() > 9 ? 256 : Math.min(shift.intValue(), 256);
+    }
+
+    private static void use(Frame f, long gas) {
+        if (gas < 0 || f.gas < gas) {
+            throw OUT_OF_GAS;
+        }
+        f.gas -= gas;
+    }
+
+    private static BigInteger pop(Frame f) {
+        if (f.sp == 0) {
+            throw STACK_UNDERFLOW;
+        }
+        return f.stack[--f.sp];
+    }
+
+    private static void push(Frame f, BigInteger value) {
+        if (f.sp == f.stack.length) {
+            throw STACK_OVERFLOW;
+        }
+        f.stack[f.sp++] = value;
+    }
+
+    private static BigInteger bool(boolean value) {
+        return value ? BigInteger.ONE : BigInteger.ZERO;
+    }
+
+    private static BigInteger signed(BigInteger word) {
+        return word.testBit(255) ? word.subtract(WORD_MOD) : word;
+    }
+
+    private static BigInteger unsigned(BigInteger value) {
+        return value.signum() < 0 ? value.add(WORD_MOD) : value.and(MASK);
+    }
+}
@@ -0,0 +1,725 @@
+package io.merklex.ether_net.evm;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.web3j.crypto.Credentials;
+import org.web3j.crypto.Hash;
+import org.web3j.crypto.RawTransaction;
+import org.web3j.crypto.SignedRawTransaction;
+import org.web3j.crypto.TransactionDecoder;
+import org.web3j.protocol.Service;
+import org.web3j.utils.Numeric;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.security.SignatureException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * JSON-RPC endpoint backed by {@link Evm}. Behaves like ganache-cli with automine: every
+ * transaction is mined into its own block, failed transactions are mined and reported as
+ * an RPC error with ganache's error data, and evm_snapshot / evm_revert / evm_increaseTime
+ * are supported. Requests run one at a time on a dedicated thread with a large stack so
+ * deep call chains don't overflow the JVM stack.
+ */
+public class InProcessChain extends Service {
+    private static final JsonNodeFactory JSON = JsonNodeFactory.instance;
+    private static final long STACK_SIZE = 256L * 1024 * 1024;
+
+    private final long blockGasLimit;
+    private final int networkId;
+    private final List<String> accounts = new ArrayList<>();
+
+    private final WorldState state = new WorldState();
+    private final Evm evm = new Evm(state);
+    private final ArrayList<Block> blocks = new ArrayList<>();
+    private final HashMap<String, Tx> transactions = new HashMap<>();
+    private final ArrayList<Snapshot> snapshots = new ArrayList<>();
+    private long timeAdjustment;
+    private int historyLimit = Integer.MAX_VALUE;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(
+            runnable -> {
+                Thread thread = new Thread(null, runnable, "in-process-evm", STACK_SIZE);
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    /**
+     * @param initialBalances private key (hex) to balance (decimal wei), like EtherDebugNet
+     */
+    public InProcessChain(Map<String, String> initialBalances, long blockGasLimit, int networkId) {
+        super(false);
+        this.blockGasLimit = blockGasLimit;
+        this.networkId = networkId;
+
+        for (Map.Entry<String, String> entry : initialBalances.entrySet()) {
+            String address = Credentials.create(entry.getKey()).getAddress();
+            accounts.add(address);
+            state.setBalance(Numeric.toBigInt(address), new BigInteger(entry.getValue()));
+        }
+        state.commit();
+
+        Block genesis = new Block(0, new byte[32], now());
+        genesis.seal();
+        blocks.add(genesis);
+    }
+
+    /**
+     * Drops transactions and receipts of blocks older than the given depth so long
+     * simulations don't keep their whole history in memory.
+     */
+    public void setHistoryLimit(int blocks) {
+        historyLimit = blocks;
+    }
+
+    public WorldState state() {
+        return state;
+    }
+
+    @Override
+    protected InputStream performIO(String payload) throws IOException {
+        Future<byte[]> response = executor.submit(() -> handle(payload));
+        try {
+            return new ByteArrayInputStream(response.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private static class RpcError extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        final int code;
+        final JsonNode data;
+        JsonNode result;
+
+        RpcError(int code, String message, JsonNode data) {
+            super(message);
+            this.code = code;
+            this.data = data;
+        }
+
+        RpcError(String message) {
+            this(-32000, message, null);
+        }
+    }
+
+    private static class Snapshot {
+        final int journalMark;
+        final int blockCount;
+        final long timeAdjustment;
+
+        Snapshot(int journalMark, int blockCount, long timeAdjustment) {
+            this.journalMark = journalMark;
+            this.blockCount = blockCount;
+            this.timeAdjustment = timeAdjustment;
+        }
+    }
+
+    private static class Block {
+        final long number;
+        final byte[] parentHash;
+        final long timestamp;
+        final ArrayList<Tx> transactions = new ArrayList<>();
+        byte[] hash;
+        long gasUsed;
+
+        Block(long number, byte[] parentHash, long timestamp) {
+            this.number = number;
+            this.parentHash = parentHash;
+            this.timestamp = timestamp;
+        }
+
+        void seal() {
+            ByteBuffer preimage = ByteBuffer.allocate(48 + 32 * transactions.size());
+            preimage.put(parentHash).putLong(number).putLong(timestamp);
+            for (Tx tx : transactions) {
+                preimage.put(tx.hash);
+            }
+            hash = Hash.sha3(preimage.array());
+        }
+    }
+
+    private static class Tx {
+        byte[] hash;
+        RawTransaction raw;
+        SignedRawTransaction signed;
+        BigInteger from;
+        BigInteger to;
+        Block block;
+        Evm.Result result;
+    }
+
+    private byte[] handle(String payload) throws IOException {
+        JsonNode request = objectMapper.readTree(payload);
+        ObjectNode response = JSON.objectNode();
+        response.put("jsonrpc", "2.0");
+        response.set("id", request.get("id"));
+
+        try {
+            response.set("result", dispatch(request.get("method").asText(), request.get("params")));
+        } catch (RpcError e) {
+            if (e.result != null) {
+                response.set("result", e.result);
+            }
+            ObjectNode error = response.putObject("error");
+            error.put("code", e.code);
+            error.put("message", e.getMessage());
+            if (e.data != null) {
+                error.set("data", e.data);
+            }
+        } catch (RuntimeException e) {
+            ObjectNode error = response.putObject("error");
+            error.put("code", -32603);
+            error.put("message", String.valueOf(e.getMessage()));
+        }
+
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    private JsonNode dispatch(String method, JsonNode params) throws RpcError {
+        switch (method) {
+            case "web3_clientVersion":
+                return JSON.textNode("InProcessChain/v1/java");
+            case "net_version":
+                return JSON.textNode(String.valueOf(networkId));
+            case "eth_chainId":
+                return quantity(networkId);
+            case "eth_accounts": {
+                ArrayNode result = JSON.arrayNode();
+                accounts.forEach(result::add);
+                return result;
+            }
+            case "eth_gasPrice":
+                return quantity(1);
+            case "eth_blockNumber":
+                return quantity(latest().number);
+            case "eth_getBalance":
+                return quantity(state.balance(address(params.get(0))));
+            case "eth_getTransactionCount":
+                return quantity(state.nonce(address(params.get(0))));
+            case "eth_getCode":
+                return JSON.textNode(Numeric.toHexString(state.code(address(params.get(0)))));
+            case "eth_getStorageAt": {
+                BigInteger value = state.load(address(params.get(0)), Numeric.toBigInt(params.get(1).asText()));
+                return JSON.textNode(Numeric.toHexStringWithPrefixZeroPadded(value, 64));
+            }
+            case "eth_sendRawTransaction":
+                return sendRawTransaction(params.get(0).asText());
+            case "eth_call":
+                return JSON.textNode(Numeric.toHexString(call(params.get(0), blockGasLimit).output));
+            case "eth_estimateGas":
+                return quantity(estimateGas(params.get(0)));
+            case "eth_getTransactionReceipt": {
+                Tx tx = transactions.get(params.get(0).asText().toLowerCase());
+                return tx == null ? JSON.nullNode() : receiptJson(tx);
+            }
+            case "eth_getTransactionByHash": {
+                Tx tx = transactions.get(params.get(0).asText().toLowerCase());
+                return tx == null ? JSON.nullNode() : transactionJson(tx);
+            }
+            case "eth_getBlockByNumber": {
+                Block block = blockAt(params.get(0));
+                return block == null ? JSON.nullNode() : blockJson(block, params.path(1).asBoolean(false));
+            }
+            case "eth_getBlockByHash": {
+                String hash = params.get(0).asText();
+                for (int i = blocks.size() - 1; i >= 0; i--) {
+                    if (Numeric.toHexString(blocks.get(i).hash).equalsIgnoreCase(hash)) {
+                        return blockJson(blocks.get(i), params.path(1).asBoolean(false));
+                    }
+                }
+                return JSON.nullNode();
+            }
+            case "eth_getLogs":
+                return getLogs(params.get(0));
+            case "evm_snapshot":
+                snapshots.add(new Snapshot(state.mark(), blocks.size(), timeAdjustment));
+                return quantity(snapshots.size());
+            case "evm_revert":
+                return JSON.booleanNode(revert(number(params.get(0))));
+            case "evm_increaseTime":
+                timeAdjustment += number(params.get(0));
+                return JSON.numberNode(timeAdjustment);
+            case "evm_mine":
+                mine(new Block(latest().number + 1, latest().hash, nextTimestamp()));
+                return JSON.textNode("0x0");
+            default:
+                throw new RpcError(-32601, "Method " + method + " not supported.", null);
+        }
+    }
+
+    private JsonNode sendRawTransaction(String hex) throws RpcError {
+        byte[] bytes = Numeric.hexStringToByteArray(hex);
+        RawTransaction raw = TransactionDecoder.decode(hex);
+        if (!(raw instanceof SignedRawTransaction)) {
+            throw new RpcError("transaction is not signed");
+        }
+
+        SignedRawTransaction signed = (SignedRawTransaction) raw;
+        BigInteger from;
+        try {
+            from = Numeric.toBigInt(signed.getFrom());
+        } catch (SignatureException e) {
+            throw new RpcError("invalid signature");
+        }
+
+        BigInteger nonce = state.nonce(from);
+        if (!nonce.equals(raw.getNonce())) {
+            throw new RpcError("the tx doesn't have the correct nonce. account has nonce of: "
+                    + nonce + " tx has nonce of: " + raw.getNonce());
+        }
+        if (raw.getGasLimit().compareTo(BigInteger.valueOf(blockGasLimit)) > 0) {
+            throw new RpcError("Exceeds block gas limit");
+        }
+
+        BigInteger gasCost = raw.getGasLimit().multiply(raw.getGasPrice());
+        BigInteger upfront = gasCost.add(raw.getValue());
+        BigInteger balance = state.balance(from);
+        if (balance.compareTo(upfront) < 0) {
+            throw new RpcError("sender doesn't have enough funds to send tx. The upfront cost is: "
+                    + upfront + " and the sender's account only has: " + balance);
+        }
+
+        BigInteger to = toAddress(raw.getTo());
+        byte[] data = Numeric.hexStringToByteArray(raw.getData() == null ? "" : raw.getData());
+        long gasLimit = raw.getGasLimit().longValueExact();
+        if (gasLimit < Evm.IntrinsicGas(data, to == null)) {
+            throw new RpcError("intrinsic gas too low");
+        }
+
+        Block block = new Block(latest().number + 1, latest().hash, nextTimestamp());
+
+        state.setBalance(from, balance.subtract(gasCost));
+        Evm.Result result = evm.transact(env(block, from, raw.getGasPrice()), from, to, raw.getValue(), data, gasLimit);
+        if (raw.getGasPrice().signum() != 0) {
+            state.addBalance(from, BigInteger.valueOf(gasLimit - result.gasUsed).multiply(raw.getGasPrice()));
+            state.addBalance(BigInteger.ZERO, BigInteger.valueOf(result.gasUsed).multiply(raw.getGasPrice()));
+        }
+
+        Tx tx = new Tx();
+        tx.hash = Hash.sha3(bytes);
+        tx.raw = raw;
+        tx.signed = signed;
+        tx.from = from;
+        tx.to = to;
+        tx.block = block;
+        tx.result = result;
+
+        block.transactions.add(tx);
+        block.gasUsed = result.gasUsed;
+        mine(block);
+
+        String hash = Numeric.toHexString(tx.hash);
+        if (!result.success) {
+            /* like ganache, the hash is returned next to the error so the receipt can be fetched */
+            RpcError error = failure(hash, result);
+            error.result = JSON.textNode(hash);
+            throw error;
+        }
+        return JSON.textNode(hash);
+    }
+
+    private Evm.Result call(JsonNode call, long defaultGas) throws RpcError {
+        BigInteger from = call.hasNonNull("from") ? address(call.get("from")) : BigInteger.ZERO;
+        BigInteger to = call.hasNonNull("to") ? address(call.get("to")) : null;
+        long gas = call.hasNonNull("gas") ? Math.min(number(call.get("gas")), defaultGas) : defaultGas;
+        BigInteger gasPrice = call.hasNonNull("gasPrice") ? Numeric.toBigInt(call.get("gasPrice").asText()) : BigInteger.ZERO;
+        BigInteger value = call.hasNonNull("value") ? Numeric.toBigInt(call.get("value").asText()) : BigInteger.ZERO;
+        String data = call.hasNonNull("data") ? call.get("data").asText() : call.path("input").asText("");
+
+        Block block = new Block(latest().number + 1, latest().hash, nextTimestamp());
+        int mark = state.mark();
+        Evm.Result result;
+        try {
+            result = evm.transact(env(block, from, gasPrice), from, to, value, Numeric.hexStringToByteArray(data), gas);
+        } catch (IllegalArgumentException e) {
+            throw new RpcError(e.getMessage());
+        } finally {
+            state.rollback(mark);
+        }
+
+        if (!result.success) {
+            throw failure(Numeric.toHexString(Hash.sha3(Numeric.hexStringToByteArray(data))), result);
+        }
+        return result;
+    }
+
+    private long estimateGas(JsonNode request) throws RpcError {
+        long used = call(request, blockGasLimit).gasUsed;
+
+        long low = used - 1;
+        long high = blockGasLimit;
+        while (low + 1 < high) {
+            long mid = (low + high) >>> 1;
+            try {
+                call(request, mid);
+                high = mid;
+            } catch (RpcError e) {
+                low = mid;
+            }
+        }
+        return high;
+    }
+
+    private static RpcError failure(String key, Evm.Result result) {
+        ObjectNode details = JSON.objectNode();
+        details.put("error", result.error);
+        details.put("program_counter", result.errorPc);
+        details.put("return", Numeric.toHexString(result.output));
+
+        ObjectNode data = JSON.objectNode();
+        data.set(key, details);
+        data.put("name", "RuntimeError");
+        return new RpcError(-32000, "VM Exception while processing transaction: " + result.error, data);
+    }
+
+    private boolean revert(long id) {
+        if (id < 1 || id > snapshots.size()) {
+            return false;
+        }
+
+        Snapshot snapshot = snapshots.get((int) id - 1);
+        while (snapshots.size() >= id) {
+            snapshots.remove(snapshots.size() - 1);
+        }
+
+        state.rollback(snapshot.journalMark);
+        while (blocks.size() > snapshot.blockCount) {
+            Block removed = blocks.remove(blocks.size() - 1);
+            for (Tx tx : removed.transactions) {
+                transactions.remove(Numeric.toHexString(tx.hash));
+            }
+        }
+        timeAdjustment = snapshot.timeAdjustment;
+
+        if (snapshots.isEmpty()) {
+            state.commit();
+        }
+        return true;
+    }
+
+    private void mine(Block block) {
+        block.seal();
+        blocks.add(block);
+        for (Tx tx : block.transactions) {
+            transactions.put(Numeric.toHexString(tx.hash), tx);
+        }
+
+        long pruned = block.number - historyLimit;
+        if (pruned >= 0) {
+            Block old = blocks.get((int) pruned);
+            for (Tx tx : old.transactions) {
+                transactions.remove(Numeric.toHexString(tx.hash));
+            }
+            old.transactions.clear();
+        }
+
+        if (snapshots.isEmpty()) {
+            state.commit();
+        }
+    }
+
+    private Evm.Env env(Block block, BigInteger origin, BigInteger gasPrice) {
+        Evm.Env env = new Evm.Env();
+        env.origin = origin;
+        env.gasPrice = gasPrice;
+        env.number = block.number;
+        env.timestamp = block.timestamp;
+        env.gasLimit = blockGasLimit;
+        env.blockHashes = number -> number < blocks.size() ? blocks.get((int) number).hash : null;
+        return env;
+    }
+
+    private Block latest() {
+        return blocks.get(blocks.size() - 1);
+    }
+
+    private long nextTimestamp() {
+        return Math.max(latest().timestamp, now() + timeAdjustment);
+    }
+
+    private static long now() {
+        return System.currentTimeMillis() / 1000;
+    }
+
+    private Block blockAt(JsonNode tag) {
+        long number = blockNumber(tag, latest().number);
+        return number >= 0 && number < blocks.size() ? blocks.get((int) number) : null;
+    }
+
+    private long blockNumber(JsonNode tag, long fallback) {
+        if (tag == null || tag.isNull()) {
+            return fallback;
+        }
+        String text = tag.asText();
+        if ("latest".equals(text) || "pending".equals(text)) {
+            return latest().number;
+        }
+        if ("earliest".equals(text)) {
+            return 0;
+        }
+        return number(tag);
+    }
+
+    private JsonNode getLogs(JsonNode filter) {
+        long from;
+        long to;
+        if (filter.hasNonNull("blockHash")) {
+            from = -1;
+            to = -1;
+            for (Block block : blocks) {
+                if (Numeric.toHexString(block.hash).equalsIgnoreCase(filter.get("blockHash").asText())) {
+                    from = to = block.number;
+                }
+            }
+        }
+        else {
+            from = blockNumber(filter.get("fromBlock"), latest().number);
+            to = Math.min(blockNumber(filter.get("toBlock"), latest().number), latest().number);
+        }
+
+        ArrayList<BigInteger> addresses = new ArrayList<>();
+        JsonNode address = filter.get("address");
+        if (address != null && address.isArray()) {
+            address.forEach(node -> addresses.add(address(node)));
+        }
+        else if (address != null && !address.isNull()) {
+            addresses.add(address(address));
+        }
+
+        JsonNode topics = filter.path("topics");
+
+        ArrayNode result = JSON.arrayNode();
+        for (long number = Math.max(from, 0); number <= to; number++) {
+            Block block = blocks.get((int) number);
+            for (Tx tx : block.transactions) {
+                List<Evm.Log> logs = tx.result.logs;
+                for (int i = 0; i < logs.size(); i++) {
+                    Evm.Log log = logs.get(i);
+                    if (!addresses.isEmpty() && !addresses.contains(log.address)) {
+                        continue;
+                    }
+                    if (matches(log, topics)) {
+                        result.add(logJson(tx, log, i));
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private static boolean matches(Evm.Log log, JsonNode topics) {
+        if (!topics.isArray()) {
+            return true;
+        }
+        for (int i = 0; i < topics.size(); i++) {
+            JsonNode expected = topics.get(i);
+            if (expected.isNull()) {
+                continue;
+            }
+            if (i >= log.topics.length) {
+                return false;
+            }
+
+            String actual = Numeric.toHexString(log.topics[i]);
+            boolean any = false;
+            if (expected.isArray()) {
+                for (JsonNode option : expected) {
+                    any |= option.asText().equalsIgnoreCase(actual);
+                }
+            }
+            else {
+                any = expected.asText().equalsIgnoreCase(actual);
+            }
+            if (!any) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private ObjectNode blockJson(Block block, boolean fullTransactions) {
+        ObjectNode json = JSON.objectNode();
+        json.put("number", Numeric.encodeQuantity(BigInteger.valueOf(block.number)));
+        json.put("hash", Numeric.toHexString(block.hash));
+        json.put("parentHash", Numeric.toHexString(block.parentHash));
+        json.put("nonce", "0x0000000000000000");
+        json.put("sha3Uncles", Numeric.toHexString(new byte[32]));
+        json.put("logsBloom", Numeric.toHexString(blockBloom(block)));
+        json.put("transactionsRoot", Numeric.toHexString(new byte[32]));
+        json.put("stateRoot", Numeric.toHexString(new byte[32]));
+        json.put("receiptsRoot", Numeric.toHexString(new byte[32]));
+        json.put("miner", Numeric.toHexStringWithPrefixZeroPadded(BigInteger.ZERO, 40));
+        json.put("difficulty", "0x0");
+        json.put("totalDifficulty", "0x0");
+        json.put("extraData", "0x");
+        json.put("size", "0x3e8");
+        json.put("gasLimit", Numeric.encodeQuantity(BigInteger.valueOf(blockGasLimit)));
+        json.put("gasUsed", Numeric.encodeQuantity(BigInteger.valueOf(block.gasUsed)));
+        json.put("timestamp", Numeric.encodeQuantity(BigInteger.valueOf(block.timestamp)));
+
+        ArrayNode transactions = json.putArray("transactions");
+        for (Tx tx : block.transactions) {
+            if (fullTransactions) {
+                transactions.add(transactionJson(tx));
+            }
+            else {
+                transactions.add(Numeric.toHexString(tx.hash));
+            }
+        }
+        json.putArray("uncles");
+        return json;
+    }
+
+    private ObjectNode transactionJson(Tx tx) {
+        ObjectNode json = JSON.objectNode();
+        json.put("hash", Numeric.toHexString(tx.hash));
+        json.put("nonce", Numeric.encodeQuantity(tx.raw.getNonce()));
+        json.put("blockHash", Numeric.toHexString(tx.block.hash));
+        json.put("blockNumber", Numeric.encodeQuantity(BigInteger.valueOf(tx.block.number)));
+        json.put("transactionIndex", "0x0");
+        json.put("from", formatAddress(tx.from));
+        if (tx.to == null) {
+            json.putNull("to");
+        }
+        else {
+            json.put("to", formatAddress(tx.to));
+        }
+        json.put("value", Numeric.encodeQuantity(tx.raw.getValue()));
+        json.put("gasPrice", Numeric.encodeQuantity(tx.raw.getGasPrice()));
+        json.put("gas", Numeric.encodeQuantity(tx.raw.getGasLimit()));
+        json.put("input", Numeric.prependHexPrefix(tx.raw.getData() == null ? "" : tx.raw.getData()));
+        json.put("v", tx.signed.getSignatureData().getV() & 0xFF);
+        json.put("r", Numeric.toHexString(tx.signed.getSignatureData().getR()));
+        json.put("s", Numeric.toHexString(tx.signed.getSignatureData().getS()));
+        return json;
+    }
+
+    private ObjectNode receiptJson(Tx tx) {
+        ObjectNode json = JSON.objectNode();
+        json.put("transactionHash", Numeric.toHexString(tx.hash));
+        json.put("transactionIndex", "0x0");
+        json.put("blockHash", Numeric.toHexString(tx.block.hash));
+        json.put("blockNumber", Numeric.encodeQuantity(BigInteger.valueOf(tx.block.number)));
+        json.put("from", formatAddress(tx.from));
+        if (tx.to == null) {
+            json.putNull("to");
+        }
+        else {
+            json.put("to", formatAddress(tx.to));
+        }
+        json.put("gasUsed", Numeric.encodeQuantity(BigInteger.valueOf(tx.result.gasUsed)));
+        json.put("cumulativeGasUsed", Numeric.encodeQuantity(BigInteger.valueOf(tx.result.gasUsed)));
+        if (tx.result.contractAddress == null) {
+            json.putNull("contractAddress");
+        }
+        else {
+            json.put("contractAddress", formatAddress(tx.result.contractAddress));
+        }
+        json.put("status", tx.result.success ? "0x1" : "0x0");
+
+        ArrayNode logs = json.putArray("logs");
+        for (int i = 0; i < tx.result.logs.size(); i++) {
+            logs.add(logJson(tx, tx.result.logs.get(i), i));
+        }
+        json.put("logsBloom", Numeric.toHexString(bloom(tx.result.logs, new byte[256])));
+        return json;
+    }
+
+    private static ObjectNode logJson(Tx tx, Evm.Log log, int index) {
+        ObjectNode json = JSON.objectNode();
+        json.put("removed", false);
+        json.put("logIndex", Numeric.encodeQuantity(BigInteger.valueOf(index)));
+        json.put("transactionIndex", "0x0");
+        json.put("transactionHash", Numeric.toHexString(tx.hash));
+        json.put("blockHash", Numeric.toHexString(tx.block.hash));
+        json.put("blockNumber", Numeric.encodeQuantity(BigInteger.valueOf(tx.block.number)));
+        json.put("address", formatAddress(log.address));
+        json.put("data", Numeric.toHexString(log.data));
+        json.put("type", "mined");
+        ArrayNode topics = json.putArray("topics");
+        for (byte[] topic : log.topics) {
+            topics.add(Numeric.toHexString(topic));
+        }
+        return json;
+    }
+
+    private static byte[] blockBloom(Block block) {
+        byte[] bloom = new byte[256];
+        for (Tx tx : block.transactions) {
+            bloom(tx.result.logs, bloom);
+        }
+        return bloom;
+    }
+
+    private static byte[] bloom(List<Evm.Log> logs, byte[] bloom) {
+        for (Evm.Log log : logs) {
+            addToBloom(bloom, Numeric.toBytesPadded(log.address, 20));
+            for (byte[] topic : log.topics) {
+                addToBloom(bloom, topic);
+            }
+        }
+        return bloom;
+    }
+
+    private static void addToBloom(byte[] bloom, byte[] value) {
+        byte[] hash = Hash.sha3(value);
+        for (int i = 0; i < 6; i += 2) {
+            int bit = ((hash[i] & 0xFF) << 8 | (hash[i + 1] & 0xFF)) & 2047;
+            bloom[255 - bit / 8] |= 1 << (bit % 8);
+        }
+    }
+
+    private static JsonNode quantity(long value) {
+        return quantity(BigInteger.valueOf(value));
+    }
+
+    private static JsonNode quantity(BigInteger value) {
+        return JSON.textNode(Numeric.encodeQuantity(value));
+    }
+
+    private static long number(JsonNode node) {
+        if (node.isNumber()) {
+            return node.asLong();
+        }
+        String text = node.asText();
+        return Numeric.containsHexPrefix(text) ? Numeric.toBigInt(text).longValueExact() : Long.parseLong(text);
+    }
+
+    private static BigInteger address(JsonNode node) {
+        return Numeric.toBigInt(node.asText());
+    }
+
+    private static BigInteger toAddress(String to) {
+        if (to == null || Numeric.cleanHexPrefix(to).isEmpty()) {
+            return null;
+        }
+        return Numeric.toBigInt(to);
+    }
+
+    private static String formatAddress(BigInteger address) {
+        return Numeric.toHexStringWithPrefixZeroPadded(address, 40);
+    }
+}
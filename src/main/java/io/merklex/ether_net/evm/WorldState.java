@@ -0,0 +1,165 @@
+package io.merklex.ether_net.evm;
+
+import org.web3j.crypto.Hash;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Account state of the in-process chain. Every mutation is journaled so a call frame,
+ * a transaction or an evm_snapshot can be rolled back by replaying the journal backwards.
+ */
+public class WorldState {
+    private static final byte[] EMPTY_CODE = new byte[0];
+    private static final byte[] EMPTY_CODE_HASH = Hash.sha3(EMPTY_CODE);
+
+    private final HashMap<BigInteger, Account> accounts = new HashMap<>();
+    private final ArrayList<Runnable> journal = new ArrayList<>();
+
+    public static class Account {
+        private BigInteger nonce = BigInteger.ZERO;
+        private BigInteger balance = BigInteger.ZERO;
+        private byte[] code = EMPTY_CODE;
+        private byte[] codeHash = EMPTY_CODE_HASH;
+        private final HashMap<BigInteger, BigInteger> storage = new HashMap<>();
+
+        public BigInteger nonce() {
+            return nonce;
+        }
+
+        public BigInteger balance() {
+            return balance;
+        }
+
+        public byte[] code() {
+            return code;
+        }
+
+        public byte[] codeHash() {
+            return codeHash;
+        }
+
+        public boolean isEmpty() {
+            return nonce.signum() == 0 && balance.signum() == 0 && code.length == 0;
+        }
+    }
+
+    public Account get(BigInteger address) {
+        return accounts.get(address);
+    }
+
+    public boolean exists(BigInteger address) {
+        return accounts.containsKey(address);
+    }
+
+    public boolean isDead(BigInteger address) {
+        Account account = accounts.get(address);
+        return account == null || account.isEmpty();
+    }
+
+    public Account getOrCreate(BigInteger address) {
+        Account account = accounts.get(address);
+        if (account == null) {
+            account = new Account();
+            accounts.put(address, account);
+            journal.add(() -> accounts.remove(address));
+        }
+        return account;
+    }
+
+    public BigInteger balance(BigInteger address) {
+        Account account = accounts.get(address);
+        return account == null ? BigInteger.ZERO : account.balance;
+    }
+
+    public BigInteger nonce(BigInteger address) {
+        Account account = accounts.get(address);
+        return account == null ? BigInteger.ZERO : account.nonce;
+    }
+
+    public byte[] code(BigInteger address) {
+        Account account = accounts.get(address);
+        return account == null ? EMPTY_CODE : account.code;
+    }
+
+    public void setBalance(BigInteger address, BigInteger balance) {
+        Account account = getOrCreate(address);
+        BigInteger previous = account.balance;
+        account.balance = balance;
+        journal.add(() -> account.balance = previous);
+    }
+
+    public void addBalance(BigInteger address, BigInteger amount) {
+        setBalance(address, balance(address).add(amount));
+    }
+
+    public void incrementNonce(BigInteger address) {
+        Account account = getOrCreate(address);
+        BigInteger previous = account.nonce;
+        account.nonce = previous.add(BigInteger.ONE);
+        journal.add(() -> account.nonce = previous);
+    }
+
+    public void setCode(BigInteger address, byte[] code) {
+        Account account = getOrCreate(address);
+        byte[] previous = account.code;
+        byte[] previousHash = account.codeHash;
+        account.code = code;
+        account.codeHash = Hash.sha3(code);
+        journal.add(() -> {
+            account.code = previous;
+            account.codeHash = previousHash;
+        });
+    }
+
+    public BigInteger load(BigInteger address, BigInteger key) {
+        Account account = accounts.get(address);
+        if (account == null) {
+            return BigInteger.ZERO;
+        }
+        BigInteger value = account.storage.get(key);
+        return value == null ? BigInteger.ZERO : value;
+    }
+
+    public void store(BigInteger address, BigInteger key, BigInteger value) {
+        Account account = getOrCreate(address);
+        BigInteger previous = value.signum() == 0
+                ? account.storage.remove(key)
+                : account.storage.put(key, value);
+
+        journal.add(() -> {
+            if (previous == null) {
+                account.storage.remove(key);
+            }
+            else {
+                account.storage.put(key, previous);
+            }
+        });
+    }
+
+    public void delete(BigInteger address) {
+        Account account = accounts.remove(address);
+        if (account != null) {
+            journal.add(() -> accounts.put(address, account));
+        }
+    }
+
+    public int mark() {
+        return journal.size();
+    }
+
+    public void rollback(int mark) {
+        for (int i = journal.size() - 1; i >= mark; i--) {
+            journal.remove(i).run();
+        }
+    }
+
+    /**
+     * Forgets the undo history. Only valid when no frame, transaction or snapshot
+     * can roll back past this point anymore.
+     */
+    public void commit() {
+        journal.clear();
+    }
+}
@@ -0,0 +1,441 @@
+package io.merklex.web3;
+
+import io.merklex.dcn.contracts.DCN;
+import org.agrona.ExpandableArrayBuffer;
+import org.agrona.concurrent.BackoffIdleStrategy;
+import org.agrona.concurrent.IdleStrategy;
+import org.web3j.abi.FunctionEncoder;
+import org.web3j.abi.datatypes.Function;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameterNumber;
+import org.web3j.protocol.core.methods.request.EthFilter;
+import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.protocol.core.methods.response.EthGetTransactionReceipt;
+import org.web3j.protocol.core.methods.response.EthLog;
+import org.web3j.protocol.core.methods.response.Log;
+import org.web3j.protocol.core.methods.response.Transaction;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.web3j.utils.Numeric;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteOrder;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tails blocks of a DCN contract, decodes its events and the transactions sent to it, and
+ * fans them out to listeners once a block is confirmations deep. Each listener runs on its
+ * own thread reading a shared {@link FanOutRing}, so one node poller replaces one per
+ * consumer.
+ * <p>
+ * Blocks are linked through their parent hash. When a new block does not extend the
+ * tracked tip the tip is dropped and the follower steps back, unconfirmed blocks are
+ * discarded silently and blocks already published are announced with a {@link #ROLLBACK}
+ * event, newest first, so listeners can undo them. The hashes of the last maxReorgDepth
+ * published blocks are kept for this, a deeper reorg fails {@link #poll()}.
+ */
+public class ChainFollower implements AutoCloseable {
+    public static final int USER_CREATED = 1;
+    public static final int USER_TRADE_ADDRESS_UPDATED = 2;
+    public static final int SESSION_UPDATED = 3;
+    public static final int EXCHANGE_DEPOSIT = 4;
+    public static final int TRANSACTION = 5;
+    public static final int ROLLBACK = 6;
+
+    public static final int DEFAULT_RING_CAPACITY = 4096;
+    public static final int DEFAULT_MAX_REORG_DEPTH = 64;
+
+    public interface Listener {
+        void onEvent(Event event) throws Exception;
+    }
+
+    /**
+     * Ring entry, reused once every listener has seen it. Fields not used by the type are zero / null.
+     */
+    public static class Event {
+        public int type;
+        public long blockNumber;
+        public String blockHash;
+        public String transactionHash;
+        public int logIndex;
+
+        /* UserCreated creator or transaction sender */
+        public String address;
+        public long userId;
+        public long exchangeId;
+        public int assetId;
+
+        /* TRANSACTION: receipt status, function selector and the full call data including it */
+        public boolean success;
+        public int selector;
+        public final ExpandableArrayBuffer input = new ExpandableArrayBuffer(256);
+        public int inputLength;
+
+        private Event clear() {
+            type = 0;
+            blockNumber = 0;
+            blockHash = null;
+            transactionHash = null;
+            logIndex = 0;
+            address = null;
+            userId = 0;
+            exchangeId = 0;
+            assetId = 0;
+            success = false;
+            selector = 0;
+            inputLength = 0;
+            return this;
+        }
+
+        private void set(Event other) {
+            type = other.type;
+            blockNumber = other.blockNumber;
+            blockHash = other.blockHash;
+            transactionHash = other.transactionHash;
+            logIndex = other.logIndex;
+            address = other.address;
+            userId = other.userId;
+            exchangeId = other.exchangeId;
+            assetId = other.assetId;
+            success = other.success;
+            selector = other.selector;
+            inputLength = other.inputLength;
+            input.putBytes(0, other.input, 0, other.inputLength);
+        }
+    }
+
+    private static class TrackedBlock {
+        final long number;
+        final String hash;
+        final ArrayList<Event> events = new ArrayList<>();
+        boolean published;
+
+        TrackedBlock(long number, String hash) {
+            this.number = number;
+            this.hash = hash;
+        }
+    }
+
+    private final Web3j web3j;
+    private final String dcn;
+    private final int confirmations;
+    private final int maxReorgDepth;
+    private final FanOutRing<Event> ring;
+
+    private final ArrayDeque<TrackedBlock> blocks = new ArrayDeque<>();
+    private final ArrayList<Thread> threads = new ArrayList<>();
+    private final List<Runnable> consumers = new ArrayList<>();
+    private volatile boolean running;
+    private volatile Throwable listenerFailure;
+
+    private final long firstBlock;
+    private long nextBlock;
+
+    public ChainFollower(Web3j web3j, String dcn, long firstBlock, int confirmations) {
+        this(web3j, dcn, firstBlock, confirmations, DEFAULT_MAX_REORG_DEPTH, DEFAULT_RING_CAPACITY);
+    }
+
+    public ChainFollower(Web3j web3j, String dcn, long firstBlock, int confirmations,
+                         int maxReorgDepth, int ringCapacity) {
+        if (confirmations < 0 || maxReorgDepth <= 0) {
+            throw new IllegalArgumentException("Invalid confirmations " + confirmations
+                    + " or max reorg depth " + maxReorgDepth);
+        }
+        this.web3j = web3j;
+        this.dcn = dcn;
+        this.firstBlock = firstBlock;
+        this.nextBlock = firstBlock;
+        this.confirmations = confirmations;
+        this.maxReorgDepth = maxReorgDepth;
+        this.ring = new FanOutRing<>(ringCapacity, Event::new,
+                new BackoffIdleStrategy(100, 10, TimeUnit.MICROSECONDS.toNanos(1), TimeUnit.MILLISECONDS.toNanos(1)));
+    }
+
+    /**
+     * Selector of a DCN function as reported in {@link Event#selector}
+     */
+    public static int Selector(Function function) {
+        return (int) Long.parseLong(FunctionEncoder.encode(function).substring(2, 10), 16);
+    }
+
+    /**
+     * Registers a listener, its thread starts with {@link #start()}
+     */
+    public ChainFollower addListener(Listener listener) {
+        if (running) {
+            throw new IllegalStateException("Add listeners before start");
+        }
+        FanOutRing<Event>.Subscription subscription = ring.subscribe();
+        consumers.add(() -> consume(listener, subscription));
+        return this;
+    }
+
+    public ChainFollower start() {
+        running = true;
+        for (Runnable runnable : consumers) {
+            Thread thread = new Thread(runnable, "dcn-follower-listener");
+            thread.setDaemon(true);
+            threads.add(thread);
+            thread.start();
+        }
+        consumers.clear();
+        return this;
+    }
+
+    private void consume(Listener listener, FanOutRing<Event>.Subscription subscription) {
+        IdleStrategy idle = new BackoffIdleStrategy(100, 10,
+                TimeUnit.MICROSECONDS.toNanos(1), TimeUnit.MILLISECONDS.toNanos(1));
+        try {
+            while (true) {
+                int count = subscription.poll(event -> {
+                    try {
+                        listener.onEvent(event);
+                    } catch (Exception e) {
+                        throw new ListenerException(e);
+                    }
+                });
+                if (count == 0 && !running && subscription.caughtUp()) {
+                    return;
+                }
+                idle.idle(count);
+            }
+        } catch (ListenerException e) {
+            listenerFailure = e.getCause();
+        } catch (Throwable e) {
+            listenerFailure = e;
+        } finally {
+            subscription.detach();
+        }
+    }
+
+    private static class ListenerException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        ListenerException(Exception cause) {
+            super(cause);
+        }
+    }
+
+    /**
+     * Runs {@link #poll()} every pollIntervalMillis until closed
+     */
+    public void run(long pollIntervalMillis) throws IOException, InterruptedException {
+        while (running) {
+            poll();
+            Thread.sleep(pollIntervalMillis);
+        }
+    }
+
+    /**
+     * Reads the blocks mined since the last call and publishes those now deep enough.
+     *
+     * @return the number of events published, rollbacks included
+     */
+    public int poll() throws IOException {
+        if (listenerFailure != null) {
+            throw new IllegalStateException("Listener failed", listenerFailure);
+        }
+
+        long head = web3j.ethBlockNumber().send().getBlockNumber().longValueExact();
+        int published = 0;
+
+        while (nextBlock <= head) {
+            EthBlock response = web3j.ethGetBlockByNumber(new DefaultBlockParameterNumber(nextBlock), true).send();
+            if (response.hasError()) {
+                throw new IOException("Failed to load block " + nextBlock + ": " + response.getError().getMessage());
+            }
+            EthBlock.Block block = response.getBlock();
+            if (block == null) {
+                /* node went back below head, pick it up on the next poll */
+                break;
+            }
+
+            TrackedBlock tip = blocks.peekLast();
+            if (tip != null && !tip.hash.equalsIgnoreCase(block.getParentHash())) {
+                blocks.pollLast();
+                if (tip.published) {
+                    publishRollback(tip);
+                    published++;
+                }
+                nextBlock = tip.number;
+                if (blocks.isEmpty() && tip.number > firstBlock) {
+                    throw new IOException("Reorg at block " + tip.number + " is deeper than " + maxReorgDepth + " published blocks");
+                }
+                continue;
+            }
+
+            TrackedBlock tracked = decode(block);
+            if (tracked != null) {
+                blocks.addLast(tracked);
+                nextBlock++;
+            }
+        }
+
+        int publishedBlocks = 0;
+        for (TrackedBlock block : blocks) {
+            if (block.published) {
+                publishedBlocks++;
+            }
+            else if (block.number + confirmations <= head) {
+                for (Event event : block.events) {
+                    ring.claim().set(event);
+                    ring.publish();
+                    published++;
+                }
+                block.events.clear();
+                block.published = true;
+                publishedBlocks++;
+            }
+        }
+
+        Iterator<TrackedBlock> it = blocks.iterator();
+        while (publishedBlocks > maxReorgDepth && it.hasNext() && it.next().published) {
+            it.remove();
+            publishedBlocks--;
+        }
+
+        return published;
+    }
+
+    private void publishRollback(TrackedBlock block) {
+        Event event = ring.claim().clear();
+        event.type = ROLLBACK;
+        event.blockNumber = block.number;
+        event.blockHash = block.hash;
+        ring.publish();
+    }
+
+    /**
+     * @return null if the logs or receipts no longer belong to block, the chain changed under us
+     */
+    private TrackedBlock decode(EthBlock.Block block) throws IOException {
+        long number = block.getNumber().longValueExact();
+        TrackedBlock tracked = new TrackedBlock(number, block.getHash());
+
+        EthFilter filter = new EthFilter(new DefaultBlockParameterNumber(number),
+                new DefaultBlockParameterNumber(number), dcn);
+        EthLog logs = web3j.ethGetLogs(filter).send();
+        if (logs.hasError()) {
+            throw new IOException("Failed to load logs of block " + number + ": " + logs.getError().getMessage());
+        }
+
+        HashMap<String, List<Log>> logsByTransaction = new HashMap<>();
+        for (EthLog.LogResult<?> result : logs.getLogs()) {
+            Log log = (Log) result;
+            if (!block.getHash().equalsIgnoreCase(log.getBlockHash())) {
+                return null;
+            }
+            logsByTransaction.computeIfAbsent(log.getTransactionHash().toLowerCase(), k -> new ArrayList<>()).add(log);
+        }
+
+        for (EthBlock.TransactionResult<?> result : block.getTransactions()) {
+            Transaction transaction = (Transaction) result.get();
+
+            if (dcn.equalsIgnoreCase(transaction.getTo())) {
+                EthGetTransactionReceipt response = web3j.ethGetTransactionReceipt(transaction.getHash()).send();
+                TransactionReceipt receipt = response.getTransactionReceipt().orElse(null);
+                if (receipt == null || !block.getHash().equalsIgnoreCase(receipt.getBlockHash())) {
+                    return null;
+                }
+
+                Event event = event(TRANSACTION, tracked, transaction.getHash());
+                event.address = transaction.getFrom();
+                event.success = receipt.isStatusOK();
+                byte[] input = Numeric.hexStringToByteArray(transaction.getInput());
+                event.input.putBytes(0, input);
+                event.inputLength = input.length;
+                event.selector = input.length >= 4 ? event.input.getInt(0, ByteOrder.BIG_ENDIAN) : 0;
+            }
+
+            List<Log> transactionLogs = logsByTransaction.get(transaction.getHash().toLowerCase());
+            if (transactionLogs != null) {
+                for (Log log : transactionLogs) {
+                    decodeLog(tracked, log);
+                }
+            }
+        }
+        return tracked;
+    }
+
+    private void decodeLog(TrackedBlock block, Log log) {
+        List<String> topics = log.getTopics();
+        if (topics.isEmpty()) {
+            return;
+        }
+
+        String topic = topics.get(0);
+        Event event;
+        if (DCN.UserCreated_EVENT_HASH.equals(topic)) {
+            DCN.UserCreated decoded = DCN.ExtractUserCreated(log);
+            event = event(USER_CREATED, block, log.getTransactionHash());
+            event.address = decoded.creator;
+            event.userId = decoded.user_id;
+        }
+        else if (DCN.UserTradeAddressUpdated_EVENT_HASH.equals(topic)) {
+            DCN.UserTradeAddressUpdated decoded = DCN.ExtractUserTradeAddressUpdated(log);
+            event = event(USER_TRADE_ADDRESS_UPDATED, block, log.getTransactionHash());
+            event.userId = decoded.user_id;
+        }
+        else if (DCN.SessionUpdated_EVENT_HASH.equals(topic)) {
+            DCN.SessionUpdated decoded = DCN.ExtractSessionUpdated(log);
+            event = event(SESSION_UPDATED, block, log.getTransactionHash());
+            event.userId = decoded.user_id;
+            event.exchangeId = decoded.exchange_id;
+        }
+        else if (DCN.ExchangeDeposit_EVENT_HASH.equals(topic)) {
+            DCN.ExchangeDeposit decoded = DCN.ExtractExchangeDeposit(log);
+            event = event(EXCHANGE_DEPOSIT, block, log.getTransactionHash());
+            event.userId = decoded.user_id;
+            event.exchangeId = decoded.exchange_id;
+            event.assetId = decoded.asset_id;
+        }
+        else {
+            return;
+        }
+
+        BigInteger logIndex = log.getLogIndex();
+        event.logIndex = logIndex == null ? 0 : logIndex.intValueExact();
+    }
+
+    private static Event event(int type, TrackedBlock block, String transactionHash) {
+        Event event = new Event();
+        event.type = type;
+        event.blockNumber = block.number;
+        event.blockHash = block.hash;
+        event.transactionHash = transactionHash;
+        block.events.add(event);
+        return event;
+    }
+
+    public long nextBlock() {
+        return nextBlock;
+    }
+
+    /**
+     * Stops listeners once they have handled everything published. Waits for
+     * them even when interrupted, the interrupt is kept for the caller.
+     */
+    @Override
+    public void close() {
+        running = false;
+        boolean interrupted = false;
+        for (Thread thread : threads) {
+            while (thread.isAlive()) {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        threads.clear();
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
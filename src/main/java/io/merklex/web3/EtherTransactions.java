@@ -1,5 +1,6 @@
 package io.merklex.web3;
 
+import org.agrona.DirectBuffer;
 import org.web3j.abi.FunctionEncoder;
 import org.web3j.abi.datatypes.Function;
 import org.web3j.crypto.Credentials;
@@ -14,7 +15,6 @@ import org.web3j.tx.FastRawTransactionManager;
 import org.web3j.tx.response.PollingTransactionReceiptProcessor;
 
 import java.io.IOException;
-import java.lang.reflect.Field;
 import java.math.BigInteger;
 import java.util.Optional;
 
@@ -24,7 +24,20 @@ public class EtherTransactions {
     private final Web3j web3j;
     private final Credentials credentials;
     private final PollingTransactionReceiptProcessor receiptProcessor;
-    private final FastRawTransactionManager transactionManager;
+    private final NonceManager transactionManager;
+    private final RawTransactionSigner signer;
+
+    /* hands out nonces to the raw path from the same counter the manager uses */
+    private static class NonceManager extends FastRawTransactionManager {
+        NonceManager(Web3j web3j, Credentials credentials, byte chainId,
+                     PollingTransactionReceiptProcessor receiptProcessor) {
+            super(web3j, credentials, chainId, receiptProcessor);
+        }
+
+        BigInteger nextNonce() throws IOException {
+            return getNonce();
+        }
+    }
 
     public EtherTransactions(Web3j web3j, Credentials credentials) {
         this(web3j, credentials, ChainId.NONE);
@@ -34,8 +47,8 @@ public class EtherTransactions {
         this.web3j = web3j;
         this.credentials = credentials;
         receiptProcessor = new PollingTransactionReceiptProcessor(web3j, 1000, 600);
-        transactionManager = new FastRawTransactionManager(web3j, credentials, chainId,
-                receiptProcessor);
+        transactionManager = new NonceManager(web3j, credentials, chainId, receiptProcessor);
+        signer = new RawTransactionSigner(credentials, chainId);
     }
 
     public Credentials credentials() {
@@ -56,9 +69,7 @@ public class EtherTransactions {
     }
 
     public void reloadNonce() throws Exception {
-        Field nonce = transactionManager.getClass().getDeclaredField("nonce");
-        nonce.setAccessible(true);
-        nonce.set(transactionManager, BigInteger.valueOf(-1));
+        transactionManager.setNonce(BigInteger.valueOf(-1));
     }
 
     public EthSendTransaction sendCall(String contractAddress, Function function, BigInteger weiValue) throws IOException {
@@ -69,6 +80,13 @@ public class EtherTransactions {
         return sendCall(gasPrice, gasLimit, contractAddress, function, BigInteger.ZERO);
     }
 
+    /**
+     * @param data encoded call, as written by a contract's encode_ methods
+     */
+    public EthSendTransaction sendCall(String contractAddress, String data) throws IOException {
+        return sendCall(gasPrice, gasLimit, contractAddress, data, BigInteger.ZERO);
+    }
+
     public EthSendTransaction sendCall(BigInteger gasPrice, BigInteger gasLimit,
                                        String contractAddress, Function function, BigInteger weiValue) throws IOException {
         String encode = FunctionEncoder.encode(function);
@@ -80,6 +98,24 @@ public class EtherTransactions {
         return transactionManager.sendTransaction(gasPrice, gasLimit, contractAddress, data, weiValue);
     }
 
+    /**
+     * Signs with {@link RawTransactionSigner} instead of the transaction manager, data is
+     * read straight from the buffer
+     */
+    public EthSendTransaction sendCall(String contractAddress, DirectBuffer data, int offset, int length) throws IOException {
+        return sendCall(gasPrice, gasLimit, contractAddress, data, offset, length, BigInteger.ZERO);
+    }
+
+    public EthSendTransaction sendCall(BigInteger gasPrice, BigInteger gasLimit, String contractAddress,
+                                       DirectBuffer data, int offset, int length, BigInteger weiValue) throws IOException {
+        String signed;
+        synchronized (signer) {
+            signed = signer.sign(transactionManager.nextNonce(), gasPrice, gasLimit, contractAddress, weiValue,
+                    data, offset, length);
+        }
+        return web3j.ethSendRawTransaction(signed).send();
+    }
+
     public EthSendTransaction sendWei(BigInteger gasPrice, String address, BigInteger weiValue) throws IOException {
         return transactionManager.sendTransaction(gasPrice, TX_GAS_LIMIT, address, "", weiValue);
     }
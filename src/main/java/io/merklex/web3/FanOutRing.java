@@ -0,0 +1,118 @@
+package io.merklex.web3;
+
+import org.agrona.concurrent.IdleStrategy;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Single producer, many consumer ring of preallocated entries. Every consumer sees every
+ * entry in order, the producer waits for the slowest consumer before reusing a slot. No
+ * locks are taken, the producer and each consumer only publish their own sequence.
+ * <p>
+ * Consumers must all be added before the first claim.
+ */
+public class FanOutRing<T> {
+    private final Object[] entries;
+    private final int mask;
+    private final AtomicLong cursor = new AtomicLong(-1);
+    private final IdleStrategy idle;
+
+    private AtomicLong[] consumers = new AtomicLong[0];
+    private long claimed = -1;
+    private long cachedMinimum = -1;
+
+    public FanOutRing(int capacity, Supplier<T> factory, IdleStrategy idle) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two, got " + capacity);
+        }
+        this.entries = new Object[capacity];
+        this.mask = capacity - 1;
+        this.idle = idle;
+        for (int i = 0; i < capacity; i++) {
+            entries[i] = factory.get();
+        }
+    }
+
+    public int capacity() {
+        return entries.length;
+    }
+
+    public Subscription subscribe() {
+        if (claimed != -1) {
+            throw new IllegalStateException("Subscribe before publishing");
+        }
+        Subscription subscription = new Subscription();
+        AtomicLong[] updated = new AtomicLong[consumers.length + 1];
+        System.arraycopy(consumers, 0, updated, 0, consumers.length);
+        updated[consumers.length] = subscription.sequence;
+        consumers = updated;
+        return subscription;
+    }
+
+    /**
+     * Waits until the next slot is free and returns its entry, call {@link #publish()} once filled.
+     */
+    @SuppressWarnings("unchecked")
+    public T claim() {
+        long next = claimed + 1;
+        long wrap = next - entries.length;
+        if (wrap > cachedMinimum) {
+            idle.reset();
+            while (wrap > (cachedMinimum = minimumSequence())) {
+                idle.idle();
+            }
+        }
+        claimed = next;
+        return (T) entries[(int) (next & mask)];
+    }
+
+    public void publish() {
+        cursor.lazySet(claimed);
+    }
+
+    /**
+     * @return the lowest sequence any consumer has finished, or the cursor with no consumers
+     */
+    private long minimumSequence() {
+        long minimum = claimed;
+        for (AtomicLong consumer : consumers) {
+            minimum = Math.min(minimum, consumer.get());
+        }
+        return minimum;
+    }
+
+    public class Subscription {
+        private final AtomicLong sequence = new AtomicLong(-1);
+
+        /**
+         * Hands every published entry not seen yet to handler.
+         *
+         * @return the number of entries handled
+         */
+        @SuppressWarnings("unchecked")
+        public int poll(Consumer<T> handler) {
+            long next = sequence.get() + 1;
+            long available = cursor.get();
+            int count = 0;
+            for (; next <= available; next++) {
+                handler.accept((T) entries[(int) (next & mask)]);
+                sequence.lazySet(next);
+                count++;
+            }
+            return count;
+        }
+
+        /**
+         * Stops gating the producer, for a consumer that has given up.
+         */
+        public void detach() {
+            sequence.set(Long.MAX_VALUE);
+        }
+
+        public boolean caughtUp() {
+            return sequence.get() >= cursor.get();
+        }
+    }
+}
@@ -36,6 +36,29 @@ public class FileUtils {
         return dir;
     }
 
+    public static void CopyDir(File source, File destination) throws IOException {
+        Path sourcePath = source.toPath();
+        Path destinationPath = destination.toPath();
+
+        try {
+            Files.walk(sourcePath).forEach(path -> {
+                Path target = destinationPath.resolve(sourcePath.relativize(path));
+                try {
+                    if (Files.isDirectory(path)) {
+                        Files.createDirectories(target);
+                    }
+                    else {
+                        Files.copy(path, target);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
     public static void DeleteDir(File file) {
         if (!file.exists()) {
             return;
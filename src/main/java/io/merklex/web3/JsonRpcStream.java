@@ -0,0 +1,44 @@
+package io.merklex.web3;
+
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Sends a JSON-RPC payload and hands back the response body unparsed, for responses too
+ * large to materialize.
+ */
+public interface JsonRpcStream {
+    MediaType JSON = MediaType.parse("application/json; charset=utf-8");
+
+    /**
+     * @return the response body, the caller closes it
+     */
+    InputStream post(String payload) throws IOException;
+
+    static JsonRpcStream Http(String url) {
+        return Http(new OkHttpClient(), url);
+    }
+
+    static JsonRpcStream Http(OkHttpClient client, String url) {
+        return payload -> {
+            Response response = client.newCall(new okhttp3.Request.Builder()
+                    .url(url)
+                    .post(RequestBody.create(JSON, payload))
+                    .build()).execute();
+
+            ResponseBody body = response.body();
+            if (!response.isSuccessful() || body == null) {
+                String message = body == null ? "" : body.string();
+                response.close();
+                throw new IOException("HTTP " + response.code() + " from " + url + ": " + message);
+            }
+            return body.byteStream();
+        };
+    }
+}
@@ -0,0 +1,255 @@
+package io.merklex.web3;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.agrona.ExpandableArrayBuffer;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.web3j.protocol.ObjectMapperFactory;
+import org.web3j.protocol.core.DefaultBlockParameterNumber;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.methods.request.EthFilter;
+import org.web3j.protocol.core.methods.response.EthLog;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteOrder;
+import java.util.Collections;
+
+/**
+ * eth_getLogs without building a response tree or Log objects. Entries are read one at a
+ * time off the response stream into a single reused {@link RawLog} whose topics and data
+ * are decoded from hex straight into buffers, so memory stays at one entry regardless of
+ * how many logs the range holds.
+ * <p>
+ * The stream based counterpart of {@link LogLoader}.
+ */
+public class LogStreamer {
+    public interface Handler {
+        void onLog(RawLog log) throws IOException;
+    }
+
+    /**
+     * One log entry, valid only during {@link Handler#onLog(RawLog)}.
+     */
+    public static class RawLog {
+        public static final int WORD = 32;
+
+        public final UnsafeBuffer address = new UnsafeBuffer(new byte[20]);
+        public final UnsafeBuffer blockHash = new UnsafeBuffer(new byte[WORD]);
+        public final UnsafeBuffer transactionHash = new UnsafeBuffer(new byte[WORD]);
+        public long blockNumber;
+        public int transactionIndex;
+        public int logIndex;
+        public boolean removed;
+
+        public final ExpandableArrayBuffer topics = new ExpandableArrayBuffer(4 * WORD);
+        public int topicCount;
+        public final ExpandableArrayBuffer data = new ExpandableArrayBuffer(256);
+        public int dataLength;
+
+        public boolean topicEquals(int index, byte[] topic) {
+            if (index >= topicCount || topic.length != WORD) {
+                return false;
+            }
+            for (int i = 0; i < WORD; i++) {
+                if (topics.getByte(index * WORD + i) != topic[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Low 64 bits of the index-th 32 byte word of data, how ABI encodes uint64 and smaller
+         */
+        public long dataLong(int index) {
+            return data.getLong(index * WORD + WORD - Long.BYTES, ByteOrder.BIG_ENDIAN);
+        }
+
+        private void clear() {
+            blockNumber = 0;
+            transactionIndex = 0;
+            logIndex = 0;
+            removed = false;
+            topicCount = 0;
+            dataLength = 0;
+        }
+    }
+
+    private final JsonRpcStream rpc;
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final ObjectMapper objectMapper = ObjectMapperFactory.getObjectMapper();
+    private final RawLog log = new RawLog();
+
+    public LogStreamer(JsonRpcStream rpc) {
+        this.rpc = rpc;
+    }
+
+    /**
+     * @param topic first topic to match, null for any
+     * @return the number of logs handed to handler
+     */
+    public long load(long firstBlock, long lastBlock, String contractAddress, String topic,
+                     Handler handler) throws IOException {
+        EthFilter filter = new EthFilter(
+                new DefaultBlockParameterNumber(firstBlock),
+                new DefaultBlockParameterNumber(lastBlock),
+                contractAddress
+        );
+        if (topic != null) {
+            filter.addSingleTopic(topic);
+        }
+
+        Request<?, EthLog> request = new Request<>("eth_getLogs", Collections.singletonList(filter), null, EthLog.class);
+        try (InputStream response = rpc.post(objectMapper.writeValueAsString(request))) {
+            return parse(response, handler);
+        }
+    }
+
+    /**
+     * Reads an eth_getLogs JSON-RPC response
+     */
+    public long parse(InputStream response, Handler handler) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(response)) {
+            Expect(parser.nextToken(), JsonToken.START_OBJECT);
+
+            long count = 0;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+
+                if ("result".equals(field) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        readLog(parser);
+                        handler.onLog(log);
+                        count++;
+                    }
+                }
+                else if ("error".equals(field) && value == JsonToken.START_OBJECT) {
+                    JsonNode error = objectMapper.readTree(parser);
+                    throw new IOException("eth_getLogs failed: " + error.path("message").asText(error.toString()));
+                }
+                else {
+                    parser.skipChildren();
+                }
+            }
+            return count;
+        }
+    }
+
+    private void readLog(JsonParser parser) throws IOException {
+        log.clear();
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if (value == JsonToken.VALUE_NULL) {
+                continue;
+            }
+
+            switch (field) {
+                case "address":
+                    Hex(parser, log.address, 0);
+                    break;
+                case "blockHash":
+                    Hex(parser, log.blockHash, 0);
+                    break;
+                case "transactionHash":
+                    Hex(parser, log.transactionHash, 0);
+                    break;
+                case "blockNumber":
+                    log.blockNumber = Quantity(parser);
+                    break;
+                case "transactionIndex":
+                    log.transactionIndex = (int) Quantity(parser);
+                    break;
+                case "logIndex":
+                    log.logIndex = (int) Quantity(parser);
+                    break;
+                case "removed":
+                    log.removed = value == JsonToken.VALUE_TRUE;
+                    break;
+                case "data":
+                    log.dataLength = Hex(parser, log.data, 0);
+                    break;
+                case "topics":
+                    Expect(value, JsonToken.START_ARRAY);
+                    while (parser.nextToken() == JsonToken.VALUE_STRING) {
+                        Hex(parser, log.topics, log.topicCount * RawLog.WORD);
+                        log.topicCount++;
+                    }
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+    }
+
+    private static void Expect(JsonToken actual, JsonToken expected) throws IOException {
+        if (actual != expected) {
+            throw new IOException("Expected " + expected + " but got " + actual);
+        }
+    }
+
+    /**
+     * Decodes the current 0x string into buffer at offset without creating a String
+     *
+     * @return the number of bytes written
+     */
+    private static int Hex(JsonParser parser, MutableDirectBuffer buffer, int offset) throws IOException {
+        char[] chars = parser.getTextCharacters();
+        int start = parser.getTextOffset();
+        int length = parser.getTextLength();
+        if (length >= 2 && chars[start] == '0' && (chars[start + 1] == 'x' || chars[start + 1] == 'X')) {
+            start += 2;
+            length -= 2;
+        }
+        if ((length & 1) != 0) {
+            throw new IOException("Odd length hex string");
+        }
+
+        int bytes = length >> 1;
+        if (buffer.capacity() < offset + bytes && !(buffer instanceof ExpandableArrayBuffer)) {
+            throw new IOException("Expected at most " + (buffer.capacity() - offset) + " bytes, got " + bytes);
+        }
+        for (int i = 0; i < bytes; i++) {
+            int high = Character.digit(chars[start + 2 * i], 16);
+            int low = Character.digit(chars[start + 2 * i + 1], 16);
+            if ((high | low) < 0) {
+                throw new IOException("Invalid hex digit");
+            }
+            buffer.putByte(offset + i, (byte) (high << 4 | low));
+        }
+        return bytes;
+    }
+
+    private static long Quantity(JsonParser parser) throws IOException {
+        if (parser.getCurrentToken() == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getLongValue();
+        }
+
+        char[] chars = parser.getTextCharacters();
+        int start = parser.getTextOffset();
+        int end = start + parser.getTextLength();
+        if (end - start >= 2 && chars[start] == '0' && (chars[start + 1] == 'x' || chars[start + 1] == 'X')) {
+            start += 2;
+        }
+        if (end - start > 16) {
+            throw new IOException("Quantity does not fit 64 bits");
+        }
+
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = Character.digit(chars[i], 16);
+            if (digit < 0) {
+                throw new IOException("Invalid hex digit");
+            }
+            value = value << 4 | digit;
+        }
+        return value;
+    }
+}
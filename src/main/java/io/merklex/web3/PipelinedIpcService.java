@@ -0,0 +1,258 @@
+package io.merklex.web3;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.reactivex.BackpressureStrategy;
+import io.reactivex.Flowable;
+import io.reactivex.FlowableEmitter;
+import jnr.unixsocket.UnixSocketAddress;
+import jnr.unixsocket.UnixSocketChannel;
+import org.web3j.protocol.ObjectMapperFactory;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.response.EthSubscribe;
+import org.web3j.protocol.core.methods.response.EthUnsubscribe;
+import org.web3j.protocol.websocket.events.Notification;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JSON-RPC over one Unix domain socket connection with any number of requests in flight.
+ * Callers write whole requests under a lock and never wait for each other's responses, a
+ * reader thread matches responses to requests by id and routes eth_subscription
+ * notifications to their subscribers.
+ * <p>
+ * web3j's UnixIpcService holds the socket for the full round trip, so concurrent senders
+ * queue behind each other's latency.
+ */
+public class PipelinedIpcService implements Web3jService, Closeable {
+    private final ObjectMapper objectMapper = ObjectMapperFactory.getObjectMapper();
+    private final UnixSocketChannel channel;
+    private final Object writeLock = new Object();
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final Map<Long, Pending<?>> pending = new ConcurrentHashMap<>();
+    private final Map<String, Subscriber<?>> subscribers = new ConcurrentHashMap<>();
+    private final Thread reader;
+
+    private volatile IOException failure;
+
+    private static class Pending<T extends Response<?>> {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        final Class<T> responseType;
+        final Subscriber<?> subscriber;
+
+        Pending(Class<T> responseType, Subscriber<?> subscriber) {
+            this.responseType = responseType;
+            this.subscriber = subscriber;
+        }
+    }
+
+    private static class Subscriber<T extends Notification<?>> {
+        final Class<T> notificationType;
+        final FlowableEmitter<T> emitter;
+
+        Subscriber(Class<T> notificationType, FlowableEmitter<T> emitter) {
+            this.notificationType = notificationType;
+            this.emitter = emitter;
+        }
+    }
+
+    public PipelinedIpcService(String ipcPath) throws IOException {
+        channel = UnixSocketChannel.open(new UnixSocketAddress(new File(ipcPath)));
+        reader = new Thread(this::read, "ipc-reader");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    /* the raw types are the Web3jService signature */
+    @Override
+    @SuppressWarnings("rawtypes")
+    public <T extends Response> T send(Request request, Class<T> responseType) throws IOException {
+        try {
+            return sendAsync(request, responseType).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted waiting for " + request.getMethod(), e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public <T extends Response> CompletableFuture<T> sendAsync(Request request, Class<T> responseType) {
+        return sendAsync(request, new Pending<>(responseType, null));
+    }
+
+    private <T extends Response<?>> CompletableFuture<T> sendAsync(Request<?, ?> request, Pending<T> entry) {
+        long id = nextId.getAndIncrement();
+        request.setId(id);
+        pending.put(id, entry);
+
+        try {
+            ByteBuffer bytes = ByteBuffer.wrap(objectMapper.writeValueAsBytes(request));
+            synchronized (writeLock) {
+                if (failure != null) {
+                    throw failure;
+                }
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+            }
+        } catch (IOException e) {
+            pending.remove(id);
+            entry.future.completeExceptionally(e);
+        }
+        return entry.future;
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public <T extends Notification<?>> Flowable<T> subscribe(Request request, String unsubscribeMethod, Class<T> responseType) {
+        return Flowable.create(emitter -> {
+            Subscriber<T> subscriber = new Subscriber<>(responseType, emitter);
+            sendAsync(request, new Pending<>(EthSubscribe.class, subscriber)).whenComplete((response, error) -> {
+                if (error != null) {
+                    emitter.onError(error);
+                    return;
+                }
+                if (response.hasError()) {
+                    emitter.onError(new IOException("Subscribe failed: " + response.getError().getMessage()));
+                    return;
+                }
+
+                String subscriptionId = response.getSubscriptionId();
+                emitter.setCancellable(() -> {
+                    if (subscribers.remove(subscriptionId) != null && failure == null) {
+                        sendAsync(new Request<>(unsubscribeMethod, Collections.singletonList(subscriptionId),
+                                this, EthUnsubscribe.class), EthUnsubscribe.class);
+                    }
+                });
+            });
+        }, BackpressureStrategy.BUFFER);
+    }
+
+    private void read() {
+        try (JsonParser parser = objectMapper.getFactory().createParser(new ChannelInput())) {
+            while (parser.nextToken() != null) {
+                dispatch(objectMapper.readTree(parser));
+            }
+            fail(new IOException("IPC connection closed"));
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void dispatch(JsonNode message) {
+        JsonNode id = message.get("id");
+        if (id != null && !id.isNull()) {
+            Pending<Response<?>> entry = (Pending<Response<?>>) pending.remove(id.asLong());
+            if (entry == null) {
+                return;
+            }
+
+            Response<?> response;
+            try {
+                response = objectMapper.treeToValue(message, entry.responseType);
+            } catch (IOException e) {
+                entry.future.completeExceptionally(e);
+                return;
+            }
+
+            /* registered here, before the reader can see the first notification */
+            if (entry.subscriber != null && !response.hasError()) {
+                subscribers.put(((EthSubscribe) response).getSubscriptionId(), entry.subscriber);
+            }
+            entry.future.complete(response);
+            return;
+        }
+
+        JsonNode subscription = message.path("params").path("subscription");
+        Subscriber<Notification<?>> subscriber = (Subscriber<Notification<?>>) subscribers.get(subscription.asText());
+        if (subscriber == null) {
+            return;
+        }
+        try {
+            subscriber.emitter.onNext(objectMapper.treeToValue(message, subscriber.notificationType));
+        } catch (IOException e) {
+            subscriber.emitter.onError(e);
+        }
+    }
+
+    private void fail(IOException e) {
+        synchronized (writeLock) {
+            if (failure == null) {
+                failure = e;
+            }
+        }
+        for (Long id : pending.keySet()) {
+            Pending<?> entry = pending.remove(id);
+            if (entry != null) {
+                entry.future.completeExceptionally(failure);
+            }
+        }
+        for (String id : subscribers.keySet()) {
+            Subscriber<?> subscriber = subscribers.remove(id);
+            if (subscriber != null) {
+                subscriber.emitter.onError(failure);
+            }
+        }
+    }
+
+    /**
+     * Number of requests still waiting for a response
+     */
+    public int inFlight() {
+        return pending.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        fail(new IOException("IPC service closed"));
+        /* a blocked read only wakes up on shutdown, not on close */
+        channel.shutdownInput();
+        channel.close();
+        try {
+            reader.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /* reads the channel directly, Channels.newInputStream would hold the channel's blocking lock across writes */
+    private class ChannelInput extends InputStream {
+        private final ByteBuffer single = ByteBuffer.allocate(1);
+
+        @Override
+        public int read() throws IOException {
+            single.clear();
+            int read = read(single);
+            return read <= 0 ? -1 : single.get(0) & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            return read(ByteBuffer.wrap(bytes, offset, length));
+        }
+
+        private int read(ByteBuffer buffer) throws IOException {
+            return channel.read(buffer);
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package io.merklex.web3;
+
+import org.agrona.DirectBuffer;
+import org.agrona.ExpandableArrayBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.bouncycastle.crypto.digests.KeccakDigest;
+import org.web3j.crypto.Credentials;
+import org.web3j.crypto.ECKeyPair;
+import org.web3j.crypto.Sign;
+import org.web3j.tx.ChainId;
+
+import java.math.BigInteger;
+
+/**
+ * Signs transactions without web3j's RawTransaction, RlpString lists and intermediate hex
+ * strings. Fields are RLP encoded straight into a reused buffer, hashed in place, and the
+ * signature is written over the EIP-155 tail of the same encoding. Produces the same bytes
+ * as TransactionEncoder.signMessage for the same chain id.
+ * <p>
+ * Not thread safe, one signer per sending thread or an external lock.
+ */
+public class RawTransactionSigner {
+    /* room in front of the fields for the longest list header */
+    private static final int LIST_HEADER = 9;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final ECKeyPair keyPair;
+    private final byte chainId;
+
+    private final ExpandableArrayBuffer buffer = new ExpandableArrayBuffer(512);
+    private final KeccakDigest keccak = new KeccakDigest(256);
+    private final byte[] hash = new byte[32];
+    private final byte[] to = new byte[20];
+    private String toAddress;
+    private char[] hex = new char[1024];
+
+    private int position;
+
+    public RawTransactionSigner(Credentials credentials, byte chainId) {
+        this.keyPair = credentials.getEcKeyPair();
+        this.chainId = chainId;
+    }
+
+    public RawTransactionSigner(Credentials credentials) {
+        this(credentials, ChainId.NONE);
+    }
+
+    /**
+     * @param to contract or account address, null to deploy
+     * @return the signed transaction as 0x prefixed hex for eth_sendRawTransaction
+     */
+    public String sign(BigInteger nonce, BigInteger gasPrice, BigInteger gasLimit, String to, BigInteger value,
+                       DirectBuffer data, int dataOffset, int dataLength) {
+        position = LIST_HEADER;
+        putScalar(nonce);
+        putScalar(gasPrice);
+        putScalar(gasLimit);
+        if (to == null || to.isEmpty()) {
+            putString(this.to, 0);
+        } else {
+            putString(address(to), 20);
+        }
+        putScalar(value);
+        putString(data, dataOffset, dataLength);
+        int fieldsEnd = position;
+
+        boolean eip155 = chainId > ChainId.NONE;
+        if (eip155) {
+            putScalar(chainId);
+            putScalar(0);
+            putScalar(0);
+        }
+        int start = listHeader(position - LIST_HEADER);
+        keccak.update(buffer.byteArray(), start, position - start);
+        keccak.doFinal(hash, 0);
+
+        Sign.SignatureData signature = Sign.signMessage(hash, keyPair, false);
+        position = fieldsEnd;
+        long v = signature.getV();
+        putScalar(eip155 ? v + chainId * 2 + 8 : v);
+        putWord(signature.getR());
+        putWord(signature.getS());
+        start = listHeader(position - LIST_HEADER);
+
+        return hex(start, position - start);
+    }
+
+    public String sign(BigInteger nonce, BigInteger gasPrice, BigInteger gasLimit, String to, BigInteger value,
+                       byte[] data) {
+        return sign(nonce, gasPrice, gasLimit, to, value, new UnsafeBuffer(data), 0, data.length);
+    }
+
+    private byte[] address(String address) {
+        /* the same contract is called over and over, parse it once */
+        if (!address.equals(toAddress)) {
+            int start = address.startsWith("0x") || address.startsWith("0X") ? 2 : 0;
+            if (address.length() - start != 40) {
+                throw new IllegalArgumentException("Invalid address " + address);
+            }
+            for (int i = 0; i < 20; i++) {
+                int high = Character.digit(address.charAt(start + i * 2), 16);
+                int low = Character.digit(address.charAt(start + i * 2 + 1), 16);
+                if ((high | low) < 0) {
+                    throw new IllegalArgumentException("Invalid address " + address);
+                }
+                to[i] = (byte) (high << 4 | low);
+            }
+            toAddress = address;
+        }
+        return to;
+    }
+
+    /**
+     * Writes the list header right in front of the fields
+     *
+     * @return where the encoded list starts
+     */
+    private int listHeader(int payloadLength) {
+        if (payloadLength <= 55) {
+            buffer.putByte(LIST_HEADER - 1, (byte) (0xC0 + payloadLength));
+            return LIST_HEADER - 1;
+        }
+        int lengthBytes = ByteLength(payloadLength);
+        int start = LIST_HEADER - 1 - lengthBytes;
+        buffer.putByte(start, (byte) (0xF7 + lengthBytes));
+        putBigEndian(start + 1, payloadLength, lengthBytes);
+        return start;
+    }
+
+    private void putScalar(long value) {
+        if (value == 0) {
+            buffer.putByte(position++, (byte) 0x80);
+        } else if (value > 0 && value < 0x80) {
+            buffer.putByte(position++, (byte) value);
+        } else {
+            int length = ByteLength(value);
+            buffer.putByte(position++, (byte) (0x80 + length));
+            putBigEndian(position, value, length);
+            position += length;
+        }
+    }
+
+    private void putScalar(BigInteger value) {
+        if (value.signum() < 0) {
+            throw new IllegalArgumentException("Negative value " + value);
+        }
+        if (value.bitLength() < 64) {
+            putScalar(value.longValue());
+            return;
+        }
+        byte[] bytes = value.toByteArray();
+        int skip = bytes[0] == 0 ? 1 : 0;
+        putString(bytes, skip, bytes.length - skip);
+    }
+
+    /* r and s, minimal big endian like any other scalar */
+    private void putWord(byte[] word) {
+        int skip = 0;
+        while (skip < word.length && word[skip] == 0) {
+            skip++;
+        }
+        putString(word, skip, word.length - skip);
+    }
+
+    private void putString(byte[] bytes, int length) {
+        putString(bytes, 0, length);
+    }
+
+    private void putString(byte[] bytes, int offset, int length) {
+        if (length == 1 && (bytes[offset] & 0xFF) < 0x80) {
+            buffer.putByte(position++, bytes[offset]);
+            return;
+        }
+        stringHeader(length);
+        buffer.putBytes(position, bytes, offset, length);
+        position += length;
+    }
+
+    private void putString(DirectBuffer bytes, int offset, int length) {
+        if (length == 1 && (bytes.getByte(offset) & 0xFF) < 0x80) {
+            buffer.putByte(position++, bytes.getByte(offset));
+            return;
+        }
+        stringHeader(length);
+        buffer.putBytes(position, bytes, offset, length);
+        position += length;
+    }
+
+    private void stringHeader(int length) {
+        if (length <= 55) {
+            buffer.putByte(position++, (byte) (0x80 + length));
+        } else {
+            int lengthBytes = ByteLength(length);
+            buffer.putByte(position++, (byte) (0xB7 + lengthBytes));
+            putBigEndian(position, length, lengthBytes);
+            position += lengthBytes;
+        }
+    }
+
+    private void putBigEndian(int index, long value, int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            buffer.putByte(index + i, (byte) value);
+            value >>>= 8;
+        }
+    }
+
+    private static int ByteLength(long value) {
+        return (64 - Long.numberOfLeadingZeros(value) + 7) >> 3;
+    }
+
+    private String hex(int offset, int length) {
+        int chars = 2 + length * 2;
+        if (hex.length < chars) {
+            hex = new char[Math.max(chars, hex.length * 2)];
+        }
+        hex[0] = '0';
+        hex[1] = 'x';
+        byte[] bytes = buffer.byteArray();
+        for (int i = 0; i < length; i++) {
+            int value = bytes[offset + i] & 0xFF;
+            hex[2 + i * 2] = HEX[value >>> 4];
+            hex[3 + i * 2] = HEX[value & 0xF];
+        }
+        return new String(hex, 0, chars);
+    }
+}
@@ -23,4 +23,25 @@ public class RevertCodeExtractor {
         }
         throw new IllegalArgumentException("Does not have an error code");
     }
+
+    /**
+     * @return hash of the reverted transaction ganache reports next to the revert, null if
+     *         the error does not carry one
+     */
+    public static String GetTransactionHash(Response.Error error) {
+        if (error.getData() == null) {
+            return null;
+        }
+        try {
+            Iterator<String> fields = MAPPER.readTree(error.getData()).fieldNames();
+            while (fields.hasNext()) {
+                String field = fields.next();
+                if (field.startsWith("0x")) {
+                    return field;
+                }
+            }
+        } catch (IOException ignored) {
+        }
+        return null;
+    }
 }
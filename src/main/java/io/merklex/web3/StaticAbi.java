@@ -0,0 +1,131 @@
+package io.merklex.web3;
+
+import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import java.math.BigInteger;
+import java.nio.ByteOrder;
+
+/**
+ * Writes ABI words for static argument types straight into a buffer, used by the encoders
+ * generated next to each contract function. A call is the 4 byte selector followed by one
+ * 32 byte word per argument.
+ */
+public class StaticAbi {
+    public static final int SELECTOR_BYTES = 4;
+    public static final int WORD = 32;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final ThreadLocal<UnsafeBuffer> SCRATCH = ThreadLocal.withInitial(
+            () -> new UnsafeBuffer(new byte[SELECTOR_BYTES + WORD * 16]));
+
+    public static int ArgumentOffset(int index) {
+        return SELECTOR_BYTES + WORD * index;
+    }
+
+    /**
+     * Per thread buffer for encoding a call that is turned into hex right after
+     */
+    public static MutableDirectBuffer Scratch(int capacity) {
+        UnsafeBuffer buffer = SCRATCH.get();
+        if (buffer.capacity() < capacity) {
+            buffer = new UnsafeBuffer(new byte[Math.max(capacity, buffer.capacity() * 2)]);
+            SCRATCH.set(buffer);
+        }
+        return buffer;
+    }
+
+    public static void PutSelector(MutableDirectBuffer buffer, int offset, int selector) {
+        buffer.putInt(offset, selector, ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * uintN of at most 64 bits, a uint64 takes value as unsigned
+     */
+    public static void PutUint(MutableDirectBuffer buffer, int offset, int bits, long value) {
+        if (bits < 64 && (value >>> bits) != 0) {
+            throw new IllegalArgumentException("Value " + value + " does not fit uint" + bits);
+        }
+        buffer.setMemory(offset, WORD - Long.BYTES, (byte) 0);
+        buffer.putLong(offset + WORD - Long.BYTES, value, ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * uintN of at most 32 bits, a uint32 takes value as unsigned
+     */
+    public static void PutUint(MutableDirectBuffer buffer, int offset, int bits, int value) {
+        if (bits < 32 && (value >>> bits) != 0) {
+            throw new IllegalArgumentException("Value " + value + " does not fit uint" + bits);
+        }
+        PutUint(buffer, offset, 64, Integer.toUnsignedLong(value));
+    }
+
+    public static void PutUint(MutableDirectBuffer buffer, int offset, int bits, BigInteger value) {
+        if (value.signum() < 0 || value.bitLength() > bits) {
+            throw new IllegalArgumentException("Value " + value + " does not fit uint" + bits);
+        }
+        PutBig(buffer, offset, value);
+    }
+
+    /**
+     * intN of at most 64 bits, sign extended
+     */
+    public static void PutInt(MutableDirectBuffer buffer, int offset, int bits, long value) {
+        if (bits < 64 && (value >> (bits - 1)) != 0 && (value >> (bits - 1)) != -1) {
+            throw new IllegalArgumentException("Value " + value + " does not fit int" + bits);
+        }
+        buffer.setMemory(offset, WORD - Long.BYTES, (byte) (value < 0 ? 0xFF : 0));
+        buffer.putLong(offset + WORD - Long.BYTES, value, ByteOrder.BIG_ENDIAN);
+    }
+
+    public static void PutInt(MutableDirectBuffer buffer, int offset, int bits, BigInteger value) {
+        if (value.bitLength() > bits - 1) {
+            throw new IllegalArgumentException("Value " + value + " does not fit int" + bits);
+        }
+        PutBig(buffer, offset, value);
+    }
+
+    public static void PutBool(MutableDirectBuffer buffer, int offset, boolean value) {
+        PutUint(buffer, offset, 8, value ? 1 : 0);
+    }
+
+    /**
+     * 20 byte address given as hex, with or without 0x
+     */
+    public static void PutAddress(MutableDirectBuffer buffer, int offset, String address) {
+        int start = address.startsWith("0x") || address.startsWith("0X") ? 2 : 0;
+        if (address.length() - start != 40) {
+            throw new IllegalArgumentException("Invalid address " + address);
+        }
+
+        buffer.setMemory(offset, WORD - 20, (byte) 0);
+        for (int i = 0; i < 20; i++) {
+            int high = Character.digit(address.charAt(start + i * 2), 16);
+            int low = Character.digit(address.charAt(start + i * 2 + 1), 16);
+            if ((high | low) < 0) {
+                throw new IllegalArgumentException("Invalid address " + address);
+            }
+            buffer.putByte(offset + WORD - 20 + i, (byte) (high << 4 | low));
+        }
+    }
+
+    public static String Hex(DirectBuffer buffer, int offset, int length) {
+        char[] hex = new char[2 + length * 2];
+        hex[0] = '0';
+        hex[1] = 'x';
+        for (int i = 0; i < length; i++) {
+            int value = buffer.getByte(offset + i) & 0xFF;
+            hex[2 + i * 2] = HEX[value >>> 4];
+            hex[3 + i * 2] = HEX[value & 0xF];
+        }
+        return new String(hex);
+    }
+
+    private static void PutBig(MutableDirectBuffer buffer, int offset, BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        int length = Math.min(bytes.length, WORD);
+        buffer.setMemory(offset, WORD - length, (byte) (value.signum() < 0 ? 0xFF : 0));
+        buffer.putBytes(offset + WORD - length, bytes, bytes.length - length, length);
+    }
+}
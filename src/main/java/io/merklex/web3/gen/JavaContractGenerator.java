@@ -3,6 +3,7 @@ package io.merklex.web3.gen;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.merklex.web3.FileUtils;
+import org.web3j.crypto.Hash;
 
 import java.io.File;
 import java.io.IOException;
@@ -40,7 +41,9 @@ public class JavaContractGenerator {
             "java.util.Arrays;",
             "java.util.Collections;",
             "java.util.List;",
-            "org.web3j.utils.Numeric;"
+            "org.web3j.utils.Numeric;",
+            "org.agrona.MutableDirectBuffer;",
+            "io.merklex.web3.StaticAbi;"
     };
 
     public String generate(String className) {
@@ -204,6 +207,12 @@ public class JavaContractGenerator {
         return "Arrays.asList";
     }
 
+    private static String TypedArrayBuilderMethod(int itemCount) {
+        String method = ArrayBuilderMethod(itemCount);
+        int dot = method.indexOf('.');
+        return method.substring(0, dot + 1) + "<TypeReference<?>>" + method.substring(dot + 1);
+    }
+
     public static String ABITypeConstructor(String solidityType, String arg) {
         if (solidityType.startsWith("uint") && !solidityType.equals("uint")) {
             int bits = Integer.parseInt(solidityType.substring("uint".length()));
@@ -331,6 +340,101 @@ public class JavaContractGenerator {
                 fn.end();
             }
         }
+
+        selector(block, item);
+    }
+
+    /**
+     * Selector constant, plus encoders writing the call straight into a buffer when every
+     * argument is static
+     */
+    private void selector(JavaCodeGen.Block block, JsonNode item) {
+        String fnName = item.get("name").asText();
+        JsonNode inputs = item.get("inputs");
+
+        StringBuilder signature = new StringBuilder(fnName).append('(');
+        boolean isStatic = true;
+        for (int i = 0; i < inputs.size(); i++) {
+            String type = inputs.get(i).get("type").asText();
+            signature.append(i == 0 ? "" : ",").append(CanonicalType(type));
+            isStatic &= StaticWriter(type) != null;
+        }
+        signature.append(')');
+
+        String selector = fnName + "_SELECTOR";
+        String bytes = fnName + "_BYTES";
+        block.line().append("public static final int ").append(selector).append(" = ")
+                .append(Hash.sha3String(signature.toString()).substring(0, 10)).append(";").end();
+
+        if (!isStatic) {
+            return;
+        }
+
+        block.line().append("public static final int ").append(bytes).append(" = ")
+                .append(4 + 32 * inputs.size()).append(";").end();
+
+        JavaCodeGen.Arguments args = block.publicStaticMethod("encode_" + fnName, "int");
+        args.arg("buffer", "MutableDirectBuffer");
+        args.arg("offset", "int");
+        arguments(args, inputs);
+        JavaCodeGen.Block fn = args.end();
+
+        fn.line().append("StaticAbi.PutSelector(buffer, offset, ").append(selector).append(");").end();
+        for (int i = 0; i < inputs.size(); i++) {
+            JsonNode input = inputs.get(i);
+            String type = input.get("type").asText();
+            fn.line().append("StaticAbi.").append(StaticWriter(type)).append("(buffer, offset + ").append(4 + 32 * i)
+                    .append(StaticBits(type)).append(", ").append(or(input.get("name").asText(), "arg" + i))
+                    .append(");").end();
+        }
+        fn.line().append("return ").append(bytes).append(";").end();
+        fn.end();
+
+        args = block.publicStaticMethod("encode_" + fnName, "String");
+        arguments(args, inputs);
+        fn = args.end();
+
+        fn.line().append("MutableDirectBuffer buffer = StaticAbi.Scratch(").append(bytes).append(");").end();
+        JavaCodeGen.Line line = fn.line().append("return StaticAbi.Hex(buffer, 0, encode_").append(fnName).append("(buffer, 0");
+        for (int i = 0; i < inputs.size(); i++) {
+            line.append(", ").append(or(inputs.get(i).get("name").asText(), "arg" + i));
+        }
+        line.append("));").end();
+        fn.end();
+    }
+
+    private static String CanonicalType(String solidityType) {
+        if (solidityType.equals("uint") || solidityType.equals("int")) {
+            return solidityType + "256";
+        }
+        return solidityType;
+    }
+
+    /**
+     * StaticAbi method writing the type, null when it is not supported as a static argument
+     */
+    private static String StaticWriter(String solidityType) {
+        if (solidityType.startsWith("uint")) {
+            return "PutUint";
+        }
+        if (solidityType.startsWith("int")) {
+            return "PutInt";
+        }
+        if (solidityType.equals("address")) {
+            return "PutAddress";
+        }
+        if (solidityType.equals("bool")) {
+            return "PutBool";
+        }
+        return null;
+    }
+
+    private static String StaticBits(String solidityType) {
+        if (solidityType.equals("uint") || solidityType.equals("int")) {
+            return ", 256";
+        }
+        int bits = IntSize(solidityType);
+        return bits == 0 ? "" : ", " + bits;
     }
 
     private void arguments(JavaCodeGen.Arguments args, JsonNode inputs) {
@@ -365,7 +469,7 @@ public class JavaContractGenerator {
         fn.line().append(").send();").end();
 
         fn.line().append("String value = ethCall.getValue();").end();
-        fn.line().append("List<Type> values = FunctionReturnDecoder.decode(value, function.getOutputParameters());").end();
+        fn.line().append("List<?> values = FunctionReturnDecoder.decode(value, function.getOutputParameters());").end();
 
         fn.line().append(returnType).append(" returnValue = new ").append(returnType).append("();").end();
 
@@ -376,7 +480,7 @@ public class JavaContractGenerator {
             String name = output.get("name").asText();
             String type = output.get("type").asText();
             fn.line().append("returnValue.").append(or(name, "value")).append(" = ")
-                    .append(ConvertType(type, "values.get(" + i + ").getValue()")).append(";").end();
+                    .append(ConvertType(type, "((Type<?>) values.get(" + i + ")).getValue()")).append(";").end();
         }
 
         fn.line().append("return returnValue;").end();
@@ -396,6 +500,61 @@ public class JavaContractGenerator {
 
         fn.line().append("return query_").append(fnName).append("(contractAddress, web3j, function, DefaultBlockParameterName.LATEST);").end();
         fn.end();
+
+        // caller with encoded data, skips building a Function
+
+        String outputsName = fnName + "_OUTPUTS";
+        block.line().append("public static final List<TypeReference<?>> ").append(outputsName)
+                .append(" = Collections.unmodifiableList(").end();
+        functionTypedReferences(block.tabbed(), outputs, TypedArrayBuilderMethod(outputs.size())).end();
+        block.line().append(");").end();
+
+        args = block.publicStaticMethod("query_" + fnName, returnType);
+        args.arg("contractAddress", "String");
+        args.arg("web3j", "Web3j");
+        args.arg("encodedFunction", "String");
+        args.arg("block", "DefaultBlockParameter");
+
+        args.Throws("IOException");
+
+        fn = args.end();
+
+        fn.line().append("org.web3j.protocol.core.methods.response.EthCall ethCall = web3j.ethCall(").end();
+
+        body = fn.tabbed();
+        body.line().append("Transaction.createEthCallTransaction(\"0x0000000000000000000000000000000000000000\", contractAddress, encodedFunction),").end();
+        body.line().append("block").end();
+        fn.line().append(").send();").end();
+
+        fn.line().append("String value = ethCall.getValue();").end();
+        fn.line().append("List<?> values = FunctionReturnDecoder.decode(value, org.web3j.abi.Utils.convert(").append(outputsName).append("));").end();
+
+        fn.line().append(returnType).append(" returnValue = new ").append(returnType).append("();").end();
+
+        for (int i = 0; i < outputs.size(); i++) {
+            JsonNode output = outputs.get(i);
+
+            String name = output.get("name").asText();
+            String type = output.get("type").asText();
+            fn.line().append("returnValue.").append(or(name, "value")).append(" = ")
+                    .append(ConvertType(type, "((Type<?>) values.get(" + i + ")).getValue()")).append(";").end();
+        }
+
+        fn.line().append("return returnValue;").end();
+
+        fn.end();
+
+        args = block.publicStaticMethod("query_" + fnName, returnType);
+        args.arg("contractAddress", "String");
+        args.arg("web3j", "Web3j");
+        args.arg("encodedFunction", "String");
+
+        args.Throws("IOException");
+
+        fn = args.end();
+
+        fn.line().append("return query_").append(fnName).append("(contractAddress, web3j, encodedFunction, DefaultBlockParameterName.LATEST);").end();
+        fn.end();
     }
 
     private static String or(String a, String b) {
@@ -478,11 +637,15 @@ public class JavaContractGenerator {
     }
 
     private JavaCodeGen.Line functionTypedReferences(JavaCodeGen.Block block, JsonNode items) {
+        return functionTypedReferences(block, items, ArrayBuilderMethod(items.size()));
+    }
+
+    private JavaCodeGen.Line functionTypedReferences(JavaCodeGen.Block block, JsonNode items, String arrayBuilder) {
         if (items.size() == 0) {
-            return block.line().append(ArrayBuilderMethod(items.size())).append("()");
+            return block.line().append(arrayBuilder).append("()");
         }
 
-        block.line().append(ArrayBuilderMethod(items.size())).append("(").end();
+        block.line().append(arrayBuilder).append("(").end();
 
         block = block.tabbed();
 
@@ -0,0 +1,43 @@
+struct ExportHeader {
+    u32 magic;
+    u32 version;
+    u64 block_number;
+    u8 block_hash[32];
+    u32 asset_count;
+    u32 exchange_count;
+    u64 user_count;
+    u64 balance_count;
+};
+
+struct ExportAsset {
+    u32 asset_id;
+    u8 symbol[8];
+    u8 unit_scale[24];
+    u8 token_decimals;
+    bool has_token_decimals;
+    u8 contract_address[20];
+};
+
+struct ExportExchange {
+    u32 exchange_id;
+    u8 name[11];
+    bool locked;
+    u8 owner[20];
+    u8 withdraw_address[20];
+    u8 recovery_address[20];
+    u8 recovery_address_proposed[20];
+};
+
+struct ExportUser {
+    u64 user_id;
+    u8 trade_address[20];
+    u8 withdraw_address[20];
+    u8 recovery_address[20];
+    u8 recovery_address_proposed[20];
+};
+
+struct ExportBalance {
+    u64 user_id;
+    u32 asset_id;
+    u8 balance[32];
+};
\ No newline at end of file
@@ -0,0 +1,9 @@
+struct UnsettledWithdrawHeader {
+    u32 exchange_id;
+    u32 asset_id;
+    u32 user_count;
+};
+
+struct UnsettledWithdrawUser {
+    u64 user_id;
+};
\ No newline at end of file
@@ -0,0 +1,132 @@
+package io.merklex.dcn;
+
+import com.greghaskins.spectrum.Spectrum;
+import io.merklex.dcn.contracts.DCN;
+import io.merklex.dcn.utils.Accounts;
+import io.merklex.dcn.utils.StaticNetwork;
+import io.merklex.web3.ChainFollower;
+import io.merklex.web3.EtherTransactions;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.greghaskins.spectrum.Spectrum.*;
+import static io.merklex.dcn.utils.AssertHelpers.assertSuccess;
+import static org.junit.Assert.*;
+
+@RunWith(Spectrum.class)
+public class ChainFollowerTests {
+    /* copy of the fields a listener kept, ring entries are reused */
+    private static class Seen {
+        final int type;
+        final long blockNumber;
+        final String blockHash;
+        final long userId;
+        final int selector;
+        final boolean success;
+
+        Seen(ChainFollower.Event event) {
+            type = event.type;
+            blockNumber = event.blockNumber;
+            blockHash = event.blockHash;
+            userId = event.userId;
+            selector = event.selector;
+            success = event.success;
+        }
+    }
+
+    private static class Collector implements ChainFollower.Listener {
+        final List<Seen> seen = new ArrayList<>();
+
+        @Override
+        public synchronized void onEvent(ChainFollower.Event event) {
+            seen.add(new Seen(event));
+        }
+
+        synchronized List<Seen> await(int count) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (seen.size() < count && System.currentTimeMillis() < deadline) {
+                wait(10);
+            }
+            assertEquals(count, seen.size());
+            return new ArrayList<>(seen);
+        }
+    }
+
+    private static long Head() throws Exception {
+        return StaticNetwork.Web3().ethBlockNumber().send().getBlockNumber().longValueExact();
+    }
+
+    {
+        StaticNetwork.DescribeCheckpoint();
+
+        int userCreate = ChainFollower.Selector(DCN.user_create());
+
+        it("should publish events once confirmed to every listener", () -> {
+            long first = Head() + 1;
+            Collector a = new Collector();
+            Collector b = new Collector();
+
+            try (ChainFollower follower = new ChainFollower(StaticNetwork.Web3(), StaticNetwork.DCN(), first, 2)
+                    .addListener(a).addListener(b).start()) {
+
+                EtherTransactions user = Accounts.getTx(1);
+                assertSuccess(user.sendCall(StaticNetwork.DCN(), DCN.user_create()));
+                assertEquals(0, follower.poll());
+
+                assertSuccess(Accounts.getTx(2).sendCall(StaticNetwork.DCN(), DCN.user_create()));
+                assertSuccess(Accounts.getTx(3).sendCall(StaticNetwork.DCN(), DCN.user_create()));
+                long userId = DCN.query_get_user_count(StaticNetwork.DCN(), StaticNetwork.Web3(),
+                        DCN.get_user_count()).count - 3;
+
+                assertEquals(2, follower.poll());
+                for (Collector collector : new Collector[]{a, b}) {
+                    List<Seen> seen = collector.await(2);
+                    assertEquals(ChainFollower.TRANSACTION, seen.get(0).type);
+                    assertEquals(userCreate, seen.get(0).selector);
+                    assertTrue(seen.get(0).success);
+                    assertEquals(first, seen.get(0).blockNumber);
+
+                    assertEquals(ChainFollower.USER_CREATED, seen.get(1).type);
+                    assertEquals(userId, seen.get(1).userId);
+                }
+            }
+        });
+
+        it("should roll back published blocks replaced by a reorg", () -> {
+            long first = Head() + 1;
+            Collector collector = new Collector();
+
+            try (ChainFollower follower = new ChainFollower(StaticNetwork.Web3(), StaticNetwork.DCN(), first, 0)
+                    .addListener(collector).start()) {
+
+                StaticNetwork.Checkpoint();
+                assertSuccess(Accounts.getTx(4).sendCall(StaticNetwork.DCN(), DCN.user_create()));
+                assertEquals(2, follower.poll());
+                String replaced = collector.await(2).get(0).blockHash;
+
+                StaticNetwork.Revert();
+                assertSuccess(Accounts.getTx(5).sendCall(StaticNetwork.DCN(), DCN.user_create()));
+                assertSuccess(Accounts.getTx(6).sendCall(StaticNetwork.DCN(), DCN.user_create()));
+
+                /* the replacement chain is longer, its second block exposes the fork */
+                assertEquals(5, follower.poll());
+                List<Seen> seen = collector.await(7);
+                assertEquals(ChainFollower.ROLLBACK, seen.get(2).type);
+                assertEquals(first, seen.get(2).blockNumber);
+                assertEquals(replaced, seen.get(2).blockHash);
+
+                assertEquals(ChainFollower.TRANSACTION, seen.get(3).type);
+                assertEquals(first, seen.get(3).blockNumber);
+                assertNotEquals(replaced, seen.get(3).blockHash);
+                assertEquals(ChainFollower.USER_CREATED, seen.get(4).type);
+                assertEquals(seen.get(1).userId, seen.get(4).userId);
+
+                assertEquals(first + 1, seen.get(5).blockNumber);
+                assertEquals(seen.get(1).userId + 1, seen.get(6).userId);
+                assertEquals(first + 2, follower.nextBlock());
+            }
+        });
+    }
+}
@@ -0,0 +1,197 @@
+package io.merklex.dcn;
+
+import com.greghaskins.spectrum.Spectrum;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.runner.RunWith;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import static com.greghaskins.spectrum.Spectrum.describe;
+import static com.greghaskins.spectrum.Spectrum.it;
+import static org.junit.Assert.*;
+
+@RunWith(Spectrum.class)
+public class FixedWidthArithmeticTests {
+    private static final BigInteger TWO_256 = BigInteger.ONE.shiftLeft(256);
+
+    private static BigInteger RandomSigned(Random random, int bits) {
+        BigInteger value = new BigInteger(1 + random.nextInt(bits - 1), random);
+        return random.nextBoolean() ? value.negate() : value;
+    }
+
+    /* two's complement wrap like signextend */
+    private static BigInteger Wrap(BigInteger value, int bits) {
+        BigInteger mod = BigInteger.ONE.shiftLeft(bits);
+        BigInteger wrapped = value.mod(mod);
+        return wrapped.testBit(bits - 1) ? wrapped.subtract(mod) : wrapped;
+    }
+
+    private static boolean Fits(BigInteger value, int bits) {
+        return value.bitLength() <= bits - 1;
+    }
+
+    private static void CheckSigned(Int128 a, Int128 b, Random random, int bits) {
+        for (int i = 0; i < 20_000; i++) {
+            BigInteger x = RandomSigned(random, bits);
+            BigInteger y = RandomSigned(random, bits);
+
+            BigInteger sum = x.add(y);
+            a.set(x);
+            assertEquals(!Fits(sum, bits), a.add(b.set(y)));
+            assertEquals(Wrap(sum, bits), a.toBigInteger());
+
+            BigInteger diff = x.subtract(y);
+            a.set(x);
+            assertEquals(!Fits(diff, bits), a.sub(b));
+            assertEquals(Wrap(diff, bits), a.toBigInteger());
+
+            BigInteger product = x.multiply(y);
+            a.set(x);
+            assertEquals(!Fits(product, bits), a.mul(b));
+            assertEquals(Wrap(product, bits), a.toBigInteger());
+
+            assertEquals(x.compareTo(y), Integer.signum(a.set(x).compareTo(b)));
+
+            if (y.signum() != 0) {
+                Int128 remainder = new Int128();
+                a.set(x);
+                assertFalse(a.divRem(b, remainder));
+                BigInteger[] qr = x.divideAndRemainder(y);
+                assertEquals(qr[0], a.toBigInteger());
+                assertEquals(qr[1], remainder.toBigInteger());
+            }
+        }
+    }
+
+    {
+        describe("int128", () -> {
+            it("should match BigInteger", () -> {
+                CheckSigned(new Int128(), new Int128(), new Random(1), 128);
+            });
+
+            it("should follow sdiv edge cases", () -> {
+                Int128 min = new Int128(Long.MIN_VALUE, 0);
+                Int128 value = new Int128().set(min);
+                assertTrue(value.div(new Int128(-1)));
+                assertEquals(min, value);
+
+                value.set(5);
+                assertTrue(value.div(new Int128()));
+                assertTrue(value.isZero());
+
+                value.set(min);
+                assertTrue(value.negate());
+                assertEquals(min, value);
+            });
+
+            it("should compute the unsigned high product", () -> {
+                Random random = new Random(2);
+                BigInteger mask = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+                for (int i = 0; i < 10_000; i++) {
+                    long a = random.nextLong();
+                    long b = random.nextLong();
+                    BigInteger product = new BigInteger(Long.toUnsignedString(a))
+                            .multiply(new BigInteger(Long.toUnsignedString(b)));
+                    assertEquals(product.shiftRight(64).and(mask).longValue(), Int128.MultiplyHighUnsigned(a, b));
+                }
+            });
+        });
+
+        describe("int96", () -> {
+            it("should match BigInteger wrapped to 96 bits", () -> {
+                CheckSigned(new Int96(), new Int96(), new Random(3), 96);
+            });
+
+            it("should reject values wider than 96 bits", () -> {
+                try {
+                    new Int96().set(BigInteger.ONE.shiftLeft(95));
+                    fail();
+                } catch (ArithmeticException ignored) {
+                }
+                try {
+                    new Int96().set(1L << 32, 0);
+                    fail();
+                } catch (ArithmeticException ignored) {
+                }
+            });
+
+            it("should round trip UpdateLimits shifts", () -> {
+                UpdateLimits.LimitUpdate update = new UpdateLimits.LimitUpdate()
+                        .wrap(new UnsafeBuffer(new byte[UpdateLimits.LimitUpdate.BYTES]), 0);
+
+                Random random = new Random(4);
+                Int96 in = new Int96();
+                Int96 out = new Int96();
+                for (int i = 0; i < 1000; i++) {
+                    BigInteger value = RandomSigned(random, 96);
+                    update.quoteShift(in.set(value));
+                    in.negate();
+                    update.baseShift(in);
+
+                    assertEquals(value, update.quoteShiftBig());
+                    assertEquals(value, update.quoteShiftTo(out).toBigInteger());
+                    assertEquals(value.negate(), update.baseShiftBig());
+                    assertEquals(value.negate(), update.baseShiftTo(out).toBigInteger());
+                }
+            });
+        });
+
+        describe("uint256", () -> {
+            it("should match BigInteger modulo 2^256", () -> {
+                Random random = new Random(5);
+                UInt256 a = new UInt256();
+                UInt256 b = new UInt256();
+                UInt256 remainder = new UInt256();
+
+                for (int i = 0; i < 20_000; i++) {
+                    BigInteger x = new BigInteger(1 + random.nextInt(256), random);
+                    BigInteger y = new BigInteger(1 + random.nextInt(256), random);
+
+                    BigInteger sum = x.add(y);
+                    a.set(x);
+                    assertEquals(sum.bitLength() > 256, a.add(b.set(y)));
+                    assertEquals(sum.mod(TWO_256), a.toBigInteger());
+
+                    a.set(x);
+                    assertEquals(x.compareTo(y) < 0, a.sub(b));
+                    assertEquals(x.subtract(y).mod(TWO_256), a.toBigInteger());
+
+                    BigInteger product = x.multiply(y);
+                    a.set(x);
+                    assertEquals(product.bitLength() > 256, a.mul(b));
+                    assertEquals(product.mod(TWO_256), a.toBigInteger());
+
+                    assertEquals(x.compareTo(y), Integer.signum(a.set(x).compareTo(b)));
+
+                    if (y.signum() != 0) {
+                        a.set(x);
+                        assertFalse(a.divRem(b, remainder));
+                        BigInteger[] qr = x.divideAndRemainder(y);
+                        assertEquals(qr[0], a.toBigInteger());
+                        assertEquals(qr[1], remainder.toBigInteger());
+                    }
+                }
+            });
+
+            it("should encode big endian words", () -> {
+                UnsafeBuffer buffer = new UnsafeBuffer(new byte[UInt256.BYTES]);
+                UInt256 value = new UInt256().setSigned(-2);
+                value.write(buffer, 0);
+                assertEquals("0xfffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffe",
+                        BufferToHex.ToHex(buffer, 0, UInt256.BYTES));
+                assertEquals(value, new UInt256().read(buffer, 0));
+                assertTrue(value.add(2));
+                assertTrue(value.isZero());
+            });
+
+            it("should test feature lock bits", () -> {
+                UInt256 locks = new UInt256().set(FeatureLocks.ALL.clearBit(FeatureLocks.USER_DEPOSIT_BIT));
+                assertTrue(FeatureLocks.IsLocked(locks, FeatureLocks.ADD_ASSET_BIT));
+                assertFalse(FeatureLocks.IsLocked(locks, FeatureLocks.USER_DEPOSIT_BIT));
+                assertTrue(FeatureLocks.IsLocked(locks, 255));
+                assertEquals(FeatureLocks.ALL.clearBit(FeatureLocks.USER_DEPOSIT_BIT), locks.toBigInteger());
+            });
+        });
+    }
+}
@@ -0,0 +1,140 @@
+package io.merklex.dcn;
+
+import com.greghaskins.spectrum.Spectrum;
+import io.merklex.dcn.contracts.DCN;
+import io.merklex.dcn.contracts.ERC20;
+import io.merklex.dcn.contracts.WethDeposit;
+import io.merklex.dcn.utils.Accounts;
+import io.merklex.dcn.utils.StaticNetwork;
+import io.merklex.web3.StaticAbi;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.runner.RunWith;
+import org.web3j.abi.FunctionEncoder;
+import org.web3j.abi.datatypes.Function;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigInteger;
+import java.util.Random;
+
+import static com.greghaskins.spectrum.Spectrum.*;
+import static io.merklex.dcn.utils.AssertHelpers.assertSuccess;
+import static org.junit.Assert.*;
+
+@RunWith(Spectrum.class)
+public class GeneratedEncoderTests {
+    private static Object[] RandomArgs(Class<?>[] types, Random random) {
+        Object[] args = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            if (types[i] == int.class) {
+                args[i] = random.nextInt() & Integer.MAX_VALUE;
+            } else if (types[i] == long.class) {
+                args[i] = random.nextLong() & Long.MAX_VALUE;
+            } else if (types[i] == BigInteger.class) {
+                args[i] = new BigInteger(150, random);
+            } else if (types[i] == boolean.class) {
+                args[i] = random.nextBoolean();
+            } else {
+                byte[] address = new byte[20];
+                random.nextBytes(address);
+                args[i] = BufferToHex.ToHex(new UnsafeBuffer(address), 0, 20);
+            }
+        }
+        return args;
+    }
+
+    {
+        describe("static encoders", () -> {
+            it("should match FunctionEncoder for every function", () -> {
+                Random random = new Random(49);
+                int encoders = 0;
+
+                for (Class<?> contract : new Class<?>[]{DCN.class, ERC20.class, WethDeposit.class}) {
+                    for (Method encode : contract.getMethods()) {
+                        if (!encode.getName().startsWith("encode_") || encode.getReturnType() != String.class) {
+                            continue;
+                        }
+                        String name = encode.getName().substring("encode_".length());
+                        Method function = contract.getMethod(name, encode.getParameterTypes());
+                        assertEquals(Function.class, function.getReturnType());
+
+                        for (int round = 0; round < 8; round++) {
+                            Object[] args = RandomArgs(encode.getParameterTypes(), random);
+                            assertEquals(contract.getSimpleName() + "." + name,
+                                    FunctionEncoder.encode((Function) function.invoke(null, args)),
+                                    encode.invoke(null, args));
+                        }
+                        encoders++;
+                    }
+                }
+                assertTrue(encoders > 40);
+            });
+
+            it("should precompute the selector of every function", () -> {
+                Random random = new Random(50);
+                for (Class<?> contract : new Class<?>[]{DCN.class, ERC20.class, WethDeposit.class}) {
+                    for (Method function : contract.getMethods()) {
+                        if (function.getReturnType() != Function.class || !Modifier.isStatic(function.getModifiers())) {
+                            continue;
+                        }
+                        int selector = contract.getField(function.getName() + "_SELECTOR").getInt(null);
+                        String encoded = FunctionEncoder.encode(
+                                (Function) function.invoke(null, RandomArgs(function.getParameterTypes(), random)));
+                        assertEquals(function.getName(), encoded.substring(0, 10),
+                                String.format("0x%08x", selector));
+                    }
+                }
+            });
+
+            it("should encode uint64 and uint32 as unsigned", () -> {
+                UnsafeBuffer buffer = new UnsafeBuffer(new byte[DCN.transfer_to_session_BYTES + 8]);
+                assertEquals(DCN.transfer_to_session_BYTES,
+                        DCN.encode_transfer_to_session(buffer, 8, -1L, -1, 7, Long.MIN_VALUE));
+
+                assertEquals(DCN.transfer_to_session_SELECTOR, buffer.getInt(8, java.nio.ByteOrder.BIG_ENDIAN));
+                assertEquals(new BigInteger("ffffffffffffffff", 16), Word(buffer, 8 + StaticAbi.ArgumentOffset(0)));
+                assertEquals(new BigInteger("ffffffff", 16), Word(buffer, 8 + StaticAbi.ArgumentOffset(1)));
+                assertEquals(BigInteger.valueOf(7), Word(buffer, 8 + StaticAbi.ArgumentOffset(2)));
+                assertEquals(BigInteger.ONE.shiftLeft(63), Word(buffer, 8 + StaticAbi.ArgumentOffset(3)));
+
+                try {
+                    StaticAbi.PutUint(buffer, 0, 192, BigInteger.ONE.shiftLeft(192));
+                    fail();
+                } catch (IllegalArgumentException ignored) {
+                }
+                try {
+                    StaticAbi.PutUint(buffer, 0, 48, 1L << 48);
+                    fail();
+                } catch (IllegalArgumentException ignored) {
+                }
+                try {
+                    StaticAbi.PutUint(buffer, 0, 8, 256);
+                    fail();
+                } catch (IllegalArgumentException ignored) {
+                }
+            });
+        });
+
+        describe("on chain", () -> {
+            StaticNetwork.DescribeCheckpoint();
+
+            it("should send calls and queries without a Function", () -> {
+                int before = DCN.query_get_user_count(StaticNetwork.DCN(), StaticNetwork.Web3(),
+                        DCN.encode_get_user_count()).count;
+
+                assertSuccess(Accounts.getTx(1).sendCall(StaticNetwork.DCN(), DCN.encode_user_create()));
+
+                assertEquals(before + 1, DCN.query_get_user_count(StaticNetwork.DCN(), StaticNetwork.Web3(),
+                        DCN.encode_get_user_count()).count);
+                assertEquals(Accounts.getTx(1).getAddress(), DCN.query_get_user(StaticNetwork.DCN(), StaticNetwork.Web3(),
+                        DCN.encode_get_user(before)).trade_address);
+            });
+        });
+    }
+
+    private static BigInteger Word(UnsafeBuffer buffer, int offset) {
+        byte[] word = new byte[StaticAbi.WORD];
+        buffer.getBytes(offset, word);
+        return new BigInteger(1, word);
+    }
+}
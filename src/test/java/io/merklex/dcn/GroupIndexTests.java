@@ -0,0 +1,121 @@
+package io.merklex.dcn;
+
+import com.greghaskins.spectrum.Spectrum;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.runner.RunWith;
+import org.web3j.utils.Numeric;
+
+import java.util.Random;
+
+import static com.greghaskins.spectrum.Spectrum.describe;
+import static com.greghaskins.spectrum.Spectrum.it;
+import static org.junit.Assert.*;
+
+@RunWith(Spectrum.class)
+public class GroupIndexTests {
+    {
+        describe("settlements", () -> {
+            Random random = new Random(48);
+            int groups = 40;
+            int[] userCounts = new int[groups];
+
+            UnsafeBuffer buffer = new UnsafeBuffer(new byte[64 * 1024]);
+            Settlements settlements = new Settlements().wrap(buffer, 16).exchangeId(7);
+            Settlements.Group group = settlements.firstGroup(new Settlements.Group());
+            Settlements.SettlementData data = new Settlements.SettlementData();
+
+            /* indexed while encoding */
+            GroupIndex encoded = GroupIndex.Settlements().reset(buffer, 16);
+            long userId = 0;
+            for (int i = 0; i < groups; i++) {
+                userCounts[i] = i == 3 ? 0 : i == 9 ? 200 : 1 + random.nextInt(6);
+                group.quoteAssetId(i).baseAssetId(i + 1).userCount(userCounts[i]);
+                for (int u = 0; u < userCounts[i]; u++) {
+                    group.settlement(data, u).userId(userId++).quoteDelta(u).baseDelta(-u).fees(0);
+                }
+                encoded.add(userCounts[i]);
+                group.nextGroup(group);
+            }
+
+            it("should match a walk over the payload", () -> {
+                GroupIndex index = GroupIndex.Settlements().index(settlements, groups);
+                assertEquals(groups, index.groupCount());
+                assertEquals(settlements.bytes(groups, new Settlements.Group()), index.bytes());
+                assertEquals(index.bytes(), encoded.bytes());
+
+                Settlements.Group walk = settlements.firstGroup(new Settlements.Group());
+                int records = 0;
+                for (int i = 0; i < groups; i++) {
+                    assertEquals(walk.messageMemoryOffset(), index.groupOffset(i));
+                    assertEquals(walk.messageMemoryOffset(), encoded.groupOffset(i));
+                    assertEquals(userCounts[i], index.recordCount(i));
+                    assertEquals(records, index.firstRecord(i));
+                    records += userCounts[i];
+                    walk.nextGroup(walk);
+                }
+                assertEquals(records, index.recordCount());
+            });
+
+            it("should jump to any group or settlement", () -> {
+                GroupIndex index = GroupIndex.Settlements().index(settlements, groups);
+                Settlements.Group jumped = new Settlements.Group();
+                Settlements.SettlementData settlement = new Settlements.SettlementData();
+
+                assertEquals(17, settlements.group(index, 17, jumped).quoteAssetId());
+                assertEquals(4, index.groupOf(index.firstRecord(4)));
+                for (int record = 0; record < index.recordCount(); record++) {
+                    assertEquals(record, settlements.settlement(index, record, settlement).userId());
+                }
+                try {
+                    index.groupOffset(groups + 1);
+                    fail();
+                } catch (IndexOutOfBoundsException ignored) {
+                }
+            });
+
+            it("should slice sub payloads behind the same header", () -> {
+                GroupIndex index = GroupIndex.Settlements().index(settlements, groups);
+
+                String slice = index.payload(10, 25);
+                UnsafeBuffer copy = new UnsafeBuffer(new byte[index.bytes(10, 25)]);
+                assertEquals(copy.capacity(), index.write(10, 25, copy, 0));
+                assertEquals(Numeric.toHexString(copy.byteArray()), slice);
+
+                Settlements sliced = new Settlements().wrap(copy, 0);
+                assertEquals(7, sliced.exchangeId());
+                GroupIndex slicedIndex = GroupIndex.Settlements().index(sliced, 15);
+                assertEquals(copy.capacity(), slicedIndex.bytes());
+                assertEquals(11, sliced.group(slicedIndex, 1, new Settlements.Group()).quoteAssetId());
+
+                assertEquals(settlements.payload(groups), index.payload(0, groups));
+                assertEquals(index.payload(3, 6), index.payload(new int[]{3, 4, 5}, 0, 3));
+                assertEquals(Settlements.BYTES * 2 + 2, index.payload(5, 5).length());
+            });
+        });
+
+        it("should index transfers", () -> {
+            UnsafeBuffer buffer = new UnsafeBuffer(new byte[4096]);
+            Transfers transfers = new Transfers().wrap(buffer, 0).exchangeId(3);
+            Transfers.Group group = transfers.firstGroup(new Transfers.Group());
+            Transfers.Transfer transfer = new Transfers.Transfer();
+
+            int[] counts = {2, 5, 1, 3};
+            long userId = 100;
+            for (int count : counts) {
+                group.assetId(count).transferCount(count).firstTransfer(transfer);
+                for (int t = 0; t < count; t++) {
+                    transfer.userId(userId++).quantity(t);
+                    transfer.nextTransfer(transfer);
+                }
+                group.nextGroup(group);
+            }
+
+            GroupIndex index = GroupIndex.Transfers().index(transfers, counts.length);
+            assertEquals(transfers.bytes(counts.length, new Transfers.Group()), index.bytes());
+            assertEquals(11, index.recordCount());
+            assertEquals(1, transfers.group(index, 2, new Transfers.Group()).assetId());
+            assertEquals(107, transfers.transfer(index, 7, transfer).userId());
+            assertEquals(2, index.groupOf(7));
+        });
+    }
+}
@@ -0,0 +1,138 @@
+package io.merklex.dcn;
+
+import com.greghaskins.spectrum.Spectrum;
+import io.merklex.dcn.contracts.DCN;
+import io.merklex.dcn.contracts.ERC20;
+import io.merklex.dcn.storage.StorageReader;
+import io.merklex.dcn.utils.Accounts;
+import io.merklex.dcn.utils.StaticNetwork;
+import io.merklex.web3.EtherTransactions;
+import io.merklex.web3.QueryHelper;
+import org.junit.runner.RunWith;
+import org.web3j.crypto.Credentials;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.greghaskins.spectrum.Spectrum.*;
+import static io.merklex.dcn.utils.AssertHelpers.assertSuccess;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(Spectrum.class)
+public class LimitUpdatePlannerTests {
+    {
+        StaticNetwork.DescribeCheckpoint();
+
+        EtherTransactions creator = Accounts.getTx(0);
+        EtherTransactions exchange = Accounts.getTx(1);
+        int userCount = 4;
+        int exchangeId = 0;
+        int[] assets = {0, 1, 2};
+
+        QueryHelper query = new QueryHelper(StaticNetwork.DCN(), StaticNetwork.Web3());
+        StorageReader reader = new StorageReader(StaticNetwork.Web3(), StaticNetwork.DCN());
+        Map<Long, Credentials> signers = new HashMap<>();
+
+        beforeAll(() -> {
+            assertSuccess(creator.sendCall(StaticNetwork.DCN(),
+                    DCN.add_exchange("merklex    ", exchange.getAddress())));
+
+            String token = creator.deployContract(BigInteger.ZERO, StaticNetwork.GAS_LIMIT,
+                    ERC20.DeployData(BigInteger.valueOf(1000000000), "T", 2, "TT"),
+                    BigInteger.ZERO);
+            for (int assetId : assets) {
+                assertSuccess(creator.sendCall(StaticNetwork.DCN(),
+                        DCN.add_asset("abcd123" + assetId, 1, token)));
+            }
+
+            BigInteger unlockAt = BigInteger.valueOf(System.currentTimeMillis() / 1000 + 28800 * 2);
+            for (int userId = 0; userId < userCount; userId++) {
+                EtherTransactions user = Accounts.getTx(2 + userId);
+                assertSuccess(user.sendCall(StaticNetwork.DCN(),
+                        DCN.user_create()));
+                assertSuccess(user.sendCall(StaticNetwork.DCN(),
+                        DCN.user_session_set_unlock_at(userId, exchangeId, unlockAt)));
+                signers.put((long) userId, user.credentials());
+            }
+        });
+
+        LimitUpdatePlanner.Limit[] limits = new LimitUpdatePlanner.Limit[userCount * 2];
+        for (int userId = 0; userId < userCount; userId++) {
+            for (int market = 0; market < 2; market++) {
+                limits[userId * 2 + market] = new LimitUpdatePlanner.Limit()
+                        .userId(userId)
+                        .quoteAssetId(assets[0])
+                        .baseAssetId(assets[1 + market])
+                        .feeLimit(1000)
+                        .minQuoteQty(-100)
+                        .minBaseQty(-200)
+                        .longMaxPrice(100000)
+                        .shortMinPrice(1000)
+                        .quoteShift(BigInteger.valueOf(userId * 10))
+                        .baseShift(BigInteger.valueOf(-market));
+            }
+        }
+
+        it("should update every new market within the gas budget", () -> {
+            long budget = LimitUpdatePlanner.TRANSACTION_GAS + 3 * (LimitUpdatePlanner.UPDATE_GAS
+                    + 3 * LimitUpdatePlanner.SSTORE_SET_GAS);
+            LimitUpdatePlanner planner = new LimitUpdatePlanner(reader, 1, exchangeId,
+                    DCNHasher.instance, budget, 3);
+            for (LimitUpdatePlanner.Limit limit : limits) {
+                planner.add(limit);
+            }
+
+            LimitUpdatePlanner.Plan plan = planner.plan(signers::get, DefaultBlockParameterName.LATEST);
+            assertEquals(0, plan.unchanged);
+            assertEquals(limits.length, plan.updateCount());
+            assertEquals(3, plan.payloads.size());
+
+            for (LimitUpdatePlanner.Payload payload : plan.payloads) {
+                TransactionReceipt receipt = assertSuccess(exchange.sendCall(StaticNetwork.DCN(),
+                        DCN.exchange_set_limits(payload.payload())));
+                assertTrue(receipt.getGasUsed() + " > " + payload.gasEstimate,
+                        receipt.getGasUsed().longValueExact() <= payload.gasEstimate);
+            }
+
+            for (LimitUpdatePlanner.Limit limit : limits) {
+                DCN.GetMarketStateReturnValue state = query.query(DCN::query_get_market_state,
+                        DCN.get_market_state(limit.userId, exchangeId, limit.quoteAssetId, limit.baseAssetId));
+                assertTrue(limit.matches(state));
+                assertEquals(1, state.limit_version);
+            }
+        });
+
+        it("should only update changed markets with the next version", () -> {
+            limits[3].feeLimit(2000);
+            limits[6].baseShift(BigInteger.valueOf(-5));
+
+            LimitUpdatePlanner planner = new LimitUpdatePlanner(reader, 1, exchangeId);
+            for (LimitUpdatePlanner.Limit limit : limits) {
+                planner.add(limit);
+            }
+
+            LimitUpdatePlanner.Plan plan = planner.plan(signers::get, DefaultBlockParameterName.LATEST);
+            assertEquals(limits.length - 2, plan.unchanged);
+            assertEquals(1, plan.payloads.size());
+            assertEquals(2, plan.payloads.get(0).updates);
+
+            TransactionReceipt receipt = assertSuccess(exchange.sendCall(StaticNetwork.DCN(),
+                    DCN.exchange_set_limits(plan.payloads.get(0).payload())));
+            assertTrue(receipt.getGasUsed().longValueExact() <= plan.payloads.get(0).gasEstimate);
+
+            for (int i = 0; i < limits.length; i++) {
+                LimitUpdatePlanner.Limit limit = limits[i];
+                DCN.GetMarketStateReturnValue state = query.query(DCN::query_get_market_state,
+                        DCN.get_market_state(limit.userId, exchangeId, limit.quoteAssetId, limit.baseAssetId));
+                assertTrue(limit.matches(state));
+                assertEquals(i == 3 || i == 6 ? 2 : 1, state.limit_version);
+            }
+
+            assertEquals(0, planner.plan(signers::get, DefaultBlockParameterName.LATEST).payloads.size());
+        });
+    }
+}
@@ -0,0 +1,194 @@
+package io.merklex.dcn;
+
+import com.greghaskins.spectrum.Spectrum;
+import io.merklex.dcn.contracts.DCN;
+import io.merklex.dcn.utils.Accounts;
+import io.merklex.dcn.utils.StaticNetwork;
+import io.merklex.web3.LogStreamer;
+import org.junit.runner.RunWith;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.methods.request.EthFilter;
+import org.web3j.protocol.core.methods.response.EthLog;
+import org.web3j.protocol.core.methods.response.Log;
+import org.web3j.utils.Numeric;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.greghaskins.spectrum.Spectrum.*;
+import static io.merklex.dcn.utils.AssertHelpers.assertSuccess;
+import static org.junit.Assert.*;
+
+@RunWith(Spectrum.class)
+public class LogStreamerTests {
+    private static String LogJson(Log log) {
+        StringBuilder json = new StringBuilder()
+                .append("{\"address\":\"").append(log.getAddress())
+                .append("\",\"topics\":[");
+        for (int i = 0; i < log.getTopics().size(); i++) {
+            json.append(i == 0 ? "\"" : ",\"").append(log.getTopics().get(i)).append('"');
+        }
+        return json.append("],\"data\":\"").append(log.getData())
+                .append("\",\"blockNumber\":\"").append(log.getBlockNumberRaw())
+                .append("\",\"transactionHash\":\"").append(log.getTransactionHash())
+                .append("\",\"transactionIndex\":\"").append(log.getTransactionIndexRaw())
+                .append("\",\"blockHash\":\"").append(log.getBlockHash())
+                .append("\",\"logIndex\":\"").append(log.getLogIndexRaw())
+                .append("\",\"removed\":").append(log.isRemoved())
+                .append("}").toString();
+    }
+
+    private static String Repeat(String value, int count) {
+        StringBuilder repeated = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            repeated.append(value);
+        }
+        return repeated.toString();
+    }
+
+    private static InputStream Stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /* a response of count identical logs produced on the fly, never held in memory */
+    private static InputStream Generated(int count, String entry) {
+        byte[] head = "{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":[".getBytes(StandardCharsets.UTF_8);
+        byte[] item = entry.getBytes(StandardCharsets.UTF_8);
+        byte[] tail = "]}".getBytes(StandardCharsets.UTF_8);
+
+        return new InputStream() {
+            int index = -1;
+            int position;
+
+            private byte[] current() {
+                return index < 0 ? head : index < count ? item : tail;
+            }
+
+            @Override
+            public int read() {
+                while (position == current().length) {
+                    if (index > count) {
+                        return -1;
+                    }
+                    index++;
+                    position = index > 0 && index < count ? -1 : 0;
+                }
+                if (position < 0) {
+                    position++;
+                    return ',';
+                }
+                return current()[position++] & 0xFF;
+            }
+
+            @Override
+            public int read(byte[] bytes, int offset, int length) {
+                int read = 0;
+                while (read < length) {
+                    int value = read();
+                    if (value < 0) {
+                        return read == 0 ? -1 : read;
+                    }
+                    bytes[offset + read++] = (byte) value;
+                }
+                return read;
+            }
+        };
+    }
+
+    {
+        describe("against node logs", () -> {
+            StaticNetwork.DescribeCheckpoint();
+
+            it("should decode the same entries as web3j", () -> {
+                for (int i = 1; i <= 3; i++) {
+                    assertSuccess(Accounts.getTx(i).sendCall(StaticNetwork.DCN(), DCN.user_create()));
+                }
+
+                EthFilter filter = new EthFilter(DefaultBlockParameterName.EARLIEST,
+                        DefaultBlockParameterName.LATEST, StaticNetwork.DCN());
+                filter.addSingleTopic(DCN.UserCreated_EVENT_HASH);
+                List<Log> expected = new ArrayList<>();
+                for (EthLog.LogResult result : StaticNetwork.Web3().ethGetLogs(filter).send().getLogs()) {
+                    expected.add((Log) result);
+                }
+                assertTrue(expected.size() >= 3);
+
+                StringBuilder response = new StringBuilder("{\"jsonrpc\":\"2.0\",\"id\":7,\"result\":[");
+                for (int i = 0; i < expected.size(); i++) {
+                    response.append(i == 0 ? "" : ",").append(LogJson(expected.get(i)));
+                }
+                response.append("]}");
+
+                byte[] topic = Numeric.hexStringToByteArray(DCN.UserCreated_EVENT_HASH);
+                List<Long> userIds = new ArrayList<>();
+                long count = new LogStreamer(null).parse(Stream(response.toString()), log -> {
+                    Log reference = expected.get(userIds.size());
+                    assertEquals(reference.getAddress(), BufferToHex.ToHex(log.address, 0, 20));
+                    assertEquals(reference.getBlockHash(), BufferToHex.ToHex(log.blockHash, 0, 32));
+                    assertEquals(reference.getTransactionHash(), BufferToHex.ToHex(log.transactionHash, 0, 32));
+                    assertEquals(reference.getBlockNumber().longValueExact(), log.blockNumber);
+                    assertEquals(reference.getLogIndex().intValueExact(), log.logIndex);
+                    assertEquals(reference.getTopics().size(), log.topicCount);
+                    assertTrue(log.topicEquals(0, topic));
+                    assertEquals(reference.getData(), BufferToHex.ToHex(log.data, 0, log.dataLength));
+                    userIds.add(log.dataLong(0));
+                });
+
+                assertEquals(expected.size(), count);
+                for (int i = 0; i < expected.size(); i++) {
+                    assertEquals(DCN.ExtractUserCreated(expected.get(i)).user_id, (long) userIds.get(i));
+                }
+            });
+        });
+
+        describe("parsing", () -> {
+            it("should skip unknown fields and accept numeric quantities", () -> {
+                String json = "{\"id\":1,\"jsonrpc\":\"2.0\",\"result\":[{\"extra\":{\"nested\":[1,2]},"
+                        + "\"blockNumber\":17,\"logIndex\":\"0x2\",\"topics\":[],\"data\":\"0x\",\"type\":\"mined\"}]}";
+                long[] seen = new long[2];
+                assertEquals(1, new LogStreamer(null).parse(Stream(json), log -> {
+                    seen[0] = log.blockNumber;
+                    seen[1] = log.logIndex;
+                    assertEquals(0, log.topicCount);
+                    assertEquals(0, log.dataLength);
+                }));
+                assertArrayEquals(new long[]{17, 2}, seen);
+            });
+
+            it("should surface JSON-RPC errors", () -> {
+                try {
+                    new LogStreamer(null).parse(Stream("{\"jsonrpc\":\"2.0\",\"id\":1,"
+                            + "\"error\":{\"code\":-32005,\"message\":\"query returned more than 10000 results\"}}"), log -> fail());
+                    fail();
+                } catch (IOException e) {
+                    assertTrue(e.getMessage().contains("more than 10000 results"));
+                }
+            });
+
+            it("should stream responses far larger than one entry", () -> {
+                StringBuilder data = new StringBuilder("0x");
+                for (int i = 0; i < 8 * 32; i++) {
+                    data.append(String.format("%02x", i & 0xFF));
+                }
+                String entry = "{\"address\":\"0x" + Repeat("11", 20) + "\",\"topics\":[\"0x" + Repeat("22", 32)
+                        + "\",\"0x" + Repeat("33", 32) + "\"],\"data\":\"" + data + "\",\"blockNumber\":\"0x1b4\","
+                        + "\"transactionHash\":\"0x" + Repeat("44", 32) + "\",\"transactionIndex\":\"0x0\","
+                        + "\"blockHash\":\"0x" + Repeat("55", 32) + "\",\"logIndex\":\"0x3\",\"removed\":false}";
+
+                int entries = 100_000;
+                long[] checksum = new long[1];
+                long count = new LogStreamer(null).parse(Generated(entries, entry), log -> {
+                    assertEquals(2, log.topicCount);
+                    assertEquals(8 * 32, log.dataLength);
+                    checksum[0] += log.blockNumber + log.data.getByte(255);
+                });
+                assertEquals(entries, count);
+                assertEquals(entries * (0x1b4L + (byte) 0xff), checksum[0]);
+            });
+        });
+    }
+}
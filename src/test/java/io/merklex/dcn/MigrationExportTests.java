@@ -0,0 +1,121 @@
+package io.merklex.dcn;
+
+import com.greghaskins.spectrum.Spectrum;
+import io.merklex.dcn.contracts.DCN;
+import io.merklex.dcn.contracts.ERC20;
+import io.merklex.dcn.export.DCNExporter;
+import io.merklex.dcn.export.ExportSpool;
+import io.merklex.dcn.export.SpoolValidator;
+import io.merklex.dcn.models.MigrationExport.*;
+import io.merklex.dcn.utils.Accounts;
+import io.merklex.dcn.utils.Box;
+import io.merklex.dcn.utils.StaticNetwork;
+import io.merklex.web3.EtherTransactions;
+import org.junit.runner.RunWith;
+import org.web3j.utils.Numeric;
+
+import java.io.File;
+import java.math.BigInteger;
+import java.util.Collections;
+
+import static com.greghaskins.spectrum.dsl.specification.Specification.*;
+import static io.merklex.dcn.utils.AssertHelpers.assertSuccess;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(Spectrum.class)
+public class MigrationExportTests {
+    {
+        StaticNetwork.DescribeCheckpoint();
+
+        EtherTransactions creator = Accounts.getTx(0);
+        EtherTransactions tokenOwner = Accounts.getTx(12);
+        EtherTransactions bob = Accounts.getTx(13);
+        EtherTransactions alice = Accounts.getTx(14);
+        Box<String> token = new Box<>();
+        Box<File> spool = new Box<>();
+
+        BigInteger deposit = BigInteger.valueOf(10000);
+        BigInteger wideScale = BigInteger.ONE.shiftLeft(64).add(BigInteger.valueOf(3));
+
+        beforeAll(() -> {
+            token.value = tokenOwner.deployContract(
+                    BigInteger.ZERO,
+                    StaticNetwork.GAS_LIMIT,
+                    ERC20.DeployData(
+                            BigInteger.valueOf(100000000_0000000000L),
+                            "Token 1",
+                            18,
+                            "TK1"
+                    ),
+                    BigInteger.ZERO
+            );
+
+            assertSuccess(creator.sendCall(StaticNetwork.DCN(), DCN.add_asset("TK1 1234", 10000000000L, token.value)));
+            assertSuccess(creator.sendCall(StaticNetwork.DCN(), DCN.add_asset("NOCODE12", wideScale, bob.getAddress())));
+            assertSuccess(creator.sendCall(StaticNetwork.DCN(), DCN.add_exchange("12345678901", creator.getAddress())));
+            assertSuccess(bob.sendCall(StaticNetwork.DCN(), DCN.user_create()));
+            assertSuccess(alice.sendCall(StaticNetwork.DCN(), DCN.user_create()));
+
+            assertSuccess(tokenOwner.sendCall(token.value, ERC20.transfer(alice.getAddress(), deposit)));
+            assertSuccess(alice.sendCall(token.value, ERC20.approve(StaticNetwork.DCN(), deposit)));
+            assertSuccess(alice.sendCall(StaticNetwork.DCN(), DCN.user_deposit(1, 0, deposit)));
+
+            spool.value = File.createTempFile("dcn-export", ".spool");
+            spool.value.deleteOnExit();
+            new DCNExporter(StaticNetwork.Web3(), StaticNetwork.DCN(), 2).export(spool.value);
+        });
+
+        it("should export every record", () -> {
+            try (ExportSpool.Reader reader = new ExportSpool.Reader(spool.value)) {
+                assertEquals(2, reader.assetCount());
+                assertEquals(1, reader.exchangeCount());
+                assertEquals(2, reader.userCount());
+                assertEquals(1, reader.balanceCount());
+
+                BigInteger block = StaticNetwork.Web3().ethBlockNumber().send().getBlockNumber();
+                assertEquals(block.longValue(), reader.blockNumber());
+            }
+        });
+
+        it("should read back exported values", () -> {
+            try (ExportSpool.Reader reader = new ExportSpool.Reader(spool.value)) {
+                ExportAsset asset = reader.asset(0, new ExportAsset());
+                byte[] symbol = new byte[ExportAsset.SYMBOL_LENGTH];
+                asset.getSymbol(symbol);
+                assertEquals("TK1 1234", new String(symbol));
+                byte[] unitScale = new byte[ExportAsset.UNIT_SCALE_LENGTH];
+                asset.getUnitScale(unitScale);
+                assertEquals(BigInteger.valueOf(10000000000L), new BigInteger(1, unitScale));
+                assertEquals(18, asset.tokenDecimals());
+                assertEquals(1, asset.hasTokenDecimals());
+
+                byte[] address = new byte[ExportAsset.CONTRACT_ADDRESS_LENGTH];
+                asset.getContractAddress(address);
+                assertEquals(token.value, Numeric.toHexString(address));
+
+                reader.asset(1, asset);
+                asset.getUnitScale(unitScale);
+                assertEquals(wideScale, new BigInteger(1, unitScale));
+                assertEquals(0, asset.hasTokenDecimals());
+
+                ExportUser user = reader.user(1, new ExportUser());
+                assertEquals(1, user.userId());
+                user.getTradeAddress(address);
+                assertEquals(alice.getAddress(), Numeric.toHexString(address));
+
+                ExportBalance balance = reader.balance(0, new ExportBalance());
+                byte[] amount = new byte[ExportBalance.BALANCE_LENGTH];
+                balance.getBalance(amount);
+                assertEquals(1, balance.userId());
+                assertEquals(0, balance.assetId());
+                assertEquals(deposit, new BigInteger(1, amount));
+            }
+        });
+
+        it("should pass validation", () -> {
+            try (ExportSpool.Reader reader = new ExportSpool.Reader(spool.value)) {
+                assertEquals(Collections.emptyList(), SpoolValidator.Validate(reader));
+            }
+        });
+    }
+}
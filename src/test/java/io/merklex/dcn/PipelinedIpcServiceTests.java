@@ -0,0 +1,170 @@
+package io.merklex.dcn;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.greghaskins.spectrum.Spectrum;
+import io.reactivex.disposables.Disposable;
+import io.merklex.web3.FileUtils;
+import io.merklex.web3.PipelinedIpcService;
+import jnr.unixsocket.UnixServerSocketChannel;
+import jnr.unixsocket.UnixSocketAddress;
+import jnr.unixsocket.UnixSocketChannel;
+import org.junit.runner.RunWith;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.methods.response.EthBlockNumber;
+import org.web3j.protocol.websocket.events.NewHeadsNotification;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static com.greghaskins.spectrum.Spectrum.*;
+import static org.junit.Assert.*;
+
+@RunWith(Spectrum.class)
+public class PipelinedIpcServiceTests {
+    /* node stand in, each test reads requests and writes responses by hand */
+    private static class ScriptedNode implements AutoCloseable {
+        final ObjectMapper mapper = new ObjectMapper();
+        final File dir = FileUtils.TempDir();
+        final File path;
+        final UnixServerSocketChannel server;
+        UnixSocketChannel client;
+        JsonParser parser;
+
+        ScriptedNode() throws IOException {
+            if (!dir.mkdirs()) {
+                throw new IOException("Failed to create " + dir);
+            }
+            path = new File(dir, "node.ipc");
+            server = UnixServerSocketChannel.open();
+            server.socket().bind(new UnixSocketAddress(path));
+        }
+
+        void accept() throws IOException {
+            client = server.accept();
+        }
+
+        List<JsonNode> read(int count) throws IOException {
+            if (parser == null) {
+                /* blocks until the first bytes arrive to detect the encoding */
+                parser = mapper.getFactory().createParser(Channels.newInputStream(client));
+            }
+            List<JsonNode> requests = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                parser.nextToken();
+                requests.add(mapper.readTree(parser));
+            }
+            return requests;
+        }
+
+        void write(String message) throws IOException {
+            ByteBuffer bytes = ByteBuffer.wrap(message.getBytes(StandardCharsets.UTF_8));
+            while (bytes.hasRemaining()) {
+                client.write(bytes);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (client != null) {
+                client.close();
+            }
+            server.close();
+            FileUtils.DeleteDir(dir);
+        }
+    }
+
+    {
+        it("should match out of order responses by id", () -> {
+            try (ScriptedNode node = new ScriptedNode();
+                 PipelinedIpcService service = new PipelinedIpcService(node.path.getAbsolutePath())) {
+                node.accept();
+                Web3j web3j = Web3j.build(service);
+
+                List<CompletableFuture<EthBlockNumber>> futures = new ArrayList<>();
+                for (int i = 0; i < 8; i++) {
+                    futures.add(web3j.ethBlockNumber().sendAsync());
+                }
+
+                List<JsonNode> requests = node.read(8);
+                assertEquals(8, service.inFlight());
+
+                /* answer with the id as the block number, last request first, two per write */
+                StringBuilder batch = new StringBuilder();
+                for (int i = requests.size() - 1; i >= 0; i--) {
+                    long id = requests.get(i).get("id").asLong();
+                    batch.append("{\"jsonrpc\":\"2.0\",\"id\":").append(id)
+                            .append(",\"result\":\"0x").append(Long.toHexString(id)).append("\"}\n");
+                    if (i % 2 == 0) {
+                        node.write(batch.toString());
+                        batch.setLength(0);
+                    }
+                }
+
+                for (int i = 0; i < futures.size(); i++) {
+                    assertEquals(requests.get(i).get("id").asLong(),
+                            futures.get(i).get().getBlockNumber().longValueExact());
+                }
+                assertEquals(0, service.inFlight());
+            }
+        });
+
+        it("should route subscription notifications", () -> {
+            try (ScriptedNode node = new ScriptedNode();
+                 PipelinedIpcService service = new PipelinedIpcService(node.path.getAbsolutePath())) {
+                node.accept();
+                Web3j web3j = Web3j.build(service);
+
+                CompletableFuture<NewHeadsNotification> first = new CompletableFuture<>();
+                Disposable subscription = web3j.newHeadsNotifications()
+                        .subscribe(first::complete, first::completeExceptionally);
+
+                JsonNode subscribe = node.read(1).get(0);
+                assertEquals("eth_subscribe", subscribe.get("method").asText());
+
+                /* the notification follows the response in the same write */
+                node.write("{\"jsonrpc\":\"2.0\",\"id\":" + subscribe.get("id").asLong() + ",\"result\":\"0xcafe\"}"
+                        + "{\"jsonrpc\":\"2.0\",\"method\":\"eth_subscription\",\"params\":"
+                        + "{\"subscription\":\"0xcafe\",\"result\":{\"number\":\"0x2a\"}}}");
+                assertEquals("0x2a", first.get().getParams().getResult().getNumber());
+
+                subscription.dispose();
+                JsonNode unsubscribe = node.read(1).get(0);
+                assertEquals("eth_unsubscribe", unsubscribe.get("method").asText());
+                assertEquals("0xcafe", unsubscribe.get("params").get(0).asText());
+            }
+        });
+
+        it("should fail requests in flight when the node disconnects", () -> {
+            try (ScriptedNode node = new ScriptedNode();
+                 PipelinedIpcService service = new PipelinedIpcService(node.path.getAbsolutePath())) {
+                node.accept();
+                Web3j web3j = Web3j.build(service);
+
+                CompletableFuture<EthBlockNumber> future = web3j.ethBlockNumber().sendAsync();
+                node.read(1);
+                node.client.close();
+
+                try {
+                    future.get();
+                    fail();
+                } catch (ExecutionException e) {
+                    assertTrue(e.getCause() instanceof IOException);
+                }
+                try {
+                    web3j.ethBlockNumber().send();
+                    fail();
+                } catch (IOException ignored) {
+                }
+            }
+        });
+    }
+}
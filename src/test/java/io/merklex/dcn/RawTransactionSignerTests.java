@@ -0,0 +1,85 @@
+package io.merklex.dcn;
+
+import com.greghaskins.spectrum.Spectrum;
+import io.merklex.dcn.contracts.DCN;
+import io.merklex.dcn.utils.Accounts;
+import io.merklex.dcn.utils.StaticNetwork;
+import io.merklex.web3.EtherTransactions;
+import io.merklex.web3.RawTransactionSigner;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.runner.RunWith;
+import org.web3j.crypto.Credentials;
+import org.web3j.crypto.RawTransaction;
+import org.web3j.crypto.TransactionEncoder;
+import org.web3j.tx.ChainId;
+import org.web3j.utils.Numeric;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import static com.greghaskins.spectrum.Spectrum.*;
+import static io.merklex.dcn.utils.AssertHelpers.assertSuccess;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(Spectrum.class)
+public class RawTransactionSignerTests {
+    {
+        describe("encoding", () -> {
+            Credentials credentials = Accounts.keys.get(3);
+            String to = Accounts.keys.get(4).getAddress();
+            Random random = new Random(50);
+
+            it("should match TransactionEncoder", () -> {
+                BigInteger[] scalars = {
+                        BigInteger.ZERO, BigInteger.ONE, BigInteger.valueOf(0x7F), BigInteger.valueOf(0x80),
+                        BigInteger.valueOf(1_000_000_000L), BigInteger.ONE.shiftLeft(64).add(BigInteger.TEN),
+                        new BigInteger("1000000000000000000000000000000000")
+                };
+                int[] dataLengths = {0, 1, 55, 56, 255, 1024, 70_000};
+                byte[] chainIds = {ChainId.NONE, ChainId.MAINNET, 61, 100};
+
+                for (byte chainId : chainIds) {
+                    RawTransactionSigner signer = new RawTransactionSigner(credentials, chainId);
+                    for (int dataLength : dataLengths) {
+                        for (int round = 0; round < 4; round++) {
+                            byte[] data = new byte[dataLength];
+                            random.nextBytes(data);
+                            if (dataLength == 1 && round % 2 == 0) {
+                                data[0] &= 0x7F;
+                            }
+
+                            BigInteger nonce = scalars[random.nextInt(scalars.length)];
+                            BigInteger gasPrice = scalars[random.nextInt(scalars.length)];
+                            BigInteger gasLimit = scalars[random.nextInt(scalars.length)];
+                            BigInteger value = scalars[random.nextInt(scalars.length)];
+                            String target = round == 3 ? null : to;
+
+                            RawTransaction raw = RawTransaction.createTransaction(
+                                    nonce, gasPrice, gasLimit, target, value, Numeric.toHexString(data));
+                            String expected = Numeric.toHexString(chainId > ChainId.NONE
+                                    ? TransactionEncoder.signMessage(raw, chainId, credentials)
+                                    : TransactionEncoder.signMessage(raw, credentials));
+
+                            assertEquals("chain " + chainId + " data " + dataLength, expected,
+                                    signer.sign(nonce, gasPrice, gasLimit, target, value, data));
+                        }
+                    }
+                }
+            });
+        });
+
+        describe("on chain", () -> {
+            StaticNetwork.DescribeCheckpoint();
+
+            it("should share nonces with the transaction manager", () -> {
+                EtherTransactions tx = Accounts.getTx(7);
+                UnsafeBuffer call = new UnsafeBuffer(new byte[DCN.user_create_BYTES]);
+
+                for (int i = 0; i < 3; i++) {
+                    assertSuccess(tx.sendCall(StaticNetwork.DCN(), call, 0, DCN.encode_user_create(call, 0)));
+                    assertSuccess(tx.sendCall(StaticNetwork.DCN(), DCN.user_create()));
+                }
+            });
+        });
+    }
+}
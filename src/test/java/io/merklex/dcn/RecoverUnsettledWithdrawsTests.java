@@ -0,0 +1,171 @@
+package io.merklex.dcn;
+
+import com.greghaskins.spectrum.Spectrum;
+import io.merklex.dcn.contracts.DCN;
+import io.merklex.dcn.contracts.ERC20;
+import io.merklex.dcn.utils.Accounts;
+import io.merklex.dcn.utils.Box;
+import io.merklex.dcn.utils.StaticNetwork;
+import io.merklex.web3.EtherTransactions;
+import io.merklex.web3.QueryHelper;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.runner.RunWith;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.web3j.utils.Numeric;
+
+import java.math.BigInteger;
+import java.util.List;
+
+import static com.greghaskins.spectrum.Spectrum.*;
+import static io.merklex.dcn.utils.AssertHelpers.assertSuccess;
+import static org.junit.Assert.*;
+
+@RunWith(Spectrum.class)
+public class RecoverUnsettledWithdrawsTests {
+    {
+        describe("builder", () -> {
+            it("should group by exchange and asset and skip sessions without funds", () -> {
+                UnsettledWithdrawBuilder builder = new UnsettledWithdrawBuilder();
+                assertTrue(builder.add(3, 1, 0, 10, 5));
+                assertTrue(builder.add(1, 1, 0, 10, 5));
+                assertTrue(builder.add(2, 0, 1, 10, 5));
+                assertTrue(builder.add(1, 1, 0, 10, 5));
+                assertFalse(builder.add(4, 0, 1, 0, 5));
+                assertFalse(builder.add(5, 0, 1, 10, 0));
+
+                List<UnsettledWithdrawBuilder.Payload> payloads = builder.build();
+                assertEquals(1, payloads.size());
+                assertEquals(2, payloads.get(0).groups);
+                assertEquals(3, payloads.get(0).users);
+                assertEquals("UnsettledWithdraws { Group { exchange_id: 0, asset_id: 1, users: [2] }"
+                        + " Group { exchange_id: 1, asset_id: 0, users: [1, 3] } }", payloads.get(0).toString());
+            });
+
+            it("should split groups by user limit and gas budget", () -> {
+                long budget = UnsettledWithdrawBuilder.TRANSACTION_GAS
+                        + 2 * UnsettledWithdrawBuilder.GROUP_GAS
+                        + 10 * UnsettledWithdrawBuilder.USER_GAS;
+                UnsettledWithdrawBuilder builder = new UnsettledWithdrawBuilder(budget, 6);
+                for (int userId = 0; userId < 25; userId++) {
+                    builder.add(userId, 0, 0, 1, 1);
+                }
+
+                List<UnsettledWithdrawBuilder.Payload> payloads = builder.build();
+                assertEquals(3, payloads.size());
+
+                int users = 0;
+                for (UnsettledWithdrawBuilder.Payload payload : payloads) {
+                    assertTrue(payload.gasEstimate <= budget);
+                    users += payload.users;
+
+                    UnsettledWithdraws.Group group = UnsettledWithdraws.firstGroup(
+                            new UnsafeBuffer(payload.data), 0, new UnsettledWithdraws.Group());
+                    int bytes = 0;
+                    for (int i = 0; i < payload.groups; i++) {
+                        assertTrue(group.userCount() <= 6);
+                        bytes += group.size();
+                        group.nextGroup(group);
+                    }
+                    assertEquals(payload.data.length, bytes);
+                }
+                assertEquals(25, users);
+                assertEquals(10, payloads.get(0).users);
+                assertEquals(2, payloads.get(0).groups);
+            });
+        });
+
+        describe("recover_unsettled_withdraws", () -> {
+            StaticNetwork.DescribeCheckpoint();
+
+            EtherTransactions creator = Accounts.getTx(0);
+            EtherTransactions exchange = Accounts.getTx(1);
+            EtherTransactions user = Accounts.getTx(2);
+            Box<String> token = new Box<>();
+
+            QueryHelper query = new QueryHelper(StaticNetwork.DCN(), StaticNetwork.Web3());
+
+            int userCount = 40;
+            int exchangeId = 0;
+            int assetId = 0;
+            long overdraft = 30;
+            long deposit = 20;
+
+            beforeAll(() -> {
+                BigInteger totalSupply = BigInteger.valueOf(1000000000);
+                token.value = creator.deployContract(BigInteger.ZERO, StaticNetwork.GAS_LIMIT,
+                        ERC20.DeployData(totalSupply, "T", 2, "TT"),
+                        BigInteger.ZERO);
+
+                assertSuccess(creator.sendCall(StaticNetwork.DCN(),
+                        DCN.add_asset("abcd1234", 1, token.value)));
+                assertSuccess(creator.sendCall(StaticNetwork.DCN(),
+                        DCN.add_exchange("merklex    ", exchange.getAddress())));
+                assertSuccess(creator.sendCall(token.value,
+                        ERC20.approve(StaticNetwork.DCN(), totalSupply)));
+                assertSuccess(creator.sendCall(StaticNetwork.DCN(),
+                        DCN.exchange_deposit(exchangeId, assetId, overdraft * userCount)));
+
+                byte[] bytes = new byte[1024];
+                Transfers transfers = new Transfers().wrap(new UnsafeBuffer(bytes), 0);
+                Transfers.Group group = new Transfers.Group();
+                Transfers.Transfer transfer = new Transfers.Transfer();
+                transfers.exchangeId(exchangeId)
+                        .firstGroup(group)
+                        .transferCount(userCount)
+                        .assetId(assetId)
+                        .allowOverdraft(true)
+                        .firstTransfer(transfer);
+
+                for (int userId = 0; userId < userCount; userId++) {
+                    assertSuccess(user.sendCall(StaticNetwork.DCN(),
+                            DCN.user_create()));
+                    transfer.userId(userId).quantity(overdraft).nextTransfer(transfer);
+                }
+
+                assertSuccess(exchange.sendCall(StaticNetwork.DCN(),
+                        DCN.exchange_transfer_from(Numeric.toHexString(bytes, 0, transfers.bytes(1, group), true))));
+
+                for (int userId = 0; userId < userCount; userId++) {
+                    assertSuccess(creator.sendCall(StaticNetwork.DCN(),
+                            DCN.user_deposit_to_session(userId, exchangeId, assetId, deposit)));
+                }
+            });
+
+            it("should recover all sessions within the gas estimate", () -> {
+                BigInteger exchangeBefore = query.query(DCN::query_get_exchange_balance,
+                        DCN.get_exchange_balance(exchangeId, assetId)).exchange_balance;
+
+                long budget = UnsettledWithdrawBuilder.TRANSACTION_GAS
+                        + 3 * UnsettledWithdrawBuilder.GROUP_GAS
+                        + 15 * UnsettledWithdrawBuilder.USER_GAS;
+                UnsettledWithdrawBuilder builder = new UnsettledWithdrawBuilder(budget, 8);
+                for (int userId = 0; userId < userCount; userId++) {
+                    builder.add(userId, exchangeId, assetId, query.query(DCN::query_get_session_balance,
+                            DCN.get_session_balance(userId, exchangeId, assetId)));
+                }
+                assertEquals(userCount, builder.sessionCount());
+
+                List<UnsettledWithdrawBuilder.Payload> payloads = builder.build();
+                assertEquals(3, payloads.size());
+
+                for (UnsettledWithdrawBuilder.Payload payload : payloads) {
+                    TransactionReceipt receipt = assertSuccess(creator.sendCall(StaticNetwork.DCN(),
+                            DCN.recover_unsettled_withdraws(payload.payload())));
+                    assertTrue(receipt.getGasUsed() + " > " + payload.gasEstimate,
+                            receipt.getGasUsed().longValueExact() <= payload.gasEstimate);
+                }
+
+                for (int userId = 0; userId < userCount; userId++) {
+                    DCN.GetSessionBalanceReturnValue balance = query.query(DCN::query_get_session_balance,
+                            DCN.get_session_balance(userId, exchangeId, assetId));
+                    assertEquals(overdraft - deposit, balance.unsettled_withdraw_total);
+                    assertEquals(0, balance.asset_balance);
+                }
+
+                BigInteger exchangeAfter = query.query(DCN::query_get_exchange_balance,
+                        DCN.get_exchange_balance(exchangeId, assetId)).exchange_balance;
+                assertEquals(exchangeBefore.add(BigInteger.valueOf(deposit * userCount)), exchangeAfter);
+            });
+        });
+    }
+}
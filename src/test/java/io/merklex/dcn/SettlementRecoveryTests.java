@@ -0,0 +1,184 @@
+package io.merklex.dcn;
+
+import com.greghaskins.spectrum.Spectrum;
+import io.merklex.dcn.contracts.DCN;
+import io.merklex.dcn.contracts.ERC20;
+import io.merklex.dcn.utils.Accounts;
+import io.merklex.dcn.utils.Box;
+import io.merklex.dcn.utils.StaticNetwork;
+import io.merklex.web3.EtherTransactions;
+import io.merklex.web3.QueryHelper;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.runner.RunWith;
+
+import java.math.BigInteger;
+
+import static com.greghaskins.spectrum.Spectrum.*;
+import static io.merklex.dcn.utils.AssertHelpers.assertSuccess;
+import static io.merklex.dcn.utils.ConsistentBalanceCheck.assertCorrectBalances;
+import static org.junit.Assert.*;
+
+@RunWith(Spectrum.class)
+public class SettlementRecoveryTests {
+    private static final int userId1 = 0;
+    private static final int userId2 = 1;
+    private static final int exchangeId = 0;
+    private static final int quoteAssetId = 0;
+    private static final int baseAssetId = 1;
+
+    {
+        StaticNetwork.DescribeCheckpoint();
+
+        EtherTransactions creator = Accounts.getTx(0);
+        EtherTransactions exchange = Accounts.getTx(5);
+        EtherTransactions user1 = Accounts.getTx(1);
+        EtherTransactions user2 = Accounts.getTx(2);
+        Box<String> token = new Box<>();
+
+        QueryHelper query = new QueryHelper(StaticNetwork.DCN(), StaticNetwork.Web3());
+
+        beforeAll(() -> {
+            assertSuccess(user1.sendCall(StaticNetwork.DCN(), DCN.user_create()));
+            assertSuccess(user2.sendCall(StaticNetwork.DCN(), DCN.user_create()));
+            assertSuccess(creator.sendCall(StaticNetwork.DCN(),
+                    DCN.add_exchange("merklex    ", exchange.getAddress())));
+
+            BigInteger unlockAt = BigInteger.valueOf(System.currentTimeMillis() / 1000 + 28800 * 2);
+            assertSuccess(user1.sendCall(StaticNetwork.DCN(),
+                    DCN.user_session_set_unlock_at(userId1, exchangeId, unlockAt)));
+            assertSuccess(user2.sendCall(StaticNetwork.DCN(),
+                    DCN.user_session_set_unlock_at(userId2, exchangeId, unlockAt)));
+
+            BigInteger totalSupply = BigInteger.valueOf(1000000000);
+            token.value = creator.deployContract(BigInteger.ZERO, StaticNetwork.GAS_LIMIT,
+                    ERC20.DeployData(totalSupply, "T", 2, "TT"),
+                    BigInteger.ZERO);
+            assertSuccess(creator.sendCall(StaticNetwork.DCN(), DCN.add_asset("abcd1234", 1, token.value)));
+            assertSuccess(creator.sendCall(StaticNetwork.DCN(), DCN.add_asset("abce1234", 1, token.value)));
+            assertSuccess(creator.sendCall(token.value, ERC20.approve(StaticNetwork.DCN(), totalSupply)));
+
+            for (int userId : new int[]{userId1, userId2}) {
+                assertSuccess(creator.sendCall(StaticNetwork.DCN(),
+                        DCN.user_deposit_to_session(userId, exchangeId, quoteAssetId, 1000)));
+                assertSuccess(creator.sendCall(StaticNetwork.DCN(),
+                        DCN.user_deposit_to_session(userId, exchangeId, baseAssetId, 1000)));
+            }
+
+            UpdateLimits updateLimits = new UpdateLimits().wrap(new UnsafeBuffer(new byte[1024]), 0);
+            UpdateLimits.LimitUpdate limitUpdate = new UpdateLimits.LimitUpdate();
+            updateLimits
+                    .exchangeId(exchangeId)
+                    .firstLimitUpdate(limitUpdate)
+                    .setValues(limit -> defaultLimit(limit, userId1))
+                    .sign(user1.credentials(), DCNHasher.instance)
+                    .nextLimitUpdate(limitUpdate)
+                    .setValues(limit -> defaultLimit(limit, userId2))
+                    .sign(user2.credentials(), DCNHasher.instance);
+            assertSuccess(exchange.sendCall(StaticNetwork.DCN(),
+                    DCN.exchange_set_limits(updateLimits.payload(2))));
+        });
+
+        Settlements settlements = new Settlements().wrap(new UnsafeBuffer(new byte[4096]), 0);
+        Settlements.Group group = new Settlements.Group();
+        Settlements.SettlementData data = new Settlements.SettlementData();
+        SettlementRecovery recovery = new SettlementRecovery(exchange, StaticNetwork.DCN());
+
+        describe("with independent bad groups", () -> {
+            StaticNetwork.DescribeCheckpoint();
+
+            it("should quarantine them and submit the rest", () -> {
+                exchange.reloadNonce();
+
+                settlements.exchangeId(exchangeId).firstGroup(group);
+                for (int i = 0; i < 8; i++) {
+                    long quote = i == 2 ? 150 : 1;
+                    long unbalanced = i == 5 ? 1 : 0;
+                    trade(group, data, quote, quote + unbalanced).nextGroup(group);
+                }
+
+                SettlementRecovery.Result result = recovery.recover(settlements, 8);
+
+                assertEquals(2, result.quarantined.size());
+                assertEquals(2, result.quarantined.get(0).group);
+                assertEquals("0x09", result.quarantined.get(0).revertCode);
+                assertEquals(5, result.quarantined.get(1).group);
+                assertEquals("0x0f", result.quarantined.get(1).revertCode);
+                assertArrayEquals(new int[]{0, 1, 3, 4, 6, 7}, result.healthyGroups);
+                /* whole batch, three rounds of halves and the remainder */
+                assertTrue(result.dryRuns <= 2 + 2 * 2 * 3);
+
+                assertSuccess(result.submitted);
+                assertEquals(-6, query.query(DCN::query_get_market_state,
+                        DCN.get_market_state(userId1, exchangeId, quoteAssetId, baseAssetId)).quote_qty);
+                assertCorrectBalances(query);
+            });
+        });
+
+        describe("with groups that only revert together", () -> {
+            StaticNetwork.DescribeCheckpoint();
+
+            it("should quarantine the group that tips the batch over", () -> {
+                settlements.exchangeId(exchangeId).firstGroup(group);
+                for (int i = 0; i < 4; i++) {
+                    long quote = i == 1 || i == 2 ? 60 : 1;
+                    trade(group, data, quote, quote).nextGroup(group);
+                }
+
+                SettlementRecovery.Result result = recovery.isolate(settlements, 4);
+
+                assertEquals(1, result.quarantined.size());
+                assertEquals(2, result.quarantined.get(0).group);
+                assertEquals("0x09", result.quarantined.get(0).revertCode);
+                assertArrayEquals(new int[]{0, 1, 3}, result.healthyGroups);
+                assertNull(result.submitted);
+            });
+
+            it("should leave a healthy batch alone", () -> {
+                settlements.exchangeId(exchangeId).firstGroup(group);
+                for (int i = 0; i < 3; i++) {
+                    trade(group, data, 1, 1).nextGroup(group);
+                }
+
+                SettlementRecovery.Result result = recovery.isolate(settlements, 3);
+                assertTrue(result.quarantined.isEmpty());
+                assertEquals(1, result.dryRuns);
+                assertEquals(settlements.payload(3), result.healthyPayload);
+            });
+        });
+    }
+
+    /* user1 buys base for quote, user2 sells */
+    private static Settlements.Group trade(Settlements.Group group, Settlements.SettlementData data,
+                                           long quotePaid, long quoteReceived) {
+        group.quoteAssetId(quoteAssetId)
+                .baseAssetId(baseAssetId)
+                .userCount(2)
+                .firstSettlement(data)
+                .userId(userId1)
+                .quoteDelta(-quotePaid)
+                .baseDelta(quotePaid)
+                .fees(0)
+                .nextSettlement(data)
+                .userId(userId2)
+                .quoteDelta(quoteReceived)
+                .baseDelta(-quotePaid)
+                .fees(0);
+        return group;
+    }
+
+    private static void defaultLimit(UpdateLimits.LimitUpdate limit, long userId) {
+        limit.dcnId(1)
+                .userId(userId)
+                .exchangeId(exchangeId)
+                .quoteAssetId(quoteAssetId)
+                .baseAssetId(baseAssetId)
+                .feeLimit(0)
+                .minQuoteQty(-100)
+                .minBaseQty(-100)
+                .longMaxPrice(-1)
+                .shortMinPrice(1)
+                .limitVersion(1)
+                .baseShift(BigInteger.ZERO)
+                .quoteShift(BigInteger.ZERO);
+    }
+}
@@ -0,0 +1,271 @@
+package io.merklex.dcn;
+
+import com.greghaskins.spectrum.Spectrum;
+import io.merklex.dcn.contracts.DCN;
+import io.merklex.dcn.contracts.ERC20;
+import io.merklex.dcn.storage.StorageReader;
+import io.merklex.dcn.storage.StorageSlots;
+import io.merklex.dcn.storage.TrieProof;
+import io.merklex.dcn.utils.Accounts;
+import io.merklex.dcn.utils.Box;
+import io.merklex.dcn.utils.StaticNetwork;
+import io.merklex.web3.EtherTransactions;
+import io.merklex.web3.QueryHelper;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.runner.RunWith;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.rlp.RlpEncoder;
+import org.web3j.rlp.RlpList;
+import org.web3j.rlp.RlpString;
+import org.web3j.rlp.RlpType;
+import org.web3j.utils.Numeric;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static com.greghaskins.spectrum.Spectrum.*;
+import static io.merklex.dcn.utils.AssertHelpers.assertSuccess;
+import static org.junit.Assert.*;
+
+@RunWith(Spectrum.class)
+public class StorageReaderTests {
+    {
+        describe("storage reads", () -> {
+            StaticNetwork.DescribeCheckpoint();
+
+            EtherTransactions creator = Accounts.getTx(0);
+            EtherTransactions exchange = Accounts.getTx(1);
+            EtherTransactions user = Accounts.getTx(2);
+            Box<String> token = new Box<>();
+
+            QueryHelper query = new QueryHelper(StaticNetwork.DCN(), StaticNetwork.Web3());
+            StorageReader reader = new StorageReader(StaticNetwork.Web3(), StaticNetwork.DCN(), 4);
+
+            int userId = 0;
+            int exchangeId = 0;
+            int quoteAssetId = 0;
+            int baseAssetId = 1;
+            int[] assetIds = {quoteAssetId, baseAssetId};
+
+            beforeAll(() -> {
+                assertSuccess(user.sendCall(StaticNetwork.DCN(),
+                        DCN.user_create()));
+                assertSuccess(creator.sendCall(StaticNetwork.DCN(),
+                        DCN.add_exchange("merklex ex ", exchange.getAddress())));
+                assertSuccess(user.sendCall(StaticNetwork.DCN(),
+                        DCN.user_session_set_unlock_at(userId, exchangeId,
+                                BigInteger.valueOf(System.currentTimeMillis() / 1000 + 28800 * 2))));
+
+                BigInteger totalSupply = BigInteger.valueOf(1000000000);
+                token.value = creator.deployContract(BigInteger.ZERO, StaticNetwork.GAS_LIMIT,
+                        ERC20.DeployData(totalSupply, "T", 2, "TT"),
+                        BigInteger.ZERO);
+
+                assertSuccess(creator.sendCall(StaticNetwork.DCN(),
+                        DCN.add_asset("abcd1234", 1, token.value)));
+                assertSuccess(creator.sendCall(StaticNetwork.DCN(),
+                        DCN.add_asset("abce1234", 1000, token.value)));
+                assertSuccess(creator.sendCall(token.value,
+                        ERC20.approve(StaticNetwork.DCN(), totalSupply)));
+
+                assertSuccess(creator.sendCall(StaticNetwork.DCN(),
+                        DCN.user_deposit_to_session(userId, exchangeId, quoteAssetId, 1000)));
+                assertSuccess(creator.sendCall(StaticNetwork.DCN(),
+                        DCN.user_deposit_to_session(userId, exchangeId, baseAssetId, 30000)));
+            });
+
+            it("scalar slots should match getters", () -> {
+                BigInteger[] words = reader.read(new BigInteger[]{
+                        StorageSlots.USER_COUNT,
+                        StorageSlots.EXCHANGE_COUNT,
+                        StorageSlots.ASSET_COUNT
+                }, DefaultBlockParameterName.LATEST);
+
+                assertEquals(query.query(DCN::query_get_user_count, DCN.get_user_count()).count,
+                        words[0].intValueExact());
+                assertEquals(query.query(DCN::query_get_exchange_count, DCN.get_exchange_count()).count,
+                        words[1].intValueExact());
+                assertEquals(query.query(DCN::query_get_asset_count, DCN.get_asset_count()).count,
+                        words[2].intValueExact());
+            });
+
+            it("session balances should match getter", () -> {
+                DCN.GetSessionBalanceReturnValue[] balances = reader.sessionBalances(userId, exchangeId, assetIds,
+                        DefaultBlockParameterName.LATEST);
+
+                for (int i = 0; i < assetIds.length; i++) {
+                    DCN.GetSessionBalanceReturnValue expected = query.query(DCN::query_get_session_balance,
+                            DCN.get_session_balance(userId, exchangeId, assetIds[i]));
+                    assertEquals(expected.total_deposit, balances[i].total_deposit);
+                    assertEquals(expected.unsettled_withdraw_total, balances[i].unsettled_withdraw_total);
+                    assertEquals(expected.asset_balance, balances[i].asset_balance);
+                }
+                assertEquals(30000, balances[1].asset_balance);
+            });
+
+            it("exchange should match getter", () -> {
+                DCN.GetExchangeReturnValue expected = query.query(DCN::query_get_exchange,
+                        DCN.get_exchange(exchangeId));
+                DCN.GetExchangeReturnValue actual = reader.exchange(exchangeId, DefaultBlockParameterName.LATEST);
+
+                assertEquals("merklex ex ", actual.name);
+                assertEquals(expected.name, actual.name);
+                assertEquals(expected.locked, actual.locked);
+                assertEquals(expected.owner, actual.owner);
+                assertEquals(expected.withdraw_address, actual.withdraw_address);
+                assertEquals(expected.recovery_address, actual.recovery_address);
+                assertEquals(expected.recovery_address_proposed, actual.recovery_address_proposed);
+            });
+
+            it("market state should match getter with negative fields", () -> {
+                byte[] bytes = new byte[1024];
+                UnsafeBuffer buffer = new UnsafeBuffer(bytes);
+                UpdateLimits updateLimits = new UpdateLimits();
+                UpdateLimits.LimitUpdate limitUpdate = new UpdateLimits.LimitUpdate();
+
+                updateLimits.wrap(buffer, 0)
+                        .exchangeId(exchangeId)
+                        .firstLimitUpdate(limitUpdate)
+                        .dcnId(1)
+                        .userId(userId)
+                        .exchangeId(exchangeId)
+                        .quoteAssetId(quoteAssetId)
+                        .baseAssetId(baseAssetId)
+                        .feeLimit(1000)
+                        .minBaseQty(-100)
+                        .minQuoteQty(-200)
+                        .longMaxPrice(100000)
+                        .shortMinPrice(1000)
+                        .limitVersion(1)
+                        .quoteShift(BigInteger.valueOf(-10000))
+                        .baseShift(BigInteger.valueOf(1000))
+                        .sign(user.credentials(), DCNHasher.instance);
+
+                assertSuccess(exchange.sendCall(StaticNetwork.DCN(),
+                        DCN.exchange_set_limits(Numeric.toHexString(bytes, 0, updateLimits.bytes(1), true))));
+
+                DCN.GetMarketStateReturnValue expected = query.query(DCN::query_get_market_state,
+                        DCN.get_market_state(userId, exchangeId, quoteAssetId, baseAssetId));
+                DCN.GetMarketStateReturnValue actual = reader.marketState(userId, exchangeId,
+                        quoteAssetId, baseAssetId, DefaultBlockParameterName.LATEST);
+
+                assertEquals(-10000, actual.quote_qty);
+                assertEquals(-200, actual.min_quote_qty);
+                assertEquals(BigInteger.valueOf(-10000), actual.quote_shift);
+                assertEquals(expected.quote_qty, actual.quote_qty);
+                assertEquals(expected.base_qty, actual.base_qty);
+                assertEquals(expected.fee_used, actual.fee_used);
+                assertEquals(expected.fee_limit, actual.fee_limit);
+                assertEquals(expected.min_quote_qty, actual.min_quote_qty);
+                assertEquals(expected.min_base_qty, actual.min_base_qty);
+                assertEquals(expected.long_max_price, actual.long_max_price);
+                assertEquals(expected.short_min_price, actual.short_min_price);
+                assertEquals(expected.limit_version, actual.limit_version);
+                assertEquals(expected.quote_shift, actual.quote_shift);
+                assertEquals(expected.base_shift, actual.base_shift);
+            });
+        });
+
+        describe("trie proofs", () -> {
+            byte[] key = Numeric.toBytesPadded(BigInteger.valueOf(12), 32);
+            byte[] value = RlpEncoder.encode(RlpString.create(BigInteger.valueOf(30000)));
+
+            it("should prove a single leaf", () -> {
+                byte[] leaf = Leaf(Path(key), 0, value);
+                byte[] root = KeccakHash.Hash(leaf);
+
+                assertArrayEquals(value, TrieProof.Verify(root, key, Collections.singletonList(leaf)));
+                assertNull(TrieProof.Verify(root, Numeric.toBytesPadded(BigInteger.valueOf(13), 32),
+                        Collections.singletonList(leaf)));
+            });
+
+            it("should reject a proof not matching the root", () -> {
+                byte[] leaf = Leaf(Path(key), 0, value);
+                byte[] root = KeccakHash.Hash(leaf);
+                byte[] forged = Leaf(Path(key), 0, RlpEncoder.encode(RlpString.create(BigInteger.valueOf(30001))));
+
+                try {
+                    TrieProof.Verify(root, key, Collections.singletonList(forged));
+                    fail("forged proof accepted");
+                } catch (IllegalArgumentException expected) {
+                }
+                try {
+                    TrieProof.Verify(root, key, Collections.emptyList());
+                    fail("empty proof accepted");
+                } catch (IllegalArgumentException expected) {
+                }
+            });
+
+            it("should walk branch nodes", () -> {
+                byte[] other = null;
+                byte[] missing = null;
+                for (int i = 13; other == null || missing == null; i++) {
+                    byte[] candidate = Numeric.toBytesPadded(BigInteger.valueOf(i), 32);
+                    int nibble = Path(candidate)[0];
+                    if (nibble == Path(key)[0]) {
+                        continue;
+                    }
+                    if (other == null) {
+                        other = candidate;
+                    } else if (nibble != Path(other)[0]) {
+                        missing = candidate;
+                    }
+                }
+
+                byte[] otherValue = RlpEncoder.encode(RlpString.create(BigInteger.valueOf(7)));
+                byte[] keyLeaf = Leaf(Path(key), 1, value);
+                byte[] otherLeaf = Leaf(Path(other), 1, otherValue);
+
+                List<RlpType> children = new ArrayList<>();
+                for (int i = 0; i < 17; i++) {
+                    children.add(RlpString.create(new byte[0]));
+                }
+                children.set(Path(key)[0], RlpString.create(KeccakHash.Hash(keyLeaf)));
+                children.set(Path(other)[0], RlpString.create(KeccakHash.Hash(otherLeaf)));
+                byte[] branch = RlpEncoder.encode(new RlpList(children));
+                byte[] root = KeccakHash.Hash(branch);
+
+                assertArrayEquals(value, TrieProof.Verify(root, key, Arrays.asList(branch, keyLeaf)));
+                assertArrayEquals(otherValue, TrieProof.Verify(root, other, Arrays.asList(branch, otherLeaf)));
+                assertNull(TrieProof.Verify(root, missing, Collections.singletonList(branch)));
+
+                try {
+                    TrieProof.Verify(root, key, Arrays.asList(branch, otherLeaf));
+                    fail("proof of another leaf accepted");
+                } catch (IllegalArgumentException expected) {
+                }
+            });
+        });
+    }
+
+    private static byte[] Path(byte[] key) {
+        byte[] hash = KeccakHash.Hash(key);
+        byte[] nibbles = new byte[hash.length * 2];
+        for (int i = 0; i < hash.length; i++) {
+            nibbles[i * 2] = (byte) ((hash[i] >> 4) & 0xF);
+            nibbles[i * 2 + 1] = (byte) (hash[i] & 0xF);
+        }
+        return nibbles;
+    }
+
+    /**
+     * Leaf node holding the nibbles of path from start, hex prefix encoded
+     */
+    private static byte[] Leaf(byte[] path, int start, byte[] value) {
+        int length = path.length - start;
+        byte[] compact = new byte[length / 2 + 1];
+        int nibble = start;
+        if (length % 2 == 1) {
+            compact[0] = (byte) (0x30 | path[nibble++]);
+        } else {
+            compact[0] = 0x20;
+        }
+        for (int i = 1; i < compact.length; i++, nibble += 2) {
+            compact[i] = (byte) ((path[nibble] << 4) | path[nibble + 1]);
+        }
+        return RlpEncoder.encode(new RlpList(RlpString.create(compact), RlpString.create(value)));
+    }
+}
@@ -0,0 +1,229 @@
+package io.merklex.dcn;
+
+import com.greghaskins.spectrum.Spectrum;
+import io.merklex.dcn.contracts.DCN;
+import io.merklex.dcn.contracts.ERC20;
+import io.merklex.dcn.utils.Accounts;
+import io.merklex.dcn.utils.StaticNetwork;
+import io.merklex.web3.EtherTransactions;
+import io.merklex.web3.QueryHelper;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.runner.RunWith;
+
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.function.BiFunction;
+
+import static com.greghaskins.spectrum.Spectrum.*;
+import static io.merklex.dcn.utils.AssertHelpers.assertRevert;
+import static io.merklex.dcn.utils.AssertHelpers.assertSuccess;
+import static org.junit.Assert.*;
+
+@RunWith(Spectrum.class)
+public class TradeHeadroomTests {
+    private static final long U = TradeHeadroom.PRICE_UNITS;
+
+    {
+        describe("arithmetic", () -> {
+            it("should match BigInteger for 128 bit products", () -> {
+                Random random = new Random(42);
+                BigInteger mask = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+
+                for (int i = 0; i < 10_000; i++) {
+                    long a = random.nextLong() >>> random.nextInt(64);
+                    long b = i % 2 == 0 ? U : random.nextLong() >>> random.nextInt(64);
+                    long c = random.nextLong() >>> random.nextInt(64);
+                    long d = random.nextLong() >>> random.nextInt(64);
+
+                    BigInteger ab = new BigInteger(Long.toUnsignedString(a)).multiply(new BigInteger(Long.toUnsignedString(b)));
+                    BigInteger cd = new BigInteger(Long.toUnsignedString(c)).multiply(new BigInteger(Long.toUnsignedString(d)));
+                    assertEquals(ab.shiftRight(64).and(mask).longValue(), Int128.MultiplyHighUnsigned(a, b));
+                    assertEquals(Integer.signum(ab.compareTo(cd)), Integer.signum(TradeHeadroom.CompareProducts(a, b, c, d)));
+
+                    BigInteger[] qr = ab.divideAndRemainder(BigInteger.valueOf(U));
+                    BigInteger up = qr[1].signum() == 0 ? qr[0] : qr[0].add(BigInteger.ONE);
+                    long expectDown = qr[0].bitLength() < 64 ? qr[0].longValue() : -1;
+                    long expectUp = up.bitLength() < 64 ? up.longValue() : -1;
+                    assertEquals(expectDown, TradeHeadroom.MulDiv(a, b, U, false));
+                    assertEquals(expectUp, TradeHeadroom.MulDiv(a, b, U, true));
+                }
+            });
+        });
+
+        describe("local state", () -> {
+            it("should keep slots stable while growing", () -> {
+                TradeHeadroom headroom = new TradeHeadroom(0, 2);
+                for (int userId = 0; userId < 100; userId++) {
+                    assertEquals(userId, headroom.put(userId, 0, 1, userId, -userId, 0, 0, 0, 0, 0, 0));
+                }
+                assertEquals(100, headroom.size());
+                for (int userId = 0; userId < 100; userId++) {
+                    int slot = headroom.slot(userId, 0, 1);
+                    assertEquals(userId, slot);
+                    assertEquals(userId, headroom.quoteQty(slot));
+                    assertEquals(-userId, headroom.baseQty(slot));
+                }
+                assertEquals(-1, headroom.slot(0, 1, 0));
+                assertEquals(7, headroom.put(7, 0, 1, 1, 1, 0, 0, 0, 0, 0, 0));
+            });
+
+            it("should track fee headroom", () -> {
+                TradeHeadroom headroom = new TradeHeadroom(0);
+                int slot = headroom.put(1, 0, 1, 0, 0, 40, 100, 0, 0, 0, 0);
+                assertEquals(60, headroom.feeHeadroom(slot));
+                assertTrue(headroom.canApply(slot, 0, 0, 60));
+                assertFalse(headroom.canApply(slot, 0, 0, 61));
+
+                headroom.apply(slot, 0, 0, 60);
+                assertEquals(0, headroom.feeHeadroom(slot));
+
+                headroom.put(1, 0, 1, 0, 0, 40, 30, 0, 0, 0, 0);
+                assertFalse(headroom.canApply(slot, 0, 0, 0));
+            });
+
+            it("should stop a short at short_min_price and allow closing through flat", () -> {
+                TradeHeadroom headroom = new TradeHeadroom(0);
+                /* short 100 base for 300 quote, short_min_price 2.5 */
+                int slot = headroom.put(1, 0, 1, 300, -100, 0, 0,
+                        -1000, -1000, 0, 5 * U / 2);
+
+                /* (300 + 2q) / (100 + q) >= 2.5 holds up to q = 100 */
+                long max = headroom.maxShort(slot, 2 * U);
+                assertEquals(100, max);
+                assertTrue(headroom.canApply(slot, 2 * max, -max, 0));
+                assertFalse(headroom.canApply(slot, 2 * (max + 1), -(max + 1), 0));
+
+                /* buying back 100 at 3 flattens to quote 0, base 0, going long past it fails long_max_price 0 */
+                assertEquals(100, headroom.maxLong(slot, 3 * U));
+
+                /* buying at 1 stays valid through flat and long until min_quote_qty at q = 1300 */
+                headroom.put(1, 0, 1, 300, -100, 0, 0, -1000, -1000, 2 * U, 5 * U / 2);
+                assertEquals(1300, headroom.maxLong(slot, U));
+            });
+
+            it("should bound sells by min_base_qty", () -> {
+                TradeHeadroom headroom = new TradeHeadroom(0);
+                int slot = headroom.put(1, 0, 1, 0, 0, 0, 0, 0, -25, -1, 0);
+                assertEquals(25, headroom.maxShort(slot, U));
+            });
+        });
+
+        describe("against exchange_apply_settlement_groups", () -> {
+            StaticNetwork.DescribeCheckpoint();
+
+            EtherTransactions creator = Accounts.getTx(0);
+            EtherTransactions exchange = Accounts.getTx(5);
+            EtherTransactions trader = Accounts.getTx(1);
+            EtherTransactions counterparty = Accounts.getTx(2);
+
+            int traderId = 0;
+            int counterpartyId = 1;
+            int exchangeId = 0;
+            int quoteAssetId = 0;
+            int baseAssetId = 1;
+
+            QueryHelper query = new QueryHelper(StaticNetwork.DCN(), StaticNetwork.Web3());
+            TradeHeadroom headroom = new TradeHeadroom(exchangeId);
+
+            beforeAll(() -> {
+                assertSuccess(trader.sendCall(StaticNetwork.DCN(), DCN.user_create()));
+                assertSuccess(counterparty.sendCall(StaticNetwork.DCN(), DCN.user_create()));
+                assertSuccess(creator.sendCall(StaticNetwork.DCN(),
+                        DCN.add_exchange("merklex    ", exchange.getAddress())));
+
+                BigInteger unlockAt = BigInteger.valueOf(System.currentTimeMillis() / 1000 + 28800 * 2);
+                assertSuccess(trader.sendCall(StaticNetwork.DCN(),
+                        DCN.user_session_set_unlock_at(traderId, exchangeId, unlockAt)));
+                assertSuccess(counterparty.sendCall(StaticNetwork.DCN(),
+                        DCN.user_session_set_unlock_at(counterpartyId, exchangeId, unlockAt)));
+
+                BigInteger totalSupply = BigInteger.valueOf(1000000000);
+                String token = creator.deployContract(BigInteger.ZERO, StaticNetwork.GAS_LIMIT,
+                        ERC20.DeployData(totalSupply, "T", 2, "TT"),
+                        BigInteger.ZERO);
+                assertSuccess(creator.sendCall(StaticNetwork.DCN(), DCN.add_asset("abcd1234", 1, token)));
+                assertSuccess(creator.sendCall(StaticNetwork.DCN(), DCN.add_asset("abce1234", 1, token)));
+                assertSuccess(creator.sendCall(token, ERC20.approve(StaticNetwork.DCN(), totalSupply)));
+
+                for (int userId : new int[]{traderId, counterpartyId}) {
+                    for (int assetId : new int[]{quoteAssetId, baseAssetId}) {
+                        assertSuccess(creator.sendCall(StaticNetwork.DCN(),
+                                DCN.user_deposit_to_session(userId, exchangeId, assetId, 100_000)));
+                    }
+                }
+
+                UpdateLimits limits = new UpdateLimits().wrap(new UnsafeBuffer(new byte[1024]), 0);
+                UpdateLimits.LimitUpdate update = new UpdateLimits.LimitUpdate();
+                limits.exchangeId(exchangeId).firstLimitUpdate(update)
+                        .dcnId(1).userId(traderId).exchangeId(exchangeId)
+                        .quoteAssetId(quoteAssetId).baseAssetId(baseAssetId)
+                        .feeLimit(0).minQuoteQty(-500).minBaseQty(-1000)
+                        .longMaxPrice(5 * U / 2).shortMinPrice(0)
+                        .limitVersion(1).quoteShift(BigInteger.ZERO).baseShift(BigInteger.ZERO)
+                        .sign(trader.credentials(), DCNHasher.instance)
+                        .nextLimitUpdate(update)
+                        .dcnId(1).userId(counterpartyId).exchangeId(exchangeId)
+                        .quoteAssetId(quoteAssetId).baseAssetId(baseAssetId)
+                        .feeLimit(0).minQuoteQty(-100_000).minBaseQty(-100_000)
+                        .longMaxPrice(-1).shortMinPrice(0)
+                        .limitVersion(1).quoteShift(BigInteger.ZERO).baseShift(BigInteger.ZERO)
+                        .sign(counterparty.credentials(), DCNHasher.instance);
+                assertSuccess(exchange.sendCall(StaticNetwork.DCN(), DCN.exchange_set_limits(limits.payload(2))));
+            });
+
+            UnsafeBuffer buffer = new UnsafeBuffer(new byte[256]);
+            Settlements settlements = new Settlements().wrap(buffer, 0);
+            Settlements.Group group = new Settlements.Group();
+            Settlements.SettlementData settlement = new Settlements.SettlementData();
+
+            BiFunction<Long, Long, String> trade = (quoteDelta, baseDelta) -> {
+                settlements.exchangeId(exchangeId).firstGroup(group)
+                        .quoteAssetId(quoteAssetId).baseAssetId(baseAssetId).userCount(2)
+                        .firstSettlement(settlement)
+                        .userId(traderId).quoteDelta(quoteDelta).baseDelta(baseDelta).fees(0)
+                        .nextSettlement(settlement)
+                        .userId(counterpartyId).quoteDelta(-quoteDelta).baseDelta(-baseDelta).fees(0);
+                return settlements.payload(1);
+            };
+
+            Runnable reload = () -> {
+                try {
+                    headroom.put(traderId, quoteAssetId, baseAssetId, query.query(DCN::query_get_market_state,
+                            DCN.get_market_state(traderId, exchangeId, quoteAssetId, baseAssetId)));
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            };
+
+            it("should buy up to min_quote_qty", () -> {
+                reload.run();
+                int slot = headroom.slot(traderId, quoteAssetId, baseAssetId);
+
+                long max = headroom.maxLong(slot, 2 * U);
+                assertEquals(250, max);
+
+                assertRevert("0x09", exchange.sendCall(StaticNetwork.DCN(),
+                        DCN.exchange_apply_settlement_groups(trade.apply(-2 * (max + 1), max + 1))));
+                assertSuccess(exchange.sendCall(StaticNetwork.DCN(),
+                        DCN.exchange_apply_settlement_groups(trade.apply(-2 * max, max))));
+
+                headroom.apply(slot, -2 * max, max, 0);
+                assertEquals(0, headroom.maxLong(slot, 2 * U));
+            });
+
+            it("should sell down to long_max_price", () -> {
+                reload.run();
+                int slot = headroom.slot(traderId, quoteAssetId, baseAssetId);
+
+                /* (500 - q) / (250 - q) <= 2.5 holds up to q = 83 */
+                long max = headroom.maxShort(slot, U);
+                assertEquals(83, max);
+
+                assertRevert("0x0b", exchange.sendCall(StaticNetwork.DCN(),
+                        DCN.exchange_apply_settlement_groups(trade.apply(max + 1, -(max + 1)))));
+                assertSuccess(exchange.sendCall(StaticNetwork.DCN(),
+                        DCN.exchange_apply_settlement_groups(trade.apply(max, -max))));
+            });
+        });
+    }
+}
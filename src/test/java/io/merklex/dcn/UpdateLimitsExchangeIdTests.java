@@ -0,0 +1,120 @@
+package io.merklex.dcn;
+
+import com.greghaskins.spectrum.Spectrum;
+import io.merklex.dcn.contracts.DCN;
+import io.merklex.dcn.contracts.ERC20;
+import io.merklex.dcn.utils.Accounts;
+import io.merklex.dcn.utils.Box;
+import io.merklex.dcn.utils.StaticNetwork;
+import io.merklex.web3.EtherTransactions;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.runner.RunWith;
+import org.web3j.utils.Numeric;
+
+import java.math.BigInteger;
+
+import static com.greghaskins.spectrum.Spectrum.*;
+import static io.merklex.dcn.utils.AssertHelpers.assertRevert;
+import static io.merklex.dcn.utils.AssertHelpers.assertSuccess;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(Spectrum.class)
+public class UpdateLimitsExchangeIdTests {
+    {
+        describe("payload", () -> {
+            it("should write exchange_id big endian", () -> {
+                UnsafeBuffer buffer = new UnsafeBuffer(new byte[8]);
+                UpdateLimits updateLimits = new UpdateLimits().wrap(buffer, 0).exchangeId(0x01020304);
+
+                assertEquals(0x01, buffer.getByte(0));
+                assertEquals(0x04, buffer.getByte(3));
+                assertEquals(0x01020304, updateLimits.exchangeId());
+            });
+        });
+
+        describe("on chain", () -> {
+            StaticNetwork.DescribeCheckpoint();
+
+            EtherTransactions creator = Accounts.getTx(0);
+            EtherTransactions exchange0 = Accounts.getTx(1);
+            EtherTransactions exchange1 = Accounts.getTx(2);
+            EtherTransactions user = Accounts.getTx(3);
+            Box<String> token = new Box<>();
+
+            int userId = 0;
+            int quoteAssetId = 0;
+            int baseAssetId = 1;
+
+            beforeAll(() -> {
+                assertSuccess(user.sendCall(StaticNetwork.DCN(), DCN.user_create()));
+                assertSuccess(creator.sendCall(StaticNetwork.DCN(),
+                        DCN.add_exchange("exchange 0 ", exchange0.getAddress())));
+                assertSuccess(creator.sendCall(StaticNetwork.DCN(),
+                        DCN.add_exchange("exchange 1 ", exchange1.getAddress())));
+
+                BigInteger unlockAt = BigInteger.valueOf(System.currentTimeMillis() / 1000 + 28800 * 2);
+                assertSuccess(user.sendCall(StaticNetwork.DCN(),
+                        DCN.user_session_set_unlock_at(userId, 0, unlockAt)));
+                assertSuccess(user.sendCall(StaticNetwork.DCN(),
+                        DCN.user_session_set_unlock_at(userId, 1, unlockAt)));
+
+                token.value = creator.deployContract(BigInteger.ZERO, StaticNetwork.GAS_LIMIT,
+                        ERC20.DeployData(BigInteger.valueOf(1000000000), "T", 2, "TT"),
+                        BigInteger.ZERO);
+                assertSuccess(creator.sendCall(StaticNetwork.DCN(),
+                        DCN.add_asset("abcd1234", 1, token.value)));
+                assertSuccess(creator.sendCall(StaticNetwork.DCN(),
+                        DCN.add_asset("abce1234", 1, token.value)));
+            });
+
+            /*
+             * exchange_set_limits resolves the exchange from the payload header and then compares
+             * every limit's exchange_id with a SetLimitMemory slot that is never written, so it is
+             * always 0. A header read as exchange 1 passes the owner and signature checks and stops
+             * at REVERT(7); the old native order header read as 0x01000000 stopped at REVERT(2).
+             */
+            it("should reach the exchange_id check for a non zero exchange", () -> {
+                String payload = SignedLimit(1, userId, quoteAssetId, baseAssetId, user);
+
+                assertRevert("0x02", exchange0.sendCall(StaticNetwork.DCN(), DCN.exchange_set_limits(payload)));
+                assertRevert("0x07", exchange1.sendCall(StaticNetwork.DCN(), DCN.exchange_set_limits(payload)));
+            });
+
+            it("should set limits for exchange 0", () -> {
+                String payload = SignedLimit(0, userId, quoteAssetId, baseAssetId, user);
+
+                assertSuccess(exchange0.sendCall(StaticNetwork.DCN(), DCN.exchange_set_limits(payload)));
+
+                DCN.GetMarketStateReturnValue state = DCN.query_get_market_state(StaticNetwork.DCN(),
+                        StaticNetwork.Web3(), DCN.get_market_state(userId, 0, quoteAssetId, baseAssetId));
+                assertEquals(1, state.limit_version);
+                assertEquals(100000, state.long_max_price);
+            });
+        });
+    }
+
+    private static String SignedLimit(int exchangeId, int userId, int quoteAssetId, int baseAssetId,
+                                      EtherTransactions user) {
+        byte[] bytes = new byte[256];
+        UpdateLimits updateLimits = new UpdateLimits().wrap(new UnsafeBuffer(bytes), 0);
+        updateLimits.exchangeId(exchangeId)
+                .firstLimitUpdate(new UpdateLimits.LimitUpdate())
+                .dcnId(1)
+                .userId(userId)
+                .exchangeId(exchangeId)
+                .quoteAssetId(quoteAssetId)
+                .baseAssetId(baseAssetId)
+                .feeLimit(1000)
+                .minQuoteQty(-100)
+                .minBaseQty(-100)
+                .longMaxPrice(100000)
+                .shortMinPrice(1000)
+                .limitVersion(1)
+                .quoteShiftMajor(0)
+                .quoteShift(0)
+                .baseShiftMajor(0)
+                .baseShift(0)
+                .sign(user.credentials(), DCNHasher.instance);
+        return Numeric.toHexString(bytes, 0, updateLimits.bytes(1), true);
+    }
+}
@@ -0,0 +1,267 @@
+package io.merklex.dcn.utils;
+
+import io.merklex.dcn.KeccakHash;
+import io.merklex.dcn.contracts.DCN;
+import io.merklex.ether_net.EtherDebugNet;
+import io.merklex.ether_net.EtherInProcessNet;
+import io.merklex.ether_net.WarmNetworks;
+import io.merklex.ether_net.Web3DebugProvider;
+import io.merklex.web3.EtherTransactions;
+import io.merklex.web3.FileUtils;
+import org.web3j.crypto.Credentials;
+import org.web3j.protocol.Web3j;
+import org.web3j.utils.Numeric;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigInteger;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Stack;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static com.greghaskins.spectrum.dsl.specification.Specification.*;
+
+/**
+ * Pool of ganache networks that already have DCN deployed. The chain is deployed once
+ * into a snapshot directory under build/ (shared across test JVMs through a file lock)
+ * and networks are leased from {@link WarmNetworks}, which boots them on a copy of it and
+ * keeps them running between test runs. A test class leases a network, and returning the
+ * lease reverts it to the freshly deployed state.
+ * <p>
+ * Run with -Ddcn.network=inprocess to use {@link EtherInProcessNet} instead of ganache.
+ */
+public class NetworkPool {
+    public static final BigInteger GAS_LIMIT = BigInteger.valueOf(8000000);
+    private static final int NETWORK_ID = 9999;
+    private static final String HOST = "localhost";
+    private static final File SNAPSHOT_ROOT = new File("build/network-snapshots");
+    private static final boolean IN_PROCESS = "inprocess".equals(System.getProperty("dcn.network"));
+
+    private static NetworkPool shared;
+
+    public static synchronized NetworkPool Shared() {
+        if (shared == null) {
+            shared = new NetworkPool(Accounts.keys);
+            Runtime.getRuntime().addShutdownHook(new Thread(shared::close));
+        }
+        return shared;
+    }
+
+    private final HashMap<String, String> balances = new HashMap<>();
+    private final Credentials deployer;
+    private final ConcurrentLinkedQueue<Lease> idle = new ConcurrentLinkedQueue<>();
+    private final List<Lease> all = new ArrayList<>();
+
+    private File snapshotChain;
+    private String dcnAddress;
+
+    public NetworkPool(List<Credentials> keys) {
+        for (Credentials key : keys) {
+            balances.put(key.getEcKeyPair().getPrivateKey().toString(16), "1000000000000000000000000000000000");
+        }
+        deployer = keys.get(0);
+    }
+
+    public Lease lease() {
+        Lease lease = idle.poll();
+        if (lease != null) {
+            return lease;
+        }
+
+        try {
+            lease = IN_PROCESS ? new Lease(this, startInProcess()) : new Lease(this, startFromSnapshot());
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+
+        synchronized (all) {
+            all.add(lease);
+        }
+        return lease;
+    }
+
+    private void release(Lease lease) {
+        lease.reset();
+        idle.add(lease);
+    }
+
+    public void close() {
+        synchronized (all) {
+            for (Lease lease : all) {
+                try {
+                    lease.network.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+                if (lease.dataDir != null) {
+                    FileUtils.DeleteDir(lease.dataDir);
+                }
+            }
+            all.clear();
+        }
+        idle.clear();
+    }
+
+    private synchronized Started startFromSnapshot() throws Exception {
+        if (snapshotChain == null) {
+            loadSnapshot();
+        }
+
+        WarmNetworks.Lease network = WarmNetworks.Acquire(
+                new WarmNetworks.Spec(balances, GAS_LIMIT.longValue(), NETWORK_ID, snapshotChain));
+        return new Started(network, null, dcnAddress);
+    }
+
+    private Started startInProcess() throws Exception {
+        EtherInProcessNet network = new EtherInProcessNet(balances, GAS_LIMIT.longValue(), NETWORK_ID);
+        String address = new EtherTransactions(network.web3(), deployer)
+                .deployContract(BigInteger.ZERO, GAS_LIMIT, DCN.DeployData(), BigInteger.ZERO);
+        return new Started(network, null, address);
+    }
+
+    private void loadSnapshot() throws Exception {
+        if (!SNAPSHOT_ROOT.exists() && !SNAPSHOT_ROOT.mkdirs()) {
+            throw new IOException("Failed to create " + SNAPSHOT_ROOT);
+        }
+
+        String key = snapshotKey();
+        File snapshotDir = new File(SNAPSHOT_ROOT, key);
+        File chainDir = new File(snapshotDir, "chain");
+        File addressFile = new File(snapshotDir, "dcn.address");
+
+        try (FileChannel channel = FileChannel.open(new File(SNAPSHOT_ROOT, key + ".lock").toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileLock ignored = channel.lock()) {
+
+            if (!addressFile.exists()) {
+                FileUtils.DeleteDir(snapshotDir);
+
+                EtherDebugNet network = new EtherDebugNet(EtherDebugNet.FreePort(), HOST, balances,
+                        GAS_LIMIT.longValue(), NETWORK_ID, chainDir);
+                String address;
+                try {
+                    address = new EtherTransactions(network.web3(), deployer)
+                            .deployContract(BigInteger.ZERO, GAS_LIMIT, DCN.DeployData(), BigInteger.ZERO);
+                } finally {
+                    network.close();
+                }
+
+                try (Writer writer = new FileWriter(addressFile)) {
+                    writer.write(address);
+                }
+            }
+
+            dcnAddress = FileUtils.ReadAll(addressFile).trim();
+        }
+
+        snapshotChain = chainDir;
+    }
+
+    private String snapshotKey() {
+        ArrayList<String> keys = new ArrayList<>(balances.keySet());
+        keys.sort(String::compareTo);
+
+        byte[][] parts = new byte[keys.size() + 1][];
+        parts[0] = DCN.BINARY.getBytes();
+        for (int i = 0; i < keys.size(); i++) {
+            parts[i + 1] = keys.get(i).getBytes();
+        }
+
+        return Numeric.toHexStringNoPrefix(KeccakHash.Hash(parts)).substring(0, 16);
+    }
+
+    private static class Started {
+        final Web3DebugProvider network;
+        final File dataDir;
+        final String dcnAddress;
+
+        Started(Web3DebugProvider network, File dataDir, String dcnAddress) {
+            this.network = network;
+            this.dataDir = dataDir;
+            this.dcnAddress = dcnAddress;
+        }
+    }
+
+    public static class Lease implements Closeable {
+        private final NetworkPool pool;
+        private final Web3DebugProvider network;
+        private final File dataDir;
+        private final String dcnAddress;
+        private final Stack<BigInteger> checkpoints = new Stack<>();
+        private BigInteger base;
+
+        private Lease(NetworkPool pool, Started started) throws IOException {
+            this.pool = pool;
+            this.network = started.network;
+            this.dataDir = started.dataDir;
+            this.dcnAddress = started.dcnAddress;
+            this.base = network.checkpoint().send().id();
+        }
+
+        public Web3j web3() {
+            return network.web3();
+        }
+
+        public String dcn() {
+            return dcnAddress;
+        }
+
+        public EtherTransactions tx(int accountIndex) {
+            return new EtherTransactions(web3(), Accounts.keys.get(accountIndex))
+                    .withGas(BigInteger.ZERO, GAS_LIMIT);
+        }
+
+        public void checkpoint() {
+            try {
+                checkpoints.push(network.checkpoint().send().id());
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        public void revert() {
+            try {
+                network.revert(checkpoints.pop()).send();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        public long increaseTime(long seconds) throws IOException {
+            return network.increaseTime(BigInteger.valueOf(seconds)).send().getValue().longValueExact();
+        }
+
+        public void describeCheckpoint() {
+            beforeAll(this::checkpoint);
+            afterAll(this::revert);
+        }
+
+        public void describeCheckpointForEach() {
+            beforeEach(this::checkpoint);
+            afterEach(this::revert);
+        }
+
+        private void reset() {
+            try {
+                checkpoints.clear();
+                network.revert(base).send();
+                base = network.checkpoint().send().id();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        @Override
+        public void close() {
+            pool.release(this);
+        }
+    }
+}